@@ -0,0 +1,296 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.model.entity.*;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministic synthetic data for the benchmarks: entity graphs shaped like a real library and small book files
+ * written to a temp directory, so no binary fixtures have to live in the repository.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] WORDS = {
+            "shadow", "river", "empire", "garden", "winter", "machine", "silent", "crown", "ocean", "memory",
+            "stone", "light", "hollow", "forest", "signal", "harbor", "glass", "iron", "summer", "archive"
+    };
+    private static final String[] FIRST_NAMES = {"Ada", "Jorge", "Ursula", "Haruki", "Octavia", "Italo", "Toni", "Kazuo", "Chimamanda", "Stanisław"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Borges", "Le Guin", "Murakami", "Butler", "Calvino", "Morrison", "Ishiguro", "Adichie", "Lem"};
+    private static final String[] CATEGORIES = {"Fiction", "Science Fiction", "Fantasy", "History", "Biography", "Mystery", "Poetry", "Philosophy", "Travel", "Horror"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<BookEntity> library(int size, long seed) {
+        Random random = new Random(seed);
+        LibraryEntity library = LibraryEntity.builder().id(1L).name("Benchmark Library").build();
+        LibraryPathEntity libraryPath = LibraryPathEntity.builder().id(1L).library(library).path("/books").build();
+        BookLoreUserEntity user = BookLoreUserEntity.builder().id(1L).username("reader").build();
+        List<ShelfEntity> shelves = List.of(
+                ShelfEntity.builder().id(1L).name("Favorites").user(user).build(),
+                ShelfEntity.builder().id(2L).name("To Read").user(user).build(),
+                ShelfEntity.builder().id(3L).name("Kobo").user(user).build());
+
+        List<BookEntity> books = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            books.add(book(id, random, library, libraryPath, shelves));
+        }
+        return books;
+    }
+
+    private static BookEntity book(long id, Random random, LibraryEntity library, LibraryPathEntity libraryPath, List<ShelfEntity> shelves) {
+        String title = capitalize(word(random)) + " of the " + capitalize(word(random)) + " " + capitalize(word(random));
+        Set<AuthorEntity> authors = new HashSet<>();
+        for (int i = 0; i <= random.nextInt(2); i++) {
+            authors.add(AuthorEntity.builder().id((long) random.nextInt(500)).name(authorName(random)).build());
+        }
+        Set<CategoryEntity> categories = new HashSet<>();
+        for (int i = 0; i <= random.nextInt(3); i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            categories.add(CategoryEntity.builder().id((long) category).name(CATEGORIES[category]).build());
+        }
+        Set<TagEntity> tags = new HashSet<>();
+        for (int i = 0; i < random.nextInt(4); i++) {
+            tags.add(TagEntity.builder().id((long) random.nextInt(100)).name(word(random)).build());
+        }
+        Set<MoodEntity> moods = new HashSet<>();
+        if (random.nextBoolean()) {
+            moods.add(MoodEntity.builder().id((long) random.nextInt(20)).name(word(random)).build());
+        }
+        boolean inSeries = random.nextInt(3) == 0;
+
+        BookEntity book = BookEntity.builder()
+                .id(id)
+                .fileName(title + ".epub")
+                .fileSubPath("authors/" + id % 97)
+                .bookType(random.nextInt(4) == 0 ? BookFileType.PDF : BookFileType.EPUB)
+                .fileSizeKb(200L + random.nextInt(20_000))
+                .library(library)
+                .libraryPath(libraryPath)
+                .addedOn(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id * 3600))
+                .shelves(new HashSet<>(shelves.subList(0, random.nextInt(shelves.size() + 1))))
+                .build();
+        book.setMetadata(BookMetadataEntity.builder()
+                .bookId(id)
+                .book(book)
+                .title(title)
+                .subtitle(random.nextBoolean() ? "A Novel" : null)
+                .publisher(capitalize(word(random)) + " House")
+                .publishedDate(LocalDate.of(1950 + random.nextInt(75), 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                .description(sentence(random, 60 + random.nextInt(120)))
+                .seriesName(inSeries ? "The " + capitalize(word(random)) + " Cycle" : null)
+                .seriesNumber(inSeries ? (float) (1 + random.nextInt(9)) : null)
+                .isbn13("978" + (1_000_000_000L + random.nextInt(900_000_000)))
+                .pageCount(100 + random.nextInt(800))
+                .language("en")
+                .rating(1 + random.nextDouble() * 4)
+                .authors(authors)
+                .categories(categories)
+                .tags(tags)
+                .moods(moods)
+                .build());
+        return book;
+    }
+
+    static BufferedImage image(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int base = random.nextInt(0xFFFFFF);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Gradient plus noise, so encoders and scalers can't take shortcuts on flat areas
+                int r = ((base >> 16) + x * 255 / width + random.nextInt(16)) & 0xFF;
+                int g = ((base >> 8) + y * 255 / height + random.nextInt(16)) & 0xFF;
+                int b = (base + (x ^ y) + random.nextInt(16)) & 0xFF;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    static byte[] jpeg(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static Path randomFile(Path dir, String name, long bytes, long seed) throws IOException {
+        Path file = dir.resolve(name);
+        Random random = new Random(seed);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < bytes; written += chunk.length) {
+                random.nextBytes(chunk);
+                out.write(chunk, 0, (int) Math.min(chunk.length, bytes - written));
+            }
+        }
+        return file;
+    }
+
+    static Path epub(Path dir, byte[] cover) throws IOException {
+        Path file = dir.resolve("fixture.epub");
+        String opf = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <package xmlns="http://www.idpf.org/2007/opf" version="3.0" unique-identifier="uid">
+                    <metadata xmlns:dc="http://purl.org/dc/elements/1.1/" xmlns:opf="http://www.idpf.org/2007/opf">
+                        <dc:identifier id="uid">urn:isbn:9780441013593</dc:identifier>
+                        <dc:title>The Shadow of the Silent Archive</dc:title>
+                        <dc:creator opf:role="aut">Ursula Le Guin</dc:creator>
+                        <dc:creator opf:role="aut">Italo Calvino</dc:creator>
+                        <dc:publisher>Harbor House</dc:publisher>
+                        <dc:language>en</dc:language>
+                        <dc:date>2001-05-04</dc:date>
+                        <dc:subject>Science Fiction</dc:subject>
+                        <dc:subject>Fantasy</dc:subject>
+                        <dc:description>%s</dc:description>
+                        <meta name="calibre:series" content="The Winter Cycle"/>
+                        <meta name="calibre:series_index" content="3"/>
+                        <meta name="cover" content="cover-image"/>
+                    </metadata>
+                    <manifest>
+                        <item id="cover-image" href="images/cover.jpg" media-type="image/jpeg" properties="cover-image"/>
+                        <item id="chapter1" href="chapter1.xhtml" media-type="application/xhtml+xml"/>
+                    </manifest>
+                    <spine>
+                        <itemref idref="chapter1"/>
+                    </spine>
+                </package>
+                """.formatted(sentence(new Random(7), 150));
+        String container = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+                    <rootfiles>
+                        <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+                    </rootfiles>
+                </container>
+                """;
+        String chapter = "<html xmlns=\"http://www.w3.org/1999/xhtml\"><body><p>" + sentence(new Random(11), 5_000) + "</p></body></html>";
+
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            putEntry(zip, "mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+            putEntry(zip, "META-INF/container.xml", container.getBytes(StandardCharsets.UTF_8));
+            putEntry(zip, "OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+            putEntry(zip, "OEBPS/chapter1.xhtml", chapter.getBytes(StandardCharsets.UTF_8));
+            putEntry(zip, "OEBPS/images/cover.jpg", cover);
+        }
+        return file;
+    }
+
+    static Path pdf(Path dir, byte[] cover, int pages) throws IOException {
+        Path file = dir.resolve("fixture.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = document.getDocumentInformation();
+            info.setTitle("The Shadow of the Silent Archive");
+            info.setAuthor("Ursula Le Guin; Italo Calvino");
+            info.setSubject("Science Fiction");
+            info.setKeywords("fantasy, archive, winter");
+            info.setCreator("Booklore benchmark");
+
+            PDImageXObject image = JPEGFactory.createFromByteArray(document, cover);
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage(PDRectangle.A5);
+                document.addPage(page);
+                if (i == 0) {
+                    try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                        content.drawImage(image, 0, 0, PDRectangle.A5.getWidth(), PDRectangle.A5.getHeight());
+                    }
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    static Path cbz(Path dir, int pages, int width, int height) throws IOException {
+        Path file = dir.resolve("fixture.cbz");
+        String comicInfo = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <ComicInfo xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+                    <Title>The Iron Harbor</Title>
+                    <Series>Signal</Series>
+                    <Number>12</Number>
+                    <Count>40</Count>
+                    <Year>2019</Year>
+                    <Month>6</Month>
+                    <Writer>Octavia Butler</Writer>
+                    <Penciller>Jorge Borges</Penciller>
+                    <Publisher>Glass Comics</Publisher>
+                    <Genre>Science Fiction, Mystery</Genre>
+                    <PageCount>%d</PageCount>
+                    <Pages>
+                        <Page Image="0" Type="FrontCover"/>
+                    </Pages>
+                </ComicInfo>
+                """.formatted(pages);
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            putEntry(zip, "ComicInfo.xml", comicInfo.getBytes(StandardCharsets.UTF_8));
+            for (int page = 1; page <= pages; page++) {
+                putEntry(zip, String.format("page-%03d.jpg", page), jpeg(image(width, height, page)));
+            }
+        }
+        return file;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? capitalize(word(random)) : word(random)).append(i % 12 == 11 ? ". " : " ");
+        }
+        return text.toString().trim();
+    }
+
+    private static String authorName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.mapper.ShelfMapperImpl;
+import com.adityachandel.booklore.mapper.v2.BookMapperV2;
+import com.adityachandel.booklore.mapper.v2.BookMapperV2Impl;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for a page of books with authors, categories, tags, moods and shelves attached, as done for
+ * every library listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookMapperBenchmark {
+
+    @Param({"100", "1000"})
+    int pageSize;
+
+    private BookMapperV2 mapper;
+    private List<BookEntity> books;
+
+    @Setup
+    public void setUp() {
+        BookMapperV2Impl mapperImpl = new BookMapperV2Impl();
+        // Wired by Spring in the application
+        Field shelfMapper = ReflectionUtils.findField(BookMapperV2Impl.class, "shelfMapper");
+        ReflectionUtils.makeAccessible(shelfMapper);
+        ReflectionUtils.setField(shelfMapper, mapperImpl, new ShelfMapperImpl());
+        mapper = mapperImpl;
+        books = BenchmarkFixtures.library(pageSize, 42);
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (BookEntity book : books) {
+            blackhole.consume(mapper.toDTO(book));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.dto.settings.CoverCroppingSettings;
+import com.adityachandel.booklore.repository.BookMetadataRepository;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
+import com.adityachandel.booklore.util.FileService;
+import com.adityachandel.booklore.util.ImageScaler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cover generation: the pixel-array scaler against the getScaledInstance resize FileService used before, and the full
+ * crop, scale and write of a cover and its thumbnail. Source sizes go from a typical EPUB cover to a full-page comic
+ * scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CoverImageBenchmark {
+
+    private static final int THUMBNAIL_WIDTH = 250;
+    private static final int THUMBNAIL_HEIGHT = 350;
+
+    @Param({"600x900", "1600x2400", "3000x4500"})
+    String sourceSize;
+
+    private BufferedImage source;
+    private Path pathConfig;
+    private FileService fileService;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] size = sourceSize.split("x");
+        source = BenchmarkFixtures.image(Integer.parseInt(size[0]), Integer.parseInt(size[1]), 42);
+
+        pathConfig = Files.createTempDirectory("booklore-bench-covers");
+        AppProperties appProperties = new AppProperties();
+        appProperties.setPathConfig(pathConfig.toString());
+        AppSettingService appSettingService = mock(AppSettingService.class);
+        when(appSettingService.getAppSettings()).thenReturn(AppSettings.builder()
+                .coverCroppingSettings(CoverCroppingSettings.builder()
+                        .verticalCroppingEnabled(true)
+                        .horizontalCroppingEnabled(true)
+                        .aspectRatioThreshold(2.5)
+                        .build())
+                .build());
+        fileService = new FileService(appProperties, mock(RestTemplate.class), appSettingService,
+                mock(BookMetadataRepository.class), new BookloreMetrics(new SimpleMeterRegistry()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(pathConfig);
+    }
+
+    @Benchmark
+    public BufferedImage scaledInstance() {
+        Image scaled = source.getScaledInstance(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, Image.SCALE_SMOOTH);
+        BufferedImage resized = new BufferedImage(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = resized.createGraphics();
+        g2d.drawImage(scaled, 0, 0, null);
+        g2d.dispose();
+        return resized;
+    }
+
+    @Benchmark
+    public BufferedImage imageScaler() {
+        return ImageScaler.scale(source, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+    }
+
+    @Benchmark
+    public boolean saveCoverImages() throws IOException {
+        return fileService.saveCoverImages(source, 1L);
+    }
+}
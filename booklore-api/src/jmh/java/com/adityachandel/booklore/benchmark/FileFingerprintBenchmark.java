@@ -0,0 +1,40 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.service.file.FileFingerprint;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing a book file during a scan. The fingerprint samples blocks, so the cost should stay flat as files grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileFingerprintBenchmark {
+
+    @Param({"1048576", "52428800"})
+    long fileSize;
+
+    private Path dir;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("booklore-bench-fingerprint");
+        file = BenchmarkFixtures.randomFile(dir, "book.bin", fileSize, 42);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public String generateHash() {
+        return FileFingerprint.generateHash(file);
+    }
+}
@@ -0,0 +1,75 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.service.metadata.extractor.CbxMetadataExtractor;
+import com.adityachandel.booklore.service.metadata.extractor.EpubMetadataExtractor;
+import com.adityachandel.booklore.service.metadata.extractor.PdfMetadataExtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata and cover extraction per format, the parsing half of ingesting one file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetadataExtractorBenchmark {
+
+    private final EpubMetadataExtractor epubExtractor = new EpubMetadataExtractor();
+    private final PdfMetadataExtractor pdfExtractor = new PdfMetadataExtractor();
+    private final CbxMetadataExtractor cbxExtractor = new CbxMetadataExtractor();
+
+    private Path dir;
+    private File epub;
+    private File pdf;
+    private File cbz;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("booklore-bench-extractors");
+        byte[] cover = BenchmarkFixtures.jpeg(BenchmarkFixtures.image(1200, 1800, 42));
+        epub = BenchmarkFixtures.epub(dir, cover).toFile();
+        pdf = BenchmarkFixtures.pdf(dir, cover, 50).toFile();
+        cbz = BenchmarkFixtures.cbz(dir, 24, 1200, 1800).toFile();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public BookMetadata epubMetadata() {
+        return epubExtractor.extractMetadata(epub);
+    }
+
+    @Benchmark
+    public byte[] epubCover() {
+        return epubExtractor.extractCover(epub);
+    }
+
+    @Benchmark
+    public BookMetadata pdfMetadata() {
+        return pdfExtractor.extractMetadata(pdf);
+    }
+
+    @Benchmark
+    public byte[] pdfCover() {
+        return pdfExtractor.extractCover(pdf);
+    }
+
+    @Benchmark
+    public BookMetadata cbzMetadata() {
+        return cbxExtractor.extractMetadata(cbz);
+    }
+
+    @Benchmark
+    public byte[] cbzCover() {
+        return cbxExtractor.extractCover(cbz);
+    }
+}
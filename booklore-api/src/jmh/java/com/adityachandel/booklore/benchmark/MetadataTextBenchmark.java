@@ -0,0 +1,80 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.service.bookdrop.BookdropMetadataHelper;
+import com.adityachandel.booklore.service.bookdrop.FilenamePatternExtractor;
+import com.adityachandel.booklore.util.BookUtils;
+import com.adityachandel.booklore.util.PathPatternResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * String work done per book on ingest and file moves: search text, file naming patterns and bookdrop filename parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetadataTextBenchmark {
+
+    private static final String MOVE_PATTERN = "{authors}/<{series}/><{seriesIndex}. >{title}< - {subtitle}>< ({year})>";
+    private static final String SIMPLE_PATTERN = "{authors} - {title}";
+    private static final String SERIES_FILENAME = "The Winter Cycle - Ch 12.cbz";
+    private static final String SERIES_PATTERN = "{SeriesName} - Ch {SeriesNumber}";
+    private static final String AUTHOR_FILENAME = "Ursula Le Guin - The Shadow of the Silent Archive.epub";
+    private static final String AUTHOR_PATTERN = "{Authors} - {Title}";
+
+    private List<BookEntity> books;
+    private FilenamePatternExtractor filenamePatternExtractor;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkFixtures.library(100, 42);
+        filenamePatternExtractor = new FilenamePatternExtractor(mock(BookdropFileRepository.class), mock(BookdropMetadataHelper.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        filenamePatternExtractor.shutdownRegexExecutor();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void buildSearchText(Blackhole blackhole) {
+        for (BookEntity book : books) {
+            blackhole.consume(BookUtils.buildSearchText(book.getMetadata()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void resolveMovePattern(Blackhole blackhole) {
+        for (BookEntity book : books) {
+            blackhole.consume(PathPatternResolver.resolvePattern(book, MOVE_PATTERN));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void resolveSimplePattern(Blackhole blackhole) {
+        for (BookEntity book : books) {
+            blackhole.consume(PathPatternResolver.resolvePattern(book, SIMPLE_PATTERN));
+        }
+    }
+
+    @Benchmark
+    public BookMetadata extractSeriesFromFilename() {
+        return filenamePatternExtractor.extractFromFilename(SERIES_FILENAME, SERIES_PATTERN);
+    }
+
+    @Benchmark
+    public BookMetadata extractAuthorsFromFilename() {
+        return filenamePatternExtractor.extractFromFilename(AUTHOR_FILENAME, AUTHOR_PATTERN);
+    }
+}
@@ -0,0 +1,154 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.service.metadata.writer.CbxMetadataWriter;
+import com.adityachandel.booklore.service.metadata.writer.EpubMetadataWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writing metadata back into a book file. The writers replace only the OPF or ComicInfo.xml and copy every other
+ * entry raw; the repack baselines do what the writers did before, inflating and deflating the whole archive (EPUBs
+ * additionally went through a backup copy and a temp directory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetadataWriterBenchmark {
+
+    private static final String OPF_ENTRY = "OEBPS/content.opf";
+    private static final String COMIC_INFO_ENTRY = "ComicInfo.xml";
+
+    @Param({"24", "96"})
+    int cbzPages;
+
+    private final EpubMetadataWriter epubWriter = new EpubMetadataWriter();
+    private final CbxMetadataWriter cbxWriter = new CbxMetadataWriter();
+
+    private Path dir;
+    private File epub;
+    private File cbz;
+    private long invocation;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("booklore-bench-writers");
+        byte[] cover = BenchmarkFixtures.jpeg(BenchmarkFixtures.image(1200, 1800, 42));
+        epub = BenchmarkFixtures.epub(dir, cover).toFile();
+        cbz = BenchmarkFixtures.cbz(dir, cbzPages, 1200, 1800).toFile();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public long epubRewrite() {
+        epubWriter.writeMetadataToFile(epub, metadata(), null, null);
+        return epub.length();
+    }
+
+    @Benchmark
+    public long epubRepack() throws IOException {
+        Path file = epub.toPath();
+        Path backup = dir.resolve(file.getFileName() + ".bak");
+        Files.copy(file, backup, StandardCopyOption.REPLACE_EXISTING);
+        Path extracted = Files.createTempDirectory(dir, "epub_edit_");
+        try {
+            List<String> names = extract(file, extracted);
+            Path opf = extracted.resolve(OPF_ENTRY);
+            String xml = Files.readString(opf).replaceFirst("<dc:title>[^<]*</dc:title>", "<dc:title>" + nextTitle() + "</dc:title>");
+            Files.writeString(opf, xml);
+            Path temp = Files.createTempFile(dir, "epub", ".tmp");
+            try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(temp))) {
+                for (String name : names) {
+                    zos.putNextEntry(new ZipEntry(name));
+                    Files.copy(extracted.resolve(name), zos);
+                    zos.closeEntry();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            BenchmarkFixtures.deleteRecursively(extracted);
+            Files.deleteIfExists(backup);
+        }
+        return epub.length();
+    }
+
+    @Benchmark
+    public long cbzRewrite() {
+        cbxWriter.writeMetadataToFile(cbz, metadata(), null, null);
+        return cbz.length();
+    }
+
+    @Benchmark
+    public long cbzRepack() throws IOException {
+        byte[] comicInfo = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <ComicInfo><Title>%s</Title></ComicInfo>
+                """.formatted(nextTitle()).getBytes(StandardCharsets.UTF_8);
+        Path temp = Files.createTempFile(dir, "cbz", ".tmp");
+        try (ZipFile zipFile = new ZipFile(cbz);
+             ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(temp))) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().equals(COMIC_INFO_ENTRY)) {
+                    continue;
+                }
+                zos.putNextEntry(new ZipEntry(entry.getName()));
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    in.transferTo(zos);
+                }
+                zos.closeEntry();
+            }
+            zos.putNextEntry(new ZipEntry(COMIC_INFO_ENTRY));
+            zos.write(comicInfo);
+            zos.closeEntry();
+        }
+        Files.move(temp, cbz.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return cbz.length();
+    }
+
+    private BookMetadataEntity metadata() {
+        return BookMetadataEntity.builder().title(nextTitle()).build();
+    }
+
+    // A new title on every call, so the writers never skip an unchanged file
+    private String nextTitle() {
+        return "The Shadow of the Silent Archive " + invocation++;
+    }
+
+    private static List<String> extract(Path zip, Path target) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zip))) {
+            List<String> names = new ArrayList<>();
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                Path out = target.resolve(entry.getName());
+                Files.createDirectories(out.getParent());
+                try (OutputStream os = Files.newOutputStream(out)) {
+                    zis.transferTo(os);
+                }
+                names.add(entry.getName());
+            }
+            return names;
+        }
+    }
+}
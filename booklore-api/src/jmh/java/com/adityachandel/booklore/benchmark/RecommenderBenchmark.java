@@ -0,0 +1,62 @@
+package com.adityachandel.booklore.benchmark;
+
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.service.recommender.BookSimilarityService;
+import com.adityachandel.booklore.service.recommender.BookVectorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring a book against a library slice, the inner loop of recommendation refreshes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecommenderBenchmark {
+
+    @Param({"1000"})
+    int librarySize;
+
+    private final BookSimilarityService similarityService = new BookSimilarityService();
+    private final BookVectorService vectorService = new BookVectorService();
+
+    private List<BookEntity> books;
+    private double[][] embeddings;
+    private BookEntity target;
+    private double[] targetEmbedding;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkFixtures.library(librarySize, 42);
+        embeddings = new double[books.size()][];
+        for (int i = 0; i < books.size(); i++) {
+            embeddings[i] = vectorService.generateEmbedding(books.get(i));
+        }
+        target = books.getFirst();
+        targetEmbedding = embeddings[0];
+    }
+
+    @Benchmark
+    public void calculateSimilarity(Blackhole blackhole) {
+        for (BookEntity candidate : books) {
+            blackhole.consume(similarityService.calculateSimilarity(target, candidate));
+        }
+    }
+
+    @Benchmark
+    public void generateEmbedding(Blackhole blackhole) {
+        for (BookEntity book : books) {
+            blackhole.consume(vectorService.generateEmbedding(book));
+        }
+    }
+
+    @Benchmark
+    public void cosineSimilarity(Blackhole blackhole) {
+        for (double[] embedding : embeddings) {
+            blackhole.consume(vectorService.cosineSimilarity(targetEmbedding, embedding));
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.adityachandel.booklore.loadtest;
+
+import com.adityachandel.booklore.model.dto.LibraryPath;
+import com.adityachandel.booklore.model.dto.kobo.KoboHeaders;
+import com.adityachandel.booklore.model.dto.request.CreateLibraryRequest;
+import com.adityachandel.booklore.model.dto.request.InitialUserRequest;
+import com.adityachandel.booklore.model.dto.request.UserLoginRequest;
+import com.adityachandel.booklore.model.dto.settings.AppSettingKey;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.IconType;
+import com.adityachandel.booklore.model.enums.LibraryScanMode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application against a generated library, runs the initial scan and drives the book list, OPDS, Kobo sync
+ * and CBX reader endpoints with scripted workloads. Latency percentiles and throughput per operation are logged and
+ * written as JSON to {@code loadtest.reportDir}, so runs of different releases can be compared.
+ * <p>
+ * Runs on the embedded H2 database by default; pass {@code -Dspring.datasource.url=...} (or the matching environment
+ * variables) to run against a local MariaDB. The Kobo store is replaced by a local stub that returns no entitlements.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LargeLibraryLoadTest {
+
+    private static final int BOOKS = Integer.getInteger("loadtest.books", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 8);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 200);
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final Duration SCAN_TIMEOUT = Duration.ofMinutes(Integer.getInteger("loadtest.scanTimeoutMinutes", 60));
+    private static final int OPDS_PAGE_SIZE = 50;
+    private static final int KOBO_BOOKS_PER_SYNC = 5;
+
+    private static final String USERNAME = "loadtest";
+    private static final String PASSWORD = "load-test-password";
+    private static final Pattern OPDS_NEXT_LINK = Pattern.compile("<link rel=\"next\" href=\"([^\"]+)\"");
+
+    private static final Path WORK_DIR = createWorkDir();
+    private static final HttpServer KOBO_STORE = startKoboStoreStub();
+
+    @LocalServerPort
+    private int port;
+
+    private final LoadReport report = new LoadReport();
+    private final Random random = new Random(SEED);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("app.path-config", () -> WORK_DIR.resolve("data").toString());
+        registry.add("app.bookdrop-folder", () -> WORK_DIR.resolve("bookdrop").toString());
+        registry.add("app.kobo-store-url", () -> "http://localhost:" + KOBO_STORE.getAddress().getPort());
+        registry.add("management.server.port", () -> "0");
+    }
+
+    @AfterAll
+    static void stopKoboStore() {
+        KOBO_STORE.stop(0);
+    }
+
+    @Test
+    void scanAndServeLargeLibrary() throws Exception {
+        SyntheticLibrary library = new SyntheticLibrary(BOOKS, SEED);
+        Path libraryDir = Path.of(System.getProperty("loadtest.libraryDir", WORK_DIR.resolve("library").toString()));
+        SyntheticLibrary.Summary summary = library.generate(libraryDir);
+        report.fact("books", summary.books());
+        report.fact("formats", summary.formats());
+
+        LoadClient client = new LoadClient("http://localhost:" + port, report);
+        String accessToken = setUp(client);
+        String koboToken = client.call(client.bearer("/api/v1/kobo-settings/token", accessToken)
+                .PUT(HttpRequest.BodyPublishers.noBody()).build()).path("token").asText();
+        client.call(client.bearer("/api/v1/kobo-settings", accessToken)
+                .header("Content-Type", "application/json")
+                .PUT(client.json(Map.of("syncEnabled", true, "autoAddToShelf", true)))
+                .build());
+
+        List<Book> books = scan(client, accessToken, libraryDir, summary.books());
+
+        bookList(client, accessToken, books);
+        opds(client, library);
+        koboSync(client, koboToken);
+        cbxReader(client, accessToken, books);
+
+        System.out.println(report.table());
+        Path written = report.write(Path.of(System.getProperty("loadtest.reportDir", WORK_DIR.resolve("reports").toString())));
+        System.out.println("Load test report written to " + written);
+
+        assertThat(books).hasSize(summary.books());
+        assertThat(report.errors()).as("failed requests").isZero();
+    }
+
+    private String setUp(LoadClient client) throws Exception {
+        InitialUserRequest admin = new InitialUserRequest();
+        admin.setUsername(USERNAME);
+        admin.setEmail("loadtest@example.com");
+        admin.setName("Load Test");
+        admin.setPassword(PASSWORD);
+        client.call(client.request("/api/v1/setup").header("Content-Type", "application/json").POST(client.json(admin)).build());
+
+        UserLoginRequest login = new UserLoginRequest();
+        login.setUsername(USERNAME);
+        login.setPassword(PASSWORD);
+        String accessToken = client.call(client.request("/api/v1/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(client.json(login))
+                .build()).path("accessToken").asText();
+
+        client.call(client.bearer("/api/v1/settings", accessToken)
+                .header("Content-Type", "application/json")
+                .PUT(client.json(List.of(Map.of("name", AppSettingKey.OPDS_SERVER_ENABLED.name(), "value", true))))
+                .build());
+        client.call(client.bearer("/api/v2/opds-users", accessToken)
+                .header("Content-Type", "application/json")
+                .POST(client.json(Map.of("username", USERNAME, "password", PASSWORD)))
+                .build());
+        return accessToken;
+    }
+
+    /**
+     * Creates the library and polls the book list until every generated file has been imported.
+     */
+    private List<Book> scan(LoadClient client, String accessToken, Path libraryDir, int expected) throws Exception {
+        CreateLibraryRequest request = CreateLibraryRequest.builder()
+                .name("Load Test Library")
+                .icon("pi pi-book")
+                .iconType(IconType.PRIME_NG)
+                .paths(List.of(LibraryPath.builder().path(libraryDir.toString()).build()))
+                .watch(false)
+                .scanMode(LibraryScanMode.FILE_AS_BOOK)
+                .build();
+
+        long start = System.nanoTime();
+        client.call(client.bearer("/api/v1/libraries", accessToken)
+                .header("Content-Type", "application/json")
+                .POST(client.json(request))
+                .build());
+
+        List<Book> books = List.of();
+        long deadline = start + SCAN_TIMEOUT.toNanos();
+        while (books.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(2_000);
+            books = listBooks(client, accessToken);
+        }
+        long elapsed = System.nanoTime() - start;
+        report.fact("scan.seconds", Math.round(elapsed / 1e7) / 100.0);
+        report.fact("scan.booksPerSecond", Math.round(books.size() / (elapsed / 1e9) * 10) / 10.0);
+        return books;
+    }
+
+    private List<Book> listBooks(LoadClient client, String accessToken) throws IOException {
+        HttpResponse<byte[]> response = client.timed("books.list.ids", client.bearer("/api/v1/books?fields=id,bookType", accessToken).GET().build());
+        List<Book> books = new ArrayList<>();
+        if (response != null && response.statusCode() == 200) {
+            for (JsonNode book : client.readTree(response.body())) {
+                books.add(new Book(book.path("id").asLong(), BookFileType.valueOf(book.path("bookType").asText())));
+            }
+        }
+        return books;
+    }
+
+    private void bookList(LoadClient client, String accessToken, List<Book> books) throws InterruptedException {
+        client.run("books.list.full", Math.max(4, ITERATIONS / 20), Math.min(CONCURRENCY, 2),
+                i -> client.bearer("/api/v1/books", accessToken).GET().build());
+        client.run("books.list.fields", Math.max(8, ITERATIONS / 10), CONCURRENCY,
+                i -> client.bearer("/api/v1/books?fields=id,libraryId,metadata.title,metadata.authors", accessToken).GET().build());
+        client.run("books.get", ITERATIONS * 5, CONCURRENCY,
+                i -> client.bearer("/api/v1/books/" + pick(books).id(), accessToken).GET().build());
+    }
+
+    /**
+     * Crawls the whole catalog the way a reader app pages through it, then hits the navigation and search feeds.
+     */
+    private void opds(LoadClient client, SyntheticLibrary library) throws InterruptedException {
+        String next = "/api/v1/opds/catalog?size=" + OPDS_PAGE_SIZE;
+        int pages = 0;
+        long start = System.nanoTime();
+        while (next != null) {
+            HttpResponse<byte[]> response = client.timed("opds.catalog.page", client.basic(next, USERNAME, PASSWORD).GET().build());
+            pages++;
+            if (response == null || response.statusCode() != 200) {
+                break;
+            }
+            Matcher matcher = OPDS_NEXT_LINK.matcher(new String(response.body(), StandardCharsets.UTF_8));
+            next = matcher.find() ? matcher.group(1).replace("&amp;", "&") : null;
+        }
+        report.addElapsed("opds.catalog.page", System.nanoTime() - start);
+        report.fact("opds.catalog.pages", pages);
+
+        client.run("opds.recent", ITERATIONS / 2, CONCURRENCY,
+                i -> client.basic("/api/v1/opds/recent?size=" + OPDS_PAGE_SIZE, USERNAME, PASSWORD).GET().build());
+        client.run("opds.authors", ITERATIONS / 2, CONCURRENCY,
+                i -> client.basic("/api/v1/opds/authors", USERNAME, PASSWORD).GET().build());
+        client.run("opds.series", ITERATIONS / 2, CONCURRENCY,
+                i -> client.basic("/api/v1/opds/series", USERNAME, PASSWORD).GET().build());
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            queries.add(library.randomWord(random));
+        }
+        client.run("opds.search", ITERATIONS, CONCURRENCY,
+                i -> client.basic("/api/v1/opds/catalog?q=" + URLEncoder.encode(queries.get(i), StandardCharsets.UTF_8), USERNAME, PASSWORD).GET().build());
+    }
+
+    /**
+     * A first sync of a new device, following the sync token until the server stops asking it to continue.
+     */
+    private void koboSync(LoadClient client, String koboToken) {
+        String syncToken = null;
+        int requests = 0;
+        int maxRequests = BOOKS / KOBO_BOOKS_PER_SYNC + 50;
+        long start = System.nanoTime();
+        boolean more = true;
+        while (more && requests < maxRequests) {
+            HttpRequest.Builder request = client.request("/api/kobo/" + koboToken + "/v1/library/sync").GET();
+            if (syncToken != null) {
+                request.header(KoboHeaders.X_KOBO_SYNCTOKEN, syncToken);
+            }
+            HttpResponse<byte[]> response = client.timed("kobo.sync.request", request.build());
+            requests++;
+            if (response == null || response.statusCode() != 200) {
+                break;
+            }
+            syncToken = response.headers().firstValue(KoboHeaders.X_KOBO_SYNCTOKEN).orElse(syncToken);
+            more = "continue".equalsIgnoreCase(response.headers().firstValue(KoboHeaders.X_KOBO_SYNC).orElse(""));
+        }
+        long elapsed = System.nanoTime() - start;
+        report.addElapsed("kobo.sync.request", elapsed);
+        report.record("kobo.sync.full", elapsed, !more);
+        report.fact("kobo.sync.requests", requests);
+    }
+
+    /**
+     * Opens random comics: the first request per book unpacks it into the reader cache, repeats are served from it.
+     */
+    private void cbxReader(LoadClient client, String accessToken, List<Book> books) throws InterruptedException {
+        List<Book> comics = books.stream().filter(book -> book.type() == BookFileType.CBX).toList();
+        if (comics.isEmpty()) {
+            return;
+        }
+        List<Book> opened = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            opened.add(comics.get(random.nextInt(Math.min(comics.size(), ITERATIONS / 2 + 1))));
+        }
+        client.run("cbx.pages", ITERATIONS, CONCURRENCY,
+                i -> client.bearer("/api/v1/cbx/" + opened.get(i).id() + "/pages", accessToken).GET().build());
+        client.run("cbx.page", ITERATIONS, CONCURRENCY,
+                i -> client.bearer("/api/v1/media/book/" + opened.get(i).id() + "/cbx/pages/" + (1 + i % 4), accessToken).GET().build());
+    }
+
+    private Book pick(List<Book> books) {
+        synchronized (random) {
+            return books.get(random.nextInt(books.size()));
+        }
+    }
+
+    private static Path createWorkDir() {
+        try {
+            return Files.createTempDirectory("booklore-load-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpServer startKoboStoreStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Book(long id, BookFileType type) {
+    }
+}
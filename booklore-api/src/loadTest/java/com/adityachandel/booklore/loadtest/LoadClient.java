@@ -0,0 +1,149 @@
+package com.adityachandel.booklore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * HTTP client for the workloads. Every timed call reads the whole body, so streamed responses are measured until
+ * their last byte rather than until the headers arrive.
+ */
+public class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LoadReport report;
+
+    public LoadClient(String baseUrl, LoadReport report) {
+        this.baseUrl = baseUrl;
+        this.report = report;
+    }
+
+    public HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    }
+
+    public HttpRequest.Builder bearer(String path, String accessToken) {
+        return request(path).header("Authorization", "Bearer " + accessToken);
+    }
+
+    public HttpRequest.Builder basic(String path, String username, String password) {
+        String credentials = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return request(path).header("Authorization", "Basic " + credentials);
+    }
+
+    public HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    /**
+     * Untimed call for setting up the scenario; fails on any non-2xx status.
+     */
+    public JsonNode call(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode()
+                    + ": " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    /**
+     * Sends the request and records its latency under {@code operation}; statuses other than 2xx and 304 count as errors.
+     */
+    public HttpResponse<byte[]> timed(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            report.record(operation, System.nanoTime() - start, status / 100 == 2 || status == 304);
+            return response;
+        } catch (IOException e) {
+            report.record(operation, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.record(operation, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link #timed} but drains the body without buffering it, for responses that can be many megabytes.
+     */
+    public long timedDrain(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long bytes;
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            report.record(operation, System.nanoTime() - start, response.statusCode() / 100 == 2);
+            return bytes;
+        } catch (IOException e) {
+            report.record(operation, System.nanoTime() - start, false);
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.record(operation, System.nanoTime() - start, false);
+            return -1;
+        }
+    }
+
+    /**
+     * Runs {@code iterations} calls on {@code concurrency} threads and adds the wall-clock time to the operation, so
+     * its throughput reflects concurrent load.
+     */
+    public void run(String operation, int iterations, int concurrency, IntFunction<HttpRequest> requests) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("load-" + operation + "-", 0).factory())) {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                workers.add(pool.submit(() -> {
+                    int iteration;
+                    while ((iteration = next.getAndIncrement()) < iterations) {
+                        timedDrain(operation, requests.apply(iteration));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Workload " + operation + " failed", e.getCause());
+                }
+            }
+        }
+        report.addElapsed(operation, System.nanoTime() - start);
+    }
+
+    public JsonNode readTree(byte[] body) throws IOException {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,116 @@
+package com.adityachandel.booklore.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency samples per operation, summarized as throughput and percentiles. Operations keep the order they were first
+ * recorded in, so reports of different runs line up.
+ */
+public class LoadReport {
+
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final Map<String, Object> facts = new LinkedHashMap<>();
+
+    public synchronized void record(String operation, long nanos, boolean success) {
+        operations.computeIfAbsent(operation, name -> new Operation()).add(nanos, success);
+    }
+
+    /**
+     * Adds the wall-clock time a workload ran for, which throughput is computed over.
+     */
+    public synchronized void addElapsed(String operation, long nanos) {
+        operations.computeIfAbsent(operation, name -> new Operation()).elapsedNanos += nanos;
+    }
+
+    public synchronized void fact(String name, Object value) {
+        facts.put(name, value);
+    }
+
+    public synchronized long errors() {
+        return operations.values().stream().mapToLong(operation -> operation.errors).sum();
+    }
+
+    public synchronized Map<String, Stats> stats() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        operations.forEach((name, operation) -> stats.put(name, operation.stats()));
+        return stats;
+    }
+
+    public synchronized String table() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-28s %8s %7s %10s %9s %9s %9s %9s %9s%n", "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        stats().forEach((name, stats) -> table.append(String.format("%-28s %8d %7d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, stats.count(), stats.errors(), stats.throughput(), stats.p50(), stats.p90(), stats.p95(), stats.p99(), stats.max())));
+        facts.forEach((name, value) -> table.append(name).append(": ").append(value).append(System.lineSeparator()));
+        return table.toString();
+    }
+
+    public synchronized Path write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Instant now = Instant.now();
+        Path file = dir.resolve("load-test-" + now.toEpochMilli() + ".json");
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timestamp", now.toString());
+        document.put("facts", facts);
+        document.put("operations", stats());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+        return file;
+    }
+
+    public record Stats(long count, long errors, double throughput, double mean, double p50, double p90, double p95,
+                        double p99, double max) {
+    }
+
+    private static final class Operation {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+        private long elapsedNanos;
+
+        private void add(long nanos, boolean success) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private Stats stats() {
+            if (size == 0) {
+                return new Stats(0, errors, 0, 0, 0, 0, 0, 0, 0);
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            double total = 0;
+            for (long sample : sorted) {
+                total += sample;
+            }
+            double seconds = (elapsedNanos > 0 ? elapsedNanos : total) / 1e9;
+            return new Stats(size, errors, size / seconds, millis(total / size),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[size - 1]));
+        }
+
+        // Nearest-rank percentile
+        private static long percentile(long[] sorted, double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
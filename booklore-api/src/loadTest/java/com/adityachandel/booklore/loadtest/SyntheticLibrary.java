@@ -0,0 +1,336 @@
+package com.adityachandel.booklore.loadtest;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a library of small but valid EPUB, PDF and CBZ files with randomized titles, authors, series, subjects and
+ * dates. Every book is derived from the seed and its index, so the same seed always produces the same library and
+ * the files can be written in parallel.
+ */
+public final class SyntheticLibrary {
+
+    static final String MARKER_FILE = ".booklore-load-test";
+
+    private static final String[] WORDS = {
+            "shadow", "river", "empire", "garden", "winter", "machine", "silent", "crown", "ocean", "memory",
+            "stone", "light", "hollow", "forest", "signal", "harbor", "glass", "iron", "summer", "archive",
+            "ember", "lantern", "mirror", "north", "paper", "quiet", "raven", "salt", "thorn", "velvet"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Jorge", "Ursula", "Haruki", "Octavia", "Italo", "Toni", "Kazuo", "Chimamanda", "Stanisław",
+            "Isabel", "Naguib", "Wisława", "Orhan", "Zadie", "Liu", "Olga", "Yasunari", "Clarice", "Mikhail"
+    };
+    private static final String[] LAST_NAMES = {
+            "Lovelace", "Borges", "Le Guin", "Murakami", "Butler", "Calvino", "Morrison", "Ishiguro", "Adichie", "Lem",
+            "Allende", "Mahfouz", "Szymborska", "Pamuk", "Smith", "Cixin", "Tokarczuk", "Kawabata", "Lispector", "Bulgakov"
+    };
+    private static final String[] SUBJECTS = {
+            "Fiction", "Science Fiction", "Fantasy", "History", "Biography", "Mystery", "Poetry", "Philosophy",
+            "Travel", "Horror", "Romance", "Thriller", "Comics", "Essays", "Drama"
+    };
+    private static final String[] LANGUAGES = {"en", "en", "en", "de", "fr", "es", "ja"};
+
+    private final int books;
+    private final long seed;
+    private final int authorCount;
+    private final int seriesCount;
+    private final List<byte[]> covers;
+    private final List<byte[]> pages;
+
+    public SyntheticLibrary(int books, long seed) {
+        this.books = books;
+        this.seed = seed;
+        this.authorCount = Math.max(10, books / 8);
+        this.seriesCount = Math.max(5, books / 20);
+        this.covers = IntStream.range(0, 12).mapToObj(i -> jpeg(drawImage(300, 450, i))).toList();
+        this.pages = IntStream.range(0, 6).mapToObj(i -> jpeg(drawImage(800, 1200, 100 + i))).toList();
+    }
+
+    /**
+     * Generates the library under {@code root}, or reuses it if a previous run with the same size and seed left it there.
+     */
+    public Summary generate(Path root) throws IOException {
+        Files.createDirectories(root);
+        Path marker = root.resolve(MARKER_FILE);
+        String fingerprint = books + ":" + seed;
+        if (Files.exists(marker) && Files.readString(marker).equals(fingerprint)) {
+            return summarize();
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger failures = new AtomicInteger();
+        IntStream.range(0, books).parallel().forEach(index -> {
+            try {
+                write(root, describe(index));
+            } catch (IOException e) {
+                failures.incrementAndGet();
+            }
+        });
+        if (failures.get() > 0) {
+            throw new IOException("Failed to write " + failures.get() + " synthetic books");
+        }
+        Files.writeString(marker, fingerprint);
+
+        Summary summary = summarize();
+        System.out.printf("Generated %d books (%s) in %d ms%n", books, summary.formats(), (System.nanoTime() - start) / 1_000_000);
+        return summary;
+    }
+
+    public String randomWord(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private Summary summarize() {
+        Map<BookFileType, Integer> formats = new EnumMap<>(BookFileType.class);
+        for (int index = 0; index < books; index++) {
+            formats.merge(describe(index).format(), 1, Integer::sum);
+        }
+        return new Summary(books, formats);
+    }
+
+    private Book describe(int index) {
+        Random random = new Random(seed * 31 + index);
+        int roll = random.nextInt(100);
+        BookFileType format = roll < 60 ? BookFileType.EPUB : roll < 85 ? BookFileType.PDF : BookFileType.CBX;
+
+        int author = skewed(random, authorCount);
+        String authorName = FIRST_NAMES[author % FIRST_NAMES.length] + " " + LAST_NAMES[(author / FIRST_NAMES.length) % LAST_NAMES.length]
+                + (author >= FIRST_NAMES.length * LAST_NAMES.length ? " " + (author / (FIRST_NAMES.length * LAST_NAMES.length)) : "");
+        String coAuthor = random.nextInt(10) == 0 ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] : null;
+
+        boolean inSeries = format == BookFileType.CBX || random.nextInt(3) == 0;
+        String series = null;
+        int seriesIndex = 0;
+        if (inSeries) {
+            int seriesId = skewed(random, seriesCount);
+            series = "The " + capitalize(WORDS[seriesId % WORDS.length]) + " " + capitalize(WORDS[(seriesId / WORDS.length) % WORDS.length])
+                    + " Cycle" + (seriesId >= WORDS.length * WORDS.length ? " " + seriesId : "");
+            seriesIndex = 1 + random.nextInt(30);
+        }
+
+        String title = capitalize(randomWord(random)) + " of the " + capitalize(randomWord(random)) + " " + capitalize(randomWord(random)) + " " + index;
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        String secondSubject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        int year = 1900 + random.nextInt(125);
+        String date = String.format("%04d-%02d-%02d", year, 1 + random.nextInt(12), 1 + random.nextInt(28));
+        String isbn = "978" + String.format("%010d", Math.floorMod(seed * 1_000_003 + index, 10_000_000_000L));
+        StringBuilder description = new StringBuilder();
+        for (int i = 0, words = 20 + random.nextInt(120); i < words; i++) {
+            description.append(i == 0 ? capitalize(randomWord(random)) : randomWord(random)).append(i % 10 == 9 ? ". " : " ");
+        }
+
+        return new Book(index, format, title, authorName, coAuthor, series, seriesIndex, subject, secondSubject, date,
+                isbn, LANGUAGES[random.nextInt(LANGUAGES.length)], description.toString().trim(), random.nextInt(covers.size()));
+    }
+
+    private void write(Path root, Book book) throws IOException {
+        Path dir = root.resolve(sanitize(book.author()));
+        if (book.series() != null) {
+            dir = dir.resolve(sanitize(book.series()));
+        }
+        Files.createDirectories(dir);
+        String baseName = sanitize((book.series() != null ? String.format("%02d - ", book.seriesIndex()) : "") + book.title());
+        switch (book.format()) {
+            case EPUB -> writeEpub(dir.resolve(baseName + ".epub"), book);
+            case PDF -> writePdf(dir.resolve(baseName + ".pdf"), book);
+            default -> writeCbz(dir.resolve(baseName + ".cbz"), book);
+        }
+    }
+
+    private void writeEpub(Path file, Book book) throws IOException {
+        String opf = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <package xmlns="http://www.idpf.org/2007/opf" version="3.0" unique-identifier="uid">
+                    <metadata xmlns:dc="http://purl.org/dc/elements/1.1/" xmlns:opf="http://www.idpf.org/2007/opf">
+                        <dc:identifier id="uid">urn:isbn:%s</dc:identifier>
+                        <dc:title>%s</dc:title>
+                        <dc:creator opf:role="aut">%s</dc:creator>%s
+                        <dc:publisher>%s House</dc:publisher>
+                        <dc:language>%s</dc:language>
+                        <dc:date>%s</dc:date>
+                        <dc:subject>%s</dc:subject>
+                        <dc:subject>%s</dc:subject>
+                        <dc:description>%s</dc:description>%s
+                        <meta name="cover" content="cover-image"/>
+                    </metadata>
+                    <manifest>
+                        <item id="cover-image" href="cover.jpg" media-type="image/jpeg" properties="cover-image"/>
+                        <item id="chapter1" href="chapter1.xhtml" media-type="application/xhtml+xml"/>
+                    </manifest>
+                    <spine>
+                        <itemref idref="chapter1"/>
+                    </spine>
+                </package>
+                """.formatted(book.isbn(), xml(book.title()), xml(book.author()),
+                book.coAuthor() != null ? "\n            <dc:creator opf:role=\"aut\">" + xml(book.coAuthor()) + "</dc:creator>" : "",
+                capitalize(WORDS[book.index() % WORDS.length]), book.language(), book.date(), book.subject(), book.secondSubject(),
+                xml(book.description()),
+                book.series() != null
+                        ? "\n            <meta name=\"calibre:series\" content=\"" + xml(book.series()) + "\"/>\n            <meta name=\"calibre:series_index\" content=\"" + book.seriesIndex() + "\"/>"
+                        : "");
+        String container = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+                    <rootfiles>
+                        <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+                    </rootfiles>
+                </container>
+                """;
+        String chapter = "<html xmlns=\"http://www.w3.org/1999/xhtml\"><head><title>" + xml(book.title())
+                + "</title></head><body><p>" + xml(book.description()) + "</p></body></html>";
+
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            putStored(zip, "mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+            put(zip, "META-INF/container.xml", container.getBytes(StandardCharsets.UTF_8));
+            put(zip, "OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+            put(zip, "OEBPS/chapter1.xhtml", chapter.getBytes(StandardCharsets.UTF_8));
+            put(zip, "OEBPS/cover.jpg", covers.get(book.cover()));
+        }
+    }
+
+    private void writePdf(Path file, Book book) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = document.getDocumentInformation();
+            info.setTitle(book.title());
+            info.setAuthor(book.coAuthor() != null ? book.author() + "; " + book.coAuthor() : book.author());
+            info.setSubject(book.subject());
+            info.setKeywords(book.subject() + ", " + book.secondSubject());
+            info.setCreator("Booklore load test");
+
+            PDImageXObject cover = JPEGFactory.createFromByteArray(document, covers.get(book.cover()));
+            PDPage first = new PDPage(PDRectangle.A5);
+            document.addPage(first);
+            try (PDPageContentStream content = new PDPageContentStream(document, first)) {
+                content.drawImage(cover, 0, 0, PDRectangle.A5.getWidth(), PDRectangle.A5.getHeight());
+            }
+            document.addPage(new PDPage(PDRectangle.A5));
+            document.save(file.toFile());
+        }
+    }
+
+    private void writeCbz(Path file, Book book) throws IOException {
+        String comicInfo = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <ComicInfo xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+                    <Title>%s</Title>
+                    <Series>%s</Series>
+                    <Number>%d</Number>
+                    <Year>%s</Year>
+                    <Writer>%s</Writer>
+                    <Publisher>%s Comics</Publisher>
+                    <Genre>%s</Genre>
+                    <LanguageISO>%s</LanguageISO>
+                    <Summary>%s</Summary>
+                    <PageCount>%d</PageCount>
+                </ComicInfo>
+                """.formatted(xml(book.title()), xml(book.series()), book.seriesIndex(), book.date().substring(0, 4), xml(book.author()),
+                capitalize(WORDS[book.index() % WORDS.length]), book.subject(), book.language(), xml(book.description()), pages.size());
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            put(zip, "ComicInfo.xml", comicInfo.getBytes(StandardCharsets.UTF_8));
+            put(zip, "000-cover.jpg", covers.get(book.cover()));
+            for (int page = 0; page < pages.size(); page++) {
+                putStored(zip, String.format("%03d.jpg", page + 1), pages.get(page));
+            }
+        }
+    }
+
+    /**
+     * Picks ids so a few authors and series hold many books, like a real collection.
+     */
+    private static int skewed(Random random, int bound) {
+        double value = random.nextDouble();
+        return Math.min(bound - 1, (int) (bound * value * value));
+    }
+
+    private static void put(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static void putStored(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static BufferedImage drawImage(int width, int height, int variant) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            Random random = new Random(variant);
+            g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xFFFFFF)), width, height, new Color(random.nextInt(0xFFFFFF))));
+            g.fillRect(0, 0, width, height);
+            for (int i = 0; i < 20; i++) {
+                g.setColor(new Color(random.nextInt(0xFFFFFF)));
+                g.fillOval(random.nextInt(width), random.nextInt(height), 10 + random.nextInt(width / 3), 10 + random.nextInt(height / 3));
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static byte[] jpeg(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+    private static String xml(String value) {
+        return value == null ? "" : value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    public record Summary(int books, Map<BookFileType, Integer> formats) {
+    }
+
+    private record Book(int index, BookFileType format, String title, String author, String coAuthor, String series,
+                        int seriesIndex, String subject, String secondSubject, String date, String isbn, String language,
+                        String description, int cover) {
+    }
+}
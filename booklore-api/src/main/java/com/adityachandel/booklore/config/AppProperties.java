@@ -12,6 +12,12 @@ import org.springframework.stereotype.Component;
 public class AppProperties {
     private String pathConfig;
     private String bookdropFolder;
+    private int bookdropFinalizeWorkers = 4;
+    private int metadataWriteBackWorkers = 4;
+    private boolean contentHashEnabled;
+    private int contentHashWorkers = 2;
+    private int bookCleanupWorkers = 4;
+    private String koboStoreUrl = "https://storeapi.kobo.com";
     private String version;
     private RemoteAuth remoteAuth;
     private Swagger swagger = new Swagger();
@@ -2,9 +2,11 @@ package com.adityachandel.booklore.config;
 
 import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.service.metadata.parser.*;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.EnumMap;
 import java.util.Map;
 
 @Configuration
@@ -12,8 +14,9 @@ public class BookParserConfig {
 
     @Bean
     public Map<MetadataProvider, BookParser> parserMap(GoogleParser googleParser, AmazonBookParser amazonBookParser,
-                                                       GoodReadsParser goodReadsParser, HardcoverParser hardcoverParser, ComicvineBookParser comicvineBookParser, DoubanBookParser doubanBookParser) {
-        return Map.of(
+                                                       GoodReadsParser goodReadsParser, HardcoverParser hardcoverParser, ComicvineBookParser comicvineBookParser, DoubanBookParser doubanBookParser,
+                                                       BookloreMetrics bookloreMetrics) {
+        Map<MetadataProvider, BookParser> parsers = Map.of(
                 MetadataProvider.Amazon, amazonBookParser,
                 MetadataProvider.GoodReads, goodReadsParser,
                 MetadataProvider.Google, googleParser,
@@ -21,5 +24,8 @@ public class BookParserConfig {
                 MetadataProvider.Comicvine, comicvineBookParser,
                 MetadataProvider.Douban, doubanBookParser
         );
+        Map<MetadataProvider, BookParser> timed = new EnumMap<>(MetadataProvider.class);
+        parsers.forEach((provider, parser) -> timed.put(provider, new TimedBookParser(provider, parser, bookloreMetrics)));
+        return Map.copyOf(timed);
     }
 }
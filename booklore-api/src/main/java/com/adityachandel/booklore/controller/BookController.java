@@ -9,8 +9,10 @@ import com.adityachandel.booklore.model.dto.request.PersonalRatingUpdateRequest;
 import com.adityachandel.booklore.model.dto.request.ReadProgressRequest;
 import com.adityachandel.booklore.model.dto.request.ReadStatusUpdateRequest;
 import com.adityachandel.booklore.model.dto.request.ShelvesAssignmentRequest;
+import com.adityachandel.booklore.model.dto.response.BookChangesResponse;
 import com.adityachandel.booklore.model.dto.response.BookDeletionResponse;
 import com.adityachandel.booklore.model.enums.ResetProgressType;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.book.BookService;
 import com.adityachandel.booklore.service.metadata.BookMetadataService;
 import com.adityachandel.booklore.service.recommender.BookRecommendationService;
@@ -19,15 +21,17 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -39,17 +43,36 @@ import java.util.Set;
 @AllArgsConstructor
 public class BookController {
 
+    private static final String CHANGE_VERSION_HEADER = "X-Change-Version";
+
     private final BookService bookService;
     private final BookRecommendationService bookRecommendationService;
     private final BookMetadataService bookMetadataService;
+    private final BookChangeService bookChangeService;
 
-    @Operation(summary = "Get all books", description = "Retrieve a list of all books. Optionally include descriptions.")
+    @Operation(summary = "Get all books", description = "Stream all books visible to the user as a JSON array. Optionally include descriptions or restrict the returned fields.")
     @ApiResponse(responseCode = "200", description = "List of books returned successfully")
     @GetMapping
-    public ResponseEntity<List<Book>> getBooks(
+    public ResponseEntity<StreamingResponseBody> getBooks(
+            @Parameter(description = "Include book descriptions in the response")
+            @RequestParam(required = false, defaultValue = "false") boolean withDescription,
+            @Parameter(description = "Fields to include, e.g. id,libraryId,metadata.title,metadata.authors. All fields when omitted.")
+            @RequestParam(required = false) Set<String> fields) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CHANGE_VERSION_HEADER, String.valueOf(bookChangeService.currentVersion()))
+                .body(bookService.streamBookDTOs(withDescription, fields));
+    }
+
+    @Operation(summary = "Get book changes", description = "Retrieve books added, updated or removed since a change version. "
+            + "Start from the X-Change-Version header of the full book list and pass the returned version on the next call.")
+    @ApiResponse(responseCode = "200", description = "Changes returned successfully")
+    @GetMapping("/changes")
+    public ResponseEntity<BookChangesResponse> getBookChanges(
+            @Parameter(description = "Change version the client is already up to date with") @RequestParam long since,
             @Parameter(description = "Include book descriptions in the response")
             @RequestParam(required = false, defaultValue = "false") boolean withDescription) {
-        return ResponseEntity.ok(bookService.getBookDTOs(withDescription));
+        return ResponseEntity.ok(bookService.getBookChanges(since, withDescription));
     }
 
     @Operation(summary = "Get a book by ID", description = "Retrieve details of a specific book by its ID.")
@@ -95,25 +118,32 @@ public class BookController {
     }
 
     @Operation(summary = "Get book content", description = "Retrieve the binary content of a book for reading.")
-    @ApiResponse(responseCode = "200", description = "Book content returned successfully")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Book content returned successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range returned successfully"),
+        @ApiResponse(responseCode = "304", description = "Book content not modified")
+    })
     @GetMapping("/{bookId}/content")
     @CheckBookAccess(bookIdParam = "bookId")
-    public ResponseEntity<ByteArrayResource> getBookContent(
-            @Parameter(description = "ID of the book") @PathVariable long bookId) throws IOException {
-        return bookService.getBookContent(bookId);
+    public void getBookContent(
+            @Parameter(description = "ID of the book") @PathVariable long bookId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bookService.streamBookContent(bookId, request, response);
     }
 
     @Operation(summary = "Download book", description = "Download the book file. Requires download permission or admin.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Book downloaded successfully"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range downloaded successfully"),
         @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @GetMapping("/{bookId}/download")
     @PreAuthorize("@securityUtil.canDownload() or @securityUtil.isAdmin()")
     @CheckBookAccess(bookIdParam = "bookId")
-    public ResponseEntity<Resource> downloadBook(
-            @Parameter(description = "ID of the book to download") @PathVariable("bookId") Long bookId) {
-        return bookService.downloadBook(bookId);
+    public void downloadBook(
+            @Parameter(description = "ID of the book to download") @PathVariable("bookId") Long bookId,
+            HttpServletRequest request, HttpServletResponse response) {
+        bookService.downloadBook(bookId, request, response);
     }
 
     @Operation(summary = "Get viewer settings", description = "Retrieve viewer settings for a specific book.")
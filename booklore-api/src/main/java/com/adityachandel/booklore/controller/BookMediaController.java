@@ -1,6 +1,7 @@
 package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.service.book.BookService;
+import com.adityachandel.booklore.service.book.CoverImageService;
 import com.adityachandel.booklore.service.bookdrop.BookDropService;
 import com.adityachandel.booklore.service.reader.CbxReaderService;
 import com.adityachandel.booklore.service.reader.PdfReaderService;
@@ -18,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
@@ -38,21 +40,24 @@ public class BookMediaController {
     private final CbxReaderService cbxReaderService;
     private final BookDropService bookDropService;
     private final IconService iconService;
+    private final CoverImageService coverImageService;
 
     @Operation(summary = "Get book thumbnail", description = "Retrieve the thumbnail image for a specific book.")
     @ApiResponse(responseCode = "200", description = "Book thumbnail returned successfully")
     @GetMapping("/book/{bookId}/thumbnail")
     public ResponseEntity<Resource> getBookThumbnail(
-            @Parameter(description = "ID of the book") @PathVariable long bookId) {
-        return ResponseEntity.ok(bookService.getBookThumbnail(bookId));
+            @Parameter(description = "ID of the book") @PathVariable long bookId,
+            @Parameter(description = "Cover version (coverUpdatedOn in epoch millis); responses are immutable when it is the current version") @RequestParam(required = false) Long v) {
+        return imageResponse(bookId, coverImageService.getThumbnail(bookId), v);
     }
 
     @Operation(summary = "Get book cover", description = "Retrieve the cover image for a specific book.")
     @ApiResponse(responseCode = "200", description = "Book cover returned successfully")
     @GetMapping("/book/{bookId}/cover")
     public ResponseEntity<Resource> getBookCover(
-            @Parameter(description = "ID of the book") @PathVariable long bookId) {
-        return ResponseEntity.ok(bookService.getBookCover(bookId));
+            @Parameter(description = "ID of the book") @PathVariable long bookId,
+            @Parameter(description = "Cover version (coverUpdatedOn in epoch millis); responses are immutable when it is the current version") @RequestParam(required = false) Long v) {
+        return imageResponse(bookId, coverImageService.getCover(bookId), v);
     }
 
     @Operation(summary = "Get PDF page as image", description = "Retrieve a specific page from a PDF book as an image.")
@@ -119,4 +124,14 @@ public class BookMediaController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Resource> imageResponse(long bookId, CoverImageService.CoverImage image, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(coverImageService.cacheControl(bookId, image, version));
+        if (image.etag() != null) {
+            builder.eTag(image.etag());
+        }
+        return builder.body(image.resource());
+    }
+}
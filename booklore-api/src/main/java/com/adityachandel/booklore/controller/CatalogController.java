@@ -0,0 +1,44 @@
+package com.adityachandel.booklore.controller;
+
+import com.adityachandel.booklore.model.dto.CatalogAuthor;
+import com.adityachandel.booklore.model.dto.CatalogPage;
+import com.adityachandel.booklore.model.dto.CatalogSeries;
+import com.adityachandel.booklore.service.book.CatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Catalog", description = "Endpoints for browsing authors and series across libraries")
+@RequestMapping("/api/v1/catalog")
+@RestController
+@AllArgsConstructor
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    @Operation(summary = "List authors", description = "List authors of the accessible libraries by name, with book and series counts and when their books were first and last added.")
+    @ApiResponse(responseCode = "200", description = "Authors returned successfully")
+    @GetMapping("/authors")
+    public ResponseEntity<CatalogPage<CatalogAuthor>> getAuthors(
+            @Parameter(description = "Only authors with books in this library") @RequestParam(required = false) Long libraryId,
+            @Parameter(description = "Case-insensitive name prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Name of the last author of the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, at most 200") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(catalogService.getAuthors(libraryId, prefix, after, size));
+    }
+
+    @Operation(summary = "List series", description = "List series of the accessible libraries by name, with book count, series length, missing numbers and when their books were first and last added.")
+    @ApiResponse(responseCode = "200", description = "Series returned successfully")
+    @GetMapping("/series")
+    public ResponseEntity<CatalogPage<CatalogSeries>> getSeries(
+            @Parameter(description = "Only series with books in this library") @RequestParam(required = false) Long libraryId,
+            @Parameter(description = "Case-insensitive name prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Name of the last series of the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, at most 200") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(catalogService.getSeries(libraryId, prefix, after, size));
+    }
+}
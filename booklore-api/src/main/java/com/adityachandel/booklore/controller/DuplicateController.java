@@ -0,0 +1,36 @@
+package com.adityachandel.booklore.controller;
+
+import com.adityachandel.booklore.model.dto.DuplicateGroup;
+import com.adityachandel.booklore.model.enums.DuplicateType;
+import com.adityachandel.booklore.service.book.DuplicateDetectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+@Tag(name = "Duplicates", description = "Endpoints for finding duplicate books across libraries")
+@RequestMapping("/api/v1/duplicates")
+@RestController
+@AllArgsConstructor
+public class DuplicateController {
+
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    @Operation(summary = "List duplicate books", description = "List groups of exact duplicates (same file content) and near duplicates (same ISBN, or same title and author) across the libraries the caller can access. "
+            + "Exact duplicates need the content hash, enabled with app.content-hash-enabled.")
+    @ApiResponse(responseCode = "200", description = "Duplicate groups returned successfully")
+    @GetMapping
+    @PreAuthorize("@securityUtil.canManageLibrary() or @securityUtil.isAdmin()")
+    public ResponseEntity<List<DuplicateGroup>> getDuplicates(
+            @Parameter(description = "Kinds of duplicates to list, all when omitted") @RequestParam(required = false) Set<DuplicateType> types,
+            @Parameter(description = "Maximum number of groups per kind") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(duplicateDetectionService.findDuplicates(types, limit));
+    }
+}
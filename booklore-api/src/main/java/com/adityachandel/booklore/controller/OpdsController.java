@@ -1,6 +1,8 @@
 package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.service.book.BookService;
+import com.adityachandel.booklore.service.book.CoverImageService;
+import com.adityachandel.booklore.service.opds.OpdsFeed;
 import com.adityachandel.booklore.service.opds.OpdsFeedService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,16 +10,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Tag(name = "OPDS", description = "Endpoints for OPDS catalog feeds, book downloads, covers, and search description")
 @Slf4j
@@ -31,6 +40,7 @@ public class OpdsController {
 
     private final OpdsFeedService opdsFeedService;
     private final BookService bookService;
+    private final CoverImageService coverImageService;
 
     @Operation(summary = "Download book file", description = "Download the book file by its ID.")
     @ApiResponses({
@@ -38,8 +48,9 @@ public class OpdsController {
         @ApiResponse(responseCode = "404", description = "Book not found")
     })
     @GetMapping("/{bookId}/download")
-    public ResponseEntity<Resource> downloadBook(@Parameter(description = "ID of the book to download") @PathVariable("bookId") Long bookId) {
-        return bookService.downloadBook(bookId);
+    public void downloadBook(@Parameter(description = "ID of the book to download") @PathVariable("bookId") Long bookId,
+                             HttpServletRequest request, HttpServletResponse response) {
+        bookService.downloadBook(bookId, request, response);
     }
 
     @Operation(summary = "Get book cover image", description = "Retrieve the cover image for a book by its ID.")
@@ -48,103 +59,80 @@ public class OpdsController {
         @ApiResponse(responseCode = "404", description = "Book or cover not found")
     })
     @GetMapping("/{bookId}/cover")
-    public ResponseEntity<Resource> getBookCover(@Parameter(description = "ID of the book") @PathVariable long bookId) {
-        Resource coverImage = bookService.getBookThumbnail(bookId);
-        String contentType = "image/jpeg";
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + coverImage.getFilename() + "\"")
-                .body(coverImage);
+    public ResponseEntity<Resource> getBookCover(@Parameter(description = "ID of the book") @PathVariable long bookId,
+                                                 @Parameter(description = "Cover version (coverUpdatedOn in epoch millis)") @RequestParam(required = false) Long v) {
+        CoverImageService.CoverImage coverImage = coverImageService.getThumbnail(bookId);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + (coverImage.placeholder() ? "missing-cover.jpg" : "thumbnail.jpg") + "\"")
+                .cacheControl(coverImageService.cacheControl(bookId, coverImage, v));
+        if (coverImage.etag() != null) {
+            builder.eTag(coverImage.etag());
+        }
+        return builder.body(coverImage.resource());
     }
 
     @Operation(summary = "Get OPDS root catalog", description = "Retrieve the OPDS root navigation feed.")
     @ApiResponse(responseCode = "200", description = "Root OPDS catalog returned successfully")
     @GetMapping(produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getRootCatalog(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateRootNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getRootCatalog(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateRootNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS libraries navigation", description = "Retrieve the OPDS libraries navigation feed.")
     @ApiResponse(responseCode = "200", description = "Libraries navigation feed returned successfully")
     @GetMapping(value = "/libraries", produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getLibrariesNavigation(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateLibrariesNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getLibrariesNavigation(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateLibrariesNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS shelves navigation", description = "Retrieve the OPDS shelves navigation feed.")
     @ApiResponse(responseCode = "200", description = "Shelves navigation feed returned successfully")
     @GetMapping(value = "/shelves", produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getShelvesNavigation(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateShelvesNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getShelvesNavigation(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateShelvesNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS magic shelves navigation", description = "Retrieve the OPDS magic shelves navigation feed.")
     @ApiResponse(responseCode = "200", description = "Magic shelves navigation feed returned successfully")
     @GetMapping(value = "/magic-shelves", produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getMagicShelvesNavigation(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateMagicShelvesNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getMagicShelvesNavigation(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateMagicShelvesNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS authors navigation", description = "Retrieve the OPDS authors navigation feed.")
     @ApiResponse(responseCode = "200", description = "Authors navigation feed returned successfully")
     @GetMapping(value = "/authors", produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getAuthorsNavigation(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateAuthorsNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getAuthorsNavigation(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateAuthorsNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS series navigation", description = "Retrieve the OPDS series navigation feed.")
     @ApiResponse(responseCode = "200", description = "Series navigation feed returned successfully")
     @GetMapping(value = "/series", produces = OPDS_CATALOG_MEDIA_TYPE)
-    public ResponseEntity<String> getSeriesNavigation(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateSeriesNavigation(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_CATALOG_MEDIA_TYPE))
-                .body(feed);
+    public void getSeriesNavigation(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateSeriesNavigation(request), OPDS_CATALOG_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS catalog feed", description = "Retrieve the OPDS acquisition catalog feed.")
     @ApiResponse(responseCode = "200", description = "Catalog feed returned successfully")
     @GetMapping(value = "/catalog", produces = OPDS_ACQUISITION_MEDIA_TYPE)
-    public ResponseEntity<String> getCatalog(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateCatalogFeed(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_ACQUISITION_MEDIA_TYPE))
-                .body(feed);
+    public void getCatalog(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateCatalogFeed(request), OPDS_ACQUISITION_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get recent books feed", description = "Retrieve the OPDS feed for recently added books.")
     @ApiResponse(responseCode = "200", description = "Recent books feed returned successfully")
     @GetMapping(value = "/recent", produces = OPDS_ACQUISITION_MEDIA_TYPE)
-    public ResponseEntity<String> getRecentBooks(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateRecentFeed(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_ACQUISITION_MEDIA_TYPE))
-                .body(feed);
+    public void getRecentBooks(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateRecentFeed(request), OPDS_ACQUISITION_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get surprise feed", description = "Retrieve the OPDS feed for surprise/random books.")
     @ApiResponse(responseCode = "200", description = "Surprise feed returned successfully")
     @GetMapping(value = "/surprise", produces = OPDS_ACQUISITION_MEDIA_TYPE)
-    public ResponseEntity<String> getSurpriseFeed(@Parameter(hidden = true) HttpServletRequest request) {
-        String feed = opdsFeedService.generateSurpriseFeed(request);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(OPDS_ACQUISITION_MEDIA_TYPE))
-                .body(feed);
+    public void getSurpriseFeed(@Parameter(hidden = true) HttpServletRequest request, @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        send(opdsFeedService.generateSurpriseFeed(request), OPDS_ACQUISITION_MEDIA_TYPE, request, response);
     }
 
     @Operation(summary = "Get OPDS search description", description = "Retrieve the OpenSearch description document for OPDS search.")
@@ -161,4 +149,19 @@ public class OpdsController {
                 .contentType(MediaType.parseMediaType("application/opensearchdescription+xml;charset=utf-8"))
                 .body(searchDoc);
     }
+
+    /**
+     * Feeds carry a content ETag, so a client re-crawling an unchanged catalog gets a 304 without the body being
+     * written; otherwise the feed is streamed straight into the response. No Last-Modified is sent: the ETag is the
+     * only validator that cannot go backwards when a feed's content reverts.
+     */
+    private void send(OpdsFeed feed, String mediaType, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(feed.etag())) {
+            return;
+        }
+        response.setContentType(mediaType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        feed.writeTo(response.getWriter());
+    }
 }
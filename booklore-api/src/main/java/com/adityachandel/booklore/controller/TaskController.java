@@ -18,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @AllArgsConstructor
@@ -53,6 +54,27 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{taskId}/pause")
+    @PreAuthorize("@securityUtil.canAccessTaskManager() or @securityUtil.isAdmin()")
+    public ResponseEntity<Void> pauseTask(@PathVariable String taskId) {
+        service.pauseTask(taskId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{taskId}/resume")
+    @PreAuthorize("@securityUtil.canAccessTaskManager() or @securityUtil.isAdmin()")
+    public ResponseEntity<Void> resumeTask(@PathVariable String taskId) {
+        service.resumeTask(taskId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{taskId}/throttle")
+    @PreAuthorize("@securityUtil.canAccessTaskManager() or @securityUtil.isAdmin()")
+    public ResponseEntity<Void> throttleTask(@PathVariable String taskId, @RequestParam long delayMs) {
+        service.throttleTask(taskId, Duration.ofMillis(Math.max(0, delayMs)));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/last")
     @PreAuthorize("@securityUtil.canAccessTaskManager() or @securityUtil.isAdmin()")
     public ResponseEntity<TasksHistoryResponse> getLatestTasksForEachType() {
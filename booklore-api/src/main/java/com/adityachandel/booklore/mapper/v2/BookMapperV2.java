@@ -29,6 +29,13 @@ public interface BookMapperV2 {
     @Mapping(target = "tags", source = "tags", qualifiedByName = "mapTags")
     BookMetadata mapMetadata(BookMetadataEntity metadataEntity);
 
+    @Named("mapMetadataWithoutCollections")
+    @Mapping(target = "authors", ignore = true)
+    @Mapping(target = "categories", ignore = true)
+    @Mapping(target = "moods", ignore = true)
+    @Mapping(target = "tags", ignore = true)
+    BookMetadata mapMetadataWithoutCollections(BookMetadataEntity metadataEntity);
+
     @Named("mapAuthors")
     default Set<String> mapAuthors(Set<AuthorEntity> authors) {
         return authors == null ? Set.of() :
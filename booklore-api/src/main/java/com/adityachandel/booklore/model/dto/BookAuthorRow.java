@@ -0,0 +1,6 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookAuthorRow {
+    Long getBookId();
+    String getName();
+}
@@ -0,0 +1,8 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookFileRow {
+    Long getId();
+    String getLibraryPath();
+    String getFileSubPath();
+    String getFileName();
+}
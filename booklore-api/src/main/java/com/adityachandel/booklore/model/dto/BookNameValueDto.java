@@ -0,0 +1,6 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookNameValueDto {
+    Long getBookId();
+    String getName();
+}
@@ -0,0 +1,5 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookPathRow extends FilePathRow {
+    Boolean getDeleted();
+}
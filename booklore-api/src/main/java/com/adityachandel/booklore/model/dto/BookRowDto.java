@@ -0,0 +1,18 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+
+import java.time.Instant;
+
+public interface BookRowDto {
+    Long getId();
+    BookFileType getBookType();
+    Long getLibraryId();
+    String getLibraryName();
+    Long getLibraryPathId();
+    String getFileName();
+    String getFileSubPath();
+    Long getFileSizeKb();
+    Float getMetadataMatchScore();
+    Instant getAddedOn();
+}
@@ -0,0 +1,6 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface BookShelfLinkDto {
+    Long getBookId();
+    Long getShelfId();
+}
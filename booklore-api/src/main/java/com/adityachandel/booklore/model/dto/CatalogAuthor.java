@@ -0,0 +1,16 @@
+package com.adityachandel.booklore.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class CatalogAuthor {
+    private String name;
+    private int bookCount;
+    private int seriesCount;
+    private Instant firstAddedOn;
+    private Instant lastAddedOn;
+}
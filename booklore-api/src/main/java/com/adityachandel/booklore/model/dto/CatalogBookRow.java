@@ -0,0 +1,12 @@
+package com.adityachandel.booklore.model.dto;
+
+import java.time.Instant;
+
+public interface CatalogBookRow {
+    Long getId();
+    Long getLibraryId();
+    Instant getAddedOn();
+    String getSeriesName();
+    Float getSeriesNumber();
+    Integer getSeriesTotal();
+}
@@ -0,0 +1,13 @@
+package com.adityachandel.booklore.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CatalogPage<T> {
+    private List<T> items;
+    private String nextAfter;
+}
@@ -0,0 +1,19 @@
+package com.adityachandel.booklore.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+public class CatalogSeries {
+    private String name;
+    private int bookCount;
+    private int seriesLength;
+    private List<Integer> missingNumbers;
+    private List<String> authors;
+    private Instant firstAddedOn;
+    private Instant lastAddedOn;
+}
@@ -0,0 +1,13 @@
+package com.adityachandel.booklore.model.dto;
+
+public interface ContentHashCandidate {
+    Long getId();
+    String getCurrentHash();
+    String getLibraryPath();
+    String getFileSubPath();
+    String getFileName();
+    String getContentHash();
+    String getContentHashSource();
+    Long getContentHashFileSize();
+    Long getContentHashFileModified();
+}
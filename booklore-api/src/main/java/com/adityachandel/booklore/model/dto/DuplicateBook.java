@@ -0,0 +1,20 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DuplicateBook {
+    private Long id;
+    private BookFileType bookType;
+    private Long libraryId;
+    private String libraryName;
+    private String fileName;
+    private String fileSubPath;
+    private Long fileSizeKb;
+    private String title;
+    private String isbn13;
+    private String contentHash;
+}
@@ -0,0 +1,18 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+
+public interface DuplicateBookRow {
+    Long getId();
+    BookFileType getBookType();
+    Long getLibraryId();
+    String getLibraryName();
+    String getFileName();
+    String getFileSubPath();
+    Long getFileSizeKb();
+    String getContentHash();
+    String getTitle();
+    String getIsbn13();
+    String getTitleSort();
+    String getAuthorSort();
+}
@@ -0,0 +1,15 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.enums.DuplicateType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DuplicateGroup {
+    private DuplicateType type;
+    private String key;
+    private List<DuplicateBook> books;
+}
@@ -0,0 +1,14 @@
+package com.adityachandel.booklore.model.dto;
+
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+
+public interface FilePathRow {
+    Long getId();
+    Long getLibraryPathId();
+    String getFileSubPath();
+    String getFileName();
+
+    default String pathKey() {
+        return LibraryFile.pathKey(getLibraryPathId(), getFileSubPath(), getFileName());
+    }
+}
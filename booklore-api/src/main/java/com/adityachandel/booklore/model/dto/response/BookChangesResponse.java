@@ -0,0 +1,21 @@
+package com.adityachandel.booklore.model.dto.response;
+
+import com.adityachandel.booklore.model.dto.Book;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+public class BookChangesResponse {
+    private long version;
+    private boolean fullSyncRequired;
+    @Builder.Default
+    private List<Book> upserts = new ArrayList<>();
+    @Builder.Default
+    private Set<Long> removedIds = new HashSet<>();
+}
@@ -30,5 +30,7 @@ public class TasksHistoryResponse {
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
         private LocalDateTime completedAt;
+        private Long queueWaitMs;
+        private Long runTimeMs;
     }
 }
@@ -26,4 +26,17 @@ public class LibraryFile {
         }
         return Paths.get(libraryPathEntity.getPath(), fileSubPath, fileName);
     }
+
+    public String pathKey() {
+        return pathKey(libraryPathEntity.getId(), fileSubPath, fileName);
+    }
+
+    /**
+     * Identifies a file by its library path id and relative path, so files on disk can be matched against book rows
+     * without loading the library path of every book.
+     */
+    public static String pathKey(Long libraryPathId, String fileSubPath, String fileName) {
+        String relativePath = fileSubPath == null || fileSubPath.isEmpty() ? fileName : Paths.get(fileSubPath, fileName).toString();
+        return libraryPathId + ":" + relativePath;
+    }
 }
@@ -24,4 +24,14 @@ public class AppMigrationEntity {
 
     @Column(name = "description")
     private String description;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed = true;
+
+    public AppMigrationEntity(String key, LocalDateTime executedAt, String description) {
+        this(key, executedAt, description, null, true);
+    }
 }
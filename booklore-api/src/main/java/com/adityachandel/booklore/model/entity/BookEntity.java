@@ -60,6 +60,18 @@ public class BookEntity {
     @Column(name = "current_hash", length = 128)
     private String currentHash;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_hash_source", length = 128)
+    private String contentHashSource;
+
+    @Column(name = "content_hash_file_size")
+    private Long contentHashFileSize;
+
+    @Column(name = "content_hash_file_modified")
+    private Long contentHashFileModified;
+
     @Column(name = "deleted")
     @Builder.Default
     private Boolean deleted = Boolean.FALSE;
@@ -10,6 +10,7 @@ import org.hibernate.annotations.FetchMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 @Entity
@@ -236,10 +237,47 @@ public class BookMetadataEntity {
     @Column(name = "search_text", columnDefinition = "TEXT")
     private String searchText;
 
+    @Column(name = "title_sort", nullable = false)
+    @Builder.Default
+    private String titleSort = "";
+
+    @Column(name = "author_sort", nullable = false)
+    @Builder.Default
+    private String authorSort = "";
+
+    @Column(name = "series_sort")
+    private String seriesSort;
+
+    @Column(name = "rating_sort")
+    private Double ratingSort;
+
+    // Generated by the database, see V86
+    @Column(name = "series_missing", insertable = false, updatable = false)
+    private Integer seriesMissing;
+
+    @Column(name = "series_number_missing", insertable = false, updatable = false)
+    private Integer seriesNumberMissing;
+
+    @Column(name = "rating_missing", insertable = false, updatable = false)
+    private Integer ratingMissing;
+
     @PrePersist
     @PreUpdate
     public void updateSearchText() {
         this.searchText = BookUtils.buildSearchText(this);
+        // Sort keys come from the same fields, so they ride on the same callback and manual triggers
+        updateSortKeys();
+    }
+
+    public void updateSortKeys() {
+        this.titleSort = Objects.requireNonNullElse(BookUtils.buildSortKey(title), "");
+        this.seriesSort = seriesName == null || seriesName.isBlank() ? null : BookUtils.buildSortKey(seriesName);
+        this.ratingSort = BookUtils.averageRating(this);
+        try {
+            this.authorSort = BookUtils.buildAuthorSortKey(authors);
+        } catch (Exception ex) {
+            // LazyInitializationException or similar - keep the previous author key
+        }
     }
 
     @OneToOne(fetch = FetchType.LAZY)
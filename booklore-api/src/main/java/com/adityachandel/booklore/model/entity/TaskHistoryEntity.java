@@ -45,6 +45,12 @@ public class TaskHistoryEntity {
     @Column(name = "progress_percentage")
     private Integer progressPercentage;
 
+    @Column(name = "queue_wait_ms")
+    private Long queueWaitMs;
+
+    @Column(name = "run_time_ms")
+    private Long runTimeMs;
+
     @Column(length = 512)
     private String message;
 
@@ -0,0 +1,7 @@
+package com.adityachandel.booklore.model.enums;
+
+public enum DuplicateType {
+    CONTENT,
+    ISBN,
+    TITLE_AUTHOR
+}
@@ -1,5 +1,7 @@
 package com.adityachandel.booklore.model.enums;
 
+import com.adityachandel.booklore.task.TaskPriority;
+import com.adityachandel.booklore.task.TaskResourceClass;
 import lombok.Getter;
 
 public enum TaskType {
@@ -9,6 +11,8 @@ public enum TaskType {
             false,
             true,
             false,
+            TaskResourceClass.DISK_IO,
+            TaskPriority.USER,
             "Clear CBX Cache",
             "Clears temporarily extracted comic book files used by the reader."
     ),
@@ -17,6 +21,8 @@ public enum TaskType {
             false,
             true,
             false,
+            TaskResourceClass.DISK_IO,
+            TaskPriority.USER,
             "Clear PDF Cache",
             "Clears temporarily generated images used by the streaming PDF reader."
     ),
@@ -25,6 +31,8 @@ public enum TaskType {
             true,
             false,
             false,
+            TaskResourceClass.NETWORK,
+            TaskPriority.USER,
             "Refresh Metadata",
             "Re-reads book information (title, author, cover, etc.) from your files and updates the Booklore database."
     ),
@@ -33,6 +41,8 @@ public enum TaskType {
             true,
             true,
             false,
+            TaskResourceClass.CPU,
+            TaskPriority.USER,
             "Update Book Recommendations",
             "Analyzes your library to generate personalized book recommendations based on the books you own."
     ),
@@ -41,6 +51,8 @@ public enum TaskType {
             false,
             true,
             false,
+            TaskResourceClass.DB,
+            TaskPriority.USER,
             "Cleanup Deleted Books",
             "Permanently removes database entries for books you previously deleted from your libraries."
     ),
@@ -49,6 +61,8 @@ public enum TaskType {
             false,
             true,
             false,
+            TaskResourceClass.DISK_IO,
+            TaskPriority.USER,
             "Sync Library Files",
             "Scans your library folders to detect new books and removes entries for files that no longer exist."
     ),
@@ -57,6 +71,8 @@ public enum TaskType {
             false,
             true,
             false,
+            TaskResourceClass.DISK_IO,
+            TaskPriority.USER,
             "Cleanup Temporary Metadata",
             "Removes temporary metadata files created during the bookdrop and manual metadata review processes."
     ),
@@ -65,6 +81,8 @@ public enum TaskType {
             true,
             false,
             true,
+            TaskResourceClass.NETWORK,
+            TaskPriority.INTERACTIVE,
             "Refresh Metadata",
             "Updates metadata information for your selected books."
     );
@@ -81,17 +99,25 @@ public enum TaskType {
     @Getter
     private final boolean hiddenFromUI;
 
+    @Getter
+    private final TaskResourceClass resourceClass;
+
+    @Getter
+    private final TaskPriority priority;
+
     @Getter
     private final String name;
 
     @Getter
     private final String description;
 
-    TaskType(boolean parallel, boolean async, boolean cronSupported, boolean hiddenFromUI, String name, String description) {
+    TaskType(boolean parallel, boolean async, boolean cronSupported, boolean hiddenFromUI, TaskResourceClass resourceClass, TaskPriority priority, String name, String description) {
         this.parallel = parallel;
         this.async = async;
         this.cronSupported = cronSupported;
         this.hiddenFromUI = hiddenFromUI;
+        this.resourceClass = resourceClass;
+        this.priority = priority;
         this.name = name;
         this.description = description;
     }
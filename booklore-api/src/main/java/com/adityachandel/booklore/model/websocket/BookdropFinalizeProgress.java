@@ -0,0 +1,18 @@
+package com.adityachandel.booklore.model.websocket;
+
+import com.adityachandel.booklore.model.dto.response.BookdropFileResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookdropFinalizeProgress {
+    private Long bookdropFileId;
+    private BookdropFileResult result;
+    private int processed;
+    private int total;
+}
@@ -0,0 +1,19 @@
+package com.adityachandel.booklore.model.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetadataWriteBackProgress {
+    private int written;
+    private int failed;
+    private long pending;
+    // Books that ran out of attempts; their files no longer match the stored metadata
+    private long exhausted;
+    private boolean finished;
+}
@@ -13,7 +13,9 @@ public enum Topic {
     BOOK_METADATA_UPDATE("/queue/book-metadata-update"),
     BOOK_METADATA_BATCH_UPDATE("/queue/book-metadata-batch-update"),
     BOOK_METADATA_BATCH_PROGRESS("/queue/book-metadata-batch-progress"),
+    METADATA_WRITE_BACK_PROGRESS("/queue/metadata-write-back-progress"),
     BOOKDROP_FILE("/queue/bookdrop-file"),
+    BOOKDROP_FINALIZE_PROGRESS("/queue/bookdrop-finalize-progress"),
     LOG("/queue/log"),
     TASK_PROGRESS("/queue/task-progress");
 
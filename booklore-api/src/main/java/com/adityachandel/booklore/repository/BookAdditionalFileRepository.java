@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.repository;
 
+import com.adityachandel.booklore.model.dto.FilePathRow;
 import com.adityachandel.booklore.model.entity.BookAdditionalFileEntity;
 import com.adityachandel.booklore.model.enums.AdditionalFileType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -41,4 +42,7 @@ public interface BookAdditionalFileRepository extends JpaRepository<BookAddition
 
     @Query("SELECT af FROM BookAdditionalFileEntity af WHERE af.book.library.id = :libraryId")
     List<BookAdditionalFileEntity> findByLibraryId(@Param("libraryId") Long libraryId);
+
+    @Query("SELECT af.id AS id, af.book.libraryPath.id AS libraryPathId, af.fileSubPath AS fileSubPath, af.fileName AS fileName FROM BookAdditionalFileEntity af WHERE af.book.library.id = :libraryId")
+    List<FilePathRow> findPathRowsByLibraryId(@Param("libraryId") Long libraryId);
 }
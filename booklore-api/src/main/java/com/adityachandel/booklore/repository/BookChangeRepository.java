@@ -0,0 +1,35 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.BookChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChangeEntity, Long> {
+
+    @Query("""
+            SELECT DISTINCT c.bookId FROM BookChangeEntity c
+            WHERE c.id > :since AND (c.userId IS NULL OR c.userId = :userId)
+            """)
+    List<Long> findChangedBookIdsSince(@Param("since") long since, @Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT MAX(c.id) FROM BookChangeEntity c WHERE c.changedAt < :before")
+    Long findMaxIdChangedBefore(@Param("before") Instant before);
+
+    @Query("SELECT MAX(c.id) FROM BookChangeEntity c")
+    Long findMaxId();
+
+    @Query("SELECT MIN(c.id) FROM BookChangeEntity c")
+    Long findMinId();
+
+    @Modifying
+    @Query("DELETE FROM BookChangeEntity c WHERE c.changedAt < :before")
+    int deleteChangedBefore(@Param("before") Instant before);
+}
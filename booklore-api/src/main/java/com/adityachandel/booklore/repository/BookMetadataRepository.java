@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.repository;
 
+import com.adityachandel.booklore.model.dto.BookNameValueDto;
 import com.adityachandel.booklore.model.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookMetadataRepository extends JpaRepository<BookMetadataEntity, Long> {
@@ -15,11 +17,39 @@ public interface BookMetadataRepository extends JpaRepository<BookMetadataEntity
     @Query("SELECT m FROM BookMetadataEntity m WHERE m.bookId IN :bookIds")
     List<BookMetadataEntity> getMetadataForBookIds(@Param("bookIds") List<Long> bookIds);
 
+    @Query("SELECT m.bookId AS bookId, a.name AS name FROM BookMetadataEntity m JOIN m.authors a WHERE m.bookId IN :bookIds")
+    List<BookNameValueDto> findAuthorNamesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.bookId AS bookId, c.name AS name FROM BookMetadataEntity m JOIN m.categories c WHERE m.bookId IN :bookIds")
+    List<BookNameValueDto> findCategoryNamesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.bookId AS bookId, mo.name AS name FROM BookMetadataEntity m JOIN m.moods mo WHERE m.bookId IN :bookIds")
+    List<BookNameValueDto> findMoodNamesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.bookId AS bookId, t.name AS name FROM BookMetadataEntity m JOIN m.tags t WHERE m.bookId IN :bookIds")
+    List<BookNameValueDto> findTagNamesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.coverUpdatedOn FROM BookMetadataEntity m WHERE m.bookId = :bookId")
+    Instant findCoverUpdatedOnByBookId(@Param("bookId") Long bookId);
+
     @Modifying
     @Transactional
     @Query("UPDATE BookMetadataEntity m SET m.coverUpdatedOn = :timestamp WHERE m.bookId = :bookId")
     void updateCoverTimestamp(@Param("bookId") Long bookId, @Param("timestamp") Instant timestamp);
 
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE BookMetadataEntity m
+            SET m.titleSort = :titleSort, m.authorSort = :authorSort, m.seriesSort = :seriesSort, m.ratingSort = :ratingSort
+            WHERE m.bookId = :bookId
+            """)
+    void updateSortKeys(@Param("bookId") Long bookId,
+                        @Param("titleSort") String titleSort,
+                        @Param("authorSort") String authorSort,
+                        @Param("seriesSort") String seriesSort,
+                        @Param("ratingSort") Double ratingSort);
+
     List<BookMetadataEntity> findAllByAuthorsContaining(AuthorEntity author);
 
     List<BookMetadataEntity> findAllByCategoriesContaining(CategoryEntity category);
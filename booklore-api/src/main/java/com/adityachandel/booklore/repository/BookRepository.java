@@ -1,8 +1,15 @@
 package com.adityachandel.booklore.repository;
 
+import com.adityachandel.booklore.model.dto.BookAuthorRow;
+import com.adityachandel.booklore.model.dto.BookFileRow;
+import com.adityachandel.booklore.model.dto.BookPathRow;
+import com.adityachandel.booklore.model.dto.BookRowDto;
+import com.adityachandel.booklore.model.dto.BookShelfLinkDto;
+import com.adityachandel.booklore.model.dto.CatalogBookRow;
+import com.adityachandel.booklore.model.dto.ContentHashCandidate;
+import com.adityachandel.booklore.model.dto.DuplicateBookRow;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryPathEntity;
-import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -24,6 +31,16 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
     @Query("SELECT b.id FROM BookEntity b WHERE b.library.id = :libraryId AND (b.deleted IS NULL OR b.deleted = false)")
     Set<Long> findBookIdsByLibraryId(@Param("libraryId") long libraryId);
 
+    @Query("SELECT b.id AS id, b.libraryPath.id AS libraryPathId, b.fileSubPath AS fileSubPath, b.fileName AS fileName, b.deleted AS deleted FROM BookEntity b WHERE b.library.id = :libraryId")
+    List<BookPathRow> findPathRowsByLibraryId(@Param("libraryId") long libraryId);
+
+    @Query("SELECT b.id AS id, b.libraryPath.id AS libraryPathId, b.fileSubPath AS fileSubPath, b.fileName AS fileName, b.deleted AS deleted FROM BookEntity b WHERE b.library.id = :libraryId AND b.deleted = true")
+    List<BookPathRow> findDeletedPathRowsByLibraryId(@Param("libraryId") long libraryId);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.deleted = false, b.deletedAt = NULL, b.addedOn = :addedOn WHERE b.id IN :bookIds AND b.deleted = true")
+    int restoreDeleted(@Param("bookIds") Collection<Long> bookIds, @Param("addedOn") Instant addedOn);
+
     List<BookEntity> findAllByLibraryPathIdAndFileSubPathStartingWith(Long libraryPathId, String fileSubPathPrefix);
 
     @Query("SELECT b FROM BookEntity b WHERE b.libraryPath.id = :libraryPathId AND b.fileSubPath = :fileSubPath AND b.fileName = :fileName AND (b.deleted IS NULL OR b.deleted = false)")
@@ -62,6 +79,112 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
     @Query("SELECT b FROM BookEntity b WHERE b.fileSizeKb IS NULL AND (b.deleted IS NULL OR b.deleted = false)")
     List<BookEntity> findAllWithMetadataByFileSizeKbIsNull();
 
+    @Query("""
+                SELECT b.id AS id, b.bookType AS bookType, b.library.id AS libraryId, b.library.name AS libraryName,
+                       b.libraryPath.id AS libraryPathId, b.fileName AS fileName, b.fileSubPath AS fileSubPath,
+                       b.fileSizeKb AS fileSizeKb, b.metadataMatchScore AS metadataMatchScore, b.addedOn AS addedOn
+                FROM BookEntity b
+                WHERE b.id > :afterId AND (b.deleted IS NULL OR b.deleted = false)
+                ORDER BY b.id
+            """)
+    List<BookRowDto> findBookRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+                SELECT b.id AS id, b.bookType AS bookType, b.library.id AS libraryId, b.library.name AS libraryName,
+                       b.libraryPath.id AS libraryPathId, b.fileName AS fileName, b.fileSubPath AS fileSubPath,
+                       b.fileSizeKb AS fileSizeKb, b.metadataMatchScore AS metadataMatchScore, b.addedOn AS addedOn
+                FROM BookEntity b
+                WHERE b.id > :afterId AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                ORDER BY b.id
+            """)
+    List<BookRowDto> findBookRowsAfterInLibraries(@Param("afterId") long afterId, @Param("libraryIds") Collection<Long> libraryIds, Pageable pageable);
+
+    @Query("""
+                SELECT b.id AS id, b.currentHash AS currentHash, b.libraryPath.path AS libraryPath,
+                       b.fileSubPath AS fileSubPath, b.fileName AS fileName, b.contentHash AS contentHash,
+                       b.contentHashSource AS contentHashSource, b.contentHashFileSize AS contentHashFileSize,
+                       b.contentHashFileModified AS contentHashFileModified
+                FROM BookEntity b
+                WHERE b.id > :afterId AND (b.deleted IS NULL OR b.deleted = false) AND b.currentHash IS NOT NULL
+                ORDER BY b.id
+            """)
+    List<ContentHashCandidate> findContentHashCandidatesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Only stores the hash if the partial hash has not changed since the file was read, otherwise the book stays stale.
+     */
+    @Modifying
+    @Query("""
+                UPDATE BookEntity b SET b.contentHash = :contentHash, b.contentHashSource = :currentHash,
+                       b.contentHashFileSize = :fileSize, b.contentHashFileModified = :fileModified
+                WHERE b.id = :bookId AND b.currentHash = :currentHash
+            """)
+    int updateContentHash(@Param("bookId") Long bookId, @Param("currentHash") String currentHash, @Param("contentHash") String contentHash,
+                          @Param("fileSize") long fileSize, @Param("fileModified") long fileModified);
+
+    @Query("""
+                SELECT b.contentHash FROM BookEntity b
+                WHERE b.contentHash IS NOT NULL AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                GROUP BY b.contentHash
+                HAVING COUNT(b) > 1
+                ORDER BY b.contentHash
+            """)
+    List<String> findDuplicateContentHashes(@Param("libraryIds") Collection<Long> libraryIds, Pageable pageable);
+
+    @Query("""
+                SELECT m.isbn13 FROM BookEntity b JOIN b.metadata m
+                WHERE m.isbn13 IS NOT NULL AND m.isbn13 <> '' AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                GROUP BY m.isbn13
+                HAVING COUNT(b) > 1
+                ORDER BY m.isbn13
+            """)
+    List<String> findDuplicateIsbn13s(@Param("libraryIds") Collection<Long> libraryIds, Pageable pageable);
+
+    @Query("""
+                SELECT m.titleSort FROM BookEntity b JOIN b.metadata m
+                WHERE m.titleSort <> '' AND m.authorSort <> '' AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                GROUP BY m.titleSort, m.authorSort
+                HAVING COUNT(b) > 1
+                ORDER BY m.titleSort
+            """)
+    List<String> findDuplicateTitleSorts(@Param("libraryIds") Collection<Long> libraryIds, Pageable pageable);
+
+    @Query("""
+                SELECT b.id AS id, b.bookType AS bookType, b.library.id AS libraryId, b.library.name AS libraryName,
+                       b.fileName AS fileName, b.fileSubPath AS fileSubPath, b.fileSizeKb AS fileSizeKb,
+                       b.contentHash AS contentHash, m.title AS title, m.isbn13 AS isbn13,
+                       m.titleSort AS titleSort, m.authorSort AS authorSort
+                FROM BookEntity b LEFT JOIN b.metadata m
+                WHERE b.contentHash IN :contentHashes AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                ORDER BY b.id
+            """)
+    List<DuplicateBookRow> findDuplicateRowsByContentHash(@Param("contentHashes") Collection<String> contentHashes, @Param("libraryIds") Collection<Long> libraryIds);
+
+    @Query("""
+                SELECT b.id AS id, b.bookType AS bookType, b.library.id AS libraryId, b.library.name AS libraryName,
+                       b.fileName AS fileName, b.fileSubPath AS fileSubPath, b.fileSizeKb AS fileSizeKb,
+                       b.contentHash AS contentHash, m.title AS title, m.isbn13 AS isbn13,
+                       m.titleSort AS titleSort, m.authorSort AS authorSort
+                FROM BookEntity b JOIN b.metadata m
+                WHERE m.isbn13 IN :isbns AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                ORDER BY b.id
+            """)
+    List<DuplicateBookRow> findDuplicateRowsByIsbn13(@Param("isbns") Collection<String> isbns, @Param("libraryIds") Collection<Long> libraryIds);
+
+    @Query("""
+                SELECT b.id AS id, b.bookType AS bookType, b.library.id AS libraryId, b.library.name AS libraryName,
+                       b.fileName AS fileName, b.fileSubPath AS fileSubPath, b.fileSizeKb AS fileSizeKb,
+                       b.contentHash AS contentHash, m.title AS title, m.isbn13 AS isbn13,
+                       m.titleSort AS titleSort, m.authorSort AS authorSort
+                FROM BookEntity b JOIN b.metadata m
+                WHERE m.titleSort IN :titleSorts AND b.library.id IN :libraryIds AND (b.deleted IS NULL OR b.deleted = false)
+                ORDER BY b.id
+            """)
+    List<DuplicateBookRow> findDuplicateRowsByTitleSort(@Param("titleSorts") Collection<String> titleSorts, @Param("libraryIds") Collection<Long> libraryIds);
+
+    @Query("SELECT b.id AS bookId, s.id AS shelfId FROM BookEntity b JOIN b.shelves s WHERE b.id IN :bookIds AND s.id IN :shelfIds")
+    List<BookShelfLinkDto> findShelfLinks(@Param("bookIds") Collection<Long> bookIds, @Param("shelfIds") Collection<Long> shelfIds);
+
     @Query("""
                 SELECT DISTINCT b FROM BookEntity b
                 LEFT JOIN FETCH b.metadata m
@@ -72,6 +195,33 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
             """)
     List<BookEntity> findAllFullBooks();
 
+    @Query("SELECT b.id FROM BookEntity b WHERE b.id > :afterId AND (b.deleted IS NULL OR b.deleted = false) ORDER BY b.id")
+    List<Long> findBookIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM BookEntity b WHERE b.id > :afterId AND b.fileSizeKb IS NULL AND (b.deleted IS NULL OR b.deleted = false) ORDER BY b.id")
+    List<Long> findBookIdsWithoutFileSizeAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+                SELECT DISTINCT b FROM BookEntity b
+                LEFT JOIN FETCH b.metadata m
+                LEFT JOIN FETCH m.authors
+                LEFT JOIN FETCH m.categories
+                WHERE b.id IN :bookIds
+            """)
+    List<BookEntity> findFullBooksByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.fileSizeKb = :fileSizeKb WHERE b.id = :bookId")
+    void updateFileSizeKb(@Param("bookId") Long bookId, @Param("fileSizeKb") Long fileSizeKb);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.metadataMatchScore = :score WHERE b.id = :bookId")
+    void updateMetadataMatchScore(@Param("bookId") Long bookId, @Param("score") Float score);
+
+    @Modifying
+    @Query("UPDATE BookEntity b SET b.currentHash = :hash, b.initialHash = COALESCE(b.initialHash, :hash) WHERE b.id = :bookId")
+    void updateFileHashes(@Param("bookId") Long bookId, @Param("hash") String hash);
+
     @Query(value = """
                 SELECT DISTINCT b.* FROM book b
                 LEFT JOIN book_metadata m ON b.id = m.book_id
@@ -105,15 +255,41 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
                     """)
     Page<BookEntity> searchByMetadata(@Param("text") String text, Pageable pageable);
 
-    @Modifying
-    @Transactional
-    @Query("DELETE FROM BookEntity b WHERE b.deleted IS TRUE")
-    int deleteAllSoftDeleted();
+    @Query("SELECT b.id FROM BookEntity b WHERE b.deleted IS TRUE AND b.id > :afterId ORDER BY b.id")
+    List<Long> findSoftDeletedIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM BookEntity b WHERE b.deleted IS TRUE AND b.deletedAt < :cutoffDate AND b.id > :afterId ORDER BY b.id")
+    List<Long> findSoftDeletedIdsBefore(@Param("cutoffDate") Instant cutoffDate, @Param("afterId") long afterId, Pageable pageable);
 
     @Modifying
-    @Transactional
-    @Query("DELETE FROM BookEntity b WHERE b.deleted IS TRUE AND b.deletedAt < :cutoffDate")
-    int deleteSoftDeletedBefore(@Param("cutoffDate") Instant cutoffDate);
+    @Query("DELETE FROM BookEntity b WHERE b.deleted IS TRUE AND b.id IN :bookIds")
+    int deleteSoftDeletedByIdIn(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT b.id FROM BookEntity b WHERE b.id IN :bookIds")
+    Set<Long> findExistingIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT b.id AS id, lp.path AS libraryPath, b.fileSubPath AS fileSubPath, b.fileName AS fileName FROM BookEntity b JOIN b.libraryPath lp WHERE b.id IN :bookIds AND (b.deleted IS NULL OR b.deleted = false)")
+    List<BookFileRow> findFileRowsByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("""
+            SELECT b.id AS id, b.library.id AS libraryId, b.addedOn AS addedOn,
+                   m.seriesName AS seriesName, m.seriesNumber AS seriesNumber, m.seriesTotal AS seriesTotal
+            FROM BookEntity b LEFT JOIN b.metadata m
+            WHERE b.id > :afterId AND (b.deleted IS NULL OR b.deleted = false)
+            ORDER BY b.id
+            """)
+    List<CatalogBookRow> findCatalogRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+            SELECT b.id AS id, b.library.id AS libraryId, b.addedOn AS addedOn,
+                   m.seriesName AS seriesName, m.seriesNumber AS seriesNumber, m.seriesTotal AS seriesTotal
+            FROM BookEntity b LEFT JOIN b.metadata m
+            WHERE b.id IN :bookIds AND (b.deleted IS NULL OR b.deleted = false)
+            """)
+    List<CatalogBookRow> findCatalogRowsByIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.bookId AS bookId, a.name AS name FROM BookMetadataEntity m JOIN m.authors a WHERE m.bookId IN :bookIds")
+    List<BookAuthorRow> findAuthorRowsByBookIds(@Param("bookIds") Collection<Long> bookIds);
 
     @Query("SELECT COUNT(b) FROM BookEntity b WHERE b.deleted = TRUE")
     long countAllSoftDeleted();
@@ -3,11 +3,26 @@ package com.adityachandel.booklore.repository;
 import com.adityachandel.booklore.model.entity.BookShelfKey;
 import com.adityachandel.booklore.model.entity.BookShelfMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 @Repository
 public interface BookShelfMappingRepository extends JpaRepository<BookShelfMapping, BookShelfKey> {
+
+    /**
+     * Puts every book on every shelf in one statement, skipping pairs that already exist.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO book_shelf_mapping (book_id, shelf_id)
+            SELECT b.id, s.id FROM book b CROSS JOIN shelf s
+            WHERE b.id IN (:bookIds) AND s.id IN (:shelfIds)
+            """, nativeQuery = true)
+    int addBooksToShelves(@Param("bookIds") Collection<Long> bookIds, @Param("shelfIds") Collection<Long> shelfIds);
 }
\ No newline at end of file
@@ -13,4 +13,7 @@ import java.util.List;
 public interface LibraryRepository extends JpaRepository<LibraryEntity, Long>, JpaSpecificationExecutor<LibraryEntity> {
 
     List<LibraryEntity> findByIdIn(List<Long> ids);
+
+    @Query("SELECT l.id FROM LibraryEntity l")
+    List<Long> findAllIds();
 }
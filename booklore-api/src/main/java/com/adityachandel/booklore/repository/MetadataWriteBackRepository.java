@@ -0,0 +1,64 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.MetadataWriteBackEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MetadataWriteBackRepository extends JpaRepository<MetadataWriteBackEntity, Long> {
+
+    /**
+     * Queues a book, or coalesces with its pending entry: the revision is bumped so a write already in flight won't
+     * remove it, and a requested move sticks until the entry is processed.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO metadata_write_back (book_id, move_file, revision, attempts, enqueued_at)
+            VALUES (:bookId, :moveFile, 1, 0, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE move_file = move_file OR VALUES(move_file),
+                                    revision = revision + 1,
+                                    attempts = 0,
+                                    last_error = NULL,
+                                    next_attempt_at = NULL,
+                                    enqueued_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    void enqueue(@Param("bookId") long bookId, @Param("moveFile") boolean moveFile);
+
+    /**
+     * Entries that still have attempts left and whose retry delay, if they failed before, has passed.
+     */
+    @Query("""
+            SELECT w FROM MetadataWriteBackEntity w
+            WHERE w.attempts < :maxAttempts AND (w.nextAttemptAt IS NULL OR w.nextAttemptAt <= :now)
+            ORDER BY w.enqueuedAt, w.bookId
+            """)
+    List<MetadataWriteBackEntity> findPending(@Param("maxAttempts") int maxAttempts, @Param("now") Instant now, Pageable pageable);
+
+    @Query("SELECT COUNT(w) FROM MetadataWriteBackEntity w WHERE w.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT COUNT(w) FROM MetadataWriteBackEntity w WHERE w.attempts >= :maxAttempts")
+    long countExhausted(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM MetadataWriteBackEntity w WHERE w.bookId = :bookId AND w.revision = :revision")
+    int deleteProcessed(@Param("bookId") long bookId, @Param("revision") long revision);
+
+    @Modifying
+    @Query("""
+            UPDATE MetadataWriteBackEntity w SET w.attempts = w.attempts + 1, w.lastError = :error, w.nextAttemptAt = :retryAt
+            WHERE w.bookId = :bookId AND w.revision = :revision
+            """)
+    int markFailed(@Param("bookId") long bookId, @Param("revision") long revision, @Param("error") String error, @Param("retryAt") Instant retryAt);
+
+    @Modifying
+    @Query("DELETE FROM MetadataWriteBackEntity w WHERE w.attempts >= :maxAttempts AND w.enqueuedAt < :before")
+    int deleteExhaustedBefore(@Param("maxAttempts") int maxAttempts, @Param("before") Instant before);
+}
@@ -29,46 +29,92 @@ public class BookRuleEvaluatorService {
     private final ObjectMapper objectMapper;
 
     public Specification<BookEntity> toSpecification(GroupRule groupRule, Long userId) {
+        return toSpecification(compile(groupRule), userId);
+    }
+
+    /**
+     * Only joins reading progress when a rule reads it, and then only the requesting user's row.
+     */
+    public Specification<BookEntity> toSpecification(MagicShelfRulePlan plan, Long userId) {
         return (root, query, cb) -> {
-            Join<BookEntity, UserBookProgressEntity> progressJoin = root.join("userBookProgress", JoinType.LEFT);
+            Join<BookEntity, UserBookProgressEntity> progressJoin = null;
+            if (plan.readsProgress()) {
+                progressJoin = root.join("userBookProgress", JoinType.LEFT);
+                progressJoin.on(cb.equal(progressJoin.get("user").get("id"), userId));
+            }
+            return buildPredicate(plan.root(), cb, root, progressJoin);
+        };
+    }
 
-            Predicate userPredicate = cb.or(
-                cb.isNull(progressJoin.get("user").get("id")),
-                cb.equal(progressJoin.get("user").get("id"), userId)
-            );
+    public MagicShelfRulePlan compile(GroupRule groupRule) {
+        boolean[] readsProgress = {false};
+        MagicShelfRulePlan.Group root = compileGroup(groupRule, readsProgress);
+        return new MagicShelfRulePlan(root, readsProgress[0]);
+    }
+
+    private MagicShelfRulePlan.Group compileGroup(GroupRule group, boolean[] readsProgress) {
+        List<MagicShelfRulePlan.Node> children = new ArrayList<>();
+        if (group.getRules() != null) {
+            for (Object ruleObj : group.getRules()) {
+                if (ruleObj == null) continue;
+
+                Map<String, Object> ruleMap = objectMapper.convertValue(ruleObj, new TypeReference<>() {
+                });
+                String type = (String) ruleMap.get("type");
+
+                if ("group".equals(type)) {
+                    GroupRule subGroup = objectMapper.convertValue(ruleObj, GroupRule.class);
+                    children.add(compileGroup(subGroup, readsProgress));
+                } else {
+                    try {
+                        Rule rule = objectMapper.convertValue(ruleObj, Rule.class);
+                        if (rule.getField() == null || rule.getOperator() == null) continue;
+                        children.add(compileRule(rule));
+                        readsProgress[0] |= isProgressField(rule.getField());
+                    } catch (Exception e) {
+                        log.error("Failed to parse rule: {}, error: {}", ruleObj, e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return new MagicShelfRulePlan.Group(group.getJoin(), List.copyOf(children));
+    }
 
-            Predicate rulePredicate = buildPredicate(groupRule, cb, root, progressJoin);
+    private MagicShelfRulePlan.Condition compileRule(Rule rule) {
+        RuleField field = rule.getField();
+        return new MagicShelfRulePlan.Condition(
+                field,
+                rule.getOperator(),
+                normalizeValue(rule.getValue(), field),
+                rule.getValue() == null ? null : rule.getValue().toString().toLowerCase(),
+                normalizeValue(rule.getValueStart(), field),
+                normalizeValue(rule.getValueEnd(), field),
+                List.copyOf(toStringList(rule.getValue())));
+    }
 
-            return cb.and(userPredicate, rulePredicate);
-        };
+    private boolean isProgressField(RuleField field) {
+        return field == RuleField.READ_STATUS || field == RuleField.DATE_FINISHED
+                || field == RuleField.LAST_READ_TIME || field == RuleField.PERSONAL_RATING;
     }
 
-    private Predicate buildPredicate(GroupRule group, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        if (group.getRules() == null || group.getRules().isEmpty()) {
+    private Predicate buildPredicate(MagicShelfRulePlan.Group group, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        if (group.children().isEmpty()) {
             return cb.conjunction();
         }
 
         List<Predicate> predicates = new ArrayList<>();
 
-        for (Object ruleObj : group.getRules()) {
-            if (ruleObj == null) continue;
-
-            Map<String, Object> ruleMap = objectMapper.convertValue(ruleObj, new TypeReference<>() {
-            });
-            String type = (String) ruleMap.get("type");
-
-            if ("group".equals(type)) {
-                GroupRule subGroup = objectMapper.convertValue(ruleObj, GroupRule.class);
+        for (MagicShelfRulePlan.Node node : group.children()) {
+            if (node instanceof MagicShelfRulePlan.Group subGroup) {
                 predicates.add(buildPredicate(subGroup, cb, root, progressJoin));
-            } else {
+            } else if (node instanceof MagicShelfRulePlan.Condition rule) {
                 try {
-                    Rule rule = objectMapper.convertValue(ruleObj, Rule.class);
                     Predicate rulePredicate = buildRulePredicate(rule, cb, root, progressJoin);
                     if (rulePredicate != null) {
                         predicates.add(rulePredicate);
                     }
                 } catch (Exception e) {
-                    log.error("Failed to parse rule: {}, error: {}", ruleObj, e.getMessage(), e);
+                    log.error("Failed to apply rule: {}, error: {}", rule, e.getMessage(), e);
                 }
             }
         }
@@ -77,15 +123,13 @@ public class BookRuleEvaluatorService {
             return cb.conjunction();
         }
 
-        return group.getJoin() == com.adityachandel.booklore.model.dto.JoinType.AND
+        return group.join() == com.adityachandel.booklore.model.dto.JoinType.AND
                 ? cb.and(predicates.toArray(new Predicate[0]))
                 : cb.or(predicates.toArray(new Predicate[0]));
     }
 
-    private Predicate buildRulePredicate(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        if (rule.getField() == null || rule.getOperator() == null) return null;
-
-        return switch (rule.getOperator()) {
+    private Predicate buildRulePredicate(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        return switch (rule.operator()) {
             case EQUALS -> buildEquals(rule, cb, root, progressJoin);
             case NOT_EQUALS -> buildNotEquals(rule, cb, root, progressJoin);
             case CONTAINS -> buildContains(rule, cb, root, progressJoin);
@@ -105,21 +149,21 @@ public class BookRuleEvaluatorService {
         };
     }
 
-    private Predicate buildEquals(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        List<String> ruleList = toStringList(rule.getValue());
+    private Predicate buildEquals(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        List<String> ruleList = rule.values();
 
-        if (isArrayField(rule.getField())) {
-            return buildArrayFieldPredicate(rule.getField(), ruleList, cb, root, false);
+        if (isArrayField(rule.field())) {
+            return buildArrayFieldPredicate(rule.field(), ruleList, cb, root, false);
         }
 
-        Expression<?> field = getFieldExpression(rule.getField(), cb, root, progressJoin);
+        Expression<?> field = getFieldExpression(rule.field(), cb, root, progressJoin);
         if (field == null) return cb.conjunction();
 
-        Object value = normalizeValue(rule.getValue(), rule.getField());
+        Object value = rule.value();
 
         if (value instanceof LocalDateTime) {
             return cb.equal(field, value);
-        } else if (rule.getField() == RuleField.READ_STATUS) {
+        } else if (rule.field() == RuleField.READ_STATUS) {
             if ("UNSET".equals(value.toString())) {
                 return cb.isNull(field);
             }
@@ -130,25 +174,25 @@ public class BookRuleEvaluatorService {
         return cb.equal(cb.lower(field.as(String.class)), value.toString().toLowerCase());
     }
 
-    private Predicate buildNotEquals(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+    private Predicate buildNotEquals(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
         return cb.not(buildEquals(rule, cb, root, progressJoin));
     }
 
-    private Predicate buildContains(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        String ruleVal = rule.getValue().toString().toLowerCase();
-        return buildStringPredicate(rule.getField(), root, progressJoin, cb,
+    private Predicate buildContains(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        String ruleVal = rule.text();
+        return buildStringPredicate(rule.field(), root, progressJoin, cb,
             nameField -> cb.like(cb.lower(nameField), "%" + escapeLike(ruleVal) + "%"));
     }
 
-    private Predicate buildStartsWith(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        String ruleVal = rule.getValue().toString().toLowerCase();
-        return buildStringPredicate(rule.getField(), root, progressJoin, cb,
+    private Predicate buildStartsWith(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        String ruleVal = rule.text();
+        return buildStringPredicate(rule.field(), root, progressJoin, cb,
             nameField -> cb.like(cb.lower(nameField), escapeLike(ruleVal) + "%"));
     }
 
-    private Predicate buildEndsWith(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        String ruleVal = rule.getValue().toString().toLowerCase();
-        return buildStringPredicate(rule.getField(), root, progressJoin, cb,
+    private Predicate buildEndsWith(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        String ruleVal = rule.text();
+        return buildStringPredicate(rule.field(), root, progressJoin, cb,
             nameField -> cb.like(cb.lower(nameField), "%" + escapeLike(ruleVal)));
     }
 
@@ -168,38 +212,38 @@ public class BookRuleEvaluatorService {
         return predicateBuilder.apply(fieldExpr.as(String.class));
     }
 
-    private Predicate buildGreaterThan(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+    private Predicate buildGreaterThan(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
         return buildComparisonPredicate(rule, cb, root, progressJoin,
             (field, dateValue) -> cb.greaterThan(field.as(LocalDateTime.class), dateValue),
             (field, numValue) -> cb.gt(field.as(Number.class), numValue));
     }
 
-    private Predicate buildGreaterThanEqual(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+    private Predicate buildGreaterThanEqual(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
         return buildComparisonPredicate(rule, cb, root, progressJoin,
             (field, dateValue) -> cb.greaterThanOrEqualTo(field.as(LocalDateTime.class), dateValue),
             (field, numValue) -> cb.ge(field.as(Number.class), numValue));
     }
 
-    private Predicate buildLessThan(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+    private Predicate buildLessThan(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
         return buildComparisonPredicate(rule, cb, root, progressJoin,
             (field, dateValue) -> cb.lessThan(field.as(LocalDateTime.class), dateValue),
             (field, numValue) -> cb.lt(field.as(Number.class), numValue));
     }
 
-    private Predicate buildLessThanEqual(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+    private Predicate buildLessThanEqual(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
         return buildComparisonPredicate(rule, cb, root, progressJoin,
             (field, dateValue) -> cb.lessThanOrEqualTo(field.as(LocalDateTime.class), dateValue),
             (field, numValue) -> cb.le(field.as(Number.class), numValue));
     }
 
-    private Predicate buildComparisonPredicate(Rule rule, CriteriaBuilder cb, Root<BookEntity> root,
+    private Predicate buildComparisonPredicate(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root,
                                               Join<BookEntity, UserBookProgressEntity> progressJoin,
                                               BiFunction<Expression<?>, LocalDateTime, Predicate> dateComparator,
                                               BiFunction<Expression<?>, Double, Predicate> numberComparator) {
-        Expression<?> field = getFieldExpression(rule.getField(), cb, root, progressJoin);
+        Expression<?> field = getFieldExpression(rule.field(), cb, root, progressJoin);
         if (field == null) return cb.conjunction();
 
-        Object value = normalizeValue(rule.getValue(), rule.getField());
+        Object value = rule.value();
 
         if (value instanceof LocalDateTime) {
             return dateComparator.apply(field, (LocalDateTime) value);
@@ -207,12 +251,12 @@ public class BookRuleEvaluatorService {
         return numberComparator.apply(field, ((Number) value).doubleValue());
     }
 
-    private Predicate buildInBetween(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        Expression<?> field = getFieldExpression(rule.getField(), cb, root, progressJoin);
+    private Predicate buildInBetween(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        Expression<?> field = getFieldExpression(rule.field(), cb, root, progressJoin);
         if (field == null) return cb.conjunction();
 
-        Object start = normalizeValue(rule.getValueStart(), rule.getField());
-        Object end = normalizeValue(rule.getValueEnd(), rule.getField());
+        Object start = rule.start();
+        Object end = rule.end();
 
         if (start == null || end == null) return cb.conjunction();
 
@@ -227,53 +271,53 @@ public class BookRuleEvaluatorService {
         return cb.between(field.as(Double.class), ((Number) start).doubleValue(), ((Number) end).doubleValue());
     }
 
-    private Predicate buildIsEmpty(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        if (isArrayField(rule.getField())) {
+    private Predicate buildIsEmpty(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        if (isArrayField(rule.field())) {
             Subquery<Long> subquery = cb.createQuery().subquery(Long.class);
             Root<BookEntity> subRoot = subquery.from(BookEntity.class);
 
             Join<Object, Object> metadataJoin = subRoot.join("metadata", JoinType.INNER);
-            joinArrayField(rule.getField(), metadataJoin);
+            joinArrayField(rule.field(), metadataJoin);
 
             subquery.select(cb.literal(1L)).where(cb.equal(subRoot.get("id"), root.get("id")));
 
             return cb.not(cb.exists(subquery));
         }
 
-        Expression<?> field = getFieldExpression(rule.getField(), cb, root, progressJoin);
+        Expression<?> field = getFieldExpression(rule.field(), cb, root, progressJoin);
         if (field == null) return cb.conjunction();
 
         return cb.or(cb.isNull(field), cb.equal(cb.trim(field.as(String.class)), ""));
     }
 
-    private Predicate buildIncludesAny(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        List<String> ruleList = toStringList(rule.getValue());
+    private Predicate buildIncludesAny(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        List<String> ruleList = rule.values();
 
-        if (isArrayField(rule.getField())) {
-            return buildArrayFieldPredicate(rule.getField(), ruleList, cb, root, false);
+        if (isArrayField(rule.field())) {
+            return buildArrayFieldPredicate(rule.field(), ruleList, cb, root, false);
         }
 
-        return buildFieldInPredicate(rule.getField(), field -> field, ruleList, cb, progressJoin);
+        return buildFieldInPredicate(rule.field(), field -> field, ruleList, cb, progressJoin);
     }
 
-    private Predicate buildExcludesAll(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        List<String> ruleList = toStringList(rule.getValue());
+    private Predicate buildExcludesAll(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        List<String> ruleList = rule.values();
 
-        if (isArrayField(rule.getField())) {
-            return cb.not(buildArrayFieldPredicate(rule.getField(), ruleList, cb, root, false));
+        if (isArrayField(rule.field())) {
+            return cb.not(buildArrayFieldPredicate(rule.field(), ruleList, cb, root, false));
         }
 
-        return cb.not(buildFieldInPredicate(rule.getField(), field -> field, ruleList, cb, progressJoin));
+        return cb.not(buildFieldInPredicate(rule.field(), field -> field, ruleList, cb, progressJoin));
     }
 
-    private Predicate buildIncludesAll(Rule rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
-        List<String> ruleList = toStringList(rule.getValue());
+    private Predicate buildIncludesAll(MagicShelfRulePlan.Condition rule, CriteriaBuilder cb, Root<BookEntity> root, Join<BookEntity, UserBookProgressEntity> progressJoin) {
+        List<String> ruleList = rule.values();
 
-        if (isArrayField(rule.getField())) {
-            return buildArrayFieldPredicate(rule.getField(), ruleList, cb, root, true);
+        if (isArrayField(rule.field())) {
+            return buildArrayFieldPredicate(rule.field(), ruleList, cb, root, true);
         }
 
-        return buildFieldInPredicate(rule.getField(), field -> field, ruleList, cb, progressJoin);
+        return buildFieldInPredicate(rule.field(), field -> field, ruleList, cb, progressJoin);
     }
 
     private Predicate buildFieldInPredicate(RuleField ruleField,
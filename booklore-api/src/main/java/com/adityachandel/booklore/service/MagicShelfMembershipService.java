@@ -0,0 +1,188 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.model.dto.GroupRule;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.MagicShelfEntity;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the compiled rule plan of each magic shelf and the ids of the books matching it per viewer.
+ * A plan is rebuilt when the shelf's filter changes. When books change, only the changed books are evaluated against
+ * the rule again and the membership is patched, so repeated page and count requests don't re-run the full query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MagicShelfMembershipService {
+
+    // Upper bound for changes that bypass the book change log, e.g. bulk maintenance jobs
+    static final Duration MAX_MEMBERSHIP_AGE = Duration.ofMinutes(10);
+    static final int MAX_CACHED_MEMBERSHIPS = 1000;
+    // More changed books than this are cheaper to pick up with a full query than with a long IN list
+    static final int MAX_INCREMENTAL_CHANGES = 1000;
+    // While changes are younger than the commit grace window they are applied again, at most this often
+    private static final long RECHECK_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final BookRuleEvaluatorService ruleEvaluatorService;
+    private final BookChangeService bookChangeService;
+    private final BookChangeRepository bookChangeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, CachedPlan> plans = new ConcurrentHashMap<>();
+    private final Map<MembershipKey, Membership> memberships = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MembershipKey, Membership> eldest) {
+            return size() > MAX_CACHED_MEMBERSHIPS;
+        }
+    };
+
+    public MagicShelfRulePlan getPlan(MagicShelfEntity shelf) throws JsonProcessingException {
+        CachedPlan cached = plans.get(shelf.getId());
+        if (cached != null && cached.filterJson().equals(shelf.getFilterJson())) {
+            return cached.plan();
+        }
+        MagicShelfRulePlan plan = ruleEvaluatorService.compile(objectMapper.readValue(shelf.getFilterJson(), GroupRule.class));
+        plans.put(shelf.getId(), new CachedPlan(shelf.getFilterJson(), plan));
+        return plan;
+    }
+
+    /**
+     * Ids of the non-deleted books on the shelf as seen by the user, ascending.
+     * {@code libraryIds} limits the result to those libraries; null means all libraries.
+     */
+    public List<Long> getBookIds(MagicShelfEntity shelf, Long userId, Set<Long> libraryIds) throws JsonProcessingException {
+        MembershipKey key = new MembershipKey(shelf.getId(), userId, libraryIds == null ? null : Set.copyOf(libraryIds));
+        // Read before querying, so a change that lands during the query invalidates the result
+        long latest = bookChangeService.latestVersion();
+        Membership cached;
+        synchronized (memberships) {
+            cached = memberships.get(key);
+        }
+        if (cached != null && cached.isCurrent(shelf.getFilterJson(), latest)) {
+            return cached.bookIds();
+        }
+
+        // Changes up to this version are committed, so patching from it never misses one
+        long synced = bookChangeService.currentVersion();
+        MagicShelfRulePlan plan = getPlan(shelf);
+        Membership membership = cached != null && cached.isPatchable(shelf.getFilterJson())
+                ? patch(cached, plan, userId, libraryIds, latest, synced)
+                : null;
+        if (membership == null) {
+            List<Long> bookIds = List.copyOf(queryBookIds(plan, userId, libraryIds, null));
+            membership = new Membership(shelf.getFilterJson(), latest, synced, Instant.now(), System.nanoTime(), bookIds);
+        }
+        synchronized (memberships) {
+            memberships.put(key, membership);
+        }
+        return membership.bookIds();
+    }
+
+    public void evict(Long shelfId) {
+        plans.remove(shelfId);
+        synchronized (memberships) {
+            memberships.keySet().removeIf(key -> key.shelfId().equals(shelfId));
+        }
+    }
+
+    /**
+     * @return the membership with the books changed since it was synced evaluated again, or {@code null} if it has to
+     * be computed from scratch instead
+     */
+    private Membership patch(Membership cached, MagicShelfRulePlan plan, Long userId, Set<Long> libraryIds, long latest, long synced) {
+        Long oldestRetained = bookChangeRepository.findMinId();
+        if (oldestRetained != null && cached.syncedVersion() < oldestRetained - 1) {
+            return null;
+        }
+        List<Long> changed = bookChangeRepository.findChangedBookIdsSince(cached.syncedVersion(), userId, PageRequest.of(0, MAX_INCREMENTAL_CHANGES + 1));
+        if (changed.size() > MAX_INCREMENTAL_CHANGES) {
+            return null;
+        }
+        List<Long> bookIds = cached.bookIds();
+        if (!changed.isEmpty()) {
+            TreeSet<Long> patched = new TreeSet<>(bookIds);
+            changed.forEach(patched::remove);
+            patched.addAll(queryBookIds(plan, userId, libraryIds, changed));
+            bookIds = List.copyOf(patched);
+        }
+        return new Membership(cached.filterJson(), latest, synced, cached.computedAt(), System.nanoTime(), bookIds);
+    }
+
+    /**
+     * @param bookIds only evaluate these books, all books when {@code null}
+     */
+    private List<Long> queryBookIds(MagicShelfRulePlan plan, Long userId, Set<Long> libraryIds, Collection<Long> bookIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<BookEntity> root = query.from(BookEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(ruleEvaluatorService.toSpecification(plan, userId).toPredicate(root, query, cb));
+        predicates.add(cb.or(cb.isNull(root.get("deleted")), cb.isFalse(root.get("deleted"))));
+        if (libraryIds != null) {
+            if (libraryIds.isEmpty()) {
+                return List.of();
+            }
+            predicates.add(root.get("library").get("id").in(libraryIds));
+        }
+        if (bookIds != null) {
+            predicates.add(root.get("id").in(bookIds));
+        }
+
+        query.select(root.get("id"))
+                .distinct(true)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private record CachedPlan(String filterJson, MagicShelfRulePlan plan) {
+    }
+
+    private record MembershipKey(Long shelfId, Long userId, Set<Long> libraryIds) {
+    }
+
+    /**
+     * @param seenVersion   newest change applied
+     * @param syncedVersion version up to which every change is known to be committed and applied
+     * @param computedAt    when the full query last ran
+     * @param refreshedAt   {@link System#nanoTime()} of the last full query or patch
+     */
+    private record Membership(String filterJson, long seenVersion, long syncedVersion, Instant computedAt, long refreshedAt,
+                              List<Long> bookIds) {
+
+        boolean isCurrent(String currentFilterJson, long latestVersion) {
+            return seenVersion == latestVersion
+                    && (syncedVersion >= seenVersion || System.nanoTime() - refreshedAt < RECHECK_INTERVAL_NANOS)
+                    && isPatchable(currentFilterJson);
+        }
+
+        boolean isPatchable(String currentFilterJson) {
+            return filterJson.equals(currentFilterJson) && computedAt.plus(MAX_MEMBERSHIP_AGE).isAfter(Instant.now());
+        }
+    }
+}
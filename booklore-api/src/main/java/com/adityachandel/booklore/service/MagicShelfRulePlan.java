@@ -0,0 +1,29 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.model.dto.JoinType;
+import com.adityachandel.booklore.model.dto.RuleField;
+import com.adityachandel.booklore.model.dto.RuleOperator;
+
+import java.util.List;
+
+/**
+ * Magic shelf rules parsed and normalized once by {@link BookRuleEvaluatorService#compile}, so building a query
+ * no longer goes back to the JSON tree. Immutable and safe to share between requests.
+ */
+public record MagicShelfRulePlan(Group root, boolean readsProgress) {
+
+    public sealed interface Node permits Group, Condition {
+    }
+
+    public record Group(JoinType join, List<Node> children) implements Node {
+    }
+
+    /**
+     * A single rule with its values pre-normalized: {@code value}, {@code start} and {@code end} as used for
+     * equality and comparisons, {@code text} as the lower-cased string for pattern matches and {@code values}
+     * as the list form for set operators.
+     */
+    public record Condition(RuleField field, RuleOperator operator, Object value, String text,
+                            Object start, Object end, List<String> values) implements Node {
+    }
+}
@@ -17,6 +17,7 @@ public class MagicShelfService {
 
     private final MagicShelfRepository magicShelfRepository;
     private final AuthenticationService authenticationService;
+    private final MagicShelfMembershipService membershipService;
 
     public List<MagicShelf> getUserShelves() {
         Long userId = authenticationService.getAuthenticatedUser().getId();
@@ -59,6 +60,7 @@ public class MagicShelfService {
             existing.setIconType(dto.getIconType());
             existing.setFilterJson(dto.getFilterJson());
             existing.setPublic(dto.getIsPublic());
+            membershipService.evict(existing.getId());
             return toDto(magicShelfRepository.save(existing));
         }
         if (magicShelfRepository.existsByUserIdAndName(userId, dto.getName())) {
@@ -75,6 +77,7 @@ public class MagicShelfService {
             throw new SecurityException("You are not authorized to delete this shelf");
         }
         magicShelfRepository.deleteById(id);
+        membershipService.evict(id);
     }
 
     private MagicShelf toDto(MagicShelfEntity entity) {
@@ -6,6 +6,8 @@ import com.adityachandel.booklore.model.entity.UserPermissionsEntity;
 import com.adityachandel.booklore.model.enums.PermissionType;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.UserRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.adityachandel.booklore.util.UserPermissionUtils.hasPermission;
@@ -25,8 +28,16 @@ public class NotificationService {
     private final SimpMessagingTemplate messagingTemplate;
     private final AuthenticationService authenticationService;
     private final UserRepository userRepository;
+    private final BookloreMetrics bookloreMetrics;
 
     public void sendMessage(Topic topic, Object message) {
+        sendMessage(topic, message, null);
+    }
+
+    /**
+     * Sends with the book change version as a {@code change-version} header, so clients can resume delta sync from it.
+     */
+    public void sendMessage(Topic topic, Object message, Long changeVersion) {
         try {
             var user = authenticationService.getAuthenticatedUser();
             if (user == null) {
@@ -34,13 +45,18 @@ public class NotificationService {
                 return;
             }
             String username = user.getUsername();
-            messagingTemplate.convertAndSendToUser(username, topic.getPath(), message);
+            messagingTemplate.convertAndSendToUser(username, topic.getPath(), message, changeVersionHeaders(changeVersion));
+            bookloreMetrics.recordWebSocketFanOut(topic, 1);
         } catch (Exception e) {
             log.error("Error sending message to topic {}: {}", topic, e.getMessage(), e);
         }
     }
 
     public void sendMessageToPermissions(Topic topic, Object message, Set<PermissionType> permissionTypes) {
+        sendMessageToPermissions(topic, message, permissionTypes, null);
+    }
+
+    public void sendMessageToPermissions(Topic topic, Object message, Set<PermissionType> permissionTypes, Long changeVersion) {
         if (permissionTypes == null || permissionTypes.isEmpty()) return;
 
         Set<PermissionType> permissionSet = EnumSet.noneOf(PermissionType.class);
@@ -48,19 +64,26 @@ public class NotificationService {
 
         try {
             List<BookLoreUserEntity> users = userRepository.findAll();
+            int recipients = 0;
             for (BookLoreUserEntity user : users) {
                 UserPermissionsEntity perms = user.getPermissions();
                 if (perms != null) {
                     for (PermissionType p : permissionSet) {
                         if (hasPermission(perms, p)) {
-                            messagingTemplate.convertAndSendToUser(user.getUsername(), topic.getPath(), message);
+                            messagingTemplate.convertAndSendToUser(user.getUsername(), topic.getPath(), message, changeVersionHeaders(changeVersion));
+                            recipients++;
                             break;
                         }
                     }
                 }
             }
+            bookloreMetrics.recordWebSocketFanOut(topic, recipients);
         } catch (Exception e) {
             log.error("Error sending message to users with permissions {}: {}", permissionSet, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    public static Map<String, Object> changeVersionHeaders(Long changeVersion) {
+        return changeVersion == null ? null : Map.of(BookChangeService.CHANGE_VERSION_HEADER, changeVersion);
+    }
+}
@@ -0,0 +1,118 @@
+package com.adityachandel.booklore.service.book;
+
+import com.adityachandel.booklore.model.entity.BookChangeEntity;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records which books changed and when, so clients can fetch only the books that changed since their last sync.
+ * The id of each change row is its change version.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookChangeService {
+
+    public static final String CHANGE_VERSION_HEADER = "change-version";
+
+    static final int MAX_CHANGED_BOOKS = 5000;
+    // Changes younger than this are handed out again on the next sync, so a transaction that got a lower id
+    // but committed after a higher one is never skipped. Upserts are idempotent, so re-sending is harmless.
+    static final Duration COMMIT_GRACE = Duration.ofSeconds(30);
+    static final Duration RETENTION = Duration.ofDays(30);
+
+    private final BookChangeRepository bookChangeRepository;
+
+    public Long recordChange(Long bookId) {
+        return record(List.of(bookId), null);
+    }
+
+    public Long recordChanges(Collection<Long> bookIds) {
+        return record(bookIds, null);
+    }
+
+    /**
+     * Records changes that are only visible to one user, e.g. reading progress or shelf membership.
+     */
+    public Long recordUserChanges(Long userId, Collection<Long> bookIds) {
+        return record(bookIds, userId);
+    }
+
+    public long currentVersion() {
+        Long version = bookChangeRepository.findMaxIdChangedBefore(Instant.now().minus(COMMIT_GRACE));
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * The newest recorded change, without the commit grace window. Suited to invalidating server-side caches,
+     * not to handing out as a client sync version.
+     */
+    public long latestVersion() {
+        Long version = bookChangeRepository.findMaxId();
+        return version == null ? 0L : version;
+    }
+
+    public ChangeSet getChangesSince(long since, Long userId) {
+        long version = currentVersion();
+        if (since <= 0) {
+            return ChangeSet.fullSync(version);
+        }
+        if (since >= version) {
+            // Nothing committed is newer, e.g. an empty or fully pruned log. Handing back the committed version makes
+            // the client ask for the changes still inside the grace window again later.
+            return new ChangeSet(version > 0 ? version : since, false, List.of());
+        }
+        Long oldestRetained = bookChangeRepository.findMinId();
+        if (oldestRetained == null || since < oldestRetained - 1) {
+            return ChangeSet.fullSync(version);
+        }
+        List<Long> bookIds = bookChangeRepository.findChangedBookIdsSince(since, userId, PageRequest.of(0, MAX_CHANGED_BOOKS + 1));
+        if (bookIds.size() > MAX_CHANGED_BOOKS) {
+            return ChangeSet.fullSync(version);
+        }
+        return new ChangeSet(version, false, bookIds);
+    }
+
+    @Scheduled(cron = "0 15 3 * * *")
+    @Transactional
+    public void pruneChanges() {
+        int deleted = bookChangeRepository.deleteChangedBefore(Instant.now().minus(RETENTION));
+        if (deleted > 0) {
+            log.info("Pruned {} book change entries older than {} days", deleted, RETENTION.toDays());
+        }
+    }
+
+    private Long record(Collection<Long> bookIds, Long userId) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return null;
+        }
+        Instant now = Instant.now();
+        List<BookChangeEntity> changes = bookIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(bookId -> BookChangeEntity.builder().bookId(bookId).userId(userId).changedAt(now).build())
+                .toList();
+        return bookChangeRepository.saveAll(changes).stream()
+                .map(BookChangeEntity::getId)
+                .max(Long::compare)
+                .orElse(null);
+    }
+
+    public record ChangeSet(long version, boolean fullSyncRequired, List<Long> bookIds) {
+
+        static ChangeSet fullSync(long version) {
+            return new ChangeSet(version, true, List.of());
+        }
+    }
+}
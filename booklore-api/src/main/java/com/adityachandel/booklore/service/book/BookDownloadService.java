@@ -6,22 +6,20 @@ import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.file.FileStreamingService;
 import com.adityachandel.booklore.service.kobo.KepubConversionService;
 import com.adityachandel.booklore.service.kobo.CbxConversionService;
 import com.adityachandel.booklore.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
@@ -43,41 +41,35 @@ public class BookDownloadService {
     private final KepubConversionService kepubConversionService;
     private final CbxConversionService cbxConversionService;
     private final AppSettingService appSettingService;
+    private final FileStreamingService fileStreamingService;
 
-    public ResponseEntity<Resource> downloadBook(Long bookId) {
+    public void downloadBook(Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        BookEntity bookEntity = bookRepository.findById(bookId)
+                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        Path file = Paths.get(FileUtils.getBookFullPath(bookEntity)).toAbsolutePath().normalize();
+        if (!Files.isRegularFile(file)) {
+            throw ApiError.FAILED_TO_DOWNLOAD_FILE.createException(bookId);
+        }
         try {
-            BookEntity bookEntity = bookRepository.findById(bookId)
-                    .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
-
-            Path file = Paths.get(FileUtils.getBookFullPath(bookEntity)).toAbsolutePath().normalize();
-            File bookFile = file.toFile();
-
-            if (!bookFile.exists()) {
-                throw ApiError.FAILED_TO_DOWNLOAD_FILE.createException(bookId);
-            }
-
-            InputStream inputStream = new FileInputStream(bookFile);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-
-            String encodedFilename = URLEncoder.encode(file.getFileName().toString(), StandardCharsets.UTF_8)
-                    .replace("+", "%20");
-            String fallbackFilename = NON_ASCII_PATTERN.matcher(file.getFileName().toString()).replaceAll("_");
-            String contentDisposition = String.format("attachment; filename=\"%s\"; filename*=UTF-8''%s",
-                    fallbackFilename, encodedFilename);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(bookFile.length())
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
-                    .header(HttpHeaders.PRAGMA, "no-cache")
-                    .header(HttpHeaders.EXPIRES, "0")
-                    .body(resource);
+            fileStreamingService.serve(file, bookEntity.getCurrentHash(), MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                    attachmentDisposition(file.getFileName().toString()), request, response);
         } catch (Exception e) {
             log.error("Failed to download book {}: {}", bookId, e.getMessage(), e);
             throw ApiError.FAILED_TO_DOWNLOAD_FILE.createException(bookId);
         }
     }
 
+    public void streamBookContent(long bookId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BookEntity bookEntity = bookRepository.findById(bookId)
+                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        Path file = Paths.get(FileUtils.getBookFullPath(bookEntity));
+        if (!Files.isRegularFile(file)) {
+            throw ApiError.FILE_NOT_FOUND.createException(file.toString());
+        }
+        fileStreamingService.serve(file, bookEntity.getCurrentHash(), MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                null, request, response);
+    }
+
     public void downloadKoboBook(Long bookId, HttpServletResponse response) {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
         
@@ -131,11 +123,13 @@ public class BookDownloadService {
     private void setResponseHeaders(HttpServletResponse response, File file) {
         response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
         response.setContentLengthLong(file.length());
-        String encodedFilename = URLEncoder.encode(file.getName(), StandardCharsets.UTF_8).replace("+", "%20");
-        String fallbackFilename = NON_ASCII_PATTERN.matcher(file.getName()).replaceAll("_");
-        String contentDisposition = String.format("attachment; filename=\"%s\"; filename*=UTF-8''%s",
-                fallbackFilename, encodedFilename);
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, attachmentDisposition(file.getName()));
+    }
+
+    private String attachmentDisposition(String filename) {
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20");
+        String fallbackFilename = NON_ASCII_PATTERN.matcher(filename).replaceAll("_");
+        return String.format("attachment; filename=\"%s\"; filename*=UTF-8''%s", fallbackFilename, encodedFilename);
     }
 
     private void streamFileToResponse(File file, HttpServletResponse response) {
@@ -1,32 +1,61 @@
 package com.adityachandel.booklore.service.book;
 
+import com.adityachandel.booklore.mapper.ShelfMapper;
 import com.adityachandel.booklore.mapper.v2.BookMapperV2;
-import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.*;
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.ShelfRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class BookQueryService {
 
+    private static final int BOOK_CHUNK_SIZE = 1000;
+
     private final BookRepository bookRepository;
     private final BookMapperV2 bookMapperV2;
+    private final BookMetadataRepository bookMetadataRepository;
+    private final ShelfRepository shelfRepository;
+    private final ShelfMapper shelfMapper;
 
-    public List<Book> getAllBooks(boolean includeDescription) {
-        List<BookEntity> books = bookRepository.findAllWithMetadata();
-        return mapBooksToDto(books, includeDescription, null);
-    }
+    /**
+     * Walks all books (or only those in {@code libraryIds} when not null) in id order, handing over one chunk at a time.
+     * Each chunk is assembled from flat projections plus one IN query per collection, so nothing is held across chunks.
+     */
+    public void forEachBookChunk(Set<Long> libraryIds, boolean includeDescription, Long userId, Consumer<List<Book>> chunkConsumer) {
+        if (libraryIds != null && libraryIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Shelf> userShelves = shelfRepository.findByUserId(userId).stream()
+                .map(shelfMapper::toShelf)
+                .collect(Collectors.toMap(Shelf::getId, Function.identity()));
 
-    public List<Book> getAllBooksByLibraryIds(Set<Long> libraryIds, boolean includeDescription, Long userId) {
-        List<BookEntity> books = bookRepository.findAllWithMetadataByLibraryIds(libraryIds);
-        return mapBooksToDto(books, includeDescription, userId);
+        Pageable chunk = PageRequest.of(0, BOOK_CHUNK_SIZE);
+        long afterId = 0;
+        while (true) {
+            List<BookRowDto> rows = libraryIds == null
+                    ? bookRepository.findBookRowsAfter(afterId, chunk)
+                    : bookRepository.findBookRowsAfterInLibraries(afterId, libraryIds, chunk);
+            if (rows.isEmpty()) {
+                return;
+            }
+            chunkConsumer.accept(assembleBooks(rows, includeDescription, userShelves));
+            if (rows.size() < BOOK_CHUNK_SIZE) {
+                return;
+            }
+            afterId = rows.getLast().getId();
+        }
     }
 
     public List<BookEntity> findAllWithMetadataByIds(Set<Long> bookIds) {
@@ -46,25 +75,60 @@ public class BookQueryService {
         bookRepository.saveAll(books);
     }
 
-    private List<Book> mapBooksToDto(List<BookEntity> books, boolean includeDescription, Long userId) {
-        return books.stream()
-                .map(book -> mapBookToDto(book, includeDescription, userId))
-                .collect(Collectors.toList());
-    }
+    private List<Book> assembleBooks(List<BookRowDto> rows, boolean includeDescription, Map<Long, Shelf> userShelves) {
+        List<Long> bookIds = rows.stream().map(BookRowDto::getId).toList();
 
-    private Book mapBookToDto(BookEntity bookEntity, boolean includeDescription, Long userId) {
-        Book dto = bookMapperV2.toDTO(bookEntity);
+        Map<Long, BookMetadataEntity> metadataById = bookMetadataRepository.getMetadataForBookIds(bookIds).stream()
+                .collect(Collectors.toMap(BookMetadataEntity::getBookId, Function.identity()));
+        Map<Long, Set<String>> authors = groupNames(bookMetadataRepository.findAuthorNamesByBookIds(bookIds));
+        Map<Long, Set<String>> categories = groupNames(bookMetadataRepository.findCategoryNamesByBookIds(bookIds));
+        Map<Long, Set<String>> moods = groupNames(bookMetadataRepository.findMoodNamesByBookIds(bookIds));
+        Map<Long, Set<String>> tags = groupNames(bookMetadataRepository.findTagNamesByBookIds(bookIds));
 
-        if (!includeDescription && dto.getMetadata() != null) {
-            dto.getMetadata().setDescription(null);
+        Map<Long, Set<Shelf>> shelves = new HashMap<>();
+        if (!userShelves.isEmpty()) {
+            for (BookShelfLinkDto link : bookRepository.findShelfLinks(bookIds, userShelves.keySet())) {
+                shelves.computeIfAbsent(link.getBookId(), id -> new HashSet<>()).add(userShelves.get(link.getShelfId()));
+            }
         }
 
-        if (dto.getShelves() != null && userId != null) {
-            dto.setShelves(dto.getShelves().stream()
-                    .filter(shelf -> userId.equals(shelf.getUserId()))
-                    .collect(Collectors.toSet()));
+        List<Book> books = new ArrayList<>(rows.size());
+        for (BookRowDto row : rows) {
+            Long id = row.getId();
+            Book book = Book.builder()
+                    .id(id)
+                    .bookType(row.getBookType())
+                    .libraryId(row.getLibraryId())
+                    .libraryName(row.getLibraryName())
+                    .libraryPath(row.getLibraryPathId() != null ? LibraryPath.builder().id(row.getLibraryPathId()).build() : null)
+                    .fileName(row.getFileName())
+                    .fileSubPath(row.getFileSubPath())
+                    .fileSizeKb(row.getFileSizeKb())
+                    .metadataMatchScore(row.getMetadataMatchScore())
+                    .addedOn(row.getAddedOn())
+                    .shelves(shelves.getOrDefault(id, Set.of()))
+                    .build();
+
+            BookMetadataEntity metadataEntity = metadataById.get(id);
+            if (metadataEntity != null) {
+                BookMetadata metadata = bookMapperV2.mapMetadataWithoutCollections(metadataEntity);
+                metadata.setAuthors(authors.getOrDefault(id, Set.of()));
+                metadata.setCategories(categories.getOrDefault(id, Set.of()));
+                metadata.setMoods(moods.getOrDefault(id, Set.of()));
+                metadata.setTags(tags.getOrDefault(id, Set.of()));
+                if (!includeDescription) {
+                    metadata.setDescription(null);
+                }
+                book.setMetadata(metadata);
+            }
+            books.add(book);
         }
+        return books;
+    }
 
-        return dto;
+    private Map<Long, Set<String>> groupNames(List<BookNameValueDto> values) {
+        return values.stream().collect(Collectors.groupingBy(
+                BookNameValueDto::getBookId,
+                Collectors.mapping(BookNameValueDto::getName, Collectors.toSet())));
     }
 }
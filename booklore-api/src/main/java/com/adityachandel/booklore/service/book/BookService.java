@@ -10,6 +10,7 @@ import com.adityachandel.booklore.model.dto.progress.KoProgress;
 import com.adityachandel.booklore.model.dto.progress.KoboProgress;
 import com.adityachandel.booklore.model.dto.progress.PdfProgress;
 import com.adityachandel.booklore.model.dto.request.ReadProgressRequest;
+import com.adityachandel.booklore.model.dto.response.BookChangesResponse;
 import com.adityachandel.booklore.model.dto.response.BookDeletionResponse;
 import com.adityachandel.booklore.model.entity.*;
 import com.adityachandel.booklore.model.enums.BookFileType;
@@ -17,25 +18,33 @@ import com.adityachandel.booklore.model.enums.ReadStatus;
 import com.adityachandel.booklore.model.enums.ResetProgressType;
 import com.adityachandel.booklore.repository.*;
 import com.adityachandel.booklore.service.kobo.KoboReadingStateService;
+import com.adityachandel.booklore.service.library.BookDeletionService;
+import com.adityachandel.booklore.service.library.BookFileCleanupService;
 import com.adityachandel.booklore.service.user.UserProgressService;
 import com.adityachandel.booklore.service.monitoring.MonitoringRegistrationService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.EnumUtils;
 import org.springframework.core.io.*;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -64,6 +73,9 @@ public class BookService {
     private final BookDownloadService bookDownloadService;
     private final MonitoringRegistrationService monitoringRegistrationService;
     private final KoboReadingStateService koboReadingStateService;
+    private final ObjectMapper objectMapper;
+    private final BookChangeService bookChangeService;
+    private final BookDeletionService bookDeletionService;
 
 
     private void setBookProgress(Book book, UserBookProgressEntity progress) {
@@ -94,6 +106,12 @@ public class BookService {
         }
     }
 
+    private static void clearDescription(Book book) {
+        if (book.getMetadata() != null) {
+            book.getMetadata().setDescription(null);
+        }
+    }
+
     private void enrichBookWithProgress(Book book, UserBookProgressEntity progress) {
         if (progress != null) {
             setBookProgress(book, progress);
@@ -104,32 +122,74 @@ public class BookService {
         }
     }
 
-    public List<Book> getBookDTOs(boolean includeDescription) {
+    /**
+     * Streams the user's visible books as a JSON array, chunk by chunk, so memory use does not grow with the library.
+     * When {@code fields} is given only those properties are written, e.g. {@code id,bookType,metadata.title}.
+     */
+    public StreamingResponseBody streamBookDTOs(boolean includeDescription, Set<String> fields) {
         BookLoreUser user = authenticationService.getAuthenticatedUser();
-        boolean isAdmin = user.getPermissions().isAdmin();
-
-        List<Book> books = isAdmin
-                ? bookQueryService.getAllBooks(includeDescription)
-                : bookQueryService.getAllBooksByLibraryIds(
-                user.getAssignedLibraries().stream()
-                        .map(Library::getId)
-                        .collect(Collectors.toSet()),
-                includeDescription,
-                user.getId()
-        );
-
-        Map<Long, UserBookProgressEntity> progressMap =
-                userProgressService.fetchUserProgress(
-                        user.getId(),
-                        books.stream().map(Book::getId).collect(Collectors.toSet())
-                );
-
-        books.forEach(book -> {
-            enrichBookWithProgress(book, progressMap.get(book.getId()));
-            book.setShelves(filterShelvesByUserId(book.getShelves(), user.getId()));
-        });
+        Set<Long> libraryIds = user.getPermissions().isAdmin()
+                ? null
+                : user.getAssignedLibraries().stream().map(Library::getId).collect(Collectors.toSet());
+        BookFieldSelection selection = BookFieldSelection.of(fields);
+        ObjectWriter bookWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bookQueryService.forEachBookChunk(libraryIds, includeDescription, user.getId(), books -> {
+                    Map<Long, UserBookProgressEntity> progressMap = userProgressService.fetchUserProgress(
+                            user.getId(), books.stream().map(Book::getId).collect(Collectors.toSet()));
+                    try {
+                        for (Book book : books) {
+                            enrichBookWithProgress(book, progressMap.get(book.getId()));
+                            bookWriter.writeValue(generator, selection.apply(objectMapper, book));
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Books changed since {@code since} as upserts, and ids of changed books the user can no longer see as removals.
+     */
+    public BookChangesResponse getBookChanges(long since, boolean withDescription) {
+        BookLoreUser user = authenticationService.getAuthenticatedUser();
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(since, user.getId());
+        BookChangesResponse response = BookChangesResponse.builder()
+                .version(changes.version())
+                .fullSyncRequired(changes.fullSyncRequired())
+                .build();
+        if (changes.fullSyncRequired() || changes.bookIds().isEmpty()) {
+            return response;
+        }
 
-        return books;
+        Set<Long> libraryIds = user.getPermissions().isAdmin()
+                ? null
+                : user.getAssignedLibraries().stream().map(Library::getId).collect(Collectors.toSet());
+        Set<Long> removedIds = new HashSet<>(changes.bookIds());
+        List<BookEntity> bookEntities = bookQueryService.findAllWithMetadataByIds(removedIds).stream()
+                .filter(bookEntity -> libraryIds == null || libraryIds.contains(bookEntity.getLibrary().getId()))
+                .toList();
+        Map<Long, UserBookProgressEntity> progressMap = userProgressService.fetchUserProgress(
+                user.getId(), bookEntities.stream().map(BookEntity::getId).collect(Collectors.toSet()));
+
+        for (BookEntity bookEntity : bookEntities) {
+            removedIds.remove(bookEntity.getId());
+            Book book = bookMapper.toBook(bookEntity);
+            book.setShelves(filterShelvesByUserId(book.getShelves(), user.getId()));
+            book.setFilePath(FileUtils.getBookFullPath(bookEntity));
+            if (!withDescription) clearDescription(book);
+            enrichBookWithProgress(book, progressMap.get(bookEntity.getId()));
+            response.getUpserts().add(book);
+        }
+        response.setRemovedIds(removedIds);
+        return response;
     }
 
     public List<Book> getBooksByIds(Set<Long> bookIds, boolean withDescription) {
@@ -143,7 +203,7 @@ public class BookService {
         return bookEntities.stream().map(bookEntity -> {
             Book book = bookMapper.toBook(bookEntity);
             book.setFilePath(FileUtils.getBookFullPath(bookEntity));
-            if (!withDescription) book.getMetadata().setDescription(null);
+            if (!withDescription) clearDescription(book);
             enrichBookWithProgress(book, progressMap.get(bookEntity.getId()));
             return book;
         }).collect(Collectors.toList());
@@ -195,7 +255,7 @@ public class BookService {
         book.setPersonalRating(userProgress.getPersonalRating());
 
         if (!withDescription) {
-            book.getMetadata().setDescription(null);
+            clearDescription(book);
         }
 
         return book;
@@ -376,6 +436,7 @@ public class BookService {
         }
 
         userBookProgressRepository.save(progress);
+        bookChangeService.recordUserChanges(user.getId(), List.of(book.getId()));
     }
 
     private void setProgressPercent(UserBookProgressEntity progress, BookFileType type, Float percentage) {
@@ -421,6 +482,7 @@ public class BookService {
 
             userBookProgressRepository.save(progress);
         }
+        bookChangeService.recordUserChanges(user.getId(), bookIds);
 
         return books.stream()
                 .map(bookEntity -> {
@@ -483,6 +545,7 @@ public class BookService {
             userBookProgressRepository.save(progress);
             updatedBooks.add(bookMapper.toBook(bookEntity));
         }
+        bookChangeService.recordUserChanges(user.getId(), bookIds);
 
         return updatedBooks;
     }
@@ -507,6 +570,7 @@ public class BookService {
             progress.setPersonalRating(rating);
             userBookProgressRepository.save(progress);
         }
+        bookChangeService.recordUserChanges(user.getId(), bookIds);
 
         return books.stream()
                 .map(bookEntity -> {
@@ -542,6 +606,7 @@ public class BookService {
             userBookProgressRepository.save(progress);
             updatedBooks.add(bookMapper.toBook(bookEntity));
         }
+        bookChangeService.recordUserChanges(user.getId(), bookIds);
 
         return updatedBooks;
     }
@@ -567,6 +632,7 @@ public class BookService {
             bookEntity.getShelves().addAll(shelvesToAssign);
         }
         bookRepository.saveAll(bookEntities);
+        bookChangeService.recordUserChanges(user.getId(), bookEntities.stream().map(BookEntity::getId).toList());
 
         Map<Long, UserBookProgressEntity> progressMap = userProgressService.fetchUserProgress(
                 user.getId(), bookEntities.stream().map(BookEntity::getId).collect(Collectors.toSet()));
@@ -580,33 +646,6 @@ public class BookService {
         }).collect(Collectors.toList());
     }
 
-    public Resource getBookThumbnail(long bookId) {
-        Path thumbnailPath = Paths.get(fileService.getThumbnailFile(bookId));
-        try {
-            if (Files.exists(thumbnailPath)) {
-                return new UrlResource(thumbnailPath.toUri());
-            } else {
-                Path defaultCover = Paths.get("static/images/missing-cover.jpg");
-                return new UrlResource(defaultCover.toUri());
-            }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Failed to load book cover for bookId=" + bookId, e);
-        }
-    }
-
-    public Resource getBookCover(long bookId) {
-        Path coverPath = Paths.get(fileService.getCoverFile(bookId));
-        try {
-            if (Files.exists(coverPath)) {
-                return new UrlResource(coverPath.toUri());
-            } else {
-                return new ClassPathResource("static/images/missing-cover.jpg");
-            }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Failed to load book cover for bookId=" + bookId, e);
-        }
-    }
-
     public Resource getBackgroundImage() {
         try {
             BookLoreUser user = authenticationService.getAuthenticatedUser();
@@ -617,47 +656,43 @@ public class BookService {
         }
     }
 
-    public ResponseEntity<Resource> downloadBook(Long bookId) {
-        return bookDownloadService.downloadBook(bookId);
+    public void downloadBook(Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookDownloadService.downloadBook(bookId, request, response);
     }
 
-    public ResponseEntity<ByteArrayResource> getBookContent(long bookId) throws IOException {
-        BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
-        try (FileInputStream inputStream = new FileInputStream(FileUtils.getBookFullPath(bookEntity))) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(new ByteArrayResource(inputStream.readAllBytes()));
-        }
+    public void streamBookContent(long bookId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bookDownloadService.streamBookContent(bookId, request, response);
     }
 
 
-    @Transactional
+    /**
+     * Deletes the book files right away so failures can be reported, then removes the rows in batches. Covers,
+     * caches and folders left empty are cleaned up in the background.
+     */
     public ResponseEntity<BookDeletionResponse> deleteBooks(Set<Long> ids) {
-        List<BookEntity> books = bookQueryService.findAllWithMetadataByIds(ids);
+        List<BookFileRow> books = bookRepository.findFileRowsByIds(ids);
         List<Long> failedFileDeletions = new ArrayList<>();
-        for (BookEntity book : books) {
-            Path fullFilePath = book.getFullFilePath();
+        List<BookFileCleanupService.Cleanup> cleanups = new ArrayList<>(books.size());
+        for (BookFileRow book : books) {
+            Path libraryRoot = Paths.get(book.getLibraryPath());
+            Path fullFilePath = Paths.get(book.getLibraryPath(), book.getFileSubPath(), book.getFileName());
+            Path emptiedDirectory = null;
             try {
                 if (Files.exists(fullFilePath)) {
                     monitoringRegistrationService.unregisterSpecificPath(fullFilePath.getParent());
                     Files.delete(fullFilePath);
                     log.info("Deleted book file: {}", fullFilePath);
-
-                    Set<Path> libraryRoots = book.getLibrary().getLibraryPaths().stream()
-                            .map(LibraryPathEntity::getPath)
-                            .map(Paths::get)
-                            .map(Path::normalize)
-                            .collect(Collectors.toSet());
-
-                    deleteEmptyParentDirsUpToLibraryFolders(fullFilePath.getParent(), libraryRoots);
+                    emptiedDirectory = fullFilePath.getParent();
                 }
             } catch (IOException e) {
                 log.warn("Failed to delete book file: {}", fullFilePath, e);
                 failedFileDeletions.add(book.getId());
             }
+            cleanups.add(new BookFileCleanupService.Cleanup(book.getId(), emptiedDirectory, libraryRoot));
         }
 
-        bookRepository.deleteAll(books);
+        bookDeletionService.deleteBooks(cleanups);
+        bookChangeService.recordChanges(books.stream().map(BookFileRow::getId).toList());
         BookDeletionResponse response = new BookDeletionResponse(ids, failedFileDeletions);
         return failedFileDeletions.isEmpty()
                 ? ResponseEntity.ok(response)
@@ -736,4 +771,39 @@ public class BookService {
                 .filter(shelf -> userId.equals(shelf.getUserId()))
                 .collect(Collectors.toSet());
     }
+
+    private record BookFieldSelection(Set<String> topLevel, Set<String> metadata) {
+
+        static BookFieldSelection of(Set<String> fields) {
+            if (fields == null || fields.isEmpty()) {
+                return new BookFieldSelection(Set.of(), Set.of());
+            }
+            Set<String> topLevel = new HashSet<>();
+            Set<String> metadata = new HashSet<>();
+            boolean wholeMetadata = false;
+            for (String field : fields) {
+                String trimmed = field.trim();
+                if (trimmed.startsWith("metadata.")) {
+                    topLevel.add("metadata");
+                    metadata.add(trimmed.substring("metadata.".length()));
+                } else if (!trimmed.isEmpty()) {
+                    topLevel.add(trimmed);
+                    wholeMetadata |= "metadata".equals(trimmed);
+                }
+            }
+            return new BookFieldSelection(topLevel, wholeMetadata ? Set.of() : metadata);
+        }
+
+        Object apply(ObjectMapper objectMapper, Book book) {
+            if (topLevel.isEmpty()) {
+                return book;
+            }
+            ObjectNode node = objectMapper.valueToTree(book);
+            node.retain(topLevel);
+            if (!metadata.isEmpty() && node.get("metadata") instanceof ObjectNode metadataNode) {
+                metadataNode.retain(metadata);
+            }
+            return node;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,423 @@
+package com.adityachandel.booklore.service.book;
+
+import com.adityachandel.booklore.config.security.service.AuthenticationService;
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.BookAuthorRow;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
+import com.adityachandel.booklore.model.dto.CatalogAuthor;
+import com.adityachandel.booklore.model.dto.CatalogBookRow;
+import com.adityachandel.booklore.model.dto.CatalogPage;
+import com.adityachandel.booklore.model.dto.CatalogSeries;
+import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import com.adityachandel.booklore.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Authors and series across libraries, with book counts, first and last added, series length and the numbers missing
+ * from a series. The index lives in memory and is brought up to date on read from the book change log, reloading only
+ * the books that changed. It is rebuilt on first use and when the log no longer reaches back to the applied version.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogService {
+
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_MISSING_NUMBERS = 100;
+    static final int MAX_INCREMENTAL_CHANGES = 20_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int ID_CHUNK_SIZE = 500;
+    // While changes are younger than the commit grace window they are applied again, at most this often
+    private static final long RECHECK_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+    private static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    private final BookRepository bookRepository;
+    private final BookChangeService bookChangeService;
+    private final BookChangeRepository bookChangeRepository;
+    private final AuthenticationService authenticationService;
+
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private Index index = new Index();
+    private volatile boolean stale = true;
+    // Newest change applied, and the version up to which every change is known to be committed and applied
+    private volatile long seenVersion = -1;
+    private volatile long syncedVersion = -1;
+    private volatile long refreshedAt;
+
+    /**
+     * @param libraryId only this library, all libraries the user can access when {@code null}
+     * @param prefix    case-insensitive name prefix
+     * @param after     name of the last item of the previous page
+     */
+    public CatalogPage<CatalogAuthor> getAuthors(Long libraryId, String prefix, String after, int size) {
+        return page(resolveScope(libraryId), Names::authors, prefix, after, size, (name, bookIds) -> toAuthor(name, entries(bookIds)));
+    }
+
+    public CatalogPage<CatalogSeries> getSeries(Long libraryId, String prefix, String after, int size) {
+        return page(resolveScope(libraryId), Names::series, prefix, after, size, (name, bookIds) -> toSeries(name, entries(bookIds)));
+    }
+
+    /**
+     * Author names only, for callers that resolved the library scope themselves, e.g. OPDS.
+     *
+     * @param libraryIds libraries to list, all libraries when {@code null}
+     */
+    public CatalogPage<String> getAuthorNames(Set<Long> libraryIds, String after, int size) {
+        return page(libraryIds, Names::authors, null, after, size, (name, bookIds) -> name);
+    }
+
+    /**
+     * Series names only, see {@link #getAuthorNames}.
+     */
+    public CatalogPage<String> getSeriesNames(Set<Long> libraryIds, String after, int size) {
+        return page(libraryIds, Names::series, null, after, size, (name, bookIds) -> name);
+    }
+
+    private Set<Long> resolveScope(Long libraryId) {
+        BookLoreUser user = authenticationService.getAuthenticatedUser();
+        if (user.getPermissions().isAdmin()) {
+            return libraryId == null ? null : Set.of(libraryId);
+        }
+        Set<Long> accessible = user.getAssignedLibraries().stream().map(Library::getId).collect(Collectors.toSet());
+        if (libraryId == null) {
+            return accessible;
+        }
+        if (!accessible.contains(libraryId)) {
+            throw ApiError.FORBIDDEN.createException("You are not allowed to access this library");
+        }
+        return Set.of(libraryId);
+    }
+
+    private <T> CatalogPage<T> page(Set<Long> libraryIds, Function<Names, NavigableMap<String, Set<Long>>> dimension,
+                                    String prefix, String after, int size, BiFunction<String, List<Set<Long>>, T> toItem) {
+        refresh();
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        String namePrefix = prefix == null || prefix.isBlank() ? null : prefix.strip();
+
+        indexLock.readLock().lock();
+        try {
+            List<NavigableMap<String, Set<Long>>> views = scope(libraryIds).stream().map(dimension).toList();
+
+            // A name among the first entries of the merged order is among the first entries of every library it is in
+            TreeMap<String, List<Set<Long>>> merged = new TreeMap<>(NAME_ORDER);
+            for (NavigableMap<String, Set<Long>> view : views) {
+                int taken = 0;
+                for (Map.Entry<String, Set<Long>> name : range(view, namePrefix, after).entrySet()) {
+                    if (taken++ > limit) {
+                        break;
+                    }
+                    merged.computeIfAbsent(name.getKey(), key -> new ArrayList<>()).add(name.getValue());
+                }
+            }
+
+            List<T> items = new ArrayList<>(Math.min(limit, merged.size()));
+            String last = null;
+            for (Map.Entry<String, List<Set<Long>>> name : merged.entrySet()) {
+                if (items.size() == limit) {
+                    break;
+                }
+                last = name.getKey();
+                items.add(toItem.apply(name.getKey(), name.getValue()));
+            }
+            // No total: counting a prefix range or a union of libraries walks every name, the page only needs nextAfter
+            return new CatalogPage<>(items, merged.size() > limit ? last : null);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Called under the index read lock
+    private List<Entry> entries(List<Set<Long>> bookIds) {
+        return bookIds.stream()
+                .flatMap(Set::stream)
+                .map(index.books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<Names> scope(Set<Long> libraryIds) {
+        if (libraryIds == null) {
+            return List.of(index.all);
+        }
+        return libraryIds.stream().map(index.libraries::get).filter(Objects::nonNull).toList();
+    }
+
+    static NavigableMap<String, Set<Long>> range(NavigableMap<String, Set<Long>> names, String prefix, String after) {
+        String from = prefix;
+        boolean fromInclusive = true;
+        if (after != null && !after.isEmpty() && (from == null || NAME_ORDER.compare(after, from) >= 0)) {
+            from = after;
+            fromInclusive = false;
+        }
+        String to = prefix == null ? null : prefix + Character.MAX_VALUE;
+        if (to != null && NAME_ORDER.compare(from, to) >= 0) {
+            return Collections.emptyNavigableMap();
+        }
+        NavigableMap<String, Set<Long>> view = from == null ? names : names.tailMap(from, fromInclusive);
+        return to == null ? view : view.headMap(to, false);
+    }
+
+    private static CatalogAuthor toAuthor(String name, List<Entry> entries) {
+        Set<String> series = new TreeSet<>(NAME_ORDER);
+        entries.stream().map(Entry::seriesName).filter(Objects::nonNull).forEach(series::add);
+        return CatalogAuthor.builder()
+                .name(name)
+                .bookCount(entries.size())
+                .seriesCount(series.size())
+                .firstAddedOn(firstAdded(entries))
+                .lastAddedOn(lastAdded(entries))
+                .build();
+    }
+
+    static CatalogSeries toSeries(String name, List<Entry> entries) {
+        Set<Integer> present = new HashSet<>();
+        int length = 0;
+        Set<String> authors = new TreeSet<>(NAME_ORDER);
+        for (Entry entry : entries) {
+            if (entry.seriesTotal() != null) {
+                length = Math.max(length, entry.seriesTotal());
+            }
+            Float number = entry.seriesNumber();
+            if (number != null && number > 0) {
+                length = Math.max(length, (int) Math.floor(number));
+                if (number == Math.floor(number)) {
+                    present.add(number.intValue());
+                }
+            }
+            authors.addAll(entry.authors());
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (int number = 1; number <= length && missing.size() < MAX_MISSING_NUMBERS; number++) {
+            if (!present.contains(number)) {
+                missing.add(number);
+            }
+        }
+        return CatalogSeries.builder()
+                .name(name)
+                .bookCount(entries.size())
+                .seriesLength(length)
+                .missingNumbers(missing)
+                .authors(List.copyOf(authors))
+                .firstAddedOn(firstAdded(entries))
+                .lastAddedOn(lastAdded(entries))
+                .build();
+    }
+
+    private static Instant firstAdded(List<Entry> entries) {
+        return entries.stream().map(Entry::addedOn).filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private static Instant lastAdded(List<Entry> entries) {
+        return entries.stream().map(Entry::addedOn).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    void refresh() {
+        if (isCurrent(bookChangeService.latestVersion())) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            long latest = bookChangeService.latestVersion();
+            if (isCurrent(latest)) {
+                return;
+            }
+            // Read before loading, so changes that commit late or land during the load are applied on the next read
+            long synced = bookChangeService.currentVersion();
+            boolean rebuild = stale;
+            stale = false;
+            try {
+                List<Long> changed = rebuild ? null : changedBookIdsSince(syncedVersion);
+                if (changed == null) {
+                    rebuild();
+                } else {
+                    apply(changed);
+                }
+            } catch (RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+            seenVersion = latest;
+            syncedVersion = synced;
+            refreshedAt = System.nanoTime();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isCurrent(long latest) {
+        if (stale || latest != seenVersion) {
+            return false;
+        }
+        return syncedVersion >= seenVersion || System.nanoTime() - refreshedAt < RECHECK_INTERVAL_NANOS;
+    }
+
+    /**
+     * @return the books changed since the version, or {@code null} if the index has to be rebuilt instead
+     */
+    private List<Long> changedBookIdsSince(long since) {
+        if (since < 0) {
+            return null;
+        }
+        Long oldestRetained = bookChangeRepository.findMinId();
+        if (oldestRetained != null && since < oldestRetained - 1) {
+            return null;
+        }
+        List<Long> bookIds = bookChangeRepository.findChangedBookIdsSince(since, null, PageRequest.of(0, MAX_INCREMENTAL_CHANGES + 1));
+        return bookIds.size() > MAX_INCREMENTAL_CHANGES ? null : bookIds;
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        Index fresh = new Index();
+        long afterId = 0;
+        List<CatalogBookRow> rows;
+        while (!(rows = bookRepository.findCatalogRowsAfter(afterId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            toEntries(rows).forEach(fresh::put);
+            afterId = rows.getLast().getId();
+        }
+
+        indexLock.writeLock().lock();
+        try {
+            index = fresh;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        log.info("Built catalog of {} books in {} ms: {} authors, {} series", fresh.books.size(),
+                (System.nanoTime() - start) / 1_000_000, fresh.all.authors.size(), fresh.all.series.size());
+    }
+
+    private void apply(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Entry> entries = new HashMap<>();
+        for (int i = 0; i < bookIds.size(); i += ID_CHUNK_SIZE) {
+            entries.putAll(toEntries(bookRepository.findCatalogRowsByIds(bookIds.subList(i, Math.min(i + ID_CHUNK_SIZE, bookIds.size())))));
+        }
+
+        indexLock.writeLock().lock();
+        try {
+            // Deleted books have no row any more and only drop out
+            bookIds.forEach(index::remove);
+            entries.forEach(index::put);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        log.debug("Applied {} changed books to the catalog", bookIds.size());
+    }
+
+    private Map<Long, Entry> toEntries(List<CatalogBookRow> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<String>> authors = new HashMap<>();
+        for (BookAuthorRow author : bookRepository.findAuthorRowsByBookIds(rows.stream().map(CatalogBookRow::getId).toList())) {
+            if (author.getName() != null && !author.getName().isBlank()) {
+                authors.computeIfAbsent(author.getBookId(), id -> new ArrayList<>()).add(author.getName());
+            }
+        }
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        for (CatalogBookRow row : rows) {
+            String seriesName = row.getSeriesName() == null || row.getSeriesName().isBlank() ? null : row.getSeriesName().strip();
+            entries.put(row.getId(), new Entry(row.getLibraryId(), row.getAddedOn(), seriesName, row.getSeriesNumber(),
+                    row.getSeriesTotal(), authors.getOrDefault(row.getId(), List.of())));
+        }
+        return entries;
+    }
+
+    record Entry(Long libraryId, Instant addedOn, String seriesName, Float seriesNumber, Integer seriesTotal, List<String> authors) {
+    }
+
+    /**
+     * Author and series names mapped to the ids of their books, for one library or for all of them.
+     */
+    record Names(TreeMap<String, Set<Long>> authors, TreeMap<String, Set<Long>> series) {
+
+        Names() {
+            this(new TreeMap<>(NAME_ORDER), new TreeMap<>(NAME_ORDER));
+        }
+
+        void add(long bookId, Entry entry) {
+            entry.authors().forEach(author -> authors.computeIfAbsent(author, name -> new HashSet<>()).add(bookId));
+            if (entry.seriesName() != null) {
+                series.computeIfAbsent(entry.seriesName(), name -> new HashSet<>()).add(bookId);
+            }
+        }
+
+        void remove(long bookId, Entry entry) {
+            entry.authors().forEach(author -> unlink(authors, author, bookId));
+            if (entry.seriesName() != null) {
+                unlink(series, entry.seriesName(), bookId);
+            }
+        }
+
+        boolean isEmpty() {
+            return authors.isEmpty() && series.isEmpty();
+        }
+
+        private static void unlink(TreeMap<String, Set<Long>> names, String name, long bookId) {
+            Set<Long> bookIds = names.get(name);
+            if (bookIds != null && bookIds.remove(bookId) && bookIds.isEmpty()) {
+                names.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Not thread-safe, guarded by the index lock.
+     */
+    static final class Index {
+
+        private final Map<Long, Entry> books = new HashMap<>();
+        private final Names all = new Names();
+        private final Map<Long, Names> libraries = new HashMap<>();
+
+        void put(long bookId, Entry entry) {
+            remove(bookId);
+            books.put(bookId, entry);
+            all.add(bookId, entry);
+            libraries.computeIfAbsent(entry.libraryId(), id -> new Names()).add(bookId, entry);
+        }
+
+        void remove(long bookId) {
+            Entry entry = books.remove(bookId);
+            if (entry == null) {
+                return;
+            }
+            all.remove(bookId, entry);
+            Names library = libraries.get(entry.libraryId());
+            if (library != null) {
+                library.remove(bookId, entry);
+                if (library.isEmpty()) {
+                    libraries.remove(entry.libraryId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.adityachandel.booklore.service.book;
+
+import com.adityachandel.booklore.repository.BookMetadataRepository;
+import com.adityachandel.booklore.util.FileService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves book covers and thumbnails from disk. Thumbnail bytes are kept in a size-bounded LRU cache that is
+ * validated against the file's size and mtime on every hit, so covers rewritten by any code path are picked up
+ * without explicit eviction.
+ */
+@Slf4j
+@Service
+public class CoverImageService {
+
+    static final long MAX_CACHED_BYTES = 64L * 1024 * 1024;
+    static final long MAX_CACHED_IMAGE_BYTES = 512L * 1024;
+    static final int MAX_CACHED_VERSIONS = 10_000;
+
+    private static final String MISSING_COVER = "static/images/missing-cover.jpg";
+    private static final String MISSING_COVER_ETAG = "\"missing-cover\"";
+    private static final CacheControl VERSIONED_IMAGE_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl UNVERSIONED_IMAGE_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+    private final FileService fileService;
+    private final BookMetadataRepository bookMetadataRepository;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final LinkedHashMap<Long, CachedThumbnail> thumbnails = new LinkedHashMap<>(256, 0.75f, true);
+    // Cover version confirmed for an image, keyed by its etag so a rewritten file is looked up again
+    private final Map<VersionKey, Long> versions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<VersionKey, Long> eldest) {
+            return size() > MAX_CACHED_VERSIONS;
+        }
+    };
+    private long cachedBytes;
+    private volatile byte[] missingCover;
+
+    public CoverImageService(FileService fileService, BookMetadataRepository bookMetadataRepository, MeterRegistry meterRegistry) {
+        this.fileService = fileService;
+        this.bookMetadataRepository = bookMetadataRepository;
+        this.hits = Counter.builder("booklore.cover.thumbnail.cache")
+                .tag("result", "hit")
+                .description("Thumbnail requests served from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("booklore.cover.thumbnail.cache")
+                .tag("result", "miss")
+                .description("Thumbnail requests read from disk")
+                .register(meterRegistry);
+        Gauge.builder("booklore.cover.thumbnail.cache.bytes", this, CoverImageService::getCachedBytes)
+                .description("Bytes of thumbnail data held in memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Version token for fingerprinted cover URLs, or null when the book has no cover yet.
+     */
+    public static Long coverVersion(Instant coverUpdatedOn) {
+        return coverUpdatedOn == null ? null : coverUpdatedOn.toEpochMilli();
+    }
+
+    /**
+     * Immutable caching only for a URL carrying the book's current cover version. Any other {@code v}, e.g. a stale
+     * or guessed one, would otherwise pin whatever image is on disk now to that URL for a year. A confirmed version is
+     * remembered for the image's etag, so repeated requests for an unchanged file don't query the database.
+     */
+    public CacheControl cacheControl(long bookId, CoverImage image, Long version) {
+        if (version == null || image.placeholder()) {
+            return UNVERSIONED_IMAGE_CACHE;
+        }
+        VersionKey key = image.etag() == null ? null : new VersionKey(bookId, image.etag());
+        if (key != null) {
+            Long confirmed;
+            synchronized (versions) {
+                confirmed = versions.get(key);
+            }
+            if (version.equals(confirmed)) {
+                return VERSIONED_IMAGE_CACHE;
+            }
+        }
+        Long current = coverVersion(bookMetadataRepository.findCoverUpdatedOnByBookId(bookId));
+        if (!version.equals(current)) {
+            return UNVERSIONED_IMAGE_CACHE;
+        }
+        if (key != null) {
+            synchronized (versions) {
+                versions.put(key, current);
+            }
+        }
+        return VERSIONED_IMAGE_CACHE;
+    }
+
+    public CoverImage getThumbnail(long bookId) {
+        Path path = Paths.get(fileService.getThumbnailFile(bookId));
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            return placeholder();
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        CachedThumbnail cached;
+        synchronized (this) {
+            cached = thumbnails.get(bookId);
+        }
+        if (cached != null && cached.lastModified() == lastModified && cached.bytes().length == size) {
+            hits.increment();
+            return new CoverImage(new ByteArrayResource(cached.bytes()), etag(lastModified, size), false);
+        }
+
+        misses.increment();
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return placeholder();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read thumbnail for bookId=" + bookId, e);
+        }
+        if (bytes.length != size) {
+            // Rewritten between stat and read; serve it but let the next request cache the settled file
+            return new CoverImage(new ByteArrayResource(bytes), null, false);
+        }
+        if (bytes.length <= MAX_CACHED_IMAGE_BYTES) {
+            put(bookId, new CachedThumbnail(bytes, lastModified));
+        }
+        return new CoverImage(new ByteArrayResource(bytes), etag(lastModified, size), false);
+    }
+
+    public CoverImage getCover(long bookId) {
+        Path path = Paths.get(fileService.getCoverFile(bookId));
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            return placeholder();
+        }
+        return new CoverImage(new FileSystemResource(path),
+                etag(attributes.lastModifiedTime().toMillis(), attributes.size()), false);
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private synchronized void put(long bookId, CachedThumbnail thumbnail) {
+        CachedThumbnail previous = thumbnails.put(bookId, thumbnail);
+        if (previous != null) {
+            cachedBytes -= previous.bytes().length;
+        }
+        cachedBytes += thumbnail.bytes().length;
+        var iterator = thumbnails.entrySet().iterator();
+        while (cachedBytes > MAX_CACHED_BYTES && iterator.hasNext()) {
+            Map.Entry<Long, CachedThumbnail> eldest = iterator.next();
+            cachedBytes -= eldest.getValue().bytes().length;
+            iterator.remove();
+        }
+    }
+
+    private CoverImage placeholder() {
+        byte[] bytes = missingCover;
+        if (bytes == null) {
+            try (InputStream in = new ClassPathResource(MISSING_COVER).getInputStream()) {
+                bytes = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load " + MISSING_COVER, e);
+            }
+            missingCover = bytes;
+        }
+        return new CoverImage(new ByteArrayResource(bytes), MISSING_COVER_ETAG, true);
+    }
+
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String etag(long lastModified, long size) {
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    /**
+     * @param placeholder true when the book has no image on disk and the generic missing cover is returned
+     */
+    public record CoverImage(Resource resource, String etag, boolean placeholder) {
+    }
+
+    private record CachedThumbnail(byte[] bytes, long lastModified) {
+    }
+
+    private record VersionKey(long bookId, String etag) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.adityachandel.booklore.service.book;
+
+import com.adityachandel.booklore.config.security.service.AuthenticationService;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
+import com.adityachandel.booklore.model.dto.DuplicateBook;
+import com.adityachandel.booklore.model.dto.DuplicateBookRow;
+import com.adityachandel.booklore.model.dto.DuplicateGroup;
+import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.model.enums.DuplicateType;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Finds duplicate books across the libraries the caller can access. Exact duplicates share a content hash; near duplicates share an ISBN
+ * or a normalized title and author, typically the same book in another format or edition. A near-duplicate group
+ * whose files are all identical is left out, it is already listed as exact.
+ */
+@Service
+@RequiredArgsConstructor
+public class DuplicateDetectionService {
+
+    static final int MAX_GROUPS = 500;
+
+    private final BookRepository bookRepository;
+    private final LibraryRepository libraryRepository;
+    private final AuthenticationService authenticationService;
+
+    @Transactional(readOnly = true)
+    public List<DuplicateGroup> findDuplicates(Set<DuplicateType> types, int limit) {
+        return findDuplicates(accessibleLibraryIds(), types, limit);
+    }
+
+    /**
+     * Both the duplicate keys and their books are limited to {@code libraryIds}, so a group is only listed when it has
+     * at least two books the caller can see.
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateGroup> findDuplicates(Collection<Long> libraryIds, Set<DuplicateType> types, int limit) {
+        if (libraryIds.isEmpty()) {
+            return List.of();
+        }
+        Set<DuplicateType> wanted = types == null || types.isEmpty() ? EnumSet.allOf(DuplicateType.class) : EnumSet.copyOf(types);
+        PageRequest page = PageRequest.of(0, Math.clamp(limit, 1, MAX_GROUPS));
+        List<DuplicateGroup> groups = new ArrayList<>();
+
+        if (wanted.contains(DuplicateType.CONTENT)) {
+            List<String> hashes = bookRepository.findDuplicateContentHashes(libraryIds, page);
+            groups.addAll(group(DuplicateType.CONTENT, rows(hashes, libraryIds, bookRepository::findDuplicateRowsByContentHash), DuplicateBookRow::getContentHash));
+        }
+        if (wanted.contains(DuplicateType.ISBN)) {
+            List<String> isbns = bookRepository.findDuplicateIsbn13s(libraryIds, page);
+            groups.addAll(group(DuplicateType.ISBN, rows(isbns, libraryIds, bookRepository::findDuplicateRowsByIsbn13), DuplicateBookRow::getIsbn13));
+        }
+        if (wanted.contains(DuplicateType.TITLE_AUTHOR)) {
+            List<String> titles = bookRepository.findDuplicateTitleSorts(libraryIds, page);
+            groups.addAll(group(DuplicateType.TITLE_AUTHOR, rows(titles, libraryIds, bookRepository::findDuplicateRowsByTitleSort),
+                    row -> row.getTitleSort() + " / " + row.getAuthorSort()));
+        }
+        return groups;
+    }
+
+    private Collection<Long> accessibleLibraryIds() {
+        BookLoreUser user = authenticationService.getAuthenticatedUser();
+        if (user.getPermissions().isAdmin()) {
+            return libraryRepository.findAllIds();
+        }
+        return user.getAssignedLibraries().stream().map(Library::getId).collect(Collectors.toSet());
+    }
+
+    private static List<DuplicateBookRow> rows(Collection<String> keys, Collection<Long> libraryIds,
+                                               BiFunction<Collection<String>, Collection<Long>, List<DuplicateBookRow>> query) {
+        return keys.isEmpty() ? List.of() : query.apply(keys, libraryIds);
+    }
+
+    private static List<DuplicateGroup> group(DuplicateType type, List<DuplicateBookRow> rows, Function<DuplicateBookRow, String> keyOf) {
+        Map<String, List<DuplicateBookRow>> byKey = new LinkedHashMap<>();
+        for (DuplicateBookRow row : rows) {
+            byKey.computeIfAbsent(keyOf.apply(row), key -> new ArrayList<>()).add(row);
+        }
+
+        List<DuplicateGroup> groups = new ArrayList<>();
+        byKey.forEach((key, members) -> {
+            if (members.size() < 2 || (type != DuplicateType.CONTENT && identical(members))) {
+                return;
+            }
+            groups.add(DuplicateGroup.builder()
+                    .type(type)
+                    .key(key)
+                    .books(members.stream().map(DuplicateDetectionService::toBook).toList())
+                    .build());
+        });
+        return groups;
+    }
+
+    private static boolean identical(List<DuplicateBookRow> members) {
+        String contentHash = members.getFirst().getContentHash();
+        return contentHash != null && members.stream().allMatch(member -> contentHash.equals(member.getContentHash()));
+    }
+
+    private static DuplicateBook toBook(DuplicateBookRow row) {
+        return DuplicateBook.builder()
+                .id(row.getId())
+                .bookType(row.getBookType())
+                .libraryId(row.getLibraryId())
+                .libraryName(row.getLibraryName())
+                .fileName(row.getFileName())
+                .fileSubPath(row.getFileSubPath())
+                .fileSizeKb(row.getFileSizeKb())
+                .title(row.getTitle())
+                .isbn13(row.getIsbn13())
+                .contentHash(row.getContentHash())
+                .build();
+    }
+}
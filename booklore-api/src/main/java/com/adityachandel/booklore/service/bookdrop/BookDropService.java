@@ -20,11 +20,13 @@ import com.adityachandel.booklore.model.entity.LibraryPathEntity;
 import com.adityachandel.booklore.model.enums.BookFileExtension;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.model.enums.MetadataReplaceMode;
+import com.adityachandel.booklore.model.websocket.BookdropFinalizeProgress;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.BookdropFileRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMovingHelper;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessor;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessorRegistry;
@@ -38,6 +40,7 @@ import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -47,12 +50,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -76,8 +88,10 @@ public class BookDropService {
     private final ObjectMapper objectMapper;
     private final FileMovingHelper fileMovingHelper;
     private final MonitoringRegistrationService monitoringRegistrationService;
+    private final BookChangeService bookChangeService;
 
     private static final int CHUNK_SIZE = 100;
+    private static final long WATCHER_SUPPRESSION_GRACE_MS = 5_000L;
 
     public BookdropFileNotification getFileNotificationSummary() {
         long pendingCount = bookdropFileRepository.countByStatus(BookdropFileEntity.Status.PENDING_REVIEW);
@@ -222,11 +236,14 @@ public class BookDropService {
                                    AtomicInteger failedCount,
                                    AtomicInteger totalFilesProcessed) {
 
-        // Collect all libraries that will be affected by moves
-        Set<Long> affectedLibraries = collectAffectedLibraries(ids, metadataById, defaultLibraryId, defaultPathId);
+        int workers = Math.max(1, appProperties.getBookdropFinalizeWorkers());
+        ExecutorService workerPool = workers > 1
+                ? new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("bookdrop-finalize-", 0).factory()))
+                : null;
+        Executor executor = workerPool != null ? workerPool : Runnable::run;
+        Set<Path> reservedTargets = ConcurrentHashMap.newKeySet();
 
-        // Unregister monitoring for all affected libraries
-        unregisterAffectedLibraries(affectedLibraries);
+        log.info("Finalizing {} files with {} worker(s)", ids.size(), workers);
 
         try {
             for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
@@ -238,6 +255,10 @@ public class BookDropService {
                 List<BookdropFileEntity> chunkFiles = bookdropFileRepository.findAllById(chunk);
                 Map<Long, BookdropFileEntity> fileMap = chunkFiles.stream().collect(Collectors.toMap(BookdropFileEntity::getId, Function.identity()));
 
+                CompletionService<FinalizedFile> completionService = new ExecutorCompletionService<>(executor);
+                Queue<Long> importedIds = new ConcurrentLinkedQueue<>();
+                int submitted = 0;
+
                 for (Long id : chunk) {
                     BookdropFileEntity file = fileMap.get(id);
                     if (file == null) {
@@ -246,61 +267,57 @@ public class BookDropService {
                         totalFilesProcessed.incrementAndGet();
                         continue;
                     }
-                    processFile(file, metadataById.get(id), defaultLibraryId, defaultPathId, results, failedCount);
-                    totalFilesProcessed.incrementAndGet();
+                    BookdropFinalizeRequest.BookdropFinalizeFile fileReq = metadataById.get(id);
+                    completionService.submit(() -> new FinalizedFile(id, processFile(file, fileReq, defaultLibraryId, defaultPathId, failedCount, reservedTargets, importedIds)));
+                    submitted++;
                 }
-            }
-        } finally {
-            // Re-register monitoring for all affected libraries
-            reregisterAffectedLibraries(affectedLibraries);
-        }
-    }
 
-    private Set<Long> collectAffectedLibraries(List<Long> ids,
-                                               Map<Long, BookdropFinalizeRequest.BookdropFinalizeFile> metadataById,
-                                               Long defaultLibraryId,
-                                               Long defaultPathId) {
-        Set<Long> affectedLibraries = new HashSet<>();
-
-        List<BookdropFileEntity> files = bookdropFileRepository.findAllById(ids);
+                for (int n = 0; n < submitted; n++) {
+                    FinalizedFile finalized = awaitNext(completionService);
+                    if (finalized == null) {
+                        failedCount.incrementAndGet();
+                        totalFilesProcessed.incrementAndGet();
+                        continue;
+                    }
+                    results.getResults().add(finalized.result());
+                    int processed = totalFilesProcessed.incrementAndGet();
+                    notificationService.sendMessage(Topic.BOOKDROP_FINALIZE_PROGRESS, BookdropFinalizeProgress.builder()
+                            .bookdropFileId(finalized.bookdropFileId())
+                            .result(finalized.result())
+                            .processed(processed)
+                            .total(ids.size())
+                            .build());
+                }
 
-        for (BookdropFileEntity fileEntity : files) {
-            try {
-                FileProcessingContext context = prepareFileProcessingContext(fileEntity, metadataById.get(fileEntity.getId()), defaultLibraryId, defaultPathId);
-                affectedLibraries.add(context.libraryId());
-            } catch (Exception e) {
-                log.warn("Failed to determine library for file {}: {}", fileEntity.getId(), e.getMessage());
+                completeImportedFiles(importedIds);
+            }
+        } finally {
+            if (workerPool != null) {
+                workerPool.shutdown();
             }
         }
-
-        log.info("Collected {} unique libraries for monitoring unregistration: {}", affectedLibraries.size(), affectedLibraries);
-        return affectedLibraries;
     }
 
-    private void unregisterAffectedLibraries(Set<Long> libraryIds) {
-        for (Long libraryId : libraryIds) {
-            monitoringRegistrationService.unregisterLibrary(libraryId);
-            log.debug("Unregistered library {} from monitoring", libraryId);
+    private FinalizedFile awaitNext(CompletionService<FinalizedFile> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for bookdrop finalize worker");
+            return null;
+        } catch (ExecutionException e) {
+            log.error("Bookdrop finalize worker failed unexpectedly", e.getCause());
+            return null;
         }
-        log.info("Unregistered {} libraries from monitoring", libraryIds.size());
     }
 
-    private void reregisterAffectedLibraries(Set<Long> libraryIds) {
-        for (Long libraryId : libraryIds) {
-            try {
-                LibraryEntity library = libraryRepository.findById(libraryId).orElse(null);
-                if (library != null) {
-                    for (LibraryPathEntity libPath : library.getLibraryPaths()) {
-                        Path libraryRoot = Path.of(libPath.getPath());
-                        monitoringRegistrationService.registerLibraryPaths(libraryId, libraryRoot);
-                        log.debug("Re-registered library {} path {} for monitoring", libraryId, libraryRoot);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("Failed to re-register library {} for monitoring: {}", libraryId, e.getMessage());
-            }
+    private void completeImportedFiles(Queue<Long> importedIds) {
+        if (importedIds.isEmpty()) {
+            return;
         }
-        log.info("Re-registered {} libraries for monitoring", libraryIds.size());
+        bookdropFileRepository.deleteAllById(List.copyOf(importedIds));
+        bookdropNotificationService.sendBookdropFileSummaryNotification();
+        log.debug("Removed {} imported bookdrop entries", importedIds.size());
     }
 
     private void updateFinalResults(BookdropFinalizeResult results, AtomicInteger totalFilesProcessed, AtomicInteger failedCount) {
@@ -314,29 +331,32 @@ public class BookDropService {
                 results.getTotalFiles());
     }
 
-    private void processFile(BookdropFileEntity fileEntity,
-                             BookdropFinalizeRequest.BookdropFinalizeFile fileReq,
-                             Long defaultLibraryId,
-                             Long defaultPathId,
-                             BookdropFinalizeResult results,
-                             AtomicInteger failedCount) {
+    private BookdropFileResult processFile(BookdropFileEntity fileEntity,
+                                           BookdropFinalizeRequest.BookdropFinalizeFile fileReq,
+                                           Long defaultLibraryId,
+                                           Long defaultPathId,
+                                           AtomicInteger failedCount,
+                                           Set<Path> reservedTargets,
+                                           Queue<Long> importedIds) {
         try {
             FileProcessingContext context = prepareFileProcessingContext(fileEntity, fileReq, defaultLibraryId, defaultPathId);
-            BookdropFileResult result = moveFile(context.libraryId, context.pathId, context.metadata, fileEntity);
+            BookdropFileResult result = moveFile(context.libraryId, context.pathId, context.metadata, fileEntity, reservedTargets);
 
-            results.getResults().add(result);
             if (!result.isSuccess()) {
                 log.warn("Finalization failed (non-exception) for file id={}, name={}, message={}", fileEntity.getId(), fileEntity.getFileName(), result.getMessage());
                 failedCount.incrementAndGet();
             } else {
+                importedIds.add(fileEntity.getId());
                 log.info("Successfully finalized file id={}, name={}", fileEntity.getId(), fileEntity.getFileName());
             }
+            return result;
 
         } catch (Exception e) {
             failedCount.incrementAndGet();
             String msg = String.format("Error finalizing file [id=%s, name=%s]: %s", fileEntity.getId(), fileEntity.getFileName(), e.getMessage());
             log.error(msg, e);
             notificationService.sendMessage(Topic.LOG, msg);
+            return failureResult(fileEntity.getFileName(), e.getMessage());
         }
     }
 
@@ -371,7 +391,7 @@ public class BookDropService {
         return new FileProcessingContext(libraryId, pathId, metadata);
     }
 
-    private BookdropFileResult moveFile(long libraryId, long pathId, BookMetadata metadata, BookdropFileEntity bookdropFile) {
+    private BookdropFileResult moveFile(long libraryId, long pathId, BookMetadata metadata, BookdropFileEntity bookdropFile, Set<Path> reservedTargets) {
         LibraryEntity library = libraryRepository.findById(libraryId)
                 .orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
 
@@ -394,12 +414,29 @@ public class BookDropService {
             return failureResult(targetFile.getName(), "Source file does not exist in bookdrop folder");
         }
 
-        if (targetFile.exists()) {
+        if (targetFile.exists() || !reservedTargets.add(target)) {
             log.warn("Target file already exists: id={}, name={}, target={}", bookdropFile.getId(), bookdropFile.getFileName(), target);
             return failureResult(targetFile.getName(), "File already exists in the library '" + library.getName() + "'");
         }
 
-        return performFileMove(bookdropFile, source, target, library, path, metadata);
+        List<Path> createdPaths = collectPathsCreatedByMove(target);
+        monitoringRegistrationService.suppressPaths(createdPaths);
+        try {
+            return performFileMove(bookdropFile, source, target, library, path, metadata);
+        } finally {
+            monitoringRegistrationService.releaseSuppressedPaths(createdPaths, WATCHER_SUPPRESSION_GRACE_MS);
+        }
+    }
+
+    private List<Path> collectPathsCreatedByMove(Path target) {
+        List<Path> paths = new ArrayList<>();
+        paths.add(target);
+        Path parent = target.getParent();
+        while (parent != null && !Files.exists(parent)) {
+            paths.add(parent);
+            parent = parent.getParent();
+        }
+        return paths;
     }
 
     private BookdropFileResult performFileMove(BookdropFileEntity bookdropFile, Path source, Path target, LibraryEntity library, LibraryPathEntity path, BookMetadata metadata) {
@@ -456,7 +493,7 @@ public class BookDropService {
         BookEntity bookEntity = bookRepository.findById(fileProcessResult.getBook().getId())
                 .orElseThrow(() -> ApiError.FILE_NOT_FOUND.createException("Book ID missing after import"));
 
-        notificationService.sendMessage(Topic.BOOK_ADD, fileProcessResult.getBook());
+        notificationService.sendMessage(Topic.BOOK_ADD, fileProcessResult.getBook(), bookChangeService.recordChange(bookEntity.getId()));
         MetadataUpdateContext context = MetadataUpdateContext.builder()
                 .bookEntity(bookEntity)
                 .metadataUpdateWrapper(MetadataUpdateWrapper.builder()
@@ -483,9 +520,6 @@ public class BookDropService {
     }
 
     private void cleanupBookdropData(BookdropFileEntity bookdropFile) {
-        bookdropFileRepository.deleteById(bookdropFile.getId());
-        bookdropNotificationService.sendBookdropFileSummaryNotification();
-
         Path cachedCoverPath = Paths.get(appProperties.getPathConfig(), "bookdrop_temp", bookdropFile.getId() + ".jpg");
         if (Files.exists(cachedCoverPath)) {
             try {
@@ -618,5 +652,8 @@ public class BookDropService {
 
     private record FileProcessingContext(Long libraryId, Long pathId, BookMetadata metadata) {
     }
+
+    private record FinalizedFile(Long bookdropFileId, BookdropFileResult result) {
+    }
 }
 
@@ -3,6 +3,7 @@ package com.adityachandel.booklore.service.event;
 import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.websocket.LogNotification;
 import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.service.user.UserService;
 import lombok.AllArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -19,6 +20,7 @@ public class AdminEventBroadcaster {
 
     private final SimpMessagingTemplate messagingTemplate;
     private final UserService userService;
+    private final BookloreMetrics bookloreMetrics;
 
     public void broadcastAdminEvent(String message) {
         List<BookLoreUser> admins = userService.getBookLoreUsers().stream()
@@ -27,5 +29,6 @@ public class AdminEventBroadcaster {
         for (BookLoreUser admin : admins) {
             messagingTemplate.convertAndSendToUser(admin.getUsername(), Topic.LOG.getPath(), LogNotification.info(message));
         }
+        bookloreMetrics.recordWebSocketFanOut(Topic.LOG, admins.size());
     }
 }
@@ -1,14 +1,21 @@
 package com.adityachandel.booklore.service.event;
 
 import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.websocket.LogNotification;
 import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.service.user.UserService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+
 import static com.adityachandel.booklore.model.websocket.LogNotification.createLogNotification;
 
 @Slf4j
@@ -18,16 +25,22 @@ public class BookEventBroadcaster {
 
     private final SimpMessagingTemplate messagingTemplate;
     private final UserService userService;
+    private final BookChangeService bookChangeService;
+    private final BookloreMetrics bookloreMetrics;
 
     public void broadcastBookAddEvent(Book book) {
         Long libraryId = book.getLibraryId();
-        userService.getBookLoreUsers().stream()
+        Map<String, Object> headers = NotificationService.changeVersionHeaders(bookChangeService.recordChange(book.getId()));
+        List<BookLoreUser> recipients = userService.getBookLoreUsers().stream()
                 .filter(u -> u.getPermissions().isAdmin() || u.getAssignedLibraries().stream()
                         .anyMatch(lib -> lib.getId().equals(libraryId)))
-                .forEach(u -> {
-                    String username = u.getUsername();
-                    messagingTemplate.convertAndSendToUser(username, Topic.BOOK_ADD.getPath(), book);
-                    messagingTemplate.convertAndSendToUser(username, Topic.LOG.getPath(), LogNotification.info("Book added: " + book.getFileName()));
-                });
+                .toList();
+        recipients.forEach(u -> {
+            String username = u.getUsername();
+            messagingTemplate.convertAndSendToUser(username, Topic.BOOK_ADD.getPath(), book, headers);
+            messagingTemplate.convertAndSendToUser(username, Topic.LOG.getPath(), LogNotification.info("Book added: " + book.getFileName()));
+        });
+        bookloreMetrics.recordWebSocketFanOut(Topic.BOOK_ADD, recipients.size());
+        bookloreMetrics.recordWebSocketFanOut(Topic.LOG, recipients.size());
     }
 }
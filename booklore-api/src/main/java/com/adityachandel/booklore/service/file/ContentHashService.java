@@ -0,0 +1,143 @@
+package com.adityachandel.booklore.service.file;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.ContentHashCandidate;
+import com.adityachandel.booklore.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes the full-file content hash in the background for books that have none yet or whose file changed since,
+ * when {@code app.content-hash-enabled} is set. The partial hash stays the book's fingerprint for scans and KOReader;
+ * the content hash is what duplicate detection trusts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentHashService {
+
+    static final int BATCH_SIZE = 200;
+
+    private final BookRepository bookRepository;
+    private final AppProperties appProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(initialDelayString = "PT2M", fixedDelayString = "PT15M")
+    public void hashPendingBooks() {
+        if (!appProperties.isContentHashEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            hashAll();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    int hashAll() {
+        int workers = Math.max(1, appProperties.getContentHashWorkers());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        int hashed = 0;
+        int failed = 0;
+        long start = System.nanoTime();
+
+        // Platform threads: a page fault on a mapped file blocks the carrier, so virtual threads would not help here
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("content-hash-", 0).daemon().factory())) {
+            List<ContentHashCandidate> batch;
+            while (!(batch = bookRepository.findContentHashCandidatesAfter(afterId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+                List<Future<HashedFile>> results = new ArrayList<>(batch.size());
+                for (ContentHashCandidate candidate : batch) {
+                    results.add(pool.submit(() -> hashIfStale(candidate)));
+                }
+
+                List<ContentHashCandidate> stale = new ArrayList<>();
+                List<HashedFile> hashedFiles = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    HashedFile hashedFile = await(batch.get(i), results.get(i));
+                    if (hashedFile == HashedFile.FAILED) {
+                        failed++;
+                    } else if (hashedFile != null) {
+                        stale.add(batch.get(i));
+                        hashedFiles.add(hashedFile);
+                        hashed++;
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    tx.executeWithoutResult(status -> {
+                        for (int i = 0; i < stale.size(); i++) {
+                            HashedFile hashedFile = hashedFiles.get(i);
+                            bookRepository.updateContentHash(stale.get(i).getId(), stale.get(i).getCurrentHash(), hashedFile.contentHash(),
+                                    hashedFile.size(), hashedFile.modified());
+                        }
+                    });
+                }
+
+                // Failed books keep their stale state, so the next pass retries them
+                afterId = batch.getLast().getId();
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        }
+
+        if (hashed + failed > 0) {
+            log.info("Computed content hashes in {} ms: {} books hashed, {} failed", (System.nanoTime() - start) / 1_000_000, hashed, failed);
+        }
+        return hashed;
+    }
+
+    /**
+     * Returns null when the stored content hash still matches the file. A change can leave the sampled partial hash
+     * intact, so the file size and mtime recorded with the hash are compared as well. They are read before hashing, so
+     * a write that lands while hashing leaves the book stale for the next pass.
+     */
+    private HashedFile hashIfStale(ContentHashCandidate candidate) throws IOException {
+        Path file = Path.of(candidate.getLibraryPath(), candidate.getFileSubPath(), candidate.getFileName());
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        if (candidate.getContentHash() != null
+                && candidate.getCurrentHash().equals(candidate.getContentHashSource())
+                && Long.valueOf(size).equals(candidate.getContentHashFileSize())
+                && Long.valueOf(modified).equals(candidate.getContentHashFileModified())) {
+            return null;
+        }
+        return new HashedFile(FileFingerprint.generateContentHash(file), size, modified);
+    }
+
+    private HashedFile await(ContentHashCandidate candidate, Future<HashedFile> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return HashedFile.FAILED;
+        } catch (ExecutionException e) {
+            log.warn("Could not hash book {}: {}", candidate.getId(), e.getCause().getMessage());
+            return HashedFile.FAILED;
+        }
+    }
+
+    private record HashedFile(String contentHash, long size, long modified) {
+        static final HashedFile FAILED = new HashedFile(null, -1, -1);
+    }
+}
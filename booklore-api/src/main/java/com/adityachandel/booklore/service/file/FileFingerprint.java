@@ -2,12 +2,22 @@ package com.adityachandel.booklore.service.file;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 public class FileFingerprint {
 
+    private static final long CONTENT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Partial MD5 over a few sparse 1 KB blocks, the same fingerprint KOReader computes for its progress sync. Cheap
+     * enough for every scan, but two files that only differ between the sampled blocks get the same hash.
+     */
     public static String generateHash(Path filePath) {
         final long base = 1024L;
         final int blockSize = 1024;
@@ -38,4 +48,21 @@ public class FileFingerprint {
             throw new RuntimeException("Failed to compute partial MD5 hash for: " + filePath, e);
         }
     }
+
+    /**
+     * SHA-256 of the whole file, read through memory-mapped chunks so no copy goes through the Java heap.
+     */
+    public static String generateContentHash(Path filePath) {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long size = channel.size();
+            for (long position = 0; position < size; position += CONTENT_CHUNK_SIZE) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CONTENT_CHUNK_SIZE, size - position));
+                sha256.update(chunk);
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to compute content hash for: " + filePath, e);
+        }
+    }
 }
@@ -11,6 +11,7 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.monitoring.MonitoringRegistrationService;
 import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
@@ -38,6 +39,7 @@ public class FileMoveService {
     private final BookMapper bookMapper;
     private final NotificationService notificationService;
     private final EntityManager entityManager;
+    private final BookChangeService bookChangeService;
 
 
     @Transactional
@@ -129,7 +131,7 @@ public class FileMoveService {
 
             BookEntity fresh = bookRepository.findById(bookId).orElseThrow();
 
-            notificationService.sendMessage(Topic.BOOK_UPDATE, bookMapper.toBookWithDescription(fresh, false));
+            notificationService.sendMessage(Topic.BOOK_UPDATE, bookMapper.toBookWithDescription(fresh, false), bookChangeService.recordChange(bookId));
 
         } catch (Exception e) {
             log.error("Error moving file for book ID {}: {}", bookId, e.getMessage(), e);
@@ -1,6 +1,11 @@
 package com.adityachandel.booklore.service.fileprocessor;
 
+import com.adityachandel.booklore.model.FileProcessResult;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -15,16 +20,16 @@ public class BookFileProcessorRegistry {
     
     private final Map<BookFileType, BookFileProcessor> processorMap;
     
-    public BookFileProcessorRegistry(List<BookFileProcessor> processors) {
+    public BookFileProcessorRegistry(List<BookFileProcessor> processors, BookloreMetrics bookloreMetrics) {
         this.processorMap = new EnumMap<>(BookFileType.class);
-        initializeProcessorMap(processors);
+        initializeProcessorMap(processors, bookloreMetrics);
     }
     
-    private void initializeProcessorMap(List<BookFileProcessor> processors) {
+    private void initializeProcessorMap(List<BookFileProcessor> processors, BookloreMetrics bookloreMetrics) {
         for (BookFileProcessor processor : processors) {
             List<BookFileType> supportedTypes = processor.getSupportedTypes();
             for (BookFileType type : supportedTypes) {
-                processorMap.put(type, processor);
+                processorMap.put(type, new TimedBookFileProcessor(processor, type, bookloreMetrics));
                 log.debug("Registered {} for type: {}", processor.getClass().getSimpleName(), type);
             }
         }
@@ -41,4 +46,41 @@ public class BookFileProcessorRegistry {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "No processor found for file type: " + type));
     }
-}
\ No newline at end of file
+
+    /**
+     * Times parsing and cover extraction per format. The registry hands these out, so every caller is measured the
+     * same way without the processors knowing about it.
+     */
+    private record TimedBookFileProcessor(BookFileProcessor delegate, BookFileType type, BookloreMetrics metrics) implements BookFileProcessor {
+
+        @Override
+        public List<BookFileType> getSupportedTypes() {
+            return delegate.getSupportedTypes();
+        }
+
+        @Override
+        public FileProcessResult processFile(LibraryFile libraryFile) {
+            Timer.Sample sample = metrics.startTimer();
+            boolean success = false;
+            try {
+                FileProcessResult result = delegate.processFile(libraryFile);
+                success = result != null;
+                return result;
+            } finally {
+                metrics.recordFileProcessed(sample, type, success);
+            }
+        }
+
+        @Override
+        public boolean generateCover(BookEntity bookEntity) {
+            Timer.Sample sample = metrics.startTimer();
+            boolean success = false;
+            try {
+                success = delegate.generateCover(bookEntity);
+                return success;
+            } finally {
+                metrics.recordCoverExtracted(sample, type, success);
+            }
+        }
+    }
+}
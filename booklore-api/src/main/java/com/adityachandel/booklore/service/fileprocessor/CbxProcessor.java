@@ -60,6 +60,11 @@ public class CbxProcessor extends AbstractFileProcessor implements BookFileProce
     @Override
     public BookEntity processNewFile(LibraryFile libraryFile) {
         BookEntity bookEntity = bookCreatorService.createShellBook(libraryFile, BookFileType.CBX);
+        File file = new File(FileUtils.getBookFullPath(bookEntity));
+        if (file.getName().toLowerCase().endsWith(".cbz") && processNewZip(bookEntity, file)) {
+            return bookEntity;
+        }
+
         if (generateCover(bookEntity)) {
             FileService.setBookCoverPath(bookEntity.getMetadata());
         }
@@ -68,6 +73,35 @@ public class CbxProcessor extends AbstractFileProcessor implements BookFileProce
         return bookEntity;
     }
 
+    private boolean processNewZip(BookEntity bookEntity, File file) {
+        // Cover and ComicInfo.xml come from a single central-directory read; anything unusual falls back to the per-step path
+        try (ZipFile zipFile = ZipFile.builder()
+                .setFile(file)
+                .setUseUnicodeExtraFields(true)
+                .setIgnoreLocalFileHeader(true)
+                .get()) {
+            Optional<BufferedImage> imageOptional = findAndReadFirstImage(zipFile);
+            if (imageOptional.isEmpty()) {
+                return false;
+            }
+            BufferedImage image = imageOptional.get();
+            try {
+                if (fileService.saveCoverImages(image, bookEntity.getId())) {
+                    FileService.setBookCoverPath(bookEntity.getMetadata());
+                } else {
+                    log.warn("Could not save image extracted from CBZ as cover for '{}'", bookEntity.getFileName());
+                }
+            } finally {
+                image.flush();
+            }
+            applyMetadata(bookEntity, cbxMetadataExtractor.extractMetadata(zipFile, file.getName()));
+            return true;
+        } catch (Exception e) {
+            log.debug("Single-pass CBZ processing failed for '{}': {}", bookEntity.getFileName(), e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public boolean generateCover(BookEntity bookEntity) {
         File file = new File(FileUtils.getBookFullPath(bookEntity));
@@ -210,7 +244,16 @@ public class CbxProcessor extends AbstractFileProcessor implements BookFileProce
 
     private void extractAndSetMetadata(BookEntity bookEntity) {
         try {
-            BookMetadata extracted = cbxMetadataExtractor.extractMetadata(new File(FileUtils.getBookFullPath(bookEntity)));
+            applyMetadata(bookEntity, cbxMetadataExtractor.extractMetadata(new File(FileUtils.getBookFullPath(bookEntity))));
+        } catch (Exception e) {
+            log.warn("Failed to extract ComicInfo metadata for '{}': {}", bookEntity.getFileName(), e.getMessage());
+            // Fallback to filename-derived title
+            setMetadata(bookEntity);
+        }
+    }
+
+    private void applyMetadata(BookEntity bookEntity, BookMetadata extracted) {
+        try {
             if (extracted == null) {
                 // Fallback to filename-derived title
                 setMetadata(bookEntity);
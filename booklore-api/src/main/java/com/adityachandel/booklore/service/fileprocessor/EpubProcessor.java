@@ -11,6 +11,7 @@ import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.book.BookCreatorService;
 import com.adityachandel.booklore.service.metadata.MetadataMatchService;
+import com.adityachandel.booklore.service.metadata.extractor.EpubArchive;
 import com.adityachandel.booklore.service.metadata.extractor.EpubMetadataExtractor;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
@@ -51,19 +52,30 @@ public class EpubProcessor extends AbstractFileProcessor implements BookFileProc
     @Override
     public BookEntity processNewFile(LibraryFile libraryFile) {
         BookEntity bookEntity = bookCreatorService.createShellBook(libraryFile, BookFileType.EPUB);
-        setBookMetadata(bookEntity);
-        if (generateCover(bookEntity)) {
-            FileService.setBookCoverPath(bookEntity.getMetadata());
+        File epubFile = new File(FileUtils.getBookFullPath(bookEntity));
+        try (EpubArchive archive = EpubArchive.open(epubFile)) {
+            if (archive == null) {
+                log.warn("No readable OPF package found in EPUB '{}'", bookEntity.getFileName());
+                return bookEntity;
+            }
+            setBookMetadata(bookEntity, epubMetadataExtractor.extractMetadata(archive, epubFile.getName()));
+            if (generateCover(bookEntity, epubMetadataExtractor.extractCover(archive))) {
+                FileService.setBookCoverPath(bookEntity.getMetadata());
+            }
+        } catch (Exception e) {
+            log.error("Failed to read EPUB '{}': {}", bookEntity.getFileName(), e.getMessage(), e);
         }
         return bookEntity;
     }
 
     @Override
     public boolean generateCover(BookEntity bookEntity) {
-        try {
-            File epubFile = new File(FileUtils.getBookFullPath(bookEntity));
-            byte[] coverData = epubMetadataExtractor.extractCover(epubFile);
+        File epubFile = new File(FileUtils.getBookFullPath(bookEntity));
+        return generateCover(bookEntity, epubMetadataExtractor.extractCover(epubFile));
+    }
 
+    private boolean generateCover(BookEntity bookEntity, byte[] coverData) {
+        try {
             if (coverData == null) {
                 log.warn("No cover image found in EPUB '{}'", bookEntity.getFileName());
                 return false;
@@ -93,9 +105,7 @@ public class EpubProcessor extends AbstractFileProcessor implements BookFileProc
         return List.of(BookFileType.EPUB);
     }
 
-    private void setBookMetadata(BookEntity bookEntity) {
-        File bookFile = new File(bookEntity.getFullFilePath().toUri());
-        BookMetadata epubMetadata = epubMetadataExtractor.extractMetadata(bookFile);
+    private void setBookMetadata(BookEntity bookEntity, BookMetadata epubMetadata) {
         if (epubMetadata == null) return;
 
         BookMetadataEntity metadata = bookEntity.getMetadata();
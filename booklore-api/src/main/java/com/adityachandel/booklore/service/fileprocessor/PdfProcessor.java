@@ -14,6 +14,7 @@ import com.adityachandel.booklore.service.metadata.extractor.PdfMetadataExtracto
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -52,16 +53,41 @@ public class PdfProcessor extends AbstractFileProcessor implements BookFileProce
     @Override
     public BookEntity processNewFile(LibraryFile libraryFile) {
         BookEntity bookEntity = bookCreatorService.createShellBook(libraryFile, BookFileType.PDF);
-        if (generateCover(bookEntity)) {
-            FileService.setBookCoverPath(bookEntity.getMetadata());
+        File pdfFile = new File(FileUtils.getBookFullPath(bookEntity));
+        try (PDDocument pdf = Loader.loadPDF(pdfFile)) {
+            if (generateCover(bookEntity, pdf)) {
+                FileService.setBookCoverPath(bookEntity.getMetadata());
+            }
+            extractAndSetMetadata(bookEntity, pdf, pdfFile);
+        } catch (OutOfMemoryError e) {
+            log.error("Out of memory (heap space exhausted) while loading PDF '{}'. Skipping cover and metadata extraction.", bookEntity.getFileName());
+            System.gc(); // Hint to JVM to reclaim memory
+        } catch (Exception e) {
+            log.warn("Failed to load PDF '{}': {}", bookEntity.getFileName(), e.getMessage());
+        }
+        // An unreadable PDF still gets the title the extractor would have derived from its file name
+        if (StringUtils.isBlank(bookEntity.getMetadata().getTitle())) {
+            bookEntity.getMetadata().setTitle(truncate(FilenameUtils.getBaseName(bookEntity.getFileName()), 1000));
         }
-        extractAndSetMetadata(bookEntity);
         return bookEntity;
     }
 
     @Override
     public boolean generateCover(BookEntity bookEntity) {
         try (PDDocument pdf = Loader.loadPDF(new File(FileUtils.getBookFullPath(bookEntity)))) {
+            return generateCover(bookEntity, pdf);
+        } catch (OutOfMemoryError e) {
+            log.error("Out of memory (heap space exhausted) while generating cover for '{}'. Skipping cover generation.", bookEntity.getFileName());
+            System.gc(); // Hint to JVM to reclaim memory
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to generate cover for '{}': {}", bookEntity.getFileName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean generateCover(BookEntity bookEntity, PDDocument pdf) {
+        try {
             return generateCoverImageAndSave(bookEntity.getId(), pdf);
         } catch (OutOfMemoryError e) {
             // Note: Catching OOM is generally discouraged, but for batch processing
@@ -87,9 +113,9 @@ public class PdfProcessor extends AbstractFileProcessor implements BookFileProce
         return List.of(BookFileType.PDF);
     }
 
-    private void extractAndSetMetadata(BookEntity bookEntity) {
+    private void extractAndSetMetadata(BookEntity bookEntity, PDDocument pdf, File pdfFile) {
         try {
-            BookMetadata extracted = pdfMetadataExtractor.extractMetadata(new File(FileUtils.getBookFullPath(bookEntity)));
+            BookMetadata extracted = pdfMetadataExtractor.extractMetadata(pdf, pdfFile);
 
             if (StringUtils.isNotBlank(extracted.getTitle())) {
                 bookEntity.getMetadata().setTitle(truncate(extracted.getTitle(), 1000));
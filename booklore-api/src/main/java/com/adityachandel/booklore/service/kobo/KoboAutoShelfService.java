@@ -5,17 +5,18 @@ import com.adityachandel.booklore.model.entity.KoboUserSettingsEntity;
 import com.adityachandel.booklore.model.entity.ShelfEntity;
 import com.adityachandel.booklore.model.enums.ShelfType;
 import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.BookShelfMappingRepository;
 import com.adityachandel.booklore.repository.KoboUserSettingsRepository;
 import com.adityachandel.booklore.repository.ShelfRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,72 +27,49 @@ public class KoboAutoShelfService {
     private final ShelfRepository shelfRepository;
     private final BookRepository bookRepository;
     private final KoboCompatibilityService koboCompatibilityService;
+    private final BookShelfMappingRepository bookShelfMappingRepository;
+    private final BookChangeService bookChangeService;
 
+    /**
+     * Adds newly scanned books to the Kobo shelves of users with auto-add enabled. Users and Kobo shelves are resolved
+     * once for all books and the mappings are inserted with a single statement.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void autoAddBookToKoboShelves(Long bookId) {
-        if (bookId == null) {
-            log.warn("Book ID is null for auto-add to Kobo shelf");
+    public void autoAddBooksToKoboShelves(Collection<Long> addedBookIds) {
+        if (addedBookIds.isEmpty()) {
             return;
         }
-
-        BookEntity book = bookRepository.findById(bookId).orElse(null);
-        if (!isBookEligible(book)) {
-            return;
-        }
-
-        List<KoboUserSettingsEntity> eligibleUsers = koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue();
-
-        if (eligibleUsers.isEmpty()) {
-            log.debug("No Kobo auto-add enabled users for book {}", book.getId());
+        List<Long> bookIds = bookRepository.findAllById(addedBookIds).stream()
+                .filter(koboCompatibilityService::isBookSupportedForKobo)
+                .map(BookEntity::getId)
+                .toList();
+        if (bookIds.isEmpty()) {
             return;
         }
 
-        List<Long> userIds = eligibleUsers.stream()
+        List<Long> userIds = koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue().stream()
                 .map(KoboUserSettingsEntity::getUserId)
                 .toList();
-
-        List<ShelfEntity> shelves = shelfRepository.findByUserIdInAndName(userIds, ShelfType.KOBO.getName());
-
-        Map<Long, ShelfEntity> shelfByUser = shelves
-                .stream()
-                .collect(Collectors.toMap(s -> s.getUser().getId(), s -> s));
-
-        boolean modified = false;
-
-        for (KoboUserSettingsEntity setting : eligibleUsers) {
-            ShelfEntity shelf = shelfByUser.get(setting.getUserId());
-
-            if (shelf == null) {
-                log.debug("User {} has auto-add enabled but no Kobo shelf exists", setting.getUserId());
-                continue;
-            }
-
-            if (book.getShelves().contains(shelf)) {
-                log.debug("Book {} already on Kobo shelf for user {}", book.getId(), setting.getUserId());
-                continue;
-            }
-
-            book.getShelves().add(shelf);
-            modified = true;
-            log.info("Auto-added book {} to Kobo shelf for user {}", book.getId(), setting.getUserId());
-        }
-
-        if (modified) {
-            bookRepository.save(book);
-        }
-    }
-
-    private boolean isBookEligible(BookEntity book) {
-        if (book == null) {
-            log.warn("Book not found for Kobo auto-add");
-            return false;
+        if (userIds.isEmpty()) {
+            log.debug("No Kobo auto-add enabled users for {} new books", bookIds.size());
+            return;
         }
 
-        if (!koboCompatibilityService.isBookSupportedForKobo(book)) {
-            log.debug("Book {} is not Kobo-compatible, skipping", book.getId());
-            return false;
+        List<ShelfEntity> shelves = shelfRepository.findByUserIdInAndName(userIds, ShelfType.KOBO.getName());
+        List<Long> shelfIds = shelves.stream()
+                .map(ShelfEntity::getId)
+                .toList();
+        if (shelfIds.isEmpty()) {
+            log.debug("{} users have Kobo auto-add enabled but no Kobo shelf exists", userIds.size());
+            return;
         }
 
-        return true;
+        int added = bookShelfMappingRepository.addBooksToShelves(bookIds, shelfIds);
+        // The native insert bypasses the entities, so the shelf owners' change feeds have to be told explicitly
+        shelves.stream()
+                .map(shelf -> shelf.getUser().getId())
+                .distinct()
+                .forEach(ownerId -> bookChangeService.recordUserChanges(ownerId, bookIds));
+        log.info("Auto-added {} books to {} Kobo shelves ({} new shelf entries)", bookIds.size(), shelfIds.size(), added);
     }
-}
\ No newline at end of file
+}
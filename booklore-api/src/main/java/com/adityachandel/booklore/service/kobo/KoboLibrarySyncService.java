@@ -9,10 +9,12 @@ import com.adityachandel.booklore.model.entity.KoboLibrarySnapshotEntity;
 import com.adityachandel.booklore.model.entity.UserBookProgressEntity;
 import com.adityachandel.booklore.repository.KoboDeletedBookProgressRepository;
 import com.adityachandel.booklore.repository.UserBookProgressRepository;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.util.RequestUtils;
 import com.adityachandel.booklore.util.kobo.BookloreSyncTokenGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -39,9 +41,22 @@ public class KoboLibrarySyncService {
     private final UserBookProgressRepository userBookProgressRepository;
     private final KoboServerProxy koboServerProxy;
     private final ObjectMapper objectMapper;
+    private final BookloreMetrics bookloreMetrics;
 
     @Transactional
     public ResponseEntity<?> syncLibrary(BookLoreUser user, String token) {
+        Timer.Sample sample = bookloreMetrics.startTimer();
+        try {
+            ResponseEntity<?> response = sync(user, token);
+            bookloreMetrics.recordKoboSync(sample, "continue".equals(response.getHeaders().getFirst(KoboHeaders.X_KOBO_SYNC)));
+            return response;
+        } catch (RuntimeException e) {
+            bookloreMetrics.recordKoboSyncFailure(sample);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> sync(BookLoreUser user, String token) {
         HttpServletRequest request = RequestUtils.getCurrentRequest();
         BookloreSyncToken syncToken = Optional.ofNullable(tokenGenerator.fromRequestHeaders(request)).orElse(new BookloreSyncToken());
 
@@ -1,11 +1,14 @@
 package com.adityachandel.booklore.service.kobo;
 
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.model.dto.BookloreSyncToken;
 import com.adityachandel.booklore.model.dto.kobo.KoboHeaders;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.util.RequestUtils;
 import com.adityachandel.booklore.util.kobo.BookloreSyncTokenGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +43,8 @@ public class KoboServerProxy {
     private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMinutes(1)).build();
     private final ObjectMapper objectMapper;
     private final BookloreSyncTokenGenerator bookloreSyncTokenGenerator;
+    private final BookloreMetrics bookloreMetrics;
+    private final AppProperties appProperties;
 
     private static final Set<String> HEADERS_OUT_INCLUDE = Set.of(
             HttpHeaders.AUTHORIZATION.toLowerCase(),
@@ -92,7 +97,7 @@ public class KoboServerProxy {
 
     private ResponseEntity<JsonNode> executeProxyRequest(HttpServletRequest request, Object body, String path, boolean includeSyncToken, BookloreSyncToken syncToken) {
         try {
-            String koboBaseUrl = "https://storeapi.kobo.com";
+            String koboBaseUrl = appProperties.getKoboStoreUrl();
 
             String queryString = request.getQueryString();
             UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(koboBaseUrl)
@@ -125,7 +130,15 @@ public class KoboServerProxy {
             }
 
             HttpRequest httpRequest = builder.build();
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            Timer.Sample sample = bookloreMetrics.startTimer();
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                bookloreMetrics.recordKoboProxy(sample, 0);
+                throw e;
+            }
+            bookloreMetrics.recordKoboProxy(sample, response.statusCode());
 
             JsonNode responseBody = response.body() != null && !response.body().isBlank()
                     ? objectMapper.readTree(response.body())
@@ -1,6 +1,6 @@
 package com.adityachandel.booklore.service.kobo;
 
-import com.adityachandel.booklore.service.book.BookService;
+import com.adityachandel.booklore.service.book.CoverImageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class KoboThumbnailService {
 
-    private final BookService bookService;
+    private final CoverImageService coverImageService;
 
     public ResponseEntity<Resource> getThumbnail(Long bookId) {
         return getThumbnailInternal(bookId);
@@ -21,7 +21,8 @@ public class KoboThumbnailService {
 
     private ResponseEntity<Resource> getThumbnailInternal(Long bookId) {
 
-        Resource image = bookService.getBookCover(bookId);
+        CoverImageService.CoverImage cover = coverImageService.getCover(bookId);
+        Resource image = cover.placeholder() ? null : cover.resource();
         if (!isValidImage(image)) {
             log.warn("Thumbnail not found for bookId={}", bookId);
             return ResponseEntity.notFound().build();
@@ -1,6 +1,7 @@
 package com.adityachandel.booklore.service.koreader;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.KoreaderUserRepository;
 import com.adityachandel.booklore.repository.UserBookProgressRepository;
 import com.adityachandel.booklore.repository.UserRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
 
 @Slf4j
 @AllArgsConstructor
@@ -32,6 +34,7 @@ public class KoreaderService {
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final KoreaderUserRepository koreaderUserRepository;
+    private final BookChangeService bookChangeService;
 
     public ResponseEntity<Map<String, String>> authorizeUser() {
         KoreaderUserDetails authDetails = getAuthDetails();
@@ -74,6 +77,7 @@ public class KoreaderService {
         updateProgressData(userProgress, koProgress);
 
         progressRepository.save(userProgress);
+        bookChangeService.recordUserChanges(user.getId(), List.of(book.getId()));
 
         log.info("saveProgress: saved progress='{}' percentage={} for userId={} bookHash={}", koProgress.getProgress(), koProgress.getPercentage(), authDetails.getBookLoreUserId(), bookHash);
     }
@@ -9,31 +9,36 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookAdditionalFileRepository;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.NotificationService;
-import com.adityachandel.booklore.util.FileService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookDeletionService {
 
+    static final int BATCH_SIZE = 500;
+
     private final BookRepository bookRepository;
     private final BookAdditionalFileRepository bookAdditionalFileRepository;
-    private final FileService fileService;
     private final NotificationService notificationService;
+    private final BookChangeService bookChangeService;
+    private final BookFileCleanupService bookFileCleanupService;
+    private final PlatformTransactionManager transactionManager;
 
     @PersistenceContext
     private final EntityManager entityManager;
@@ -77,25 +82,60 @@ public class BookDeletionService {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void deleteRemovedBooks(List<Long> bookIds) {
-        List<BookEntity> books = bookRepository.findAllById(bookIds);
-        for (BookEntity book : books) {
-            try {
-                deleteDirectoryRecursively(Path.of(fileService.getImagesFolder(book.getId())));
-                Path backupDir = Path.of(fileService.getBookMetadataBackupPath(book.getId()));
-                if (Files.exists(backupDir)) {
-                    deleteDirectoryRecursively(backupDir);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to clean up files for book ID {}: {}", book.getId(), e.getMessage());
-            }
-        }
-        bookRepository.deleteAll(books);
-        entityManager.flush();
-        entityManager.clear();
-        notificationService.sendMessage(Topic.BOOKS_REMOVE, bookIds);
+        deleteBooks(bookIds.stream().map(BookFileCleanupService.Cleanup::of).toList());
+        notificationService.sendMessage(Topic.BOOKS_REMOVE, bookIds, bookChangeService.recordChanges(bookIds));
         if (bookIds.size() > 1) log.info("Books removed: {}", bookIds);
     }
 
+    /**
+     * Deletes the rows in id order, one batch per transaction unless called inside one, and queues the on-disk
+     * cleanup of each batch once it has committed. Dependent rows go with the database's ON DELETE CASCADE.
+     */
+    public void deleteBooks(List<BookFileCleanupService.Cleanup> cleanups) {
+        List<BookFileCleanupService.Cleanup> sorted = cleanups.stream()
+                .sorted(Comparator.comparingLong(BookFileCleanupService.Cleanup::bookId))
+                .toList();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < sorted.size(); i += BATCH_SIZE) {
+            List<BookFileCleanupService.Cleanup> batch = sorted.subList(i, Math.min(i + BATCH_SIZE, sorted.size()));
+            tx.executeWithoutResult(status -> {
+                bookRepository.deleteAllByIdInBatch(batch.stream().map(BookFileCleanupService.Cleanup::bookId).toList());
+                bookFileCleanupService.enqueue(batch);
+            });
+        }
+    }
+
+    /**
+     * Purges soft-deleted books in keyset batches, each in its own transaction.
+     *
+     * @param deletedBefore only books deleted before this instant, {@code null} for all of them
+     * @param progress      receives the number of books purged so far after every batch
+     */
+    public int purgeSoftDeleted(Instant deletedBefore, IntConsumer progress) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int purged = 0;
+        long afterId = 0;
+        List<Long> batch;
+        while (!(batch = nextSoftDeleted(deletedBefore, afterId)).isEmpty()) {
+            List<Long> bookIds = batch;
+            purged += tx.execute(status -> {
+                int deleted = bookRepository.deleteSoftDeletedByIdIn(bookIds);
+                bookFileCleanupService.enqueueBooks(bookIds);
+                return deleted;
+            });
+            afterId = batch.getLast();
+            progress.accept(purged);
+        }
+        return purged;
+    }
+
+    private List<Long> nextSoftDeleted(Instant deletedBefore, long afterId) {
+        PageRequest page = PageRequest.of(0, BATCH_SIZE);
+        return deletedBefore == null
+                ? bookRepository.findSoftDeletedIdsAfter(afterId, page)
+                : bookRepository.findSoftDeletedIdsBefore(deletedBefore, afterId, page);
+    }
+
     private boolean tryPromoteAlternativeFormatToBook(BookEntity book, List<LibraryFile> libraryFiles) {
         List<BookAdditionalFileEntity> existingAlternativeFormats = findExistingAlternativeFormats(book, libraryFiles);
 
@@ -140,18 +180,4 @@ public class BookDeletionService {
 
         bookRepository.save(book);
     }
-
-    private void deleteDirectoryRecursively(Path path) throws IOException {
-        if (Files.exists(path)) {
-            try (Stream<Path> walk = Files.walk(path)) {
-                walk.sorted(Comparator.reverseOrder()).forEach(p -> {
-                    try {
-                        Files.deleteIfExists(p);
-                    } catch (IOException e) {
-                        log.warn("Failed to delete file or directory: {}", p, e);
-                    }
-                });
-            }
-        }
-    }
 }
@@ -0,0 +1,269 @@
+package com.adityachandel.booklore.service.library;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.file.FileMoveHelper;
+import com.adityachandel.booklore.util.FileService;
+import com.adityachandel.booklore.util.FileUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Removes what deleted books leave on disk: covers, metadata backups, CBX and PDF reader caches and, for books whose
+ * file was deleted, the folders that became empty. Work is queued once the rows are gone and runs on a bounded worker
+ * pool, so purging thousands of books doesn't hold a transaction while walking the file system. Cleanup still queued
+ * at shutdown is found again by {@link #findOrphans()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookFileCleanupService {
+
+    static final int BATCH_SIZE = 200;
+    private static final int ID_CHUNK_SIZE = 500;
+    // Covers are written while a new book's row may not be committed yet, so recently touched folders are left alone
+    static final Duration ORPHAN_GRACE = Duration.ofHours(1);
+
+    private final FileService fileService;
+    private final FileMoveHelper fileMoveHelper;
+    private final BookRepository bookRepository;
+    private final AppProperties appProperties;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("book-cleanup").factory());
+    private final Queue<Cleanup> pending = new ConcurrentLinkedQueue<>();
+    private final Set<Long> queuedBookIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong cleaned = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param bookFileDirectory folder the book file was deleted from, removed up to {@code libraryRoot} once empty;
+     *                          {@code null} if the book file was not touched
+     */
+    public record Cleanup(long bookId, Path bookFileDirectory, Path libraryRoot) {
+
+        public static Cleanup of(long bookId) {
+            return new Cleanup(bookId, null, null);
+        }
+    }
+
+    public record Progress(int pending, long cleaned, long failed) {
+    }
+
+    public void enqueueBooks(Collection<Long> bookIds) {
+        enqueue(bookIds.stream().map(Cleanup::of).toList());
+    }
+
+    /**
+     * Queues the cleanup. Inside a transaction it starts once that commits, so a rolled back delete keeps its files.
+     */
+    public void enqueue(Collection<Cleanup> cleanups) {
+        if (cleanups.isEmpty()) {
+            return;
+        }
+        List<Cleanup> queued = List.copyOf(cleanups);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(queued);
+                }
+            });
+        } else {
+            submit(queued);
+        }
+    }
+
+    public Progress progress() {
+        return new Progress(queuedBookIds.size(), cleaned.get(), failed.get());
+    }
+
+    /**
+     * Ids of books that still have covers, backups or reader caches on disk but no row in the database, e.g. left
+     * behind by a bulk delete or by cleanup that was still queued at shutdown. Books queued for cleanup and books with
+     * a folder modified within {@link #ORPHAN_GRACE} are skipped.
+     */
+    public Set<Long> findOrphans() {
+        Set<Long> onDisk = new TreeSet<>();
+        Set<Long> recent = new HashSet<>();
+        FileTime cutoff = FileTime.from(Instant.now().minus(ORPHAN_GRACE));
+        for (Path root : List.of(Path.of(fileService.getImagesFolder()), Path.of(fileService.getBookMetadataBackupPath()),
+                Path.of(fileService.getCbxCachePath()), Path.of(fileService.getPdfCachePath()))) {
+            collectBookIds(root, cutoff, onDisk, recent);
+        }
+        onDisk.removeAll(recent);
+        onDisk.removeAll(queuedBookIds);
+
+        List<Long> candidates = new ArrayList<>(onDisk);
+        Set<Long> orphans = new HashSet<>(candidates);
+        for (int i = 0; i < candidates.size(); i += ID_CHUNK_SIZE) {
+            orphans.removeAll(bookRepository.findExistingIds(candidates.subList(i, Math.min(i + ID_CHUNK_SIZE, candidates.size()))));
+        }
+        return orphans;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private void submit(List<Cleanup> cleanups) {
+        cleanups.forEach(cleanup -> queuedBookIds.add(cleanup.bookId()));
+        pending.addAll(cleanups);
+        if (draining.compareAndSet(false, true)) {
+            dispatcher.execute(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            drain();
+        } finally {
+            draining.set(false);
+            // Cleanup queued between the last poll and the reset would otherwise wait for the next enqueue
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drainLoop);
+            }
+        }
+    }
+
+    void drain() {
+        int workers = Math.max(1, appProperties.getBookCleanupWorkers());
+        int done = 0;
+        int errors = 0;
+        long start = System.nanoTime();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("book-cleanup-", 0).factory())) {
+            List<Cleanup> batch;
+            while (!(batch = poll()).isEmpty()) {
+                List<Future<Boolean>> results = new ArrayList<>(batch.size());
+                for (Cleanup cleanup : batch) {
+                    results.add(pool.submit(() -> clean(cleanup)));
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    boolean success = await(results.get(i));
+                    queuedBookIds.remove(batch.get(i).bookId());
+                    if (success) {
+                        done++;
+                        cleaned.incrementAndGet();
+                    } else {
+                        errors++;
+                        failed.incrementAndGet();
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+
+        log.info("Cleaned up files of {} deleted books in {} ms, {} failed", done + errors, (System.nanoTime() - start) / 1_000_000, errors);
+    }
+
+    boolean clean(Cleanup cleanup) {
+        boolean success = true;
+        for (Path directory : bookDirectories(cleanup.bookId())) {
+            try {
+                FileUtils.deleteDirectoryRecursively(directory);
+            } catch (IOException e) {
+                log.warn("Failed to delete {} of deleted book {}: {}", directory, cleanup.bookId(), e.getMessage());
+                success = false;
+            }
+        }
+        if (cleanup.bookFileDirectory() != null && Files.isDirectory(cleanup.bookFileDirectory())) {
+            fileMoveHelper.deleteEmptyParentDirsUpToLibraryFolders(cleanup.bookFileDirectory(), Set.of(cleanup.libraryRoot()));
+        }
+        return success;
+    }
+
+    private List<Path> bookDirectories(long bookId) {
+        return List.of(
+                Path.of(fileService.getImagesFolder(bookId)),
+                Path.of(fileService.getBookMetadataBackupPath(bookId)),
+                Path.of(fileService.getCbxCachePath(), String.valueOf(bookId)),
+                Path.of(fileService.getPdfCachePath(), String.valueOf(bookId)));
+    }
+
+    private List<Cleanup> poll() {
+        List<Cleanup> batch = new ArrayList<>(BATCH_SIZE);
+        Cleanup cleanup;
+        while (batch.size() < BATCH_SIZE && (cleanup = pending.poll()) != null) {
+            batch.add(cleanup);
+        }
+        return batch;
+    }
+
+    private boolean await(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Book cleanup worker failed unexpectedly", e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * Adds the ids of the book folders under {@code root} to {@code bookIds}, and to {@code recent} as well when the
+     * folder was modified after {@code cutoff}.
+     */
+    private static void collectBookIds(Path root, FileTime cutoff, Set<Long> bookIds, Set<Long> recent) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> children = Files.list(root)) {
+            children.filter(Files::isDirectory)
+                    .filter(path -> isBookId(path.getFileName().toString()))
+                    .forEach(path -> {
+                        long bookId = Long.parseLong(path.getFileName().toString());
+                        bookIds.add(bookId);
+                        if (!isOlderThan(path, cutoff)) {
+                            recent.add(bookId);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to list {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static boolean isBookId(String name) {
+        return !name.isEmpty() && name.chars().allMatch(Character::isDigit) && name.length() < 19;
+    }
+
+    private static boolean isOlderThan(Path path, FileTime cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).compareTo(cutoff) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
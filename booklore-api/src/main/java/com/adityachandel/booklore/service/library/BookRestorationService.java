@@ -1,20 +1,23 @@
 package com.adityachandel.booklore.service.library;
 
 import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookPathRow;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
-import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,37 +27,45 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookRestorationService {
 
+    static final int BATCH_SIZE = 500;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final NotificationService notificationService;
+    private final BookChangeService bookChangeService;
 
+    /**
+     * Restores soft-deleted books whose file is back on disk. Only the deleted rows of the library are read, the
+     * restore is a bulk update and clients get a {@link Topic#BOOK_ADD} message per restored book, all carrying the
+     * change version of the restore.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void restoreDeletedBooks(List<LibraryFile> libraryFiles) {
         if (libraryFiles.isEmpty()) return;
 
         LibraryEntity libraryEntity = libraryFiles.getFirst().getLibraryEntity();
-        Set<Path> currentPaths = libraryFiles.stream()
-                .map(LibraryFile::getFullPath)
+        Set<String> currentPaths = libraryFiles.stream()
+                .map(LibraryFile::pathKey)
                 .collect(Collectors.toSet());
 
-        List<BookEntity> toRestore = libraryEntity.getBookEntities().stream()
-                .filter(book -> Boolean.TRUE.equals(book.getDeleted()))
-                .filter(book -> currentPaths.contains(book.getFullFilePath()))
-                .collect(Collectors.toList());
+        List<Long> restoredIds = bookRepository.findDeletedPathRowsByLibraryId(libraryEntity.getId()).stream()
+                .filter(row -> currentPaths.contains(row.pathKey()))
+                .map(BookPathRow::getId)
+                .toList();
 
-        if (toRestore.isEmpty()) return;
+        if (restoredIds.isEmpty()) return;
 
-        toRestore.forEach(book -> {
-            book.setDeleted(false);
-            book.setDeletedAt(null);
-            book.setAddedOn(Instant.now());
-            notificationService.sendMessage(Topic.BOOK_ADD, bookMapper.toBookWithDescription(book, false));
-        });
-        bookRepository.saveAll(toRestore);
+        Instant addedOn = Instant.now();
+        List<Book> restored = new ArrayList<>(restoredIds.size());
+        for (int i = 0; i < restoredIds.size(); i += BATCH_SIZE) {
+            List<Long> batch = restoredIds.subList(i, Math.min(i + BATCH_SIZE, restoredIds.size()));
+            bookRepository.restoreDeleted(batch, addedOn);
+            bookRepository.findAllWithMetadataByIds(new HashSet<>(batch))
+                    .forEach(book -> restored.add(bookMapper.toBookWithDescription(book, false)));
+        }
 
-        List<Long> restoredIds = toRestore.stream()
-                .map(BookEntity::getId)
-                .toList();
+        Long changeVersion = bookChangeService.recordChanges(restoredIds);
+        restored.forEach(book -> notificationService.sendMessage(Topic.BOOK_ADD, book, changeVersion));
 
         log.info("Restored {} books in library: {}", restoredIds.size(), libraryEntity.getName());
     }
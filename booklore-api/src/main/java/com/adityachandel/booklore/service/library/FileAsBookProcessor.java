@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @AllArgsConstructor
@@ -21,6 +22,8 @@ import java.util.List;
 @Slf4j
 public class FileAsBookProcessor implements LibraryFileProcessor {
 
+    static final int KOBO_SHELF_BATCH_SIZE = 200;
+
     private final BookEventBroadcaster bookEventBroadcaster;
     private final BookFileProcessorRegistry processorRegistry;
     private final KoboAutoShelfService koboAutoShelfService;
@@ -33,23 +36,44 @@ public class FileAsBookProcessor implements LibraryFileProcessor {
     @Override
     @Transactional
     public void processLibraryFiles(List<LibraryFile> libraryFiles, LibraryEntity libraryEntity) {
+        List<Long> addedBookIds = new ArrayList<>(Math.min(libraryFiles.size(), KOBO_SHELF_BATCH_SIZE));
         for (LibraryFile libraryFile : libraryFiles) {
-            processFileWithErrorHandling(libraryFile);
+            Long bookId = processFileWithErrorHandling(libraryFile);
+            if (bookId != null) {
+                addedBookIds.add(bookId);
+            }
+            if (addedBookIds.size() >= KOBO_SHELF_BATCH_SIZE) {
+                autoShelve(addedBookIds);
+            }
         }
+        autoShelve(addedBookIds);
         log.info("Finished processing library '{}'", libraryEntity.getName());
     }
 
-    private void processFileWithErrorHandling(LibraryFile libraryFile) {
+    private Long processFileWithErrorHandling(LibraryFile libraryFile) {
         log.info("Processing file: {}", libraryFile.getFileName());
         try {
             FileProcessResult result = processLibraryFile(libraryFile);
             if (result != null) {
                 bookEventBroadcaster.broadcastBookAddEvent(result.getBook());
-                koboAutoShelfService.autoAddBookToKoboShelves(result.getBook().getId());
+                return result.getBook().getId();
             }
         } catch (Exception e) {
             log.error("Failed to process file '{}': {}", libraryFile.getFileName(), e.getMessage());
         }
+        return null;
+    }
+
+    private void autoShelve(List<Long> addedBookIds) {
+        if (addedBookIds.isEmpty()) {
+            return;
+        }
+        try {
+            koboAutoShelfService.autoAddBooksToKoboShelves(List.copyOf(addedBookIds));
+        } catch (Exception e) {
+            log.error("Failed to auto-add {} books to Kobo shelves: {}", addedBookIds.size(), e.getMessage());
+        }
+        addedBookIds.clear();
     }
 
     @Transactional
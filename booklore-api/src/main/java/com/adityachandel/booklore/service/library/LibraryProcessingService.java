@@ -1,13 +1,15 @@
 package com.adityachandel.booklore.service.library;
 
 import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.BookPathRow;
+import com.adityachandel.booklore.model.dto.FilePathRow;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.entity.BookAdditionalFileEntity;
-import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.websocket.LogNotification;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookAdditionalFileRepository;
+import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
 import com.adityachandel.booklore.task.options.RescanLibraryContext;
@@ -20,7 +22,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +31,7 @@ import java.util.stream.Collectors;
 public class LibraryProcessingService {
 
     private final LibraryRepository libraryRepository;
+    private final BookRepository bookRepository;
     private final NotificationService notificationService;
     private final BookAdditionalFileRepository bookAdditionalFileRepository;
     private final LibraryFileProcessorRegistry fileProcessorRegistry;
@@ -66,7 +68,7 @@ public class LibraryProcessingService {
             log.info("Detected {} removed additional files in library: {}", additionalFileIds.size(), libraryEntity.getName());
             bookDeletionService.deleteRemovedAdditionalFiles(additionalFileIds);
         }
-        List<Long> bookIds = detectDeletedBookIds(libraryFiles, libraryEntity);
+        List<Long> bookIds = detectDeletedBookIds(libraryFiles, bookRepository.findPathRowsByLibraryId(libraryEntity.getId()));
         if (!bookIds.isEmpty()) {
             log.info("Detected {} removed books in library: {}", bookIds.size(), libraryEntity.getName());
             bookDeletionService.processDeletedLibraryFiles(bookIds, libraryFiles);
@@ -83,31 +85,32 @@ public class LibraryProcessingService {
         processor.processLibraryFiles(libraryFiles, libraryEntity);
     }
 
-    protected static List<Long> detectDeletedBookIds(List<LibraryFile> libraryFiles, LibraryEntity libraryEntity) {
-        Set<Path> currentFullPaths = libraryFiles.stream()
-                .map(LibraryFile::getFullPath)
+    /**
+     * Books whose file is gone, matched on (library path id, relative path) tuples instead of loading every book.
+     */
+    protected static List<Long> detectDeletedBookIds(List<LibraryFile> libraryFiles, List<BookPathRow> bookRows) {
+        Set<String> currentPaths = libraryFiles.stream()
+                .map(LibraryFile::pathKey)
                 .collect(Collectors.toSet());
 
-        return libraryEntity.getBookEntities().stream()
-                .filter(book -> (book.getDeleted() == null || !book.getDeleted()))
-                .filter(book -> !currentFullPaths.contains(book.getFullFilePath()))
-                .map(BookEntity::getId)
+        return bookRows.stream()
+                .filter(row -> !Boolean.TRUE.equals(row.getDeleted()))
+                .filter(row -> !currentPaths.contains(row.pathKey()))
+                .map(BookPathRow::getId)
                 .collect(Collectors.toList());
     }
 
     protected List<LibraryFile> detectNewBookPaths(List<LibraryFile> libraryFiles, LibraryEntity libraryEntity) {
-        Set<Path> existingFullPaths = libraryEntity.getBookEntities().stream()
-                .map(BookEntity::getFullFilePath)
+        Set<String> existingPaths = bookRepository.findPathRowsByLibraryId(libraryEntity.getId()).stream()
+                .map(BookPathRow::pathKey)
                 .collect(Collectors.toSet());
 
-        Set<Path> additionalFilePaths = bookAdditionalFileRepository.findByLibraryId(libraryEntity.getId()).stream()
-                .map(BookAdditionalFileEntity::getFullFilePath)
-                .collect(Collectors.toSet());
-
-        existingFullPaths.addAll(additionalFilePaths);
+        bookAdditionalFileRepository.findPathRowsByLibraryId(libraryEntity.getId()).stream()
+                .map(FilePathRow::pathKey)
+                .forEach(existingPaths::add);
 
         return libraryFiles.stream()
-                .filter(file -> !existingFullPaths.contains(file.getFullPath()))
+                .filter(file -> !existingPaths.contains(file.pathKey()))
                 .collect(Collectors.toList());
     }
 
@@ -63,6 +63,7 @@ public class LibraryRescanHelper {
                 continue;
             }
 
+            cancellationManager.checkpoint(taskId);
             if (taskId != null && cancellationManager.isTaskCancelled(taskId)) {
                 log.info("Library rescan for library {} was cancelled", library.getId());
                 sendTaskProgressNotification(taskId, (processedBooks * 100) / totalBooks,
@@ -20,6 +20,7 @@ import com.adityachandel.booklore.repository.LibraryPathRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.repository.UserRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.monitoring.MonitoringService;
 import com.adityachandel.booklore.task.options.RescanLibraryContext;
 import com.adityachandel.booklore.util.FileService;
@@ -56,6 +57,7 @@ public class LibraryService {
     private final MonitoringService monitoringService;
     private final AuthenticationService authenticationService;
     private final UserRepository userRepository;
+    private final BookChangeService bookChangeService;
 
     @Transactional
     @PostConstruct
@@ -102,7 +104,7 @@ public class LibraryService {
                     pathsToRemove.stream().map(LibraryPathEntity::getId).collect(Collectors.toSet()));
 
             if (!books.isEmpty()) {
-                notificationService.sendMessage(Topic.BOOKS_REMOVE, books);
+                notificationService.sendMessage(Topic.BOOKS_REMOVE, books, bookChangeService.recordChanges(books));
             }
 
             libraryPathRepository.deleteAll(pathsToRemove);
@@ -228,6 +230,7 @@ public class LibraryService {
         Set<Long> bookIds = library.getBookEntities().stream().map(BookEntity::getId).collect(Collectors.toSet());
         fileService.deleteBookCovers(bookIds);
         libraryRepository.deleteById(id);
+        bookChangeService.recordChanges(bookIds);
         log.info("Library deleted successfully: {}", id);
     }
 
@@ -23,6 +23,7 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.book.BookQueryService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.NotificationService;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.service.file.FileFingerprint;
@@ -75,6 +76,7 @@ public class BookMetadataService {
     private final MetadataWriterFactory metadataWriterFactory;
     private final MetadataClearFlagsMapper metadataClearFlagsMapper;
     private final org.springframework.transaction.PlatformTransactionManager transactionManager;
+    private final BookChangeService bookChangeService;
 
     public List<BookMetadata> getProspectiveMetadataListForBookId(long bookId, FetchMetadataRequest request) {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
@@ -254,6 +256,7 @@ public class BookMetadataService {
                     });
         }
         bookRepository.save(bookEntity);
+        bookChangeService.recordChange(bookId);
         return bookMetadataMapper.toBookMetadata(bookEntity.getMetadata(), true);
     }
 
@@ -263,6 +266,7 @@ public class BookMetadataService {
             throw ApiError.METADATA_LOCKED.createException();
         } else {
             regenerateCoverForBook(bookEntity, "");
+            bookChangeService.recordChange(bookId);
         }
     }
 
@@ -324,7 +328,7 @@ public class BookMetadataService {
                 });
 
                 if (refreshedPatches != null && !refreshedPatches.isEmpty()) {
-                    notificationService.sendMessage(Topic.BOOKS_COVER_UPDATE, refreshedPatches);
+                    notificationService.sendMessage(Topic.BOOKS_COVER_UPDATE, refreshedPatches, bookChangeService.recordChanges(refreshedIds));
                 }
             }
 
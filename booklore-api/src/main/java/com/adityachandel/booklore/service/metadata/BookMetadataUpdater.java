@@ -9,13 +9,10 @@ import com.adityachandel.booklore.model.dto.settings.MetadataPersistenceSettings
 import com.adityachandel.booklore.model.entity.*;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.model.enums.MetadataReplaceMode;
-import com.adityachandel.booklore.repository.AuthorRepository;
 import com.adityachandel.booklore.repository.BookRepository;
-import com.adityachandel.booklore.repository.CategoryRepository;
-import com.adityachandel.booklore.repository.MoodRepository;
-import com.adityachandel.booklore.repository.TagRepository;
 import com.adityachandel.booklore.service.file.FileFingerprint;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMoveService;
 import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
 import com.adityachandel.booklore.util.FileService;
@@ -34,17 +31,13 @@ import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class BookMetadataUpdater {
 
-    private final AuthorRepository authorRepository;
-    private final CategoryRepository categoryRepository;
-    private final MoodRepository moodRepository;
-    private final TagRepository tagRepository;
+    private final MetadataNameCache metadataNameCache;
     private final BookRepository bookRepository;
     private final FileService fileService;
     private final MetadataMatchService metadataMatchService;
@@ -52,6 +45,7 @@ public class BookMetadataUpdater {
     private final MetadataWriterFactory metadataWriterFactory;
     private final BookReviewUpdateService bookReviewUpdateService;
     private final FileMoveService fileMoveService;
+    private final BookChangeService bookChangeService;
 
     @Transactional
     public void setBookMetadata(MetadataUpdateContext context) {
@@ -104,6 +98,7 @@ public class BookMetadataUpdater {
         updateLocks(newMetadata, metadata);
 
         bookRepository.save(bookEntity);
+        bookChangeService.recordChange(bookId);
 
         try {
             Float score = metadataMatchService.calculateMatchScore(bookEntity);
@@ -211,11 +206,7 @@ public class BookMetadataUpdater {
             return;
         }
 
-        Set<AuthorEntity> newAuthors = authorNames.stream()
-                .filter(name -> name != null && !name.isBlank())
-                .map(name -> authorRepository.findByName(name)
-                        .orElseGet(() -> authorRepository.save(AuthorEntity.builder().name(name).build())))
-                .collect(Collectors.toSet());
+        Set<AuthorEntity> newAuthors = metadataNameCache.authors(authorNames);
 
         if (newAuthors.isEmpty()) return;
 
@@ -252,11 +243,7 @@ public class BookMetadataUpdater {
             return;
         }
 
-        Set<CategoryEntity> newCategories = categoryNames.stream()
-                .filter(name -> name != null && !name.isBlank())
-                .map(name -> categoryRepository.findByName(name)
-                        .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(name).build())))
-                .collect(Collectors.toSet());
+        Set<CategoryEntity> newCategories = metadataNameCache.categories(categoryNames);
 
         if (newCategories.isEmpty()) return;
 
@@ -290,11 +277,7 @@ public class BookMetadataUpdater {
             return;
         }
 
-        Set<MoodEntity> newMoods = moodNames.stream()
-                .filter(name -> name != null && !name.isBlank())
-                .map(name -> moodRepository.findByName(name)
-                        .orElseGet(() -> moodRepository.save(MoodEntity.builder().name(name).build())))
-                .collect(Collectors.toSet());
+        Set<MoodEntity> newMoods = metadataNameCache.moods(moodNames);
 
         if (newMoods.isEmpty()) return;
 
@@ -328,11 +311,7 @@ public class BookMetadataUpdater {
             return;
         }
 
-        Set<TagEntity> newTags = tagNames.stream()
-                .filter(name -> name != null && !name.isBlank())
-                .map(name -> tagRepository.findByName(name)
-                        .orElseGet(() -> tagRepository.save(TagEntity.builder().name(name).build())))
-                .collect(Collectors.toSet());
+        Set<TagEntity> newTags = metadataNameCache.tags(tagNames);
 
         if (newTags.isEmpty()) return;
 
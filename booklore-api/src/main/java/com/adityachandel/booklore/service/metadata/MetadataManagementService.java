@@ -1,24 +1,18 @@
 package com.adityachandel.booklore.service.metadata;
 
-import com.adityachandel.booklore.model.dto.FileMoveResult;
 import com.adityachandel.booklore.model.dto.settings.MetadataPersistenceSettings;
 import com.adityachandel.booklore.model.entity.*;
-import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.model.enums.MergeMetadataType;
 import com.adityachandel.booklore.repository.*;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
-import com.adityachandel.booklore.service.file.FileFingerprint;
-import com.adityachandel.booklore.service.file.FileMoveService;
-import com.adityachandel.booklore.service.metadata.writer.MetadataWriter;
-import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -31,9 +25,9 @@ public class MetadataManagementService {
     private final TagRepository tagRepository;
     private final BookMetadataRepository bookMetadataRepository;
     private final AppSettingService appSettingService;
-    private final MetadataWriterFactory metadataWriterFactory;
-    private final FileMoveService fileMoveService;
-    private final BookRepository bookRepository;
+    private final MetadataWriteBackService metadataWriteBackService;
+    private final BookChangeService bookChangeService;
+    private final MetadataNameCache metadataNameCache;
 
 
     @Transactional
@@ -52,44 +46,49 @@ public class MetadataManagementService {
             case publishers -> consolidatePublishers(targetValues, valuesToMerge, writeToFile, moveFile);
             case languages -> consolidateLanguages(targetValues, valuesToMerge, writeToFile, moveFile);
         }
+        forgetInternedNames(metadataType);
     }
 
+    /**
+     * The database side is already saved at this point; the file rewrites are handed to the write-back queue and
+     * happen after the commit, so a merge touching hundreds of books doesn't hold the request.
+     */
     private void writeMetadataToFile(List<BookMetadataEntity> metadataList, boolean moveFile) {
-        for (BookMetadataEntity metadata : metadataList) {
-            if (metadata.getBook() != null) {
-                BookEntity book = metadata.getBook();
-                boolean bookModified = false;
-
-                BookFileType bookType = book.getBookType();
-                Optional<MetadataWriter> writerOpt = metadataWriterFactory.getWriter(bookType);
-                if (writerOpt.isPresent()) {
-                    File file = book.getFullFilePath().toFile();
-                    writerOpt.get().writeMetadataToFile(file, metadata, null, null);
-                    String newHash = FileFingerprint.generateHash(book.getFullFilePath());
-                    book.setCurrentHash(newHash);
-                    bookModified = true;
-                }
-
-                if (moveFile) {
-                    FileMoveResult result = fileMoveService.moveSingleFile(book);
-                    if (result.isMoved()) {
-                        book.setFileName(result.getNewFileName());
-                        book.setFileSubPath(result.getNewFileSubPath());
-                        bookModified = true;
-                    }
-                }
+        List<Long> bookIds = metadataList.stream()
+                .map(BookMetadataEntity::getBook)
+                .filter(Objects::nonNull)
+                .map(BookEntity::getId)
+                .toList();
+        metadataWriteBackService.enqueue(bookIds, moveFile);
+    }
 
-                if (bookModified) {
-                    bookRepository.saveAndFlush(book);
-                }
+    /**
+     * Merged and deleted authors, categories, moods and tags may still be interned with their old ids.
+     */
+    private void forgetInternedNames(MergeMetadataType metadataType) {
+        switch (metadataType) {
+            case authors, categories, moods, tags -> metadataNameCache.clear();
+            default -> {
             }
         }
     }
 
+    /**
+     * Merges and deletes rewrite many books at once, recording them keeps sync clients and the caches keyed on the
+     * change log current.
+     */
+    private void recordChanges(List<BookMetadataEntity> metadataList) {
+        bookChangeService.recordChanges(metadataList.stream().map(BookMetadataEntity::getBookId).toList());
+    }
+
     private void consolidateAuthors(List<String> targetValues, List<String> valuesToMerge, boolean writeToFile, boolean moveFile) {
         List<AuthorEntity> targetAuthors = targetValues.stream()
                 .map(name -> authorRepository.findByNameIgnoreCase(name)
                         .map(existing -> {
+                            if (!name.equals(existing.getName())) {
+                                // A respelled author changes every book that already has it
+                                recordChanges(bookMetadataRepository.findAllByAuthorsContaining(existing));
+                            }
                             existing.setName(name);
                             return authorRepository.save(existing);
                         })
@@ -116,6 +115,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldAuthor);
+            recordChanges(booksWithOldAuthor);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -157,6 +157,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldCategory);
+            recordChanges(booksWithOldCategory);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -198,6 +199,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldMood);
+            recordChanges(booksWithOldMood);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -239,6 +241,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldTag);
+            recordChanges(booksWithOldTag);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -265,6 +268,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldSeries);
+            recordChanges(booksWithOldSeries);
 
             if (writeToFile) {
                 writeMetadataToFile(booksWithOldSeries, moveFile);
@@ -288,6 +292,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldPublisher);
+            recordChanges(booksWithOldPublisher);
 
             if (writeToFile) {
                 writeMetadataToFile(booksWithOldPublisher, moveFile);
@@ -311,6 +316,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithOldLanguage);
+            recordChanges(booksWithOldLanguage);
 
             if (writeToFile) {
                 writeMetadataToFile(booksWithOldLanguage, moveFile);
@@ -335,6 +341,7 @@ public class MetadataManagementService {
             case publishers -> deletePublishers(valuesToDelete, writeToFile, moveFile);
             case languages -> deleteLanguages(valuesToDelete, writeToFile, moveFile);
         }
+        forgetInternedNames(metadataType);
     }
 
     private void deleteAuthors(List<String> valuesToDelete, boolean writeToFile, boolean moveFile) {
@@ -352,6 +359,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithAuthor);
+            recordChanges(booksWithAuthor);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -379,6 +387,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithCategory);
+            recordChanges(booksWithCategory);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -406,6 +415,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithMood);
+            recordChanges(booksWithMood);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -433,6 +443,7 @@ public class MetadataManagementService {
             }
 
             bookMetadataRepository.saveAll(booksWithTag);
+            recordChanges(booksWithTag);
             bookMetadataRepository.flush();
 
             if (writeToFile) {
@@ -457,6 +468,7 @@ public class MetadataManagementService {
 
             if (!booksWithSeries.isEmpty()) {
                 bookMetadataRepository.saveAll(booksWithSeries);
+                recordChanges(booksWithSeries);
 
                 if (writeToFile) {
                     writeMetadataToFile(booksWithSeries, moveFile);
@@ -477,6 +489,7 @@ public class MetadataManagementService {
 
             if (!booksWithPublisher.isEmpty()) {
                 bookMetadataRepository.saveAll(booksWithPublisher);
+                recordChanges(booksWithPublisher);
 
                 if (writeToFile) {
                     writeMetadataToFile(booksWithPublisher, moveFile);
@@ -497,6 +510,7 @@ public class MetadataManagementService {
 
             if (!booksWithLanguage.isEmpty()) {
                 bookMetadataRepository.saveAll(booksWithLanguage);
+                recordChanges(booksWithLanguage);
 
                 if (writeToFile) {
                     writeMetadataToFile(booksWithLanguage, moveFile);
@@ -0,0 +1,328 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.model.entity.AuthorEntity;
+import com.adityachandel.booklore.model.entity.CategoryEntity;
+import com.adityachandel.booklore.model.entity.MoodEntity;
+import com.adityachandel.booklore.model.entity.TagEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Interns author, category, mood and tag names to their ids. A batch of names is resolved with one IN query for the
+ * names not cached yet, missing ones are created with a single {@code INSERT IGNORE} so concurrent workers adding the
+ * same name don't fail on the unique key, and the entities are then loaded by id in one query.
+ */
+@Slf4j
+@Component
+public class MetadataNameCache {
+
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_CACHED_NAMES = 200_000;
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Dimension<AuthorEntity> authors;
+    private final Dimension<CategoryEntity> categories;
+    private final Dimension<MoodEntity> moods;
+    private final Dimension<TagEntity> tags;
+
+    public MetadataNameCache(EntityManager entityManager, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.authors = new Dimension<>("authors", AuthorEntity.class, "author", AuthorEntity::getId, meterRegistry);
+        this.categories = new Dimension<>("categories", CategoryEntity.class, "category", CategoryEntity::getId, meterRegistry);
+        this.moods = new Dimension<>("moods", MoodEntity.class, "mood", MoodEntity::getId, meterRegistry);
+        this.tags = new Dimension<>("tags", TagEntity.class, "tag", TagEntity::getId, meterRegistry);
+    }
+
+    public Set<AuthorEntity> authors(Collection<String> names) {
+        return resolve(authors, names, true);
+    }
+
+    public Set<CategoryEntity> categories(Collection<String> names) {
+        return resolve(categories, names, true);
+    }
+
+    public Set<MoodEntity> moods(Collection<String> names) {
+        return resolve(moods, names, true);
+    }
+
+    public Set<TagEntity> tags(Collection<String> names) {
+        return resolve(tags, names, true);
+    }
+
+    /**
+     * Forgets every interned name, e.g. after names were merged or deleted in bulk. Inside a transaction this happens
+     * once it commits, so lookups in between can't intern the old ids again.
+     */
+    public void clear() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clearNow();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clearNow();
+            }
+        });
+    }
+
+    private void clearNow() {
+        for (Dimension<?> dimension : List.of(authors, categories, moods, tags)) {
+            dimension.ids.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        for (Dimension<?> dimension : List.of(authors, categories, moods, tags)) {
+            List<Object[]> rows = entityManager
+                    .createQuery("SELECT e.id, e.name FROM " + dimension.entityName + " e WHERE e.name IS NOT NULL ORDER BY e.id", Object[].class)
+                    .setMaxResults(MAX_CACHED_NAMES)
+                    .getResultList();
+            for (Object[] row : rows) {
+                dimension.ids.put((String) row[1], (Long) row[0]);
+            }
+        }
+        log.info("Warmed metadata name cache in {} ms: {} authors, {} categories, {} moods, {} tags",
+                (System.nanoTime() - start) / 1_000_000, authors.ids.size(), categories.ids.size(), moods.ids.size(), tags.ids.size());
+    }
+
+    private <E> Set<E> resolve(Dimension<E> dimension, Collection<String> names, boolean retryStale) {
+        Set<String> wanted = normalize(names);
+        if (wanted.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : wanted) {
+            Long id = dimension.ids.get(name);
+            if (id != null) {
+                ids.put(name, id);
+            } else {
+                missing.add(name);
+            }
+        }
+        dimension.hits.increment(ids.size());
+        dimension.misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            ids.putAll(transactionTemplate.execute(status -> lookupOrCreate(dimension, missing)));
+        }
+
+        List<E> entities = load(dimension, new HashSet<>(ids.values()));
+        Set<Long> loadedIds = new HashSet<>();
+        entities.forEach(entity -> loadedIds.add(dimension.idOf.apply(entity)));
+        if (retryStale && loadedIds.size() < new HashSet<>(ids.values()).size()) {
+            // Names merged or deleted since they were cached, look them up again
+            ids.forEach((name, id) -> {
+                if (!loadedIds.contains(id)) {
+                    dimension.ids.remove(name, id);
+                }
+            });
+            return resolve(dimension, names, false);
+        }
+        return new HashSet<>(entities);
+    }
+
+    private <E> Map<String, Long> lookupOrCreate(Dimension<E> dimension, List<String> names) {
+        Map<String, Long> resolved = select(dimension, names, false);
+        List<String> absent = names.stream().filter(name -> !resolved.containsKey(name)).toList();
+        if (!absent.isEmpty()) {
+            int inserted = insertIgnore(dimension, absent);
+            dimension.created.increment(inserted);
+            // A locking read sees rows another transaction committed while our insert waited on the unique key
+            resolved.putAll(select(dimension, absent, true));
+            for (String name : absent) {
+                if (!resolved.containsKey(name)) {
+                    // The insert was folded onto a row the collation treats as equal, e.g. "Jose" onto "José"
+                    selectOne(dimension, name).ifPresent(id -> resolved.put(name, id));
+                }
+            }
+            if (resolved.size() < names.size()) {
+                log.warn("Could not resolve {} {} names", names.size() - resolved.size(), dimension.name);
+            }
+        }
+        cacheAfterCommit(dimension, resolved);
+        return resolved;
+    }
+
+    private <E> Map<String, Long> select(Dimension<E> dimension, List<String> names, boolean locking) {
+        Map<String, Long> exact = new HashMap<>();
+        Map<String, Long> folded = new HashMap<>();
+        for (int i = 0; i < names.size(); i += IN_CHUNK_SIZE) {
+            TypedQuery<Object[]> query = entityManager
+                    .createQuery("SELECT e.id, e.name FROM " + dimension.entityName + " e WHERE e.name IN :names", Object[].class)
+                    .setParameter("names", names.subList(i, Math.min(i + IN_CHUNK_SIZE, names.size())));
+            if (locking) {
+                query.setLockMode(LockModeType.PESSIMISTIC_READ);
+            }
+            for (Object[] row : query.getResultList()) {
+                exact.put((String) row[1], (Long) row[0]);
+                folded.putIfAbsent(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]);
+            }
+        }
+        // The name columns use a case-insensitive collation, so "tolkien" matches the stored "Tolkien"
+        Map<String, Long> resolved = new HashMap<>();
+        for (String name : names) {
+            Long id = exact.containsKey(name) ? exact.get(name) : folded.get(name.toLowerCase(Locale.ROOT));
+            if (id != null) {
+                resolved.put(name, id);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Matches one name with the column collation, which also ignores accents and trailing spaces.
+     */
+    private Optional<Long> selectOne(Dimension<?> dimension, String name) {
+        return entityManager
+                .createQuery("SELECT e.id FROM " + dimension.entityName + " e WHERE e.name = :name ORDER BY e.id", Long.class)
+                .setParameter("name", name)
+                .setLockMode(LockModeType.PESSIMISTIC_READ)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    private int insertIgnore(Dimension<?> dimension, List<String> names) {
+        int inserted = 0;
+        for (int i = 0; i < names.size(); i += IN_CHUNK_SIZE) {
+            List<String> chunk = names.subList(i, Math.min(i + IN_CHUNK_SIZE, names.size()));
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO ").append(dimension.table).append(" (name) VALUES ");
+            for (int p = 1; p <= chunk.size(); p++) {
+                sql.append(p > 1 ? ", " : "").append("(?").append(p).append(')');
+            }
+            Query query = entityManager.createNativeQuery(sql.toString());
+            for (int p = 1; p <= chunk.size(); p++) {
+                query.setParameter(p, chunk.get(p - 1));
+            }
+            inserted += query.executeUpdate();
+        }
+        return inserted;
+    }
+
+    private <E> List<E> load(Dimension<E> dimension, Set<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<E> entities = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i += IN_CHUNK_SIZE) {
+            entities.addAll(entityManager
+                    .createQuery("SELECT e FROM " + dimension.entityName + " e WHERE e.id IN :ids", dimension.type)
+                    .setParameter("ids", idList.subList(i, Math.min(i + IN_CHUNK_SIZE, idList.size())))
+                    .getResultList());
+        }
+        return entities;
+    }
+
+    /**
+     * Rows created in this transaction only become visible to other workers once it commits, so they are interned then.
+     */
+    private void cacheAfterCommit(Dimension<?> dimension, Map<String, Long> resolved) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dimension.putAll(resolved);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dimension.putAll(resolved);
+            }
+        });
+    }
+
+    private static Set<String> normalize(Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (names == null) {
+            return normalized;
+        }
+        for (String name : names) {
+            String trimmed = name == null ? "" : name.strip();
+            if (!trimmed.isEmpty()) {
+                normalized.add(trimmed.length() <= MAX_NAME_LENGTH ? trimmed : trimmed.substring(0, MAX_NAME_LENGTH).strip());
+            }
+        }
+        return normalized;
+    }
+
+    int cachedNames() {
+        return authors.ids.size() + categories.ids.size() + moods.ids.size() + tags.ids.size();
+    }
+
+    private static final class Dimension<E> {
+
+        private final String name;
+        private final Class<E> type;
+        private final String entityName;
+        private final String table;
+        private final Function<E, Long> idOf;
+        private final Map<String, Long> ids = new ConcurrentHashMap<>();
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter created;
+
+        private Dimension(String name, Class<E> type, String table, Function<E, Long> idOf, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.type = type;
+            this.entityName = type.getSimpleName();
+            this.table = table;
+            this.idOf = idOf;
+            this.hits = Counter.builder("booklore.metadata.names.cache")
+                    .tag("dimension", name)
+                    .tag("result", "hit")
+                    .description("Metadata names resolved from the interning cache")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("booklore.metadata.names.cache")
+                    .tag("dimension", name)
+                    .tag("result", "miss")
+                    .description("Metadata names looked up in the database")
+                    .register(meterRegistry);
+            this.created = Counter.builder("booklore.metadata.names.created")
+                    .tag("dimension", name)
+                    .description("Metadata names inserted by the interning cache")
+                    .register(meterRegistry);
+            Gauge.builder("booklore.metadata.names.cache.size", ids, Map::size)
+                    .tag("dimension", name)
+                    .description("Interned metadata names")
+                    .register(meterRegistry);
+        }
+
+        private void putAll(Map<String, Long> resolved) {
+            if (ids.size() + resolved.size() > MAX_CACHED_NAMES) {
+                ids.clear();
+            }
+            ids.putAll(resolved);
+        }
+    }
+}
@@ -101,6 +101,7 @@ public class MetadataRefreshService {
             int completedCount = 0;
 
             for (Long bookId : actualBookIds) {
+                cancellationManager.checkpoint(jobId);
                 if (cancellationManager.isTaskCancelled(jobId)) {
                     log.info("RefreshMetadataTask {} was cancelled, stopping execution", jobId);
                     cancelTask(task);
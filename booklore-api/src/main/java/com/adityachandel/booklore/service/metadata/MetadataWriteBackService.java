@@ -0,0 +1,287 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.FileMoveResult;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.MetadataWriteBackEntity;
+import com.adityachandel.booklore.model.websocket.MetadataWriteBackProgress;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.MetadataWriteBackRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.file.FileFingerprint;
+import com.adityachandel.booklore.service.file.FileMoveService;
+import com.adityachandel.booklore.service.metadata.writer.MetadataWriter;
+import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.adityachandel.booklore.model.enums.PermissionType.ADMIN;
+import static com.adityachandel.booklore.model.enums.PermissionType.EDIT_METADATA;
+
+/**
+ * Durable queue of books whose files have to be rewritten after a metadata change. Callers enqueue inside their
+ * transaction, so the database change and the pending write commit together; the rewrite, re-hash and optional move
+ * then run on a bounded worker pool after the commit. Entries are keyed by book, so repeated edits of one book
+ * coalesce into a single write, and whatever is still queued at shutdown is picked up again on startup. A failed write
+ * is retried after a delay that doubles per attempt; entries that run out of attempts are reported in the progress
+ * and expire after {@link #EXHAUSTED_RETENTION}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetadataWriteBackService {
+
+    static final int MAX_ATTEMPTS = 3;
+    static final int BATCH_SIZE = 100;
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    static final Duration EXHAUSTED_RETENTION = Duration.ofDays(7);
+
+    private final MetadataWriteBackRepository writeBackRepository;
+    private final BookRepository bookRepository;
+    private final MetadataWriterFactory metadataWriterFactory;
+    private final FileMoveService fileMoveService;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+    private final AppProperties appProperties;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("metadata-write-back").factory());
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    /**
+     * Queues the books for a file rewrite. Processing starts once the surrounding transaction commits.
+     */
+    public void enqueue(Collection<Long> bookIds, boolean moveFile) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        for (Long bookId : bookIds) {
+            writeBackRepository.enqueue(bookId, moveFile);
+        }
+        log.debug("Queued {} books for metadata write-back", bookIds.size());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDrain();
+                }
+            });
+        } else {
+            requestDrain();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        long pending = writeBackRepository.countPending(MAX_ATTEMPTS);
+        if (pending > 0) {
+            log.info("Resuming metadata write-back of {} queued books", pending);
+            requestDrain();
+        }
+    }
+
+    // Failed entries become due again once their retry delay passed
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "PT1M")
+    public void retryDue() {
+        if (!writeBackRepository.findPending(MAX_ATTEMPTS, Instant.now(), PageRequest.of(0, 1)).isEmpty()) {
+            requestDrain();
+        }
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    @Transactional
+    public void pruneExhausted() {
+        int deleted = writeBackRepository.deleteExhaustedBefore(MAX_ATTEMPTS, Instant.now().minus(EXHAUSTED_RETENTION));
+        if (deleted > 0) {
+            log.warn("Dropped {} metadata write-back entries that failed {} times and are older than {} days",
+                    deleted, MAX_ATTEMPTS, EXHAUSTED_RETENTION.toDays());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    void requestDrain() {
+        drainRequested.set(true);
+        if (draining.compareAndSet(false, true)) {
+            dispatcher.execute(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (drainRequested.getAndSet(false)) {
+                drain();
+            }
+        } finally {
+            draining.set(false);
+            // A request that came in between the last check and the reset would otherwise wait for the next enqueue
+            if (drainRequested.get()) {
+                requestDrain();
+            }
+        }
+    }
+
+    void drain() {
+        int workers = Math.max(1, appProperties.getMetadataWriteBackWorkers());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int written = 0;
+        int failed = 0;
+        LongAdder bytesWritten = new LongAdder();
+        long start = System.nanoTime();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("metadata-write-back-", 0).factory())) {
+            List<MetadataWriteBackEntity> batch;
+            while (!(batch = writeBackRepository.findPending(MAX_ATTEMPTS, Instant.now(), PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+                List<Future<Boolean>> results = new ArrayList<>(batch.size());
+                for (MetadataWriteBackEntity entry : batch) {
+                    results.add(pool.submit(() -> process(entry, tx, bytesWritten)));
+                }
+                for (Future<Boolean> result : results) {
+                    if (await(result)) {
+                        written++;
+                    } else {
+                        failed++;
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                sendProgress(written, failed, false);
+            }
+        }
+
+        if (written + failed > 0) {
+            sendProgress(written, failed, true);
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            double megabytes = bytesWritten.sum() / 1_000_000.0;
+            log.info("Metadata write-back finished in {} ms: {} files written ({} MB at {} MB/s), {} failed",
+                    elapsedMs, written, String.format("%.1f", megabytes), String.format("%.1f", megabytes * 1000 / elapsedMs), failed);
+        }
+    }
+
+    /**
+     * Writes one queued book. The entry is only removed if it still has the revision that was read, a book queued
+     * again in the meantime stays for the next pass.
+     */
+    boolean process(MetadataWriteBackEntity entry, TransactionTemplate tx) {
+        return process(entry, tx, new LongAdder());
+    }
+
+    /**
+     * @param bytesWritten receives the size of the rewritten file, for the throughput of a drain
+     */
+    boolean process(MetadataWriteBackEntity entry, TransactionTemplate tx, LongAdder bytesWritten) {
+        try {
+            long size = tx.execute(status -> {
+                long rewritten = writeBook(entry);
+                writeBackRepository.deleteProcessed(entry.getBookId(), entry.getRevision());
+                return rewritten;
+            });
+            bytesWritten.add(size);
+            return true;
+        } catch (Exception e) {
+            int attempt = entry.getAttempts() + 1;
+            if (attempt >= MAX_ATTEMPTS) {
+                log.error("Metadata write-back gave up on book {} after {} attempts: {}", entry.getBookId(), attempt, e.getMessage());
+            } else {
+                log.warn("Metadata write-back failed for book {} (attempt {}): {}", entry.getBookId(), attempt, e.getMessage());
+            }
+            String error = e.getMessage() != null && e.getMessage().length() > 1000 ? e.getMessage().substring(0, 1000) : e.getMessage();
+            Instant retryAt = Instant.now().plus(retryDelay(entry.getAttempts()));
+            tx.executeWithoutResult(status -> writeBackRepository.markFailed(entry.getBookId(), entry.getRevision(), error, retryAt));
+            return false;
+        }
+    }
+
+    static Duration retryDelay(int previousAttempts) {
+        return RETRY_DELAY.multipliedBy(1L << Math.min(previousAttempts, 10));
+    }
+
+    /**
+     * @return size in bytes of the rewritten file, 0 if no file was rewritten
+     */
+    private long writeBook(MetadataWriteBackEntity entry) {
+        BookEntity book = bookRepository.findById(entry.getBookId()).orElse(null);
+        if (book == null || Boolean.TRUE.equals(book.getDeleted()) || book.getMetadata() == null) {
+            return 0;
+        }
+        boolean bookModified = false;
+        long rewritten = 0;
+
+        Optional<MetadataWriter> writer = metadataWriterFactory.getWriter(book.getBookType());
+        if (writer.isPresent()) {
+            File file = book.getFullFilePath().toFile();
+            writer.get().writeMetadataToFile(file, book.getMetadata(), null, null);
+            book.setCurrentHash(FileFingerprint.generateHash(book.getFullFilePath()));
+            rewritten = file.length();
+            bookModified = true;
+        }
+
+        if (entry.isMoveFile()) {
+            FileMoveResult result = fileMoveService.moveSingleFile(book);
+            if (result.isMoved()) {
+                book.setFileName(result.getNewFileName());
+                book.setFileSubPath(result.getNewFileSubPath());
+                bookModified = true;
+            }
+        }
+
+        if (bookModified) {
+            bookRepository.save(book);
+        }
+        return rewritten;
+    }
+
+    private boolean await(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Metadata write-back worker failed unexpectedly", e.getCause());
+            return false;
+        }
+    }
+
+    private void sendProgress(int written, int failed, boolean finished) {
+        notificationService.sendMessageToPermissions(Topic.METADATA_WRITE_BACK_PROGRESS, MetadataWriteBackProgress.builder()
+                .written(written)
+                .failed(failed)
+                .pending(writeBackRepository.countPending(MAX_ATTEMPTS))
+                .exhausted(writeBackRepository.countExhausted(MAX_ATTEMPTS))
+                .finished(finished)
+                .build(), Set.of(ADMIN, EDIT_METADATA));
+    }
+}
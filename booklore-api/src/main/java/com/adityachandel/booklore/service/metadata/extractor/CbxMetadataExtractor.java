@@ -15,7 +15,10 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -26,7 +29,12 @@ import java.util.Collections;
 import java.util.stream.Collectors;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -42,6 +50,8 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
 
     private static final Pattern LEADING_ZEROS_PATTERN = Pattern.compile("^0+");
     private static final Pattern COMMA_SEMICOLON_PATTERN = Pattern.compile("[,;]");
+    private static final int MAX_COVER_DIMENSION = 3000;
+    private static final int SUBSAMPLED_COVER_DIMENSION = 1500;
 
     @Override
   public BookMetadata extractMetadata(File file) {
@@ -115,6 +125,26 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
         return BookMetadata.builder().title(baseName).build();
   }
 
+  public BookMetadata extractMetadata(org.apache.commons.compress.archivers.zip.ZipFile zipFile, String fileName) {
+    String baseName = FilenameUtils.getBaseName(fileName);
+    try {
+      ZipArchiveEntry entry = Collections.list(zipFile.getEntries()).stream()
+          .filter(e -> "comicinfo.xml".equalsIgnoreCase(e.getName()))
+          .findFirst()
+          .orElse(null);
+      if (entry == null) {
+        return BookMetadata.builder().title(baseName).build();
+      }
+      try (InputStream is = zipFile.getInputStream(entry)) {
+        Document document = buildSecureDocument(is);
+        return mapDocumentToMetadata(document, baseName);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to extract metadata from CBZ", e);
+      return BookMetadata.builder().title(baseName).build();
+    }
+  }
+
   private ZipEntry findComicInfoEntry(ZipFile zipFile) {
     Enumeration<? extends ZipEntry> entries = zipFile.entries();
     while (entries.hasMoreElements()) {
@@ -284,223 +314,165 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
   @Override
   public byte[] extractCover(File file) {
     String lowerName = file.getName().toLowerCase();
-
-    // Non-archive fallback
-    if (!lowerName.endsWith(".cbz") && !lowerName.endsWith(".cbr") && !lowerName.endsWith(".cb7")) {
-      return generatePlaceholderCover(250, 350);
+    try {
+      byte[] cover = null;
+      if (lowerName.endsWith(".cbz")) {
+        cover = extractZipCover(file);
+      } else if (lowerName.endsWith(".cb7")) {
+        cover = extractSevenZCover(file);
+      } else if (lowerName.endsWith(".cbr")) {
+        cover = extractRarCover(file);
+      }
+      if (cover != null) return cover;
+    } catch (Exception e) {
+      log.warn("Failed to extract cover image from {}", file.getName(), e);
     }
+    return generatePlaceholderCover(250, 350);
+  }
 
-    // CBZ path
-    if (lowerName.endsWith(".cbz")) {
-      try (ZipFile zipFile = new ZipFile(file)) {
-        // Try front cover via ComicInfo
-        ZipEntry coverEntry = findFrontCoverEntry(zipFile);
-        if (coverEntry != null) {
-          try (InputStream is = zipFile.getInputStream(coverEntry)) {
-            byte[] bytes = is.readAllBytes();
-            if (canDecode(bytes)) return bytes;
-          }
+  private byte[] extractZipCover(File file) throws IOException {
+    try (ZipFile zipFile = new ZipFile(file)) {
+      List<ZipEntry> images = new ArrayList<>();
+      ZipEntry comicInfo = null;
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry e = entries.nextElement();
+        if (e.isDirectory()) continue;
+        if (isImageEntry(e.getName())) {
+          images.add(e);
+        } else if (comicInfo == null && "comicinfo.xml".equalsIgnoreCase(e.getName())) {
+          comicInfo = e;
         }
-        // Fallback: iterate images alphabetically until a decodable one is found
-        ZipEntry firstImage = findFirstAlphabeticalImageEntry(zipFile);
-        if (firstImage != null) {
-          // Build a sorted list and iterate for decodable formats
-          java.util.List<ZipEntry> images = listZipImageEntries(zipFile);
-          for (ZipEntry e : images) {
-            try (InputStream is = zipFile.getInputStream(e)) {
-              byte[] bytes = is.readAllBytes();
-              if (canDecode(bytes)) return bytes;
-            }
-          }
+      }
+      String frontCover = null;
+      if (comicInfo != null) {
+        try (InputStream is = zipFile.getInputStream(comicInfo)) {
+          frontCover = readFrontCoverImageName(is.readAllBytes());
         }
-      } catch (Exception e) {
-        log.warn("Failed to extract cover image from CBZ", e);
-        return generatePlaceholderCover(250, 350);
       }
-    }
-
-    // CB7 path
-    if (lowerName.endsWith(".cb7")) {
-      try (SevenZFile sevenZ = SevenZFile.builder().setFile(file).get()) {
-        // Try via ComicInfo.xml first
-        SevenZArchiveEntry ci = findSevenZComicInfoEntry(sevenZ);
-        if (ci != null) {
-          byte[] xmlBytes = readSevenZEntryBytes(sevenZ, ci);
-          if (xmlBytes != null) {
-            try (InputStream is = new ByteArrayInputStream(xmlBytes)) {
-              Document document = buildSecureDocument(is);
-              String imageName = findFrontCoverImageName(document);
-              if (imageName != null) {
-                SevenZArchiveEntry byName = findSevenZEntryByName(sevenZ, imageName);
-                if (byName != null) {
-                  byte[] bytes = readSevenZEntryBytes(sevenZ, byName);
-                  if (canDecode(bytes)) return bytes;
-                }
-                try {
-                  int index = Integer.parseInt(imageName);
-                  SevenZArchiveEntry byIndex = findSevenZImageEntryByIndex(sevenZ, index);
-                  if (byIndex != null) {
-                    byte[] bytes = readSevenZEntryBytes(sevenZ, byIndex);
-                    if (canDecode(bytes)) return bytes;
-                  }
-                  if (index > 0) {
-                    SevenZArchiveEntry offByOne = findSevenZImageEntryByIndex(sevenZ, index - 1);
-                    if (offByOne != null) {
-                      byte[] bytes = readSevenZEntryBytes(sevenZ, offByOne);
-                      if (canDecode(bytes)) return bytes;
-                    }
-                  }
-                } catch (NumberFormatException ignore) {
-                  // continue to fallback
-                }
-              }
-            }
-          }
+      for (ZipEntry candidate : orderCoverCandidates(images, ZipEntry::getName, frontCover)) {
+        try (InputStream is = zipFile.getInputStream(candidate)) {
+          byte[] cover = toCoverBytes(is.readAllBytes(), file, candidate.getName());
+          if (cover != null) return cover;
         }
+      }
+      return null;
+    }
+  }
 
-        // Fallback: iterate images alphabetically until a decodable one is found
-        SevenZArchiveEntry first = findFirstAlphabeticalSevenZImageEntry(sevenZ);
-        if (first != null) {
-          java.util.List<SevenZArchiveEntry> images = listSevenZImageEntries(sevenZ);
-          for (SevenZArchiveEntry e : images) {
-            byte[] bytes = readSevenZEntryBytes(sevenZ, e);
-            if (canDecode(bytes)) return bytes;
-          }
+  private byte[] extractSevenZCover(File file) throws IOException {
+    try (SevenZFile sevenZ = SevenZFile.builder().setFile(file).get()) {
+      List<SevenZArchiveEntry> images = new ArrayList<>();
+      SevenZArchiveEntry comicInfo = null;
+      for (SevenZArchiveEntry e : sevenZ.getEntries()) {
+        if (e == null || e.isDirectory()) continue;
+        if (isImageEntry(e.getName())) {
+          images.add(e);
+        } else if (comicInfo == null && "comicinfo.xml".equalsIgnoreCase(e.getName())) {
+          comicInfo = e;
         }
-      } catch (Exception e) {
-        log.warn("Failed to extract cover image from CB7", e);
-        return generatePlaceholderCover(250, 350);
       }
+      String frontCover = comicInfo != null ? readFrontCoverImageName(readSevenZEntryBytes(sevenZ, comicInfo)) : null;
+      for (SevenZArchiveEntry candidate : orderCoverCandidates(images, SevenZArchiveEntry::getName, frontCover)) {
+        byte[] cover = toCoverBytes(readSevenZEntryBytes(sevenZ, candidate), file, candidate.getName());
+        if (cover != null) return cover;
+      }
+      return null;
     }
+  }
 
-    // CBR path
-      try (Archive archive = new Archive(file)) {
-          try {
-
-              // Try via ComicInfo.xml first
-              FileHeader comicInfo = findComicInfoHeader(archive);
-              if (comicInfo != null) {
-                  byte[] xmlBytes = readRarEntryBytes(archive, comicInfo);
-                  if (xmlBytes != null) {
-                      try (InputStream is = new ByteArrayInputStream(xmlBytes)) {
-                          Document document = buildSecureDocument(is);
-                          String imageName = findFrontCoverImageName(document);
-                          if (imageName != null) {
-                              FileHeader byName = findRarHeaderByName(archive, imageName);
-                              if (byName != null) {
-                                  byte[] bytes = readRarEntryBytes(archive, byName);
-                                  if (canDecode(bytes)) return bytes;
-                              }
-                              try {
-                                  int index = Integer.parseInt(imageName);
-                                  FileHeader byIndex = findRarImageHeaderByIndex(archive, index);
-                                  if (byIndex != null) {
-                                      byte[] bytes = readRarEntryBytes(archive, byIndex);
-                                      if (canDecode(bytes)) return bytes;
-                                  }
-                                  if (index > 0) {
-                                      FileHeader offByOne = findRarImageHeaderByIndex(archive, index - 1);
-                                      if (offByOne != null) {
-                                          byte[] bytes = readRarEntryBytes(archive, offByOne);
-                                          if (canDecode(bytes)) return bytes;
-                                      }
-                                  }
-                              } catch (NumberFormatException ignore) {
-                                  // ignore and continue fallback
-                              }
-                          }
-                      }
-                  }
-              }
-
-              // Fallback: iterate images alphabetically until a decodable one is found
-              FileHeader firstImage = findFirstAlphabeticalImageHeader(archive);
-              if (firstImage != null) {
-                  List<FileHeader> images = listRarImageHeaders(archive);
-                  for (FileHeader fh : images) {
-                      byte[] bytes = readRarEntryBytes(archive, fh);
-                      if (canDecode(bytes)) return bytes;
-                  }
-              }
-          } catch (Exception e) {
-              log.warn("Failed to extract cover image from CBR", e);
-              return generatePlaceholderCover(250, 350);
-          }
-      } catch (Exception ignore) {
+  private byte[] extractRarCover(File file) throws Exception {
+    try (Archive archive = new Archive(file)) {
+      List<FileHeader> images = new ArrayList<>();
+      FileHeader comicInfo = null;
+      for (FileHeader fh : archive.getFileHeaders()) {
+        if (fh == null || fh.isDirectory() || fh.getFileName() == null) continue;
+        if (isImageEntry(fh.getFileName())) {
+          images.add(fh);
+        } else if (comicInfo == null && "comicinfo.xml".equalsIgnoreCase(baseName(fh.getFileName()))) {
+          comicInfo = fh;
+        }
       }
-
-    return generatePlaceholderCover(250, 350);
+      String frontCover = comicInfo != null ? readFrontCoverImageName(readRarEntryBytes(archive, comicInfo)) : null;
+      for (FileHeader candidate : orderCoverCandidates(images, FileHeader::getFileName, frontCover)) {
+        byte[] cover = toCoverBytes(readRarEntryBytes(archive, candidate), file, candidate.getFileName());
+        if (cover != null) return cover;
+      }
+      return null;
+    }
   }
 
-  private boolean canDecode(byte[] bytes) {
-    if (bytes == null || bytes.length == 0) return false;
-    try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes)) {
-      BufferedImage img = ImageIO.read(bais);
-      return img != null;
-    } catch (IOException e) {
-      return false;
+  // ComicInfo FrontCover (by name, base name, then page index), then cover-like names, then natural order
+  private <E> List<E> orderCoverCandidates(List<E> images, Function<E, String> nameOf, String frontCoverName) {
+    Set<E> ordered = new LinkedHashSet<>();
+    if (frontCoverName != null) {
+      String frontCoverBase = baseName(frontCoverName);
+      images.stream().filter(e -> nameOf.apply(e).equalsIgnoreCase(frontCoverName)).findFirst().ifPresent(ordered::add);
+      images.stream().filter(e -> baseName(nameOf.apply(e)).equalsIgnoreCase(frontCoverBase)).findFirst().ifPresent(ordered::add);
+      try {
+        int index = Integer.parseInt(frontCoverName);
+        if (index >= 0 && index < images.size()) ordered.add(images.get(index));
+        if (index > 0 && index <= images.size()) ordered.add(images.get(index - 1));
+      } catch (NumberFormatException ignore) {
+        // not a page index
+      }
+    }
+    List<E> sorted = new ArrayList<>(images);
+    sorted.sort((a, b) -> naturalCompare(nameOf.apply(a), nameOf.apply(b)));
+    for (E e : sorted) {
+      if (likelyCoverName(baseName(nameOf.apply(e)))) ordered.add(e);
     }
+    ordered.addAll(sorted);
+    return new ArrayList<>(ordered);
   }
 
-  private ZipEntry findFrontCoverEntry(ZipFile zipFile) {
-    ZipEntry comicInfoEntry = findComicInfoEntry(zipFile);
-    if (comicInfoEntry != null) {
-      try (InputStream is = zipFile.getInputStream(comicInfoEntry)) {
-        Document document = buildSecureDocument(is);
-        String imageName = findFrontCoverImageName(document);
-        if (imageName != null) {
-          ZipEntry byName = zipFile.getEntry(imageName);
-          if (byName != null) {
-            return byName;
-          }
-          // also try base-name match for archives with directories or odd encodings
-          String imageBase = baseName(imageName);
-          java.util.Enumeration<? extends ZipEntry> it = zipFile.entries();
-          while (it.hasMoreElements()) {
-            ZipEntry e = it.nextElement();
-            if (!e.isDirectory() && isImageEntry(e.getName())) {
-              if (baseName(e.getName()).equalsIgnoreCase(imageBase)) {
-                return e;
-              }
-            }
-          }
-          try {
-            int index = Integer.parseInt(imageName);
-            ZipEntry byIndex = findImageEntryByIndex(zipFile, index);
-            if (byIndex != null) {
-              return byIndex;
-            }
-            if (index > 0) {
-              ZipEntry offByOne = findImageEntryByIndex(zipFile, index - 1);
-              if (offByOne != null) return offByOne;
-            }
-          } catch (NumberFormatException ignore) {
-            // ignore
-          }
-        }
-      } catch (Exception e) {
-        log.warn("Failed to parse ComicInfo.xml for cover", e);
-      }
+  private String readFrontCoverImageName(byte[] comicInfoXml) {
+    if (comicInfoXml == null) return null;
+    try (InputStream is = new ByteArrayInputStream(comicInfoXml)) {
+      return findFrontCoverImageName(buildSecureDocument(is));
+    } catch (Exception e) {
+      log.warn("Failed to parse ComicInfo.xml for cover", e);
+      return null;
     }
-    // Heuristic filenames before generic fallback
-    ZipEntry heuristic = findHeuristicCover(zipFile);
-    if (heuristic != null) return heuristic;
-    return findFirstAlphabeticalImageEntry(zipFile);
   }
 
-  private ZipEntry findImageEntryByIndex(ZipFile zipFile, int index) {
-    Enumeration<? extends ZipEntry> entries = zipFile.entries();
-    int count = 0;
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = entries.nextElement();
-      if (!entry.isDirectory() && isImageEntry(entry.getName())) {
-        if (count == index) {
-          return entry;
+  // Validates the candidate from its header only; oversized scans are decoded subsampled and re-encoded.
+  // Archives are read before they belong to a book (e.g. in the bookdrop), so failures name the file and entry.
+  private byte[] toCoverBytes(byte[] bytes, File file, String entryName) {
+    if (bytes == null || bytes.length == 0) return null;
+    try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+      if (!readers.hasNext()) return null;
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(iis, true, true);
+        int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+        if (longestSide <= MAX_COVER_DIMENSION) return bytes;
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        int step = Math.max(1, longestSide / SUBSAMPLED_COVER_DIMENSION);
+        param.setSourceSubsampling(step, step, 0, 0);
+        BufferedImage image = reader.read(0, param);
+        BufferedImage rgb = image;
+        if (image.getColorModel().hasAlpha()) {
+          rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+          Graphics2D g = rgb.createGraphics();
+          g.drawImage(image, 0, 0, Color.WHITE, null);
+          g.dispose();
         }
-        count++;
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+          return ImageIO.write(rgb, "jpg", baos) ? baos.toByteArray() : null;
+        } finally {
+          image.flush();
+          rgb.flush();
+        }
+      } finally {
+        reader.dispose();
       }
+    } catch (Exception e) {
+      log.warn("Skipping unreadable cover candidate {} in {}: {}", entryName, file.getName(), e.getMessage());
+      return null;
     }
-    return null;
   }
 
   private String findFrontCoverImageName(Document document) {
@@ -593,38 +565,6 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
     return null;
   }
 
-  private FileHeader findRarHeaderByName(Archive archive, String imageName) {
-    if (archive == null || imageName == null) return null;
-    for (FileHeader fh : archive.getFileHeaders()) {
-      String name = fh.getFileName();
-      if (name == null) continue;
-      if (name.equalsIgnoreCase(imageName)) return fh;
-      // also try base-name match to be lenient
-      if (baseName(name).equalsIgnoreCase(baseName(imageName))) return fh;
-    }
-    return null;
-  }
-
-  private FileHeader findRarImageHeaderByIndex(Archive archive, int index) {
-    int count = 0;
-    for (FileHeader fh : archive.getFileHeaders()) {
-      if (!fh.isDirectory() && isImageEntry(fh.getFileName())) {
-        if (count == index) return fh;
-        count++;
-      }
-    }
-    return null;
-  }
-
-  private FileHeader findFirstImageHeader(Archive archive) {
-    for (FileHeader fh : archive.getFileHeaders()) {
-      if (!fh.isDirectory() && isImageEntry(fh.getFileName())) {
-        return fh;
-      }
-    }
-    return null;
-  }
-
   private byte[] readRarEntryBytes(Archive archive, FileHeader header) {
     try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
       archive.extractFile(header, baos);
@@ -641,36 +581,6 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
     return slash >= 0 ? path.substring(slash + 1) : path;
   }  
 
-  private FileHeader findFirstAlphabeticalImageHeader(Archive archive) {
-    if (archive == null) return null;
-    List<FileHeader> images = new ArrayList<>();
-    for (FileHeader fh : archive.getFileHeaders()) {
-      if (fh == null || fh.isDirectory()) continue;
-      String name = fh.getFileName();
-      if (name == null) continue;
-      if (isImageEntry(name)) {
-        images.add(fh);
-      }
-    }
-    if (images.isEmpty()) return null;
-    images.sort((a, b) -> naturalCompare(a.getFileName(), b.getFileName()));
-    return images.getFirst();
-  }
-
-  private ZipEntry findFirstAlphabeticalImageEntry(ZipFile zipFile) {
-    List<ZipEntry> images = new ArrayList<>();
-    Enumeration<? extends ZipEntry> entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry e = entries.nextElement();
-      if (!e.isDirectory() && isImageEntry(e.getName())) {
-        images.add(e);
-      }
-    }
-    if (images.isEmpty()) return null;
-    images.sort((a, b) -> naturalCompare(a.getName(), b.getName()));
-    return images.getFirst();
-  }
-  
   // ==== 7z (.cb7) helpers ====
   private SevenZArchiveEntry findSevenZComicInfoEntry(SevenZFile sevenZ) {
     for (SevenZArchiveEntry e : sevenZ.getEntries()) {
@@ -683,42 +593,6 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
     return null;
   }
 
-  private SevenZArchiveEntry findSevenZEntryByName(SevenZFile sevenZ, String imageName) {
-    if (imageName == null) return null;
-    for (SevenZArchiveEntry e : sevenZ.getEntries()) {
-      if (e == null || e.isDirectory()) continue;
-      String name = e.getName();
-      if (name == null) continue;
-      if (name.equalsIgnoreCase(imageName)) return e;
-      // also allow base-name match
-      if (baseName(name).equalsIgnoreCase(baseName(imageName))) return e;
-    }
-    return null;
-  }
-
-  private SevenZArchiveEntry findSevenZImageEntryByIndex(SevenZFile sevenZ, int index) {
-    int count = 0;
-    for (SevenZArchiveEntry e : sevenZ.getEntries()) {
-      if (!e.isDirectory() && isImageEntry(e.getName())) {
-        if (count == index) return e;
-        count++;
-      }
-    }
-    return null;
-  }
-
-  private SevenZArchiveEntry findFirstAlphabeticalSevenZImageEntry(SevenZFile sevenZ) {
-    List<SevenZArchiveEntry> images = new ArrayList<>();
-    for (SevenZArchiveEntry e : sevenZ.getEntries()) {
-      if (!e.isDirectory() && isImageEntry(e.getName())) {
-        images.add(e);
-      }
-    }
-    if (images.isEmpty()) return null;
-    images.sort((a, b) -> naturalCompare(a.getName(), b.getName()));
-    return images.getFirst();
-  }
-
   private byte[] readSevenZEntryBytes(SevenZFile sevenZ, SevenZArchiveEntry entry) throws IOException {
     try (InputStream is = sevenZ.getInputStream(entry);
          ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
@@ -728,39 +602,6 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
     }
   }
 
-  private java.util.List<ZipEntry> listZipImageEntries(ZipFile zipFile) {
-    java.util.List<ZipEntry> images = new java.util.ArrayList<>();
-    java.util.Enumeration<? extends ZipEntry> en = zipFile.entries();
-    while (en.hasMoreElements()) {
-      ZipEntry e = en.nextElement();
-      if (!e.isDirectory() && isImageEntry(e.getName())) images.add(e);
-    }
-    images.sort((a, b) -> naturalCompare(a.getName(), b.getName()));
-    // Heuristic preferred names first
-    images.sort((a, b) -> Boolean.compare(!likelyCoverName(baseName(a.getName())), !likelyCoverName(baseName(b.getName()))));
-    return images;
-  }
-
-  private java.util.List<SevenZArchiveEntry> listSevenZImageEntries(SevenZFile sevenZ) {
-    java.util.List<SevenZArchiveEntry> images = new java.util.ArrayList<>();
-    for (SevenZArchiveEntry e : sevenZ.getEntries()) {
-      if (!e.isDirectory() && isImageEntry(e.getName())) images.add(e);
-    }
-    images.sort((a, b) -> naturalCompare(a.getName(), b.getName()));
-    images.sort((a, b) -> Boolean.compare(!likelyCoverName(baseName(a.getName())), !likelyCoverName(baseName(b.getName()))));
-    return images;
-  }
-
-  private java.util.List<FileHeader> listRarImageHeaders(Archive archive) {
-    java.util.List<FileHeader> images = new java.util.ArrayList<>();
-    for (FileHeader fh : archive.getFileHeaders()) {
-      if (fh != null && !fh.isDirectory() && isImageEntry(fh.getFileName())) images.add(fh);
-    }
-    images.sort((a, b) -> naturalCompare(a.getFileName(), b.getFileName()));
-    images.sort((a, b) -> Boolean.compare(!likelyCoverName(baseName(a.getFileName())), !likelyCoverName(baseName(b.getFileName()))));
-    return images;
-  }
-
   private boolean likelyCoverName(String base) {
     if (base == null) return false;
     String n = base.toLowerCase();
@@ -792,11 +633,4 @@ public class CbxMetadataExtractor implements FileMetadataExtractor {
     return Integer.compare(n1 - i, n2 - j);
   }
 
-  private ZipEntry findHeuristicCover(ZipFile zipFile) {
-    java.util.List<ZipEntry> images = listZipImageEntries(zipFile);
-    for (ZipEntry e : images) {
-      if (likelyCoverName(baseName(e.getName()))) return e;
-    }
-    return null;
-  }
 }
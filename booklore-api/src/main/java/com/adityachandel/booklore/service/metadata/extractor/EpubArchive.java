@@ -0,0 +1,227 @@
+package com.adityachandel.booklore.service.metadata.extractor;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An EPUB opened once for ingest: only container.xml and the OPF are parsed up front,
+ * other entries are read on demand.
+ */
+@Slf4j
+public class EpubArchive implements Closeable {
+
+    // <img src> of an XHTML cover page, or <image xlink:href> of an SVG one
+    private static final Pattern COVER_PAGE_IMAGE = Pattern.compile(
+            "<(?:img|(?:svg:)?image)\\b[^>]*?\\s(?:src|xlink:href|href)\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+
+    private final ZipFile zip;
+
+    @Getter
+    private final String opfPath;
+
+    @Getter
+    private final Document opfDocument;
+
+    private EpubArchive(ZipFile zip, String opfPath, Document opfDocument) {
+        this.zip = zip;
+        this.opfPath = opfPath;
+        this.opfDocument = opfDocument;
+    }
+
+    public static EpubArchive open(File epubFile) throws Exception {
+        ZipFile zip = new ZipFile(epubFile);
+        try {
+            DocumentBuilder builder = newDocumentBuilder();
+
+            FileHeader containerHdr = zip.getFileHeader("META-INF/container.xml");
+            if (containerHdr == null) {
+                zip.close();
+                return null;
+            }
+
+            String opfPath;
+            try (InputStream cis = zip.getInputStream(containerHdr)) {
+                Document containerDoc = builder.parse(cis);
+                NodeList roots = containerDoc.getElementsByTagName("rootfile");
+                if (roots.getLength() == 0) {
+                    zip.close();
+                    return null;
+                }
+                opfPath = ((Element) roots.item(0)).getAttribute("full-path");
+            }
+            if (StringUtils.isBlank(opfPath)) {
+                zip.close();
+                return null;
+            }
+
+            FileHeader opfHdr = zip.getFileHeader(opfPath);
+            if (opfHdr == null) {
+                zip.close();
+                return null;
+            }
+
+            try (InputStream in = zip.getInputStream(opfHdr)) {
+                return new EpubArchive(zip, opfPath, builder.parse(in));
+            }
+        } catch (Exception e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    // EPUB 3 cover-image property, then EPUB 2 <meta name="cover">, then the <guide> cover reference,
+    // then any image item named like a cover
+    public String findCoverImagePath() {
+        NodeList manifestItems = opfDocument.getElementsByTagNameNS("*", "item");
+
+        for (int i = 0; i < manifestItems.getLength(); i++) {
+            Element item = (Element) manifestItems.item(i);
+            String properties = item.getAttribute("properties");
+            if (properties != null && properties.contains("cover-image")) {
+                return resolveHref(item.getAttribute("href"));
+            }
+        }
+
+        String coverId = findEpub2CoverId();
+        if (coverId != null) {
+            for (int i = 0; i < manifestItems.getLength(); i++) {
+                Element item = (Element) manifestItems.item(i);
+                if (coverId.equals(item.getAttribute("id")) && isImage(item)) {
+                    return resolveHref(item.getAttribute("href"));
+                }
+            }
+        }
+
+        String guideCoverPath = findGuideCoverPath(manifestItems);
+        if (guideCoverPath != null) {
+            return guideCoverPath;
+        }
+
+        for (int i = 0; i < manifestItems.getLength(); i++) {
+            Element item = (Element) manifestItems.item(i);
+            String id = item.getAttribute("id").toLowerCase();
+            String href = item.getAttribute("href").toLowerCase();
+            if ((id.contains("cover") || href.contains("cover")) && isImage(item)) {
+                return resolveHref(item.getAttribute("href"));
+            }
+        }
+        return null;
+    }
+
+    public byte[] readEntry(String path) {
+        try {
+            FileHeader header = zip.getFileHeader(path);
+            if (header == null) return null;
+            try (InputStream is = zip.getInputStream(header)) {
+                return is.readAllBytes();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to extract file {} from zip", path);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    static DocumentBuilder newDocumentBuilder() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        return dbf.newDocumentBuilder();
+    }
+
+    private String findEpub2CoverId() {
+        NodeList metas = opfDocument.getElementsByTagNameNS("*", "meta");
+        for (int i = 0; i < metas.getLength(); i++) {
+            Element meta = (Element) metas.item(i);
+            if ("cover".equals(meta.getAttribute("name")) && StringUtils.isNotBlank(meta.getAttribute("content"))) {
+                return meta.getAttribute("content").trim();
+            }
+        }
+        return null;
+    }
+
+    // The reference points either at the image itself or at a cover page showing it
+    private String findGuideCoverPath(NodeList manifestItems) {
+        NodeList references = opfDocument.getElementsByTagNameNS("*", "reference");
+        for (int i = 0; i < references.getLength(); i++) {
+            Element reference = (Element) references.item(i);
+            if (!"cover".equalsIgnoreCase(reference.getAttribute("type"))) {
+                continue;
+            }
+            String path = resolveHref(StringUtils.substringBefore(reference.getAttribute("href"), "#"));
+            if (path == null) {
+                continue;
+            }
+            for (int j = 0; j < manifestItems.getLength(); j++) {
+                Element item = (Element) manifestItems.item(j);
+                if (path.equals(resolveHref(item.getAttribute("href"))) && isImage(item)) {
+                    return path;
+                }
+            }
+            byte[] page = readEntry(path);
+            if (page != null) {
+                Matcher matcher = COVER_PAGE_IMAGE.matcher(new String(page, StandardCharsets.UTF_8));
+                if (matcher.find()) {
+                    return resolvePath(path, URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isImage(Element item) {
+        return item.getAttribute("media-type").startsWith("image");
+    }
+
+    private String resolveHref(String href) {
+        if (StringUtils.isBlank(href)) return null;
+        return resolvePath(opfPath, URLDecoder.decode(href, StandardCharsets.UTF_8));
+    }
+
+    public static String resolvePath(String opfPath, String href) {
+        if (href == null || href.isEmpty()) return null;
+
+        // If href is absolute within the zip (starts with /), return it without leading /
+        if (href.startsWith("/")) return href.substring(1);
+
+        int lastSlash = opfPath.lastIndexOf('/');
+        String basePath = (lastSlash == -1) ? "" : opfPath.substring(0, lastSlash + 1);
+
+        String combined = basePath + href;
+
+        // Normalize path components to handle ".." and "."
+        LinkedList<String> parts = new LinkedList<>();
+        for (String part : combined.split("/")) {
+            if ("..".equals(part)) {
+                if (!parts.isEmpty()) parts.removeLast();
+            } else if (!".".equals(part) && !part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+
+        return String.join("/", parts);
+    }
+}
@@ -71,9 +71,18 @@ public class PdfMetadataExtractor implements FileMetadataExtractor {
             return BookMetadata.builder().build();
         }
 
+        try (PDDocument pdf = Loader.loadPDF(file)) {
+            return extractMetadata(pdf, file);
+        } catch (Exception e) {
+            log.error("Failed to load PDF file: {}", file.getPath(), e);
+            return BookMetadata.builder().build();
+        }
+    }
+
+    public BookMetadata extractMetadata(PDDocument pdf, File file) {
         BookMetadata.BookMetadataBuilder metadataBuilder = BookMetadata.builder();
 
-        try (PDDocument pdf = Loader.loadPDF(file)) {
+        try {
             PDDocumentInformation info = pdf.getDocumentInformation();
 
             if (info != null) {
@@ -194,7 +203,7 @@ public class PdfMetadataExtractor implements FileMetadataExtractor {
             }
 
         } catch (Exception e) {
-            log.error("Failed to load PDF file: {}", file.getPath(), e);
+            log.error("Failed to read PDF metadata: {}", file.getPath(), e);
         }
 
         return metadataBuilder.build();
@@ -0,0 +1,52 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.request.FetchMetadataRequest;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+
+/**
+ * Records latency and outcome of every lookup against one metadata provider.
+ */
+public class TimedBookParser implements BookParser {
+
+    private final MetadataProvider provider;
+    private final BookParser delegate;
+    private final BookloreMetrics metrics;
+
+    public TimedBookParser(MetadataProvider provider, BookParser delegate, BookloreMetrics metrics) {
+        this.provider = provider;
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<BookMetadata> fetchMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
+        Timer.Sample sample = metrics.startTimer();
+        Boolean found = null;
+        try {
+            List<BookMetadata> results = delegate.fetchMetadata(book, fetchMetadataRequest);
+            found = results != null && !results.isEmpty();
+            return results;
+        } finally {
+            metrics.recordMetadataFetch(sample, provider, "search", found);
+        }
+    }
+
+    @Override
+    public BookMetadata fetchTopMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
+        Timer.Sample sample = metrics.startTimer();
+        Boolean found = null;
+        try {
+            BookMetadata result = delegate.fetchTopMetadata(book, fetchMetadataRequest);
+            found = result != null;
+            return result;
+        } finally {
+            metrics.recordMetadataFetch(sample, provider, "top", found);
+        }
+    }
+}
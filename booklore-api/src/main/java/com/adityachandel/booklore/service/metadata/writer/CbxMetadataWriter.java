@@ -8,6 +8,8 @@ import com.github.junrar.rarfile.FileHeader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.springframework.stereotype.Component;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -30,10 +32,10 @@ import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 @Slf4j
@@ -44,17 +46,14 @@ public class CbxMetadataWriter implements MetadataWriter {
 
     @Override
     public void writeMetadataToFile(File file, BookMetadataEntity metadata, String thumbnailUrl, MetadataClearFlags clearFlags) {
+        writeMetadata(file, metadata, clearFlags);
+    }
+
+    private boolean writeMetadata(File file, BookMetadataEntity metadata, MetadataClearFlags clearFlags) {
         Path backup = null;
         Path tempDir = null;
         Path tempFile = null;
         boolean writeSucceeded = false;
-        try {
-            // Create a backup next to the source file (temp name, safe to delete later)
-            backup = Files.createTempFile(file.getParentFile().toPath(), "cbx_backup_", ".bak");
-            Files.copy(file.toPath(), backup, StandardCopyOption.REPLACE_EXISTING);
-        } catch (Exception ex) {
-            log.warn("Unable to create backup for {}: {}", file.getAbsolutePath(), ex.getMessage(), ex);
-        }
         try {
             String nameLower = file.getName().toLowerCase(Locale.ROOT);
             boolean isCbz = nameLower.endsWith(".cbz");
@@ -63,15 +62,27 @@ public class CbxMetadataWriter implements MetadataWriter {
 
             if (!isCbz && !isCbr && !isCb7) {
                 log.warn("Unsupported file type for CBX writer: {}", file.getName());
-                return;
+                return false;
+            }
+
+            // CBZ rewrites never touch the original until the final move; the other formats are rebuilt, so keep a backup
+            if (!isCbz) {
+                try {
+                    backup = Files.createTempFile(file.getParentFile().toPath(), "cbx_backup_", ".bak");
+                    Files.copy(file.toPath(), backup, StandardCopyOption.REPLACE_EXISTING);
+                } catch (Exception ex) {
+                    log.warn("Unable to create backup for {}: {}", file.getAbsolutePath(), ex.getMessage(), ex);
+                }
             }
 
             // Build (or load and update) ComicInfo.xml as a Document
             Document doc;
+            String comicInfoEntryName = "ComicInfo.xml";
             if (isCbz) {
-                try (ZipFile zipFile = new ZipFile(file)) {
-                    ZipEntry existing = findComicInfoEntry(zipFile);
+                try (ZipFile zipFile = ZipFile.builder().setFile(file).setUseUnicodeExtraFields(true).get()) {
+                    ZipArchiveEntry existing = findComicInfoEntry(zipFile);
                     if (existing != null) {
+                        comicInfoEntryName = existing.getName();
                         try (InputStream is = zipFile.getInputStream(existing)) {
                             doc = buildSecureDocument(is);
                         }
@@ -150,12 +161,10 @@ public class CbxMetadataWriter implements MetadataWriter {
 
             // Repack depending on container type; always write to a temp target then atomic move
             if (isCbz) {
-                tempFile = Files.createTempFile("cbx_edit", ".cbz");
-                repackZipReplacingComicInfo(file.toPath(), tempFile, xmlBytes);
-                atomicReplace(tempFile, file.toPath());
-                tempFile = null; // Successfully moved, don't delete in finally
+                // Only ComicInfo.xml is recompressed; page entries are copied raw
+                ZipEntryRewriter.rewrite(file.toPath(), Map.of(comicInfoEntryName, xmlBytes));
                 writeSucceeded = true;
-                return;
+                return true;
             }
 
             if (isCb7) {
@@ -167,7 +176,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                         if (e.isDirectory()) continue;
                         String entryName = e.getName();
                         if (isComicInfoName(entryName)) continue; // skip old
-                        if (!isSafeEntryName(entryName)) {
+                        if (!ZipEntryRewriter.isSafeEntryName(entryName)) {
                             log.warn("Skipping unsafe 7z entry name: {}", entryName);
                             continue;
                         }
@@ -189,7 +198,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                 } catch (Exception ignored) {
                 }
                 writeSucceeded = true;
-                return;
+                return true;
             }
 
             // CBR path
@@ -203,7 +212,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                     for (FileHeader fh : archive.getFileHeaders()) {
                         String name = fh.getFileName();
                         if (name == null || name.isBlank()) continue;
-                        if (!isSafeEntryName(name)) {
+                        if (!ZipEntryRewriter.isSafeEntryName(name)) {
                             log.warn("Skipping unsafe RAR entry name: {}", name);
                             continue;
                         }
@@ -236,7 +245,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                 int code = p.waitFor();
                 if (code == 0) {
                     writeSucceeded = true;
-                    return;
+                    return true;
                 } else {
                     log.warn("RAR creation failed with exit code {}. Falling back to CBZ conversion for {}", code, file.getName());
                 }
@@ -252,7 +261,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                     if (fh.isDirectory()) continue;
                     String entryName = fh.getFileName();
                     if (isComicInfoName(entryName)) continue; // skip old
-                    if (!isSafeEntryName(entryName)) {
+                    if (!ZipEntryRewriter.isSafeEntryName(entryName)) {
                         log.warn("Skipping unsafe RAR entry name: {}", entryName);
                         continue;
                     }
@@ -272,6 +281,7 @@ public class CbxMetadataWriter implements MetadataWriter {
             } catch (Exception ignored) {
             }
             writeSucceeded = true;
+            return true;
         } catch (Exception e) {
             // Attempt to restore the original file from backup
             try {
@@ -283,6 +293,7 @@ public class CbxMetadataWriter implements MetadataWriter {
                 log.warn("Failed to restore original file from backup: {} -> {}", backup, file.getAbsolutePath(), restoreEx);
             }
             log.warn("Failed to write metadata for {}: {}", file.getName(), e.getMessage(), e);
+            return false;
         } finally {
             // Clean up temporary file if it wasn't successfully moved
             if (tempFile != null) {
@@ -311,10 +322,10 @@ public class CbxMetadataWriter implements MetadataWriter {
 
     // ----------------------- helpers -----------------------
 
-    private ZipEntry findComicInfoEntry(ZipFile zipFile) {
-        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+    private ZipArchiveEntry findComicInfoEntry(ZipFile zipFile) {
+        Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
         while (entries.hasMoreElements()) {
-            ZipEntry entry = entries.nextElement();
+            ZipArchiveEntry entry = entries.nextElement();
             String n = entry.getName();
             if (isComicInfoName(n)) return entry;
         }
@@ -396,43 +407,6 @@ public class CbxMetadataWriter implements MetadataWriter {
         return "comicinfo.xml".equals(lower) || lower.endsWith("/comicinfo.xml");
     }
 
-    private static boolean isSafeEntryName(String name) {
-        if (name == null || name.isBlank()) return false;
-        String n = name.replace('\\', '/');
-        if (n.startsWith("/")) return false; // absolute
-        if (n.contains("../")) return false; // traversal
-        if (n.contains("\0")) return false; // NUL
-        return true;
-    }
-
-    private void repackZipReplacingComicInfo(Path sourceZip, Path targetZip, byte[] xmlBytes) throws Exception {
-        try (ZipFile zipFile = new ZipFile(sourceZip.toFile());
-             ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(targetZip))) {
-            ZipEntry existing = findComicInfoEntry(zipFile);
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                String entryName = entry.getName();
-                if (existing != null && entryName.equals(existing.getName())) {
-                    continue; // skip old ComicInfo.xml
-                }
-                if (!isSafeEntryName(entryName)) {
-                    log.warn("Skipping unsafe ZIP entry name: {}", entryName);
-                    continue;
-                }
-                zos.putNextEntry(new ZipEntry(entryName));
-                try (InputStream is = zipFile.getInputStream(entry)) {
-                    is.transferTo(zos);
-                }
-                zos.closeEntry();
-            }
-            String entryName = (existing != null ? existing.getName() : "ComicInfo.xml");
-            zos.putNextEntry(new ZipEntry(entryName));
-            zos.write(xmlBytes);
-            zos.closeEntry();
-        }
-    }
-
     private static void atomicReplace(Path temp, Path target) throws Exception {
         try {
             Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
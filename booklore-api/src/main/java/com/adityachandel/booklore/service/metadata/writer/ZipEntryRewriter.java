@@ -0,0 +1,96 @@
+package com.adityachandel.booklore.service.metadata.writer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rewrites a ZIP container next to the original, copying untouched entries without recompressing them,
+ * then swaps it over the original in a single move.
+ */
+@Slf4j
+final class ZipEntryRewriter {
+
+    private ZipEntryRewriter() {
+    }
+
+    /**
+     * Replaces the given entries (by exact name) in place, appending any that do not exist yet.
+     * Entry order is preserved so that e.g. an EPUB's stored {@code mimetype} stays first. Entries with absolute or
+     * traversing names are dropped.
+     */
+    static void rewrite(Path source, Map<String, byte[]> replacements) throws IOException {
+        Map<String, byte[]> pending = new LinkedHashMap<>(replacements);
+        Path temp = Files.createTempFile(source.toAbsolutePath().getParent(), "." + source.getFileName(), ".tmp");
+        try {
+            try (ZipFile zipFile = ZipFile.builder().setPath(source).setUseUnicodeExtraFields(true).get();
+                 ZipArchiveOutputStream zos = new ZipArchiveOutputStream(temp)) {
+                Enumeration<ZipArchiveEntry> entries = zipFile.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+                    if (!isSafeEntryName(entry.getName())) {
+                        log.warn("Skipping unsafe zip entry name: {}", entry.getName());
+                        continue;
+                    }
+                    byte[] replacement = pending.remove(entry.getName());
+                    if (replacement != null) {
+                        writeEntry(zos, entry.getName(), replacement, entry.getTime());
+                        continue;
+                    }
+                    try (InputStream raw = zipFile.getRawInputStream(entry)) {
+                        if (raw == null) {
+                            throw new IOException("Cannot read raw data for entry " + entry.getName());
+                        }
+                        zos.addRawArchiveEntry(entry, raw);
+                    }
+                }
+                for (Map.Entry<String, byte[]> added : pending.entrySet()) {
+                    if (!isSafeEntryName(added.getKey())) {
+                        throw new IOException("Unsafe entry name " + added.getKey());
+                    }
+                    writeEntry(zos, added.getKey(), added.getValue(), System.currentTimeMillis());
+                }
+            }
+            atomicReplace(temp, source);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static boolean isSafeEntryName(String name) {
+        if (name == null || name.isBlank()) return false;
+        String n = name.replace('\\', '/');
+        if (n.startsWith("/")) return false; // absolute
+        if (n.contains("../")) return false; // traversal
+        if (n.contains("\0")) return false; // NUL
+        return true;
+    }
+
+    static void atomicReplace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeEntry(ZipArchiveOutputStream zos, String name, byte[] data, long time) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(ZipArchiveEntry.DEFLATED);
+        entry.setTime(time);
+        zos.putArchiveEntry(entry);
+        zos.write(data);
+        zos.closeArchiveEntry();
+    }
+}
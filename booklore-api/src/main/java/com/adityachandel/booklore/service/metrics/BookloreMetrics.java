@@ -0,0 +1,124 @@
+package com.adityachandel.booklore.service.metrics;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.model.websocket.Topic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Domain meters for ingest, readers, metadata providers, Kobo sync and WebSocket notifications, scraped from
+ * {@code /actuator/prometheus}. Tag values only come from enums or a fixed set of outcomes, never from book ids,
+ * paths or user names, so the number of series stays the same however large the library grows.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookloreMetrics {
+
+    static final String SUCCESS = "success";
+    static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * One file run through its {@code BookFileProcessor}; the count doubles as the files scanned per second.
+     */
+    public void recordFileProcessed(Timer.Sample sample, BookFileType format, boolean success) {
+        sample.stop(Timer.builder("booklore.ingest.file")
+                .description("Time to parse and persist one book file")
+                .tag("format", tag(format))
+                .tag("outcome", success ? SUCCESS : ERROR)
+                .register(registry));
+    }
+
+    public void recordCoverExtracted(Timer.Sample sample, BookFileType format, boolean success) {
+        sample.stop(Timer.builder("booklore.ingest.cover.extract")
+                .description("Time to extract the embedded cover of a book file")
+                .tag("format", tag(format))
+                .tag("outcome", success ? SUCCESS : ERROR)
+                .register(registry));
+    }
+
+    public void recordCoverSaved(Timer.Sample sample, boolean success) {
+        sample.stop(Timer.builder("booklore.cover.generate")
+                .description("Time to crop, scale and write a cover and its thumbnail")
+                .tag("outcome", success ? SUCCESS : ERROR)
+                .register(registry));
+    }
+
+    public void recordReaderCache(BookFileType format, boolean hit) {
+        Counter.builder("booklore.reader.cache")
+                .description("Reader page cache lookups")
+                .tag("format", tag(format))
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordReaderExtraction(Timer.Sample sample, BookFileType format) {
+        sample.stop(Timer.builder("booklore.reader.extract")
+                .description("Time to unpack or render the pages of a book into the reader cache")
+                .tag("format", tag(format))
+                .register(registry));
+    }
+
+    /**
+     * @param operation {@code search} for candidate lists, {@code top} for the best match
+     * @param found     whether the provider returned anything, {@code null} if the call failed
+     */
+    public void recordMetadataFetch(Timer.Sample sample, MetadataProvider provider, String operation, Boolean found) {
+        sample.stop(Timer.builder("booklore.metadata.provider.fetch")
+                .description("Latency of metadata provider lookups")
+                .tag("provider", tag(provider))
+                .tag("operation", operation)
+                .tag("outcome", found == null ? ERROR : found ? "found" : "empty")
+                .register(registry));
+    }
+
+    public void recordKoboSync(Timer.Sample sample, boolean hasMore) {
+        stopKoboSync(sample, hasMore ? "continue" : "complete");
+    }
+
+    public void recordKoboSyncFailure(Timer.Sample sample) {
+        stopKoboSync(sample, ERROR);
+    }
+
+    /**
+     * @param status HTTP status of the Kobo store response, or {@code 0} if the request failed
+     */
+    public void recordKoboProxy(Timer.Sample sample, int status) {
+        sample.stop(Timer.builder("booklore.kobo.proxy")
+                .description("Round-trips to the Kobo store API")
+                .tag("status", status <= 0 ? ERROR : (status / 100) + "xx")
+                .register(registry));
+    }
+
+    public void recordWebSocketFanOut(Topic topic, int recipients) {
+        DistributionSummary.builder("booklore.websocket.fanout")
+                .description("Recipients per WebSocket notification; the total is the number of messages sent")
+                .tag("topic", tag(topic))
+                .register(registry)
+                .record(recipients);
+    }
+
+    private void stopKoboSync(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("booklore.kobo.sync")
+                .description("Duration of a Kobo library sync request")
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    private static String tag(Enum<?> value) {
+        return value == null ? "unknown" : value.name().toLowerCase(Locale.ROOT);
+    }
+}
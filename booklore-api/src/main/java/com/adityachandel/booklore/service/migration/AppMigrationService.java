@@ -5,8 +5,8 @@ import com.adityachandel.booklore.model.entity.AppMigrationEntity;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import com.adityachandel.booklore.repository.AppMigrationRepository;
+import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.repository.BookRepository;
-import com.adityachandel.booklore.service.book.BookQueryService;
 import com.adityachandel.booklore.service.file.FileFingerprint;
 import com.adityachandel.booklore.service.metadata.MetadataMatchService;
 import com.adityachandel.booklore.util.BookUtils;
@@ -17,6 +17,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
@@ -31,6 +32,11 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @AllArgsConstructor
@@ -39,10 +45,11 @@ public class AppMigrationService {
 
     private AppMigrationRepository migrationRepository;
     private BookRepository bookRepository;
-    private BookQueryService bookQueryService;
+    private BookMetadataRepository bookMetadataRepository;
     private MetadataMatchService metadataMatchService;
     private AppProperties appProperties;
     private FileService fileService;
+    private BookMigrationRunner bookMigrationRunner;
 
     @Transactional
     public void populateSearchTextOnce() {
@@ -87,82 +94,156 @@ public class AppMigrationService {
         ));
     }
 
-    @Transactional
     public void populateMissingFileSizesOnce() {
-        if (migrationRepository.existsById("populateFileSizes")) {
-            return;
-        }
+        bookMigrationRunner.run(new BookMigration<Long>() {
+            @Override
+            public String key() {
+                return "populateFileSizes";
+            }
 
-        List<BookEntity> books = bookRepository.findAllWithMetadataByFileSizeKbIsNull();
-        for (BookEntity book : books) {
-            Long sizeInKb = FileUtils.getFileSizeInKb(book);
-            if (sizeInKb != null) {
-                book.setFileSizeKb(sizeInKb);
+            @Override
+            public String description() {
+                return "Populate file size for existing books";
             }
-        }
-        bookRepository.saveAll(books);
-
-        log.info("Starting migration 'populateFileSizes' for {} books.", books.size());
-        AppMigrationEntity migration = new AppMigrationEntity();
-        migration.setKey("populateFileSizes");
-        migration.setExecutedAt(LocalDateTime.now());
-        migration.setDescription("Populate file size for existing books");
-        migrationRepository.save(migration);
-        log.info("Migration 'populateFileSizes' executed successfully.");
+
+            @Override
+            public List<Long> nextBookIds(long afterId, Pageable pageable) {
+                return bookRepository.findBookIdsWithoutFileSizeAfter(afterId, pageable);
+            }
+
+            @Override
+            public List<BookEntity> loadBooks(List<Long> bookIds) {
+                return bookRepository.findAllById(bookIds);
+            }
+
+            @Override
+            public Long compute(BookEntity book) {
+                return FileUtils.getFileSizeInKb(book);
+            }
+
+            @Override
+            public void apply(Long bookId, Long sizeInKb) {
+                bookRepository.updateFileSizeKb(bookId, sizeInKb);
+            }
+        });
     }
 
-    @Transactional
     public void populateMetadataScoresOnce() {
-        if (migrationRepository.existsById("populateMetadataScores_v2")) return;
+        bookMigrationRunner.run(new BookMigration<Float>() {
+            @Override
+            public String key() {
+                return "populateMetadataScores_v2";
+            }
 
-        List<BookEntity> books = bookQueryService.getAllFullBookEntities();
-        for (BookEntity book : books) {
-            Float score = metadataMatchService.calculateMatchScore(book);
-            book.setMetadataMatchScore(score);
-        }
-        bookRepository.saveAll(books);
+            @Override
+            public String description() {
+                return "Calculate and store metadata match score for all books";
+            }
 
-        log.info("Migration 'populateMetadataScores_v2' applied to {} books.", books.size());
-        migrationRepository.save(new AppMigrationEntity("populateMetadataScores_v2", LocalDateTime.now(), "Calculate and store metadata match score for all books"));
+            @Override
+            public List<Long> nextBookIds(long afterId, Pageable pageable) {
+                return bookRepository.findBookIdsAfter(afterId, pageable);
+            }
+
+            @Override
+            public List<BookEntity> loadBooks(List<Long> bookIds) {
+                return bookRepository.findFullBooksByIds(bookIds);
+            }
+
+            @Override
+            public Float compute(BookEntity book) {
+                return metadataMatchService.calculateMatchScore(book);
+            }
+
+            @Override
+            public void apply(Long bookId, Float score) {
+                bookRepository.updateMetadataMatchScore(bookId, score);
+            }
+        });
     }
 
-    @Transactional
-    public void populateFileHashesOnce() {
-        if (migrationRepository.existsById("populateFileHashesV2")) return;
+    public void populateSortKeysOnce() {
+        bookMigrationRunner.run(new BookMigration<SortKeys>() {
+            @Override
+            public String key() {
+                return "populateSortKeys";
+            }
+
+            @Override
+            public String description() {
+                return "Populate normalised title, author, series and rating sort columns";
+            }
 
-        List<BookEntity> books = bookRepository.findAll();
-        int updated = 0;
+            @Override
+            public List<Long> nextBookIds(long afterId, Pageable pageable) {
+                return bookRepository.findBookIdsAfter(afterId, pageable);
+            }
 
-        for (BookEntity book : books) {
-            Path path = book.getFullFilePath();
-            if (path == null || !Files.exists(path)) {
-                log.warn("Skipping hashing for book ID {} — file not found at path: {}", book.getId(), path);
-                continue;
+            @Override
+            public List<BookEntity> loadBooks(List<Long> bookIds) {
+                return bookRepository.findFullBooksByIds(bookIds);
             }
 
-            try {
-                String hash = FileFingerprint.generateHash(path);
-                if (book.getInitialHash() == null) {
-                    book.setInitialHash(hash);
+            @Override
+            public SortKeys compute(BookEntity book) {
+                BookMetadataEntity metadata = book.getMetadata();
+                if (metadata == null) {
+                    return null;
                 }
-                book.setCurrentHash(hash);
-                updated++;
-            } catch (Exception e) {
-                log.error("Failed to compute hash for file: {}", path, e);
+                // The entity is detached here, so computing on it doesn't write anything back
+                metadata.updateSortKeys();
+                return new SortKeys(metadata.getTitleSort(), metadata.getAuthorSort(), metadata.getSeriesSort(), metadata.getRatingSort());
             }
-        }
 
-        bookRepository.saveAll(books);
+            @Override
+            public void apply(Long bookId, SortKeys keys) {
+                bookMetadataRepository.updateSortKeys(bookId, keys.titleSort(), keys.authorSort(), keys.seriesSort(), keys.ratingSort());
+            }
+        });
+    }
 
-        log.info("Migration 'populateFileHashesV2' applied to {} books.", updated);
-        migrationRepository.save(new AppMigrationEntity(
-                "populateFileHashesV2",
-                LocalDateTime.now(),
-                "Calculate and store initialHash and currentHash for all books"
-        ));
+    public void populateFileHashesOnce() {
+        bookMigrationRunner.run(new BookMigration<String>() {
+            @Override
+            public String key() {
+                return "populateFileHashesV2";
+            }
+
+            @Override
+            public String description() {
+                return "Calculate and store initialHash and currentHash for all books";
+            }
+
+            @Override
+            public List<Long> nextBookIds(long afterId, Pageable pageable) {
+                return bookRepository.findBookIdsAfter(afterId, pageable);
+            }
+
+            @Override
+            public List<BookEntity> loadBooks(List<Long> bookIds) {
+                return bookRepository.findAllById(bookIds);
+            }
+
+            @Override
+            public String compute(BookEntity book) {
+                Path path = book.getFullFilePath();
+                if (!Files.exists(path)) {
+                    log.warn("Skipping hashing for book ID {} — file not found at path: {}", book.getId(), path);
+                    return null;
+                }
+                return FileFingerprint.generateHash(path);
+            }
+
+            @Override
+            public void apply(Long bookId, String hash) {
+                bookRepository.updateFileHashes(bookId, hash);
+            }
+        });
     }
 
-    @Transactional
+    /**
+     * Each processed thumbs/{bookId} folder is deleted right away, so a restarted run only sees what is left.
+     */
     public void populateCoversAndResizeThumbnails() {
         if (migrationRepository.existsById("populateCoversAndResizeThumbnails")) return;
 
@@ -175,48 +256,27 @@ public class AppMigrationService {
 
         try {
             if (Files.exists(thumbsDir)) {
-                try (var stream = Files.walk(thumbsDir)) {
-                    stream.filter(Files::isRegularFile)
-                            .forEach(path -> {
-                                BufferedImage originalImage = null;
-                                BufferedImage resized = null;
-                                try {
-                                    // Load original image
-                                    originalImage = ImageIO.read(path.toFile());
-                                    if (originalImage == null) {
-                                        log.warn("Skipping non-image file: {}", path);
-                                        return;
-                                    }
-
-                                    // Extract bookId from folder structure
-                                    Path relative = thumbsDir.relativize(path);       // e.g., "11/f.jpg"
-                                    String bookId = relative.getParent().toString();  // "11"
-
-                                    Path bookDir = imagesDir.resolve(bookId);
-                                    Files.createDirectories(bookDir);
-
-                                    // Copy original to cover.jpg
-                                    Path coverFile = bookDir.resolve("cover.jpg");
-                                    ImageIO.write(originalImage, "jpg", coverFile.toFile());
-
-                                    // Resize and save thumbnail.jpg
-                                    resized = FileService.resizeImage(originalImage, 250, 350);
-                                    Path thumbnailFile = bookDir.resolve("thumbnail.jpg");
-                                    ImageIO.write(resized, "jpg", thumbnailFile.toFile());
-
-                                    log.debug("Processed book {}: cover={} thumbnail={}", bookId, coverFile, thumbnailFile);
-                                } catch (IOException e) {
-                                    log.error("Error processing file {}", path, e);
-                                    throw new UncheckedIOException(e);
-                                } finally {
-                                    if (originalImage != null) {
-                                        originalImage.flush();
-                                    }
-                                    if (resized != null) {
-                                        resized.flush();
-                                    }
+                AtomicInteger processed = new AtomicInteger();
+                try (var bookDirs = Files.list(thumbsDir);
+                     ExecutorService pool = Executors.newFixedThreadPool(BookMigrationRunner.PARALLELISM, Thread.ofVirtual().name("migration-covers-", 0).factory())) {
+                    List<Future<?>> futures = bookDirs.filter(Files::isDirectory)
+                            .<Future<?>>map(bookDir -> pool.submit(() -> {
+                                migrateThumbnailFolder(bookDir, imagesDir);
+                                int count = processed.incrementAndGet();
+                                if (count % 500 == 0) {
+                                    log.info("Migration 'populateCoversAndResizeThumbnails' progress: {} books processed", count);
                                 }
-                            });
+                                return null;
+                            }))
+                            .toList();
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Migration populateCoversAndResizeThumbnails was interrupted", e);
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof UncheckedIOException io ? io : new IllegalStateException(e.getCause());
                 }
 
                 // Delete old thumbs directory
@@ -242,6 +302,49 @@ public class AppMigrationService {
         log.info("Completed migration: populateCoversAndResizeThumbnails in {} ms", elapsedMs);
     }
 
+    private void migrateThumbnailFolder(Path thumbBookDir, Path imagesDir) {
+        String bookId = thumbBookDir.getFileName().toString();
+        try (var files = Files.list(thumbBookDir)) {
+            for (Path path : files.filter(Files::isRegularFile).toList()) {
+                BufferedImage originalImage = null;
+                BufferedImage resized = null;
+                try {
+                    // Load original image
+                    originalImage = ImageIO.read(path.toFile());
+                    if (originalImage == null) {
+                        log.warn("Skipping non-image file: {}", path);
+                        continue;
+                    }
+
+                    Path bookDir = imagesDir.resolve(bookId);
+                    Files.createDirectories(bookDir);
+
+                    // Copy original to cover.jpg
+                    Path coverFile = bookDir.resolve("cover.jpg");
+                    ImageIO.write(originalImage, "jpg", coverFile.toFile());
+
+                    // Resize and save thumbnail.jpg
+                    resized = FileService.resizeImage(originalImage, 250, 350);
+                    Path thumbnailFile = bookDir.resolve("thumbnail.jpg");
+                    ImageIO.write(resized, "jpg", thumbnailFile.toFile());
+
+                    log.debug("Processed book {}: cover={} thumbnail={}", bookId, coverFile, thumbnailFile);
+                } finally {
+                    if (originalImage != null) {
+                        originalImage.flush();
+                    }
+                    if (resized != null) {
+                        resized.flush();
+                    }
+                }
+            }
+            FileUtils.deleteDirectoryRecursively(thumbBookDir);
+        } catch (IOException e) {
+            log.error("Error processing thumbnails in {}", thumbBookDir, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Transactional
     public void moveIconsToDataFolder() {
         if (migrationRepository.existsById("moveIconsToDataFolder")) return;
@@ -289,4 +392,6 @@ public class AppMigrationService {
         }
     }
 
+    private record SortKeys(String titleSort, String authorSort, String seriesSort, Double ratingSort) {
+    }
 }
@@ -1,10 +1,12 @@
 package com.adityachandel.booklore.service.migration;
 
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @AllArgsConstructor
 public class AppMigrationStartup {
@@ -13,11 +15,22 @@ public class AppMigrationStartup {
 
     @EventListener(ApplicationReadyEvent.class)
     public void runMigrationsOnce() {
-        appMigrationService.populateMissingFileSizesOnce();
-        appMigrationService.populateMetadataScoresOnce();
-        appMigrationService.populateFileHashesOnce();
-        appMigrationService.populateCoversAndResizeThumbnails();
         appMigrationService.populateSearchTextOnce();
         appMigrationService.moveIconsToDataFolder();
+
+        // Per-book passes touch every file and checkpoint as they go, so they run while the app is already serving
+        Thread.ofVirtual().name("app-migrations").start(this::runBookMigrations);
+    }
+
+    void runBookMigrations() {
+        try {
+            appMigrationService.populateMissingFileSizesOnce();
+            appMigrationService.populateMetadataScoresOnce();
+            appMigrationService.populateSortKeysOnce();
+            appMigrationService.populateFileHashesOnce();
+            appMigrationService.populateCoversAndResizeThumbnails();
+        } catch (Exception e) {
+            log.error("Background migrations stopped and will resume on next startup", e);
+        }
     }
 }
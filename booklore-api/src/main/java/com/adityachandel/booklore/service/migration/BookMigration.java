@@ -0,0 +1,34 @@
+package com.adityachandel.booklore.service.migration;
+
+import com.adityachandel.booklore.model.entity.BookEntity;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A one-time pass over books, run by {@link BookMigrationRunner} in keyset-paged batches.
+ * {@link #compute} runs in parallel outside any transaction; {@link #apply} runs in the batch transaction.
+ */
+interface BookMigration<T> {
+
+    String key();
+
+    String description();
+
+    /**
+     * Ids of books still to visit after {@code afterId}, in ascending order.
+     */
+    List<Long> nextBookIds(long afterId, Pageable pageable);
+
+    /**
+     * Loads the books of a batch with everything {@link #compute} touches, since they are used detached.
+     */
+    List<BookEntity> loadBooks(List<Long> bookIds);
+
+    /**
+     * Returns null to leave the book unchanged.
+     */
+    T compute(BookEntity book) throws Exception;
+
+    void apply(Long bookId, T result);
+}
@@ -0,0 +1,109 @@
+package com.adityachandel.booklore.service.migration;
+
+import com.adityachandel.booklore.model.entity.AppMigrationEntity;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.repository.AppMigrationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs {@link BookMigration}s batch by batch, checkpointing the last processed book id in {@code app_migration}
+ * after every batch so an interrupted run resumes where it stopped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookMigrationRunner {
+
+    static final int BATCH_SIZE = 250;
+    static final int PARALLELISM = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private final AppMigrationRepository migrationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public <T> void run(BookMigration<T> migration) {
+        AppMigrationEntity state = migrationRepository.findById(migration.key()).orElse(null);
+        if (state != null && state.isCompleted()) {
+            return;
+        }
+        long afterId = state != null && state.getLastProcessedId() != null ? state.getLastProcessedId() : 0L;
+        if (afterId > 0) {
+            log.info("Resuming migration '{}' after book id {}", migration.key(), afterId);
+        } else {
+            log.info("Starting migration '{}'", migration.key());
+        }
+
+        long start = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable batch = PageRequest.of(0, BATCH_SIZE);
+        int processed = 0;
+        int updated = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(PARALLELISM, Thread.ofVirtual().name("migration-" + migration.key() + "-", 0).factory())) {
+            while (true) {
+                List<Long> bookIds = migration.nextBookIds(afterId, batch);
+                if (bookIds.isEmpty()) {
+                    break;
+                }
+                Map<Long, T> results = computeAll(migration, migration.loadBooks(bookIds), pool);
+                long lastId = bookIds.getLast();
+                tx.executeWithoutResult(status -> {
+                    results.forEach(migration::apply);
+                    migrationRepository.save(checkpoint(migration, lastId, false));
+                });
+                processed += bookIds.size();
+                updated += results.size();
+                log.info("Migration '{}' progress: {} books processed, {} updated", migration.key(), processed, updated);
+                if (bookIds.size() < BATCH_SIZE) {
+                    break;
+                }
+                afterId = lastId;
+            }
+        }
+
+        migrationRepository.save(checkpoint(migration, null, true));
+        log.info("Migration '{}' completed in {} ms: {} books processed, {} updated",
+                migration.key(), (System.nanoTime() - start) / 1_000_000, processed, updated);
+    }
+
+    private <T> Map<Long, T> computeAll(BookMigration<T> migration, List<BookEntity> books, ExecutorService pool) {
+        List<Future<T>> futures = new ArrayList<>(books.size());
+        for (BookEntity book : books) {
+            futures.add(pool.submit(() -> migration.compute(book)));
+        }
+        Map<Long, T> results = new LinkedHashMap<>();
+        for (int i = 0; i < books.size(); i++) {
+            Long bookId = books.get(i).getId();
+            try {
+                T result = futures.get(i).get();
+                if (result != null) {
+                    results.put(bookId, result);
+                }
+            } catch (ExecutionException e) {
+                log.warn("Migration '{}' failed for book {}: {}", migration.key(), bookId, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Migration '" + migration.key() + "' was interrupted", e);
+            }
+        }
+        return results;
+    }
+
+    private AppMigrationEntity checkpoint(BookMigration<?> migration, Long lastProcessedId, boolean completed) {
+        return new AppMigrationEntity(migration.key(), LocalDateTime.now(), migration.description(), lastProcessedId, completed);
+    }
+}
@@ -35,6 +35,14 @@ public class MonitoringRegistrationService {
         monitoringService.registerPath(path, libraryId);
     }
 
+    public void suppressPaths(Collection<Path> paths) {
+        monitoringService.suppressPaths(paths);
+    }
+
+    public void releaseSuppressedPaths(Collection<Path> paths, long graceMs) {
+        monitoringService.releaseSuppressedPaths(paths, graceMs);
+    }
+
     public void registerLibrary(Library library) {
         monitoringService.registerLibrary(library);
     }
@@ -32,6 +32,7 @@ public class MonitoringService {
     private final Map<Path, WatchKey> registeredWatchKeys = new ConcurrentHashMap<>();
     private final Map<Path, Long> pathToLibraryIdMap = new ConcurrentHashMap<>();
     private final Map<Long, Boolean> libraryWatchStatusMap = new ConcurrentHashMap<>();
+    private final Map<Path, Suppression> suppressedPaths = new ConcurrentHashMap<>();
 
     public MonitoringService(LibraryFileEventProcessor libraryFileEventProcessor, WatchService watchService, MonitoringTask monitoringTask) {
         this.libraryFileEventProcessor = libraryFileEventProcessor;
@@ -157,9 +158,55 @@ public class MonitoringService {
         if (!(isDir || isRelevantFile)) return;
 
         handleDirectoryEvents(event, fullPath, kind, isDir);
+        if (isSuppressed(fullPath)) {
+            log.debug("Suppressed: {} [{}]", fullPath, kind.name());
+            return;
+        }
         queueEvent(event, fullPath, kind);
     }
 
+    /**
+     * Suppresses watcher events for the paths until every caller that suppressed them has released them. Parallel
+     * moves can share a newly created folder, so suppression is counted per path.
+     */
+    public void suppressPaths(Collection<Path> paths) {
+        paths.forEach(path -> suppressedPaths.compute(path.toAbsolutePath().normalize(),
+                (p, current) -> new Suppression(current == null ? 1 : current.holders() + 1, Long.MAX_VALUE)));
+    }
+
+    /**
+     * Releases one suppression of each path. Once the last one is released, events are still dropped for
+     * {@code graceMs}, as the watcher reports them with a delay.
+     */
+    public void releaseSuppressedPaths(Collection<Path> paths, long graceMs) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + graceMs;
+        suppressedPaths.values().removeIf(existing -> existing.isExpired(now));
+        paths.forEach(path -> suppressedPaths.computeIfPresent(path.toAbsolutePath().normalize(), (p, current) -> current.holders() > 1
+                ? new Suppression(current.holders() - 1, Long.MAX_VALUE)
+                : new Suppression(0, expiresAt)));
+    }
+
+    private boolean isSuppressed(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        Suppression suppression = suppressedPaths.get(normalized);
+        if (suppression == null) {
+            return false;
+        }
+        if (suppression.isExpired(System.currentTimeMillis())) {
+            suppressedPaths.remove(normalized, suppression);
+            return false;
+        }
+        return true;
+    }
+
+    private record Suppression(int holders, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return holders == 0 && expiresAt < now;
+        }
+    }
+
     @EventListener
     public void handleWatchKeyInvalidation(WatchKeyInvalidatedEvent event) {
         Path invalidPath = event.getInvalidPath();
@@ -1,29 +1,31 @@
 package com.adityachandel.booklore.service.opds;
 
+import com.adityachandel.booklore.exception.APIException;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.mapper.BookMapper;
 import com.adityachandel.booklore.mapper.custom.BookLoreUserTransformer;
 import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.dto.BookLoreUser;
-import com.adityachandel.booklore.model.dto.GroupRule;
 import com.adityachandel.booklore.model.dto.Library;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.BookLoreUserEntity;
 import com.adityachandel.booklore.model.entity.MagicShelfEntity;
+import com.adityachandel.booklore.model.enums.OpdsSortOrder;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.MagicShelfRepository;
 import com.adityachandel.booklore.repository.UserRepository;
-import com.adityachandel.booklore.service.BookRuleEvaluatorService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.adityachandel.booklore.service.MagicShelfMembershipService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,20 +38,36 @@ public class MagicShelfBookService {
     private final BookMapper bookMapper;
     private final UserRepository userRepository;
     private final BookLoreUserTransformer bookLoreUserTransformer;
-    private final BookRuleEvaluatorService ruleEvaluatorService;
-    private final ObjectMapper objectMapper;
+    private final MagicShelfMembershipService membershipService;
+    private final OpdsKeysetQuery opdsKeysetQuery;
 
-    public Page<Book> getBooksByMagicShelfId(Long userId, Long magicShelfId, int page, int size) {
+    public OpdsBookPage getBooksByMagicShelfId(Long userId, Long magicShelfId, OpdsSortOrder sortOrder, String cursor, int page, int size) {
         MagicShelfEntity shelf = validateMagicShelfAccess(userId, magicShelfId);
         try {
-            GroupRule groupRule = objectMapper.readValue(shelf.getFilterJson(), GroupRule.class);
-            Specification<BookEntity> specification = ruleEvaluatorService.toSpecification(groupRule, userId);
-            specification = specification.and(createLibraryFilterSpecification(userId));
-            Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-            Page<BookEntity> booksPage = bookRepository.findAll(specification, pageable);
+            Set<Long> libraryIds = getAccessibleLibraryIds(userId);
+            // Pages are scoped by the cached membership, so the shelf's rule query doesn't run per page
+            List<Long> memberIds = membershipService.getBookIds(shelf, userId, libraryIds);
+            if (memberIds.isEmpty()) {
+                return new OpdsBookPage(List.of(), null, 0L);
+            }
+            Specification<BookEntity> scope = (root, query, cb) -> root.get("id").in(memberIds);
+            OpdsKeysetQuery.IdPage idPage = opdsKeysetQuery.findIds(scope, sortOrder, cursor, Math.max(page, 0), size,
+                    () -> memberIds.size());
+            if (idPage.ids().isEmpty()) {
+                return new OpdsBookPage(List.of(), null, idPage.totalElements());
+            }
 
-            return booksPage.map(bookMapper::toBook).map(book -> filterBook(book, userId));
+            Map<Long, BookEntity> booksById = bookRepository.findAllWithMetadataByIds(new HashSet<>(idPage.ids())).stream()
+                    .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+            List<Book> books = idPage.ids().stream()
+                    .map(booksById::get)
+                    .filter(Objects::nonNull)
+                    .map(bookMapper::toBook)
+                    .map(book -> filterBook(book, userId))
+                    .toList();
+            return new OpdsBookPage(books, idPage.nextCursor(), idPage.totalElements());
+        } catch (APIException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to parse or execute magic shelf rules", e);
             throw new RuntimeException("Failed to parse or execute magic shelf rules: " + e.getMessage(), e);
@@ -92,23 +110,22 @@ public class MagicShelfBookService {
         return shelf;
     }
 
-    private Specification<BookEntity> createLibraryFilterSpecification(Long userId) {
-        return (root, query, cb) -> {
-            BookLoreUserEntity entity = userRepository.findById(userId)
-                    .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
-
-            BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
+    /**
+     * Null for admins, who see every library.
+     */
+    private Set<Long> getAccessibleLibraryIds(Long userId) {
+        BookLoreUserEntity entity = userRepository.findById(userId)
+                .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
 
-            if (user.getPermissions() != null && user.getPermissions().isAdmin()) {
-                return cb.conjunction();
-            }
+        BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
 
-            Set<Long> userLibraryIds = user.getAssignedLibraries().stream()
-                    .map(Library::getId)
-                    .collect(Collectors.toSet());
+        if (user.getPermissions() != null && user.getPermissions().isAdmin()) {
+            return null;
+        }
 
-            return root.get("library").get("id").in(userLibraryIds);
-        };
+        return user.getAssignedLibraries().stream()
+                .map(Library::getId)
+                .collect(Collectors.toSet());
     }
 
     private Book filterBook(Book dto, Long userId) {
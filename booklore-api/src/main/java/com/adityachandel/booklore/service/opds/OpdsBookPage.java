@@ -0,0 +1,22 @@
+package com.adityachandel.booklore.service.opds;
+
+import com.adityachandel.booklore.model.dto.Book;
+
+import java.util.List;
+
+/**
+ * One page of an OPDS acquisition feed.
+ *
+ * @param nextCursor    cursor for the following page, or null on the last page
+ * @param totalElements size of the whole feed, only known on its first page
+ */
+public record OpdsBookPage(List<Book> content, String nextCursor, Long totalElements) {
+
+    public static OpdsBookPage empty() {
+        return new OpdsBookPage(List.of(), null, 0L);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
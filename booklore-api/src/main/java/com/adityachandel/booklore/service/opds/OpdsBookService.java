@@ -12,13 +12,11 @@ import com.adityachandel.booklore.repository.BookOpdsRepository;
 import com.adityachandel.booklore.repository.ShelfRepository;
 import com.adityachandel.booklore.repository.UserRepository;
 import com.adityachandel.booklore.util.BookUtils;
+import com.adityachandel.booklore.service.book.CatalogService;
 import com.adityachandel.booklore.service.library.LibraryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -36,6 +34,8 @@ public class OpdsBookService {
     private final BookLoreUserTransformer bookLoreUserTransformer;
     private final ShelfRepository shelfRepository;
     private final LibraryService libraryService;
+    private final OpdsKeysetQuery opdsKeysetQuery;
+    private final CatalogService catalogService;
 
     public List<Library> getAccessibleLibraries(Long userId) {
         if (userId == null) {
@@ -53,7 +53,7 @@ public class OpdsBookService {
         return user.getAssignedLibraries();
     }
 
-    public Page<Book> getBooksPage(Long userId, String query, Long libraryId, Long shelfId, int page, int size) {
+    public OpdsBookPage getBooksPage(Long userId, String query, Long libraryId, Long shelfId, OpdsSortOrder sortOrder, String cursor, int page, int size) {
         if (userId == null) {
             throw ApiError.FORBIDDEN.createException("Authentication required");
         }
@@ -74,48 +74,29 @@ public class OpdsBookService {
 
         if (shelfId != null) {
             validateShelfAccess(shelfId, user.getId(), isAdmin);
-            return getBooksByShelfIdPageInternal(shelfId, page, size);
+            return findPage(inShelf(shelfId), sortOrder, cursor, page, size, false, userId);
         }
 
+        Specification<BookEntity> scope;
         if (libraryId != null) {
             validateLibraryAccess(libraryId, userLibraryIds, isAdmin);
-            Page<Book> books = query != null && !query.isBlank()
-                    ? searchByMetadataInLibrariesPageInternal(BookUtils.normalizeForSearch(query), Set.of(libraryId), page, size)
-                    : getBooksByLibraryIdsPageInternal(Set.of(libraryId), page, size);
-            return applyBookFilters(books, userId);
+            scope = inLibraries(Set.of(libraryId));
+        } else {
+            scope = isAdmin ? null : inLibraries(userLibraryIds);
         }
 
-        if (isAdmin) {
-            return query != null && !query.isBlank()
-                    ? searchByMetadataPageInternal(BookUtils.normalizeForSearch(query), page, size)
-                    : getAllBooksPageInternal(page, size);
+        boolean search = query != null && !query.isBlank();
+        if (search) {
+            scope = and(scope, matchesSearch(BookUtils.normalizeForSearch(query)));
         }
-
-        Page<Book> books = query != null && !query.isBlank()
-                ? searchByMetadataInLibrariesPageInternal(BookUtils.normalizeForSearch(query), userLibraryIds, page, size)
-                : getBooksByLibraryIdsPageInternal(userLibraryIds, page, size);
-        return applyBookFilters(books, userId);
+        return findPage(scope, sortOrder, cursor, page, size, search, userId);
     }
 
-    public Page<Book> getRecentBooksPage(Long userId, int page, int size) {
+    public OpdsBookPage getRecentBooksPage(Long userId, String cursor, int page, int size) {
         if (userId == null) {
             throw ApiError.FORBIDDEN.createException("Authentication required");
         }
-
-        BookLoreUserEntity entity = userRepository.findById(userId)
-                .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
-        BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
-
-        if (user.getPermissions().isAdmin()) {
-            return getRecentBooksPageInternal(page, size);
-        }
-
-        Set<Long> libraryIds = user.getAssignedLibraries().stream()
-                .map(Library::getId)
-                .collect(Collectors.toSet());
-
-        Page<Book> books = getRecentBooksByLibraryIdsPageInternal(libraryIds, page, size);
-        return applyBookFilters(books, userId);
+        return findPage(inLibraries(getLibraryScope(userId)), OpdsSortOrder.RECENT, cursor, page, size, false, userId);
     }
 
     public String getLibraryName(Long libraryId) {
@@ -159,204 +140,114 @@ public class OpdsBookService {
         return books.stream().map(bookMapper::toBook).toList();
     }
 
-    public List<String> getDistinctAuthors(Long userId) {
+    /**
+     * Author names in alphabetical order, starting after {@code after}.
+     */
+    public NamePage getDistinctAuthors(Long userId, String after, int size) {
         if (userId == null) {
-            return List.of();
+            return NamePage.EMPTY;
         }
-
-        BookLoreUserEntity entity = userRepository.findById(userId)
-                .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
-        BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
-
-        List<com.adityachandel.booklore.model.entity.AuthorEntity> authors;
-
-        if (user.getPermissions().isAdmin()) {
-            authors = bookOpdsRepository.findDistinctAuthors();
-        } else {
-            Set<Long> libraryIds = user.getAssignedLibraries().stream()
-                    .map(Library::getId)
-                    .collect(Collectors.toSet());
-            authors = bookOpdsRepository.findDistinctAuthorsByLibraryIds(libraryIds);
+        Set<Long> libraryIds = getLibraryScope(userId);
+        if (libraryIds != null && libraryIds.isEmpty()) {
+            return NamePage.EMPTY;
         }
-
-        return authors.stream()
-                .map(com.adityachandel.booklore.model.entity.AuthorEntity::getName)
-                .filter(Objects::nonNull)
-                .distinct()
-                .sorted()
-                .toList();
+        CatalogPage<String> authors = catalogService.getAuthorNames(libraryIds, after, size);
+        return new NamePage(authors.getItems(), authors.getNextAfter());
     }
 
-    public Page<Book> getBooksByAuthorName(Long userId, String authorName, int page, int size) {
+    public OpdsBookPage getBooksByAuthorName(Long userId, String authorName, OpdsSortOrder sortOrder, String cursor, int page, int size) {
         if (userId == null) {
             throw ApiError.FORBIDDEN.createException("Authentication required");
         }
+        Specification<BookEntity> scope = and(inLibraries(getLibraryScope(userId)), byAuthor(authorName));
+        return findPage(scope, sortOrder, cursor, page, size, true, userId);
+    }
 
-        BookLoreUserEntity entity = userRepository.findById(userId)
-                .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
-        BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
-
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        if (user.getPermissions().isAdmin()) {
-            Page<Long> idPage = bookOpdsRepository.findBookIdsByAuthorName(authorName, pageable);
-            if (idPage.isEmpty()) {
-                return new PageImpl<>(List.of(), pageable, 0);
-            }
-            List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIds(idPage.getContent());
-            return createPageFromEntities(books, idPage, pageable);
+    /**
+     * Series names in alphabetical order, starting after {@code after}.
+     */
+    public NamePage getDistinctSeries(Long userId, String after, int size) {
+        if (userId == null) {
+            return NamePage.EMPTY;
         }
-
-        Set<Long> libraryIds = user.getAssignedLibraries().stream()
-                .map(Library::getId)
-                .collect(Collectors.toSet());
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsByAuthorNameAndLibraryIds(authorName, libraryIds, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
+        Set<Long> libraryIds = getLibraryScope(userId);
+        if (libraryIds != null && libraryIds.isEmpty()) {
+            return NamePage.EMPTY;
         }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIdsAndLibraryIds(idPage.getContent(), libraryIds);
-        Page<Book> booksPage = createPageFromEntities(books, idPage, pageable);
-        return applyBookFilters(booksPage, userId);
+        CatalogPage<String> series = catalogService.getSeriesNames(libraryIds, after, size);
+        return new NamePage(series.getItems(), series.getNextAfter());
     }
 
-    public List<String> getDistinctSeries(Long userId) {
+    public OpdsBookPage getBooksBySeriesName(Long userId, String seriesName, OpdsSortOrder sortOrder, String cursor, int page, int size) {
         if (userId == null) {
-            return List.of();
+            throw ApiError.FORBIDDEN.createException("Authentication required");
         }
+        // Within one series the reading order is the natural default
+        OpdsSortOrder order = sortOrder == null || sortOrder == OpdsSortOrder.RECENT ? OpdsSortOrder.SERIES_ASC : sortOrder;
+        Specification<BookEntity> scope = and(inLibraries(getLibraryScope(userId)),
+                (root, query, cb) -> cb.equal(root.get("metadata").get("seriesName"), seriesName));
+        return findPage(scope, order, cursor, page, size, true, userId);
+    }
 
-        BookLoreUserEntity entity = userRepository.findById(userId)
-                .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
-        BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
-
-        if (user.getPermissions().isAdmin()) {
-            return bookOpdsRepository.findDistinctSeries();
+    private OpdsBookPage findPage(Specification<BookEntity> scope, OpdsSortOrder sortOrder, String cursor, int page, int size,
+                                  boolean fullMetadata, Long userId) {
+        OpdsKeysetQuery.IdPage idPage = opdsKeysetQuery.findIds(scope, sortOrder, cursor, Math.max(page, 0), size);
+        if (idPage.ids().isEmpty()) {
+            return new OpdsBookPage(List.of(), null, idPage.totalElements());
         }
 
-        Set<Long> libraryIds = user.getAssignedLibraries().stream()
-                .map(Library::getId)
-                .collect(Collectors.toSet());
+        List<BookEntity> books = fullMetadata
+                ? bookOpdsRepository.findAllWithFullMetadataByIds(idPage.ids())
+                : bookOpdsRepository.findAllWithMetadataByIds(idPage.ids());
+        Map<Long, BookEntity> bookMap = books.stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
 
-        return bookOpdsRepository.findDistinctSeriesByLibraryIds(libraryIds);
+        List<Book> content = idPage.ids().stream()
+                .map(bookMap::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toBook)
+                .map(book -> filterBook(book, userId))
+                .toList();
+        return new OpdsBookPage(content, idPage.nextCursor(), idPage.totalElements());
     }
 
-    public Page<Book> getBooksBySeriesName(Long userId, String seriesName, int page, int size) {
-        if (userId == null) {
-            throw ApiError.FORBIDDEN.createException("Authentication required");
-        }
-
+    /**
+     * Null for admins, who see every library.
+     */
+    private Set<Long> getLibraryScope(Long userId) {
         BookLoreUserEntity entity = userRepository.findById(userId)
                 .orElseThrow(() -> ApiError.USER_NOT_FOUND.createException(userId));
         BookLoreUser user = bookLoreUserTransformer.toDTO(entity);
 
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        if (user.getPermissions().isAdmin()) {
-            Page<Long> idPage = bookOpdsRepository.findBookIdsBySeriesName(seriesName, pageable);
-            if (idPage.isEmpty()) {
-                return new PageImpl<>(List.of(), pageable, 0);
-            }
-            List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIds(idPage.getContent());
-            return createPageFromEntities(books, idPage, pageable);
+        if (user.getPermissions() != null && user.getPermissions().isAdmin()) {
+            return null;
         }
-
-        Set<Long> libraryIds = user.getAssignedLibraries().stream()
+        return user.getAssignedLibraries().stream()
                 .map(Library::getId)
                 .collect(Collectors.toSet());
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsBySeriesNameAndLibraryIds(seriesName, libraryIds, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIdsAndLibraryIds(idPage.getContent(), libraryIds);
-        Page<Book> booksPage = createPageFromEntities(books, idPage, pageable);
-        return applyBookFilters(booksPage, userId);
-    }
-
-    private Page<Book> getAllBooksPageInternal(int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findBookIds(pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithMetadataByIds(idPage.getContent());
-        return createPageFromEntities(books, idPage, pageable);
-    }
-
-    private Page<Book> getRecentBooksPageInternal(int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findRecentBookIds(pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithMetadataByIds(idPage.getContent());
-        return createPageFromEntities(books, idPage, pageable);
     }
 
-    private Page<Book> getBooksByLibraryIdsPageInternal(Set<Long> libraryIds, int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsByLibraryIds(libraryIds, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
+    private static Specification<BookEntity> inLibraries(Set<Long> libraryIds) {
+        if (libraryIds == null) {
+            return null;
         }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithMetadataByIdsAndLibraryIds(idPage.getContent(), libraryIds);
-        return createPageFromEntities(books, idPage, pageable);
+        return (root, query, cb) -> libraryIds.isEmpty() ? cb.disjunction() : root.get("library").get("id").in(libraryIds);
     }
 
-    private Page<Book> getRecentBooksByLibraryIdsPageInternal(Set<Long> libraryIds, int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findRecentBookIdsByLibraryIds(libraryIds, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithMetadataByIdsAndLibraryIds(idPage.getContent(), libraryIds);
-        return createPageFromEntities(books, idPage, pageable);
+    private static Specification<BookEntity> inShelf(Long shelfId) {
+        return OpdsKeysetQuery.distinct((root, query, cb) -> cb.equal(root.join("shelves").get("id"), shelfId));
     }
 
-    private Page<Book> getBooksByShelfIdPageInternal(Long shelfId, int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsByShelfId(shelfId, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithMetadataByIdsAndShelfId(idPage.getContent(), shelfId);
-        return createPageFromEntities(books, idPage, pageable);
+    private static Specification<BookEntity> byAuthor(String authorName) {
+        return OpdsKeysetQuery.distinct((root, query, cb) -> cb.equal(root.join("metadata").join("authors").get("name"), authorName));
     }
 
-    private Page<Book> searchByMetadataPageInternal(String text, int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsByMetadataSearch(text, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIds(idPage.getContent());
-        return createPageFromEntities(books, idPage, pageable);
+    private static Specification<BookEntity> matchesSearch(String text) {
+        return (root, query, cb) -> cb.like(root.get("metadata").get("searchText"), "%" + text + "%");
     }
 
-    private Page<Book> searchByMetadataInLibrariesPageInternal(String text, Set<Long> libraryIds, int page, int size) {
-        Pageable pageable = PageRequest.of(Math.max(page, 0), size);
-
-        Page<Long> idPage = bookOpdsRepository.findBookIdsByMetadataSearchAndLibraryIds(text, libraryIds, pageable);
-        if (idPage.isEmpty()) {
-            return new PageImpl<>(List.of(), pageable, 0);
-        }
-
-        List<BookEntity> books = bookOpdsRepository.findAllWithFullMetadataByIdsAndLibraryIds(idPage.getContent(), libraryIds);
-        return createPageFromEntities(books, idPage, pageable);
+    private static Specification<BookEntity> and(Specification<BookEntity> first, Specification<BookEntity> second) {
+        return first == null ? second : first.and(second);
     }
 
     private void validateShelfAccess(Long shelfId, Long userId, boolean isAdmin) {
@@ -373,26 +264,6 @@ public class OpdsBookService {
         }
     }
 
-    private Page<Book> createPageFromEntities(List<BookEntity> books, Page<Long> idPage, Pageable pageable) {
-        Map<Long, BookEntity> bookMap = books.stream()
-                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
-
-        List<Book> sortedBooks = idPage.getContent().stream()
-                .map(bookMap::get)
-                .filter(Objects::nonNull)
-                .map(bookMapper::toBook)
-                .toList();
-
-        return new PageImpl<>(sortedBooks, pageable, idPage.getTotalElements());
-    }
-
-    private Page<Book> applyBookFilters(Page<Book> books, Long userId) {
-        List<Book> filtered = books.getContent().stream()
-                .map(book -> filterBook(book, userId))
-                .collect(Collectors.toList());
-        return new PageImpl<>(filtered, books.getPageable(), books.getTotalElements());
-    }
-
     private Book filterBook(Book dto, Long userId) {
         if (dto.getShelves() != null && userId != null) {
             dto.setShelves(dto.getShelves().stream()
@@ -402,169 +273,10 @@ public class OpdsBookService {
         return dto;
     }
 
-    public Page<Book> applySortOrder(Page<Book> booksPage, OpdsSortOrder sortOrder) {
-        if (sortOrder == null || sortOrder == OpdsSortOrder.RECENT) {
-            return booksPage; // Already sorted by addedOn DESC from repository
-        }
-
-        List<Book> sortedBooks = new ArrayList<>(booksPage.getContent());
-        
-        switch (sortOrder) {
-            case TITLE_ASC -> sortedBooks.sort((b1, b2) -> {
-                String title1 = b1.getMetadata() != null && b1.getMetadata().getTitle() != null 
-                    ? b1.getMetadata().getTitle() : "";
-                String title2 = b2.getMetadata() != null && b2.getMetadata().getTitle() != null 
-                    ? b2.getMetadata().getTitle() : "";
-                return title1.compareToIgnoreCase(title2);
-            });
-            case TITLE_DESC -> sortedBooks.sort((b1, b2) -> {
-                String title1 = b1.getMetadata() != null && b1.getMetadata().getTitle() != null 
-                    ? b1.getMetadata().getTitle() : "";
-                String title2 = b2.getMetadata() != null && b2.getMetadata().getTitle() != null 
-                    ? b2.getMetadata().getTitle() : "";
-                return title2.compareToIgnoreCase(title1);
-            });
-            case AUTHOR_ASC -> sortedBooks.sort((b1, b2) -> {
-                String author1 = getFirstAuthor(b1);
-                String author2 = getFirstAuthor(b2);
-                return author1.compareToIgnoreCase(author2);
-            });
-            case AUTHOR_DESC -> sortedBooks.sort((b1, b2) -> {
-                String author1 = getFirstAuthor(b1);
-                String author2 = getFirstAuthor(b2);
-                return author2.compareToIgnoreCase(author1);
-            });
-            case SERIES_ASC -> sortedBooks.sort((b1, b2) -> {
-                String series1 = getSeriesName(b1);
-                String series2 = getSeriesName(b2);
-                boolean hasSeries1 = !series1.isEmpty();
-                boolean hasSeries2 = !series2.isEmpty();
-                
-                // Books without series come after books with series
-                if (!hasSeries1 && !hasSeries2) {
-                    // Both have no series, sort by addedOn descending
-                    return compareByAddedOn(b2, b1);
-                }
-                if (!hasSeries1) return 1;
-                if (!hasSeries2) return -1;
-                
-                // Both have series, sort by series name then number
-                int seriesComp = series1.compareToIgnoreCase(series2);
-                if (seriesComp != 0) return seriesComp;
-                return Float.compare(getSeriesNumber(b1), getSeriesNumber(b2));
-            });
-            case SERIES_DESC -> sortedBooks.sort((b1, b2) -> {
-                String series1 = getSeriesName(b1);
-                String series2 = getSeriesName(b2);
-                boolean hasSeries1 = !series1.isEmpty();
-                boolean hasSeries2 = !series2.isEmpty();
-                
-                // Books without series come after books with series
-                if (!hasSeries1 && !hasSeries2) {
-                    // Both have no series, sort by addedOn descending
-                    return compareByAddedOn(b2, b1);
-                }
-                if (!hasSeries1) return 1;
-                if (!hasSeries2) return -1;
-                
-                // Both have series, sort by series name then number
-                int seriesComp = series2.compareToIgnoreCase(series1);
-                if (seriesComp != 0) return seriesComp;
-                return Float.compare(getSeriesNumber(b2), getSeriesNumber(b1));
-            });
-            case RATING_ASC -> sortedBooks.sort((b1, b2) -> {
-                Float rating1 = calculateRating(b1);
-                Float rating2 = calculateRating(b2);
-                // Books with no rating go to the end
-                if (rating1 == null && rating2 == null) {
-                    // Both have no rating, fall back to addedOn descending
-                    return compareByAddedOn(b2, b1);
-                }
-                if (rating1 == null) return 1;
-                if (rating2 == null) return -1;
-                int ratingComp = Float.compare(rating1, rating2); // Ascending order (lowest first)
-                if (ratingComp != 0) return ratingComp;
-                // Same rating, fall back to addedOn descending
-                return compareByAddedOn(b2, b1);
-            });
-            case RATING_DESC -> sortedBooks.sort((b1, b2) -> {
-                Float rating1 = calculateRating(b1);
-                Float rating2 = calculateRating(b2);
-                // Books with no rating go to the end
-                if (rating1 == null && rating2 == null) {
-                    // Both have no rating, fall back to addedOn descending
-                    return compareByAddedOn(b2, b1);
-                }
-                if (rating1 == null) return 1;
-                if (rating2 == null) return -1;
-                int ratingComp = Float.compare(rating2, rating1); // Descending order (highest first)
-                if (ratingComp != 0) return ratingComp;
-                // Same rating, fall back to addedOn descending
-                return compareByAddedOn(b2, b1);
-            });
-        }
-
-        return new PageImpl<>(sortedBooks, booksPage.getPageable(), booksPage.getTotalElements());
-    }
-
-    private String getFirstAuthor(Book book) {
-        if (book.getMetadata() != null && book.getMetadata().getAuthors() != null 
-            && !book.getMetadata().getAuthors().isEmpty()) {
-            return book.getMetadata().getAuthors().iterator().next();
-        }
-        return "";
-    }
-
-    private String getSeriesName(Book book) {
-        if (book.getMetadata() != null && book.getMetadata().getSeriesName() != null) {
-            return book.getMetadata().getSeriesName();
-        }
-        return "";
-    }
-
-    private Float getSeriesNumber(Book book) {
-        if (book.getMetadata() != null && book.getMetadata().getSeriesNumber() != null) {
-            return book.getMetadata().getSeriesNumber();
-        }
-        return Float.MAX_VALUE;
-    }
-
-    private int compareByAddedOn(Book b1, Book b2) {
-        if (b1.getAddedOn() == null && b2.getAddedOn() == null) return 0;
-        if (b1.getAddedOn() == null) return 1;
-        if (b2.getAddedOn() == null) return -1;
-        return b1.getAddedOn().compareTo(b2.getAddedOn());
-    }
-
-    private Float calculateRating(Book book) {
-        if (book.getMetadata() == null) {
-            return null;
-        }
-        
-        Double hardcoverRating = book.getMetadata().getHardcoverRating();
-        Double amazonRating = book.getMetadata().getAmazonRating();
-        Double goodreadsRating = book.getMetadata().getGoodreadsRating();
-
-        double sum = 0;
-        int count = 0;
-
-        if (hardcoverRating != null && hardcoverRating > 0) {
-            sum += hardcoverRating;
-            count++;
-        }
-        if (amazonRating != null && amazonRating > 0) {
-            sum += amazonRating;
-            count++;
-        }
-        if (goodreadsRating != null && goodreadsRating > 0) {
-            sum += goodreadsRating;
-            count++;
-        }
-
-        if (count == 0) {
-            return null;
-        }
-
-        return (float) (sum / count);
+    /**
+     * @param nextAfter value for the {@code after} parameter of the following page, or null on the last page
+     */
+    public record NamePage(List<String> names, String nextAfter) {
+        static final NamePage EMPTY = new NamePage(List.of(), null);
     }
 }
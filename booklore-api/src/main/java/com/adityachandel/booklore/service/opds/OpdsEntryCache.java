@@ -0,0 +1,158 @@
+package com.adityachandel.booklore.service.opds;
+
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.service.book.CoverImageService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendered {@code <entry>} fragments of OPDS books. A fragment is keyed by book id and reused while the fields it
+ * was rendered from are unchanged, so crawling clients don't pay for escaping the same metadata on every request.
+ */
+@Component
+public class OpdsEntryCache {
+
+    static final long MAX_CACHED_CHARS = 8L * 1024 * 1024;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedChars;
+
+    public Entry get(Book book) {
+        EntrySource source = EntrySource.of(book);
+        if (book.getId() != null) {
+            synchronized (this) {
+                Entry cached = entries.get(book.getId());
+                if (cached != null && cached.source().equals(source)) {
+                    return cached;
+                }
+            }
+        }
+        Entry entry = render(source);
+        if (book.getId() != null) {
+            put(book.getId(), entry);
+        }
+        return entry;
+    }
+
+    synchronized long getCachedChars() {
+        return cachedChars;
+    }
+
+    private synchronized void put(long bookId, Entry entry) {
+        Entry previous = entries.put(bookId, entry);
+        if (previous != null) {
+            cachedChars -= previous.xml().length();
+        }
+        cachedChars += entry.xml().length();
+        var iterator = entries.entrySet().iterator();
+        while (cachedChars > MAX_CACHED_CHARS && iterator.hasNext()) {
+            Map.Entry<Long, Entry> eldest = iterator.next();
+            cachedChars -= eldest.getValue().xml().length();
+            iterator.remove();
+        }
+    }
+
+    private Entry render(EntrySource book) {
+        StringWriter buffer = new StringWriter(1024);
+        OpdsFeedWriter xml = new OpdsFeedWriter(buffer);
+        try {
+            xml.raw("  <entry>\n")
+                    .element("    ", "title", book.title())
+                    .element("    ", "id", "urn:booklore:book:" + book.id())
+                    // Rendered once per metadata version, so the fallback doesn't change the fragment between requests
+                    .element("    ", "updated", book.addedOn() != null ? book.addedOn() : Instant.now());
+            if (book.authors() != null) {
+                for (String author : book.authors()) {
+                    xml.raw("    <author><name>").text(author).raw("</name></author>\n");
+                }
+            }
+            if (book.publisher() != null) {
+                xml.element("    ", "dc:publisher", book.publisher());
+            }
+            if (book.language() != null) {
+                xml.element("    ", "dc:language", book.language());
+            }
+            if (book.categories() != null) {
+                for (String category : book.categories()) {
+                    xml.raw("    <category term=\"").text(category).raw("\"/>\n");
+                }
+            }
+            if (book.description() != null) {
+                xml.element("    ", "summary", book.description());
+            }
+            if (book.isbn10() != null) {
+                xml.element("    ", "dc:identifier", "urn:isbn:" + book.isbn10());
+            }
+            if (book.seriesName() != null) {
+                xml.raw("    <meta property=\"belongs-to-collection\" id=\"series\">").text(book.seriesName()).raw("</meta>\n");
+                if (book.seriesNumber() != null) {
+                    xml.raw("    <meta property=\"group-position\" refines=\"#series\">").text(String.valueOf(book.seriesNumber())).raw("</meta>\n");
+                }
+            }
+
+            xml.raw("    <link href=\"/api/v1/opds/").raw(String.valueOf(book.id()))
+                    .raw("/download\" rel=\"http://opds-spec.org/acquisition\" type=\"application/").raw(fileMimeType(book.bookType())).raw("\"/>\n");
+            if (book.coverUpdatedOn() != null) {
+                String coverUrl = "/api/v1/opds/" + book.id() + "/cover?v=" + CoverImageService.coverVersion(book.coverUpdatedOn());
+                xml.link("    ", "http://opds-spec.org/image", coverUrl, "image/jpeg");
+                xml.link("    ", "http://opds-spec.org/image/thumbnail", coverUrl, "image/jpeg");
+            }
+            xml.raw("  </entry>\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String fragment = buffer.toString();
+        return new Entry(book, fragment, fingerprint(fragment));
+    }
+
+    private static String fileMimeType(BookFileType bookType) {
+        if (bookType == null) {
+            return "octet-stream";
+        }
+        return switch (bookType) {
+            case PDF -> "pdf";
+            case EPUB -> "epub+zip";
+            default -> "octet-stream";
+        };
+    }
+
+    // FNV-1a; only has to tell versions of one feed apart, the feed ETag digests these
+    private static long fingerprint(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param fingerprint hash of {@code xml}, folded into the ETag of feeds that contain the entry
+     */
+    public record Entry(EntrySource source, String xml, long fingerprint) {
+    }
+
+    /**
+     * Every field the fragment is rendered from; an unequal source means the cached fragment is stale.
+     */
+    record EntrySource(Long id, BookFileType bookType, Instant addedOn, String title, Set<String> authors,
+                       String publisher, String language, Set<String> categories, String description, String isbn10,
+                       String seriesName, Float seriesNumber, Instant coverUpdatedOn) {
+
+        static EntrySource of(Book book) {
+            BookMetadata m = book.getMetadata() != null ? book.getMetadata() : BookMetadata.builder().build();
+            return new EntrySource(book.getId(), book.getBookType(), book.getAddedOn(), m.getTitle(), m.getAuthors(),
+                    m.getPublisher(), m.getLanguage(), m.getCategories(), m.getDescription(), m.getIsbn10(),
+                    m.getSeriesName(), m.getSeriesNumber(), m.getCoverUpdatedOn());
+        }
+    }
+}
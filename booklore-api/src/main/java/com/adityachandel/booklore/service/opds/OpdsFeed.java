@@ -0,0 +1,193 @@
+package com.adityachandel.booklore.service.opds;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A prepared OPDS feed. Everything that goes into the document is collected and digested up front, so the ETag is
+ * known before a byte is written and an unchanged feed can be answered with 304; otherwise {@link #writeTo} streams
+ * it, with book entries coming from {@link OpdsEntryCache}.
+ */
+public final class OpdsFeed {
+
+    public static final String NAVIGATION_TYPE = "application/atom+xml;profile=opds-catalog;kind=navigation";
+    public static final String ACQUISITION_TYPE = "application/atom+xml;profile=opds-catalog;kind=acquisition";
+
+    private static final String NAVIGATION_NAMESPACES = "xmlns=\"http://www.w3.org/2005/Atom\" xmlns:opds=\"http://opds-spec.org/2010/catalog\"";
+    private static final String ACQUISITION_NAMESPACES = "xmlns=\"http://www.w3.org/2005/Atom\" xmlns:dc=\"http://purl.org/dc/terms/\" xmlns:opds=\"http://opds-spec.org/2010/catalog\" xmlns:opensearch=\"http://a9.com/-/spec/opensearch/1.1/\"";
+
+    private final Builder content;
+    private final String etag;
+    private final Instant updated;
+
+    private OpdsFeed(Builder content, String etag, Instant updated) {
+        this.content = content;
+        this.etag = etag;
+        this.updated = updated;
+    }
+
+    public static Builder navigation(String id, String title, String selfHref) {
+        return new Builder(id, title, false, selfHref);
+    }
+
+    public static Builder acquisition(String id, String title, String selfHref) {
+        return new Builder(id, title, true, selfHref);
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * When this exact feed content was first served, written as the feed's {@code <updated>}. Content can revert to
+     * an earlier ETag, so this can move backwards and is not sent as Last-Modified.
+     */
+    public Instant updated() {
+        return updated;
+    }
+
+    public boolean isAcquisition() {
+        return content.acquisition;
+    }
+
+    public void writeTo(Writer out) throws IOException {
+        OpdsFeedWriter xml = new OpdsFeedWriter(out);
+        xml.raw("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<feed ")
+                .raw(content.acquisition ? ACQUISITION_NAMESPACES : NAVIGATION_NAMESPACES).raw(">\n")
+                .element("  ", "id", content.id)
+                .element("  ", "title", content.title)
+                .element("  ", "updated", updated);
+        if (content.totalResults != null) {
+            xml.element("  ", "opensearch:totalResults", content.totalResults);
+        }
+        if (content.startIndex != null) {
+            xml.element("  ", "opensearch:startIndex", content.startIndex);
+        }
+        if (content.itemsPerPage != null) {
+            xml.element("  ", "opensearch:itemsPerPage", content.itemsPerPage);
+        }
+        xml.link("  ", "self", content.selfHref, content.type())
+                .link("  ", "start", "/api/v1/opds", NAVIGATION_TYPE)
+                .raw("  <link rel=\"search\" type=\"application/opensearchdescription+xml\" title=\"Search\" href=\"/api/v1/opds/search.opds\"/>\n");
+        for (Link link : content.links) {
+            xml.link("  ", link.rel(), link.href(), content.type());
+        }
+        for (Object entry : content.entries) {
+            if (entry instanceof OpdsEntryCache.Entry book) {
+                xml.raw(book.xml());
+            } else if (entry instanceof NavigationEntry navigation) {
+                xml.raw("  <entry>\n")
+                        .element("    ", "title", navigation.title())
+                        .element("    ", "id", navigation.id())
+                        .element("    ", "updated", updated)
+                        .link("    ", "subsection", navigation.href(), navigation.acquisition() ? ACQUISITION_TYPE : NAVIGATION_TYPE)
+                        .raw("    <content type=\"text\">").text(navigation.content()).raw("</content>\n")
+                        .raw("  </entry>\n");
+            }
+        }
+        xml.raw("</feed>");
+        out.flush();
+    }
+
+    public String toXml() {
+        StringWriter buffer = new StringWriter(4096);
+        try {
+            writeTo(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    private record Link(String rel, String href) {
+    }
+
+    private record NavigationEntry(String title, String id, String href, boolean acquisition, String content) {
+    }
+
+    public static final class Builder {
+
+        private final String id;
+        private final String title;
+        private final boolean acquisition;
+        private final String selfHref;
+        private final List<Link> links = new ArrayList<>();
+        private final List<Object> entries = new ArrayList<>();
+        private final MessageDigest digest;
+        private Long totalResults;
+        private Integer startIndex;
+        private Integer itemsPerPage;
+
+        private Builder(String id, String title, boolean acquisition, String selfHref) {
+            this.id = id;
+            this.title = title;
+            this.acquisition = acquisition;
+            this.selfHref = selfHref;
+            try {
+                this.digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            digest(acquisition ? "acquisition" : "navigation", id, title, selfHref);
+        }
+
+        public Builder openSearch(Long totalResults, Integer startIndex, int itemsPerPage) {
+            this.totalResults = totalResults;
+            this.startIndex = startIndex;
+            this.itemsPerPage = itemsPerPage;
+            digest("opensearch", String.valueOf(totalResults), String.valueOf(startIndex), String.valueOf(itemsPerPage));
+            return this;
+        }
+
+        public Builder link(String rel, String href) {
+            links.add(new Link(rel, href));
+            digest("link", rel, href);
+            return this;
+        }
+
+        public Builder navigationEntry(String title, String id, String href, boolean acquisition, String content) {
+            entries.add(new NavigationEntry(title, id, href, acquisition, content));
+            digest("entry", title, id, href, String.valueOf(acquisition), content);
+            return this;
+        }
+
+        public Builder bookEntry(OpdsEntryCache.Entry entry) {
+            entries.add(entry);
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(entry.fingerprint()).array());
+            return this;
+        }
+
+        /**
+         * @param firstSeen maps the ETag to the time this content was first served
+         */
+        public OpdsFeed build(Function<String, Instant> firstSeen) {
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+            return new OpdsFeed(this, etag, firstSeen.apply(etag).truncatedTo(ChronoUnit.SECONDS));
+        }
+
+        private String type() {
+            return acquisition ? ACQUISITION_TYPE : NAVIGATION_TYPE;
+        }
+
+        private void digest(String... parts) {
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+        }
+    }
+}
@@ -10,11 +10,14 @@ import com.adityachandel.booklore.service.MagicShelfService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -22,418 +25,185 @@ import java.util.List;
 public class OpdsFeedService {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_NAVIGATION_PAGE_SIZE = 100;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TRACKED_FEEDS = 10_000;
 
     private final AuthenticationService authenticationService;
     private final OpdsBookService opdsBookService;
     private final MagicShelfService magicShelfService;
     private final MagicShelfBookService magicShelfBookService;
+    private final OpdsEntryCache opdsEntryCache;
 
-    public String generateRootNavigation(HttpServletRequest request) {
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:root</id>
-                  <title>Booklore Catalog</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>All Books</title>
-                    <id>urn:booklore:catalog:all</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                    <content type="text">Browse all available books</content>
-                  </entry>
-                """.formatted(now(), escapeXml("/api/v1/opds/catalog?page=1&size=" + DEFAULT_PAGE_SIZE)));
-
-        feed.append("""
-                  <entry>
-                    <title>Recently Added</title>
-                    <id>urn:booklore:catalog:recent</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                    <content type="text">Recently added books</content>
-                  </entry>
-                """.formatted(now(), escapeXml("/api/v1/opds/recent?page=1&size=" + DEFAULT_PAGE_SIZE)));
-
-        feed.append("""
-                  <entry>
-                    <title>Libraries</title>
-                    <id>urn:booklore:navigation:libraries</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/libraries" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                    <content type="text">Browse books by library</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>Shelves</title>
-                    <id>urn:booklore:navigation:shelves</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/shelves" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                    <content type="text">Browse your personal shelves</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>Magic Shelves</title>
-                    <id>urn:booklore:navigation:magic-shelves</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/magic-shelves" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                    <content type="text">Browse your smart, dynamic shelves</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>Authors</title>
-                    <id>urn:booklore:navigation:authors</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/authors" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                    <content type="text">Browse books by author</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>Series</title>
-                    <id>urn:booklore:navigation:series</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/series" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                    <content type="text">Browse books by series</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("""
-                  <entry>
-                    <title>Surprise Me</title>
-                    <id>urn:booklore:catalog:surprise</id>
-                    <updated>%s</updated>
-                    <link rel="subsection" href="/api/v1/opds/surprise" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                    <content type="text">25 random books from the catalog</content>
-                  </entry>
-                """.formatted(now()));
-
-        feed.append("</feed>");
-        return feed.toString();
+    private final Map<String, Instant> feedFirstSeen = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+            return size() > MAX_TRACKED_FEEDS;
+        }
+    };
+
+    public OpdsFeed generateRootNavigation(HttpServletRequest request) {
+        return OpdsFeed.navigation("urn:booklore:root", "Booklore Catalog", "/api/v1/opds")
+                .navigationEntry("All Books", "urn:booklore:catalog:all", "/api/v1/opds/catalog?size=" + DEFAULT_PAGE_SIZE, true, "Browse all available books")
+                .navigationEntry("Recently Added", "urn:booklore:catalog:recent", "/api/v1/opds/recent?size=" + DEFAULT_PAGE_SIZE, true, "Recently added books")
+                .navigationEntry("Libraries", "urn:booklore:navigation:libraries", "/api/v1/opds/libraries", false, "Browse books by library")
+                .navigationEntry("Shelves", "urn:booklore:navigation:shelves", "/api/v1/opds/shelves", false, "Browse your personal shelves")
+                .navigationEntry("Magic Shelves", "urn:booklore:navigation:magic-shelves", "/api/v1/opds/magic-shelves", false, "Browse your smart, dynamic shelves")
+                .navigationEntry("Authors", "urn:booklore:navigation:authors", "/api/v1/opds/authors", false, "Browse books by author")
+                .navigationEntry("Series", "urn:booklore:navigation:series", "/api/v1/opds/series", false, "Browse books by series")
+                .navigationEntry("Surprise Me", "urn:booklore:catalog:surprise", "/api/v1/opds/surprise", true, "25 random books from the catalog")
+                .build(this::firstSeen);
     }
 
-    public String generateLibrariesNavigation(HttpServletRequest request) {
+    public OpdsFeed generateLibrariesNavigation(HttpServletRequest request) {
         Long userId = getUserId();
         List<Library> libraries = opdsBookService.getAccessibleLibraries(userId);
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:navigation:libraries</id>
-                  <title>Libraries</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds/libraries" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
+        OpdsFeed.Builder feed = OpdsFeed.navigation("urn:booklore:navigation:libraries", "Libraries", "/api/v1/opds/libraries");
         for (Library library : libraries) {
-            feed.append("""
-                      <entry>
-                        <title>%s</title>
-                        <id>urn:booklore:library:%d</id>
-                        <updated>%s</updated>
-                        <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                        <content type="text">%s</content>
-                      </entry>
-                    """.formatted(
-                    escapeXml(library.getName()),
-                    library.getId(),
-                    now(),
-                    escapeXml("/api/v1/opds/catalog?libraryId=" + library.getId()),
-                    escapeXml(library.getName() != null ? library.getName() : "Library collection")
-            ));
+            feed.navigationEntry(
+                    library.getName(),
+                    "urn:booklore:library:" + library.getId(),
+                    "/api/v1/opds/catalog?libraryId=" + library.getId(),
+                    true,
+                    library.getName() != null ? library.getName() : "Library collection");
         }
-
-        feed.append("</feed>");
-        return feed.toString();
+        return feed.build(this::firstSeen);
     }
 
-    public String generateShelvesNavigation(HttpServletRequest request) {
+    public OpdsFeed generateShelvesNavigation(HttpServletRequest request) {
         Long userId = getUserId();
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:navigation:shelves</id>
-                  <title>Shelves</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds/shelves" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
+        OpdsFeed.Builder feed = OpdsFeed.navigation("urn:booklore:navigation:shelves", "Shelves", "/api/v1/opds/shelves");
         if (userId != null) {
             var shelves = opdsBookService.getUserShelves(userId);
 
             if (shelves != null) {
                 for (var shelf : shelves) {
-                    feed.append("""
-                              <entry>
-                                <title>%s</title>
-                                <id>urn:booklore:shelf:%d</id>
-                                <updated>%s</updated>
-                                <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                                <content type="text">Personal shelf collection</content>
-                              </entry>
-                            """.formatted(
-                            escapeXml(shelf.getName()),
-                            shelf.getId(),
-                            now(),
-                            escapeXml("/api/v1/opds/catalog?shelfId=" + shelf.getId())
-                    ));
+                    feed.navigationEntry(
+                            shelf.getName(),
+                            "urn:booklore:shelf:" + shelf.getId(),
+                            "/api/v1/opds/catalog?shelfId=" + shelf.getId(),
+                            true,
+                            "Personal shelf collection");
                 }
             }
         }
-
-        feed.append("</feed>");
-        return feed.toString();
+        return feed.build(this::firstSeen);
     }
 
-    public String generateMagicShelvesNavigation(HttpServletRequest request) {
+    public OpdsFeed generateMagicShelvesNavigation(HttpServletRequest request) {
         Long userId = getUserId();
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:navigation:magic-shelves</id>
-                  <title>Magic Shelves</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds/magic-shelves" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
+        OpdsFeed.Builder feed = OpdsFeed.navigation("urn:booklore:navigation:magic-shelves", "Magic Shelves", "/api/v1/opds/magic-shelves");
         if (userId != null) {
             var magicShelves = magicShelfService.getUserShelvesForOpds(userId);
 
             if (magicShelves != null) {
                 for (var shelf : magicShelves) {
-                    feed.append("""
-                              <entry>
-                                <title>%s</title>
-                                <id>urn:booklore:magic-shelf:%d</id>
-                                <updated>%s</updated>
-                                <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                                <content type="text">Smart, dynamic shelf collection</content>
-                              </entry>
-                            """.formatted(
-                            escapeXml(shelf.getName()),
-                            shelf.getId(),
-                            now(),
-                            escapeXml("/api/v1/opds/catalog?magicShelfId=" + shelf.getId())
-                    ));
+                    feed.navigationEntry(
+                            shelf.getName(),
+                            "urn:booklore:magic-shelf:" + shelf.getId(),
+                            "/api/v1/opds/catalog?magicShelfId=" + shelf.getId(),
+                            true,
+                            "Smart, dynamic shelf collection");
                 }
             }
         }
-
-        feed.append("</feed>");
-        return feed.toString();
+        return feed.build(this::firstSeen);
     }
 
-    public String generateAuthorsNavigation(HttpServletRequest request) {
+    public OpdsFeed generateAuthorsNavigation(HttpServletRequest request) {
         Long userId = getUserId();
-        List<String> authors = opdsBookService.getDistinctAuthors(userId);
-
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:navigation:authors</id>
-                  <title>Authors</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds/authors" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
-        for (String author : authors) {
-            feed.append("""
-                      <entry>
-                        <title>%s</title>
-                        <id>urn:booklore:author:%s</id>
-                        <updated>%s</updated>
-                        <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                        <content type="text">Books by %s</content>
-                      </entry>
-                    """.formatted(
-                    escapeXml(author),
-                    escapeXml(author),
-                    now(),
-                    escapeXml("/api/v1/opds/catalog?author=" + java.net.URLEncoder.encode(author, java.nio.charset.StandardCharsets.UTF_8)),
-                    escapeXml(author)
-            ));
+        int size = parsePageSize(request, DEFAULT_NAVIGATION_PAGE_SIZE);
+        OpdsBookService.NamePage authors = opdsBookService.getDistinctAuthors(userId, request.getParameter("after"), size);
+
+        OpdsFeed.Builder feed = OpdsFeed.navigation("urn:booklore:navigation:authors", "Authors",
+                buildPaginationUrl(request, request.getParameter("after"), size));
+        appendPaginationLinks(feed, request, authors.nextAfter(), size);
+
+        for (String author : authors.names()) {
+            feed.navigationEntry(
+                    author,
+                    "urn:booklore:author:" + author,
+                    "/api/v1/opds/catalog?author=" + URLEncoder.encode(author, StandardCharsets.UTF_8),
+                    true,
+                    "Books by " + author);
         }
-
-        feed.append("</feed>");
-        return feed.toString();
+        return feed.build(this::firstSeen);
     }
 
-    public String generateSeriesNavigation(HttpServletRequest request) {
+    public OpdsFeed generateSeriesNavigation(HttpServletRequest request) {
         Long userId = getUserId();
-        List<String> seriesList = opdsBookService.getDistinctSeries(userId);
-
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:opds="http://opds-spec.org/2010/catalog">
-                  <id>urn:booklore:navigation:series</id>
-                  <title>Series</title>
-                  <updated>%s</updated>
-                  <link rel="self" href="/api/v1/opds/series" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now()));
-
-        for (String series : seriesList) {
-            feed.append("""
-                      <entry>
-                        <title>%s</title>
-                        <id>urn:booklore:series:%s</id>
-                        <updated>%s</updated>
-                        <link rel="subsection" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                        <content type="text">Books in the %s series</content>
-                      </entry>
-                    """.formatted(
-                    escapeXml(series),
-                    escapeXml(series),
-                    now(),
-                    escapeXml("/api/v1/opds/catalog?series=" + java.net.URLEncoder.encode(series, java.nio.charset.StandardCharsets.UTF_8)),
-                    escapeXml(series)
-            ));
+        int size = parsePageSize(request, DEFAULT_NAVIGATION_PAGE_SIZE);
+        OpdsBookService.NamePage seriesList = opdsBookService.getDistinctSeries(userId, request.getParameter("after"), size);
+
+        OpdsFeed.Builder feed = OpdsFeed.navigation("urn:booklore:navigation:series", "Series",
+                buildPaginationUrl(request, request.getParameter("after"), size));
+        appendPaginationLinks(feed, request, seriesList.nextAfter(), size);
+
+        for (String series : seriesList.names()) {
+            feed.navigationEntry(
+                    series,
+                    "urn:booklore:series:" + series,
+                    "/api/v1/opds/catalog?series=" + URLEncoder.encode(series, StandardCharsets.UTF_8),
+                    true,
+                    "Books in the " + series + " series");
         }
-
-        feed.append("</feed>");
-        return feed.toString();
+        return feed.build(this::firstSeen);
     }
 
-    public String generateCatalogFeed(HttpServletRequest request) {
+    public OpdsFeed generateCatalogFeed(HttpServletRequest request) {
         Long libraryId = parseLongParam(request, "libraryId", null);
         Long shelfId = parseLongParam(request, "shelfId", null);
         Long magicShelfId = parseLongParam(request, "magicShelfId", null);
         String query = request.getParameter("q");
         String author = request.getParameter("author");
         String series = request.getParameter("series");
+        String cursor = request.getParameter("after");
         int page = Math.max(1, parseLongParam(request, "page", 1L).intValue());
-        int size = Math.min(parseLongParam(request, "size", (long) DEFAULT_PAGE_SIZE).intValue(), MAX_PAGE_SIZE);
+        int size = parsePageSize(request, DEFAULT_PAGE_SIZE);
 
         Long userId = getUserId();
         OpdsSortOrder sortOrder = getSortOrder();
-        Page<Book> booksPage;
+        OpdsBookPage booksPage;
 
         if (magicShelfId != null) {
-            booksPage = magicShelfBookService.getBooksByMagicShelfId(userId, magicShelfId, page - 1, size);
+            booksPage = magicShelfBookService.getBooksByMagicShelfId(userId, magicShelfId, sortOrder, cursor, page - 1, size);
         } else if (author != null && !author.isBlank()) {
-            booksPage = opdsBookService.getBooksByAuthorName(userId, author, page - 1, size);
+            booksPage = opdsBookService.getBooksByAuthorName(userId, author, sortOrder, cursor, page - 1, size);
         } else if (series != null && !series.isBlank()) {
-            booksPage = opdsBookService.getBooksBySeriesName(userId, series, page - 1, size);
+            booksPage = opdsBookService.getBooksBySeriesName(userId, series, sortOrder, cursor, page - 1, size);
         } else {
-            booksPage = opdsBookService.getBooksPage(userId, query, libraryId, shelfId, page - 1, size);
+            booksPage = opdsBookService.getBooksPage(userId, query, libraryId, shelfId, sortOrder, cursor, page - 1, size);
         }
 
-        // Apply user's preferred sort order
-        booksPage = opdsBookService.applySortOrder(booksPage, sortOrder);
-
         String feedTitle = determineFeedTitle(libraryId, shelfId, magicShelfId, author, series);
         String feedId = determineFeedId(libraryId, shelfId, magicShelfId, author, series);
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:dc="http://purl.org/dc/terms/" xmlns:opds="http://opds-spec.org/2010/catalog" xmlns:opensearch="http://a9.com/-/spec/opensearch/1.1/">
-                  <id>%s</id>
-                  <title>%s</title>
-                  <updated>%s</updated>
-                  <opensearch:totalResults>%d</opensearch:totalResults>
-                  <opensearch:startIndex>%d</opensearch:startIndex>
-                  <opensearch:itemsPerPage>%d</opensearch:itemsPerPage>
-                  <link rel="self" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(
-                feedId,
-                escapeXml(feedTitle),
-                now(),
-                booksPage.getTotalElements(),
-                ((page - 1) * size) + 1,
-                size,
-                escapeXml(buildCurrentUrl(request, page, size))
-        ));
-
-        appendPaginationLinks(feed, request, page, booksPage.getTotalPages(), size);
-
-        booksPage.getContent().forEach(book -> appendBookEntry(feed, book));
-
-        feed.append("</feed>");
-        return feed.toString();
+        return buildAcquisitionFeed(feedId, feedTitle, request, booksPage, cursor, page, size);
     }
 
-    public String generateRecentFeed(HttpServletRequest request) {
+    public OpdsFeed generateRecentFeed(HttpServletRequest request) {
         Long userId = getUserId();
-        OpdsSortOrder sortOrder = getSortOrder();
+        String cursor = request.getParameter("after");
         int page = Math.max(1, parseLongParam(request, "page", 1L).intValue());
-        int size = Math.min(parseLongParam(request, "size", (long) DEFAULT_PAGE_SIZE).intValue(), MAX_PAGE_SIZE);
+        int size = parsePageSize(request, DEFAULT_PAGE_SIZE);
 
-        Page<Book> booksPage = opdsBookService.getRecentBooksPage(userId, page - 1, size);
-        
-        // Apply user's preferred sort order
-        booksPage = opdsBookService.applySortOrder(booksPage, sortOrder);
+        OpdsBookPage booksPage = opdsBookService.getRecentBooksPage(userId, cursor, page - 1, size);
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:dc="http://purl.org/dc/terms/" xmlns:opds="http://opds-spec.org/2010/catalog" xmlns:opensearch="http://a9.com/-/spec/opensearch/1.1/">
-                  <id>urn:booklore:catalog:recent</id>
-                  <title>Recently Added Books</title>
-                  <updated>%s</updated>
-                  <opensearch:totalResults>%d</opensearch:totalResults>
-                  <opensearch:startIndex>%d</opensearch:startIndex>
-                  <opensearch:itemsPerPage>%d</opensearch:itemsPerPage>
-                  <link rel="self" href="%s" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now(), booksPage.getTotalElements(), ((page - 1) * size) + 1, size, escapeXml(buildCurrentUrl(request, page, size))));
-
-        appendPaginationLinks(feed, request, page, booksPage.getTotalPages(), size);
-
-        booksPage.getContent().forEach(book -> appendBookEntry(feed, book));
-
-        feed.append("</feed>");
-        return feed.toString();
+        return buildAcquisitionFeed("urn:booklore:catalog:recent", "Recently Added Books", request, booksPage, cursor, page, size);
     }
 
-    public String generateSurpriseFeed(HttpServletRequest request) {
+    public OpdsFeed generateSurpriseFeed(HttpServletRequest request) {
         Long userId = getUserId();
         int count = 25;
         List<Book> books = opdsBookService.getRandomBooks(userId, count);
 
-        var feed = new StringBuilder("""
-                <?xml version="1.0" encoding="UTF-8"?>
-                <feed xmlns="http://www.w3.org/2005/Atom" xmlns:dc="http://purl.org/dc/terms/" xmlns:opds="http://opds-spec.org/2010/catalog" xmlns:opensearch="http://a9.com/-/spec/opensearch/1.1/">
-                  <id>urn:booklore:catalog:surprise</id>
-                  <title>Surprise Me</title>
-                  <updated>%s</updated>
-                  <opensearch:totalResults>%d</opensearch:totalResults>
-                  <opensearch:startIndex>1</opensearch:startIndex>
-                  <opensearch:itemsPerPage>%d</opensearch:itemsPerPage>
-                  <link rel="self" href="/api/v1/opds/surprise" type="application/atom+xml;profile=opds-catalog;kind=acquisition"/>
-                  <link rel="start" href="/api/v1/opds" type="application/atom+xml;profile=opds-catalog;kind=navigation"/>
-                  <link rel="search" type="application/opensearchdescription+xml" title="Search" href="/api/v1/opds/search.opds"/>
-                """.formatted(now(), books.size(), count));
-
-        books.forEach(book -> appendBookEntry(feed, book));
-
-        feed.append("</feed>");
-        return feed.toString();
+        OpdsFeed.Builder feed = OpdsFeed.acquisition("urn:booklore:catalog:surprise", "Surprise Me", "/api/v1/opds/surprise")
+                .openSearch((long) books.size(), 1, count);
+        books.forEach(book -> feed.bookEntry(opdsEntryCache.get(book)));
+        return feed.build(this::firstSeen);
     }
 
     public String getOpenSearchDescription() {
@@ -448,117 +218,52 @@ public class OpdsFeedService {
                 """;
     }
 
-    private void appendPaginationLinks(StringBuilder feed, HttpServletRequest request, int currentPage, int totalPages, int size) {
-        if (totalPages > 0) {
-            feed.append("  <link rel=\"first\" href=\"")
-                    .append(escapeXml(buildPaginationUrl(request, 1, size)))
-                    .append("\" type=\"application/atom+xml;profile=opds-catalog;kind=acquisition\"/>\n");
-        }
-        if (currentPage > 1) {
-            feed.append("  <link rel=\"previous\" href=\"")
-                    .append(escapeXml(buildPaginationUrl(request, currentPage - 1, size)))
-                    .append("\" type=\"application/atom+xml;profile=opds-catalog;kind=acquisition\"/>\n");
-        }
-        if (currentPage < totalPages) {
-            feed.append("  <link rel=\"next\" href=\"")
-                    .append(escapeXml(buildPaginationUrl(request, currentPage + 1, size)))
-                    .append("\" type=\"application/atom+xml;profile=opds-catalog;kind=acquisition\"/>\n");
-        }
-        if (totalPages > 0) {
-            feed.append("  <link rel=\"last\" href=\"")
-                    .append(escapeXml(buildPaginationUrl(request, totalPages, size)))
-                    .append("\" type=\"application/atom+xml;profile=opds-catalog;kind=acquisition\"/>\n");
+    /**
+     * The total is only known on the first page of a feed and the start index only without a cursor, so both are
+     * left out otherwise.
+     */
+    private OpdsFeed buildAcquisitionFeed(String id, String title, HttpServletRequest request, OpdsBookPage booksPage, String cursor, int page, int size) {
+        Integer startIndex = cursor == null || cursor.isBlank() ? ((page - 1) * size) + 1 : null;
+        OpdsFeed.Builder feed = OpdsFeed.acquisition(id, title, buildCurrentUrl(request, cursor, page, size))
+                .openSearch(booksPage.totalElements(), startIndex, size);
+        appendPaginationLinks(feed, request, booksPage.nextCursor(), size);
+        booksPage.content().forEach(book -> feed.bookEntry(opdsEntryCache.get(book)));
+        return feed.build(this::firstSeen);
+    }
+
+    // Seek pagination only knows the way forward, so there are no previous and last links
+    private void appendPaginationLinks(OpdsFeed.Builder feed, HttpServletRequest request, String next, int size) {
+        feed.link("first", buildPaginationUrl(request, null, size));
+        if (next != null) {
+            feed.link("next", buildPaginationUrl(request, next, size));
         }
     }
 
-    private String buildPaginationUrl(HttpServletRequest request, int page, int size) {
+    private String buildPaginationUrl(HttpServletRequest request, String after, int size) {
         String url = request.getRequestURI();
         StringBuilder result = new StringBuilder(url).append("?");
 
         String queryString = request.getQueryString();
         if (queryString != null) {
             java.util.Arrays.stream(queryString.split("&"))
-                    .filter(param -> !param.startsWith("page=") && !param.startsWith("size="))
+                    .filter(param -> !param.startsWith("page=") && !param.startsWith("size=") && !param.startsWith("after="))
                     .forEach(param -> result.append(param).append("&"));
         }
 
-        result.append("page=").append(page).append("&size=").append(size);
-
-        return result.toString();
-    }
-
-    private String buildCurrentUrl(HttpServletRequest request, int page, int size) {
-        return buildPaginationUrl(request, page, size);
-    }
-
-    private void appendBookEntry(StringBuilder feed, Book book) {
-        feed.append("""
-                  <entry>
-                    <title>%s</title>
-                    <id>urn:booklore:book:%d</id>
-                    <updated>%s</updated>
-                """.formatted(
-                escapeXml(book.getMetadata().getTitle()),
-                book.getId(),
-                book.getAddedOn() != null ? book.getAddedOn() : now()
-        ));
-
-        if (book.getMetadata().getAuthors() != null) {
-            book.getMetadata().getAuthors().forEach(author ->
-                    feed.append("    <author><name>").append(escapeXml(author)).append("</name></author>\n")
-            );
+        result.append("size=").append(size);
+        if (after != null) {
+            result.append("&after=").append(URLEncoder.encode(after, StandardCharsets.UTF_8));
         }
 
-        appendMetadata(feed, book);
-        appendLinks(feed, book);
-
-        feed.append("  </entry>\n");
-    }
-
-    private void appendMetadata(StringBuilder feed, Book book) {
-        var meta = book.getMetadata();
-        if (meta == null) return;
-
-        if (meta.getPublisher() != null) {
-            feed.append("    <dc:publisher>").append(escapeXml(meta.getPublisher())).append("</dc:publisher>\n");
-        }
-        if (meta.getLanguage() != null) {
-            feed.append("    <dc:language>").append(escapeXml(meta.getLanguage())).append("</dc:language>\n");
-        }
-        if (meta.getCategories() != null) {
-            meta.getCategories().forEach(cat ->
-                    feed.append("    <category term=\"").append(escapeXml(cat)).append("\"/>\n")
-            );
-        }
-        if (meta.getDescription() != null) {
-            feed.append("    <summary>").append(escapeXml(meta.getDescription())).append("</summary>\n");
-        }
-        if (meta.getIsbn10() != null) {
-            feed.append("    <dc:identifier>urn:isbn:").append(escapeXml(meta.getIsbn10())).append("</dc:identifier>\n");
-        }
-        // Series metadata
-        if (meta.getSeriesName() != null) {
-            feed.append("    <meta property=\"belongs-to-collection\" id=\"series\">")
-                    .append(escapeXml(meta.getSeriesName())).append("</meta>\n");
-            if (meta.getSeriesNumber() != null) {
-                feed.append("    <meta property=\"group-position\" refines=\"#series\">")
-                        .append(meta.getSeriesNumber()).append("</meta>\n");
-            }
-        }
+        return result.toString();
     }
 
-    private void appendLinks(StringBuilder feed, Book book) {
-        String mimeType = "application/" + fileMimeType(book);
-        feed.append("    <link href=\"/api/v1/opds/")
-                .append(book.getId()).append("/download\" rel=\"http://opds-spec.org/acquisition\" type=\"").append(mimeType).append("\"/>\n");
-
-        if (book.getMetadata() != null && book.getMetadata().getCoverUpdatedOn() != null) {
-            String coverUrl = "/api/v1/opds/" + book.getId() + "/cover?" + book.getMetadata().getCoverUpdatedOn();
-            feed.append("    <link rel=\"http://opds-spec.org/image\" href=\"")
-                    .append(escapeXml(coverUrl)).append("\" type=\"image/jpeg\"/>\n");
-            feed.append("    <link rel=\"http://opds-spec.org/image/thumbnail\" href=\"")
-                    .append(escapeXml(coverUrl)).append("\" type=\"image/jpeg\"/>\n");
+    private String buildCurrentUrl(HttpServletRequest request, String cursor, int page, int size) {
+        if (cursor != null && !cursor.isBlank()) {
+            return buildPaginationUrl(request, cursor, size);
         }
+        String url = buildPaginationUrl(request, null, size);
+        return page > 1 ? url + "&page=" + page : url;
     }
 
     private String determineFeedTitle(Long libraryId, Long shelfId, Long magicShelfId, String author, String series) {
@@ -599,28 +304,14 @@ public class OpdsFeedService {
         return "urn:booklore:catalog";
     }
 
-    private String now() {
-        return DateTimeFormatter.ISO_INSTANT.format(java.time.Instant.now());
-    }
-
-    private String fileMimeType(Book book) {
-        if (book == null || book.getBookType() == null) {
-            return "octet-stream";
+    /**
+     * The first time a feed with this ETag was served. Used as its {@code <updated>}, so it only moves when the content
+     * does and repeated requests render byte-identical documents.
+     */
+    private Instant firstSeen(String etag) {
+        synchronized (feedFirstSeen) {
+            return feedFirstSeen.computeIfAbsent(etag, key -> Instant.now());
         }
-        return switch (book.getBookType()) {
-            case PDF -> "pdf";
-            case EPUB -> "epub+zip";
-            default -> "octet-stream";
-        };
-    }
-
-    private String escapeXml(String input) {
-        return input == null ? "" :
-                input.replace("&", "&amp;")
-                        .replace("<", "&lt;")
-                        .replace(">", "&gt;")
-                        .replace("\"", "&quot;")
-                        .replace("'", "&apos;");
     }
 
     private Long parseLongParam(HttpServletRequest request, String name, Long defaultValue) {
@@ -633,6 +324,10 @@ public class OpdsFeedService {
         }
     }
 
+    private int parsePageSize(HttpServletRequest request, int defaultSize) {
+        return Math.max(1, Math.min(parseLongParam(request, "size", (long) defaultSize).intValue(), MAX_PAGE_SIZE));
+    }
+
     private Long getUserId() {
         OpdsUserDetails details = authenticationService.getOpdsUser();
         return details != null && details.getOpdsUserV2() != null
@@ -0,0 +1,86 @@
+package com.adityachandel.booklore.service.opds;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Thin Atom writer that escapes text straight into the underlying writer, so a feed is never held as one string.
+ */
+public class OpdsFeedWriter {
+
+    private final Writer out;
+
+    public OpdsFeedWriter(Writer out) {
+        this.out = out;
+    }
+
+    public OpdsFeedWriter raw(String xml) throws IOException {
+        out.write(xml);
+        return this;
+    }
+
+    public OpdsFeedWriter text(String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&apos;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.write(value, start, i - start);
+                out.write(replacement);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        return this;
+    }
+
+    /**
+     * Writes {@code <name>value</name>} on its own line.
+     */
+    public OpdsFeedWriter element(String indent, String name, Object value) throws IOException {
+        out.write(indent);
+        out.write('<');
+        out.write(name);
+        out.write('>');
+        text(value == null ? null : String.valueOf(value));
+        out.write("</");
+        out.write(name);
+        out.write(">\n");
+        return this;
+    }
+
+    public OpdsFeedWriter link(String indent, String rel, String href, String type) throws IOException {
+        out.write(indent);
+        out.write("<link rel=\"");
+        text(rel);
+        out.write("\" href=\"");
+        text(href);
+        out.write("\" type=\"");
+        text(type);
+        out.write("\"/>\n");
+        return this;
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringWriter buffer = new StringWriter(value.length() + 16);
+        try {
+            new OpdsFeedWriter(buffer).text(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return buffer.toString();
+    }
+}
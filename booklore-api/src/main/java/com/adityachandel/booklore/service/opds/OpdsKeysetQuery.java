@@ -0,0 +1,260 @@
+package com.adityachandel.booklore.service.opds;
+
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.enums.OpdsSortOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Seek pagination over book ids for the OPDS feeds. Rows are ordered in SQL by the pre-normalised sort columns of
+ * {@code book_metadata} and the book id as tie-breaker, all in one direction so a page is read straight from an index;
+ * the next page starts after the sort key of the last row, so the cost of a page doesn't grow with its depth. NULLs
+ * sort first as in MariaDB, ascending orders of nullable keys lead with a generated flag so missing values come last.
+ */
+@Component
+@RequiredArgsConstructor
+public class OpdsKeysetQuery {
+
+    private static final String NULL_VALUE = "n";
+    private static final String VALUE_PREFIX = "v";
+    private static final String SEPARATOR = "\u0000";
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param scope  restricts the books; must not join to-many associations, see {@link #distinct(Specification)}
+     * @param cursor cursor of the previous page, or null to start at {@code page}
+     * @param page   zero-based page, only used without a cursor so that old page links keep working
+     */
+    public IdPage findIds(Specification<BookEntity> scope, OpdsSortOrder sortOrder, String cursor, int page, int size) {
+        return findIds(scope, sortOrder, cursor, page, size, () -> count(scope));
+    }
+
+    /**
+     * @param total supplies the size of the whole result when the caller already knows it, e.g. from a cache
+     */
+    public IdPage findIds(Specification<BookEntity> scope, OpdsSortOrder sortOrder, String cursor, int page, int size, LongSupplier total) {
+        List<SortKey> keys = sortKeys(sortOrder);
+        List<Object> after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, keys);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<BookEntity> root = query.from(BookEntity.class);
+        // Every book has a metadata row; an inner join lets the optimizer start from the metadata sort index
+        boolean byMetadata = keys.getFirst().metadata();
+        Join<Object, Object> metadata = root.join("metadata", byMetadata ? JoinType.INNER : JoinType.LEFT);
+
+        List<Expression<?>> paths = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            Expression<?> path = key.metadata() ? metadata.get(key.attribute()) : root.get(key.attribute());
+            paths.add(path);
+            orders.add(key.ascending() ? cb.asc(path) : cb.desc(path));
+        }
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(notDeleted(root, cb));
+        if (scope != null) {
+            predicates.add(scope.toPredicate(root, query, cb));
+        }
+        if (after != null) {
+            predicates.add(after(cb, keys, paths, after));
+        }
+
+        query.multiselect(paths.toArray(new Selection[0]))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setMaxResults(size + 1);
+        if (after == null && page > 0) {
+            typedQuery.setFirstResult(page * size);
+        }
+        List<Tuple> rows = typedQuery.getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<Tuple> pageRows = hasNext ? rows.subList(0, size) : rows;
+        List<Long> ids = pageRows.stream().map(row -> row.get(keys.size() - 1, Long.class)).toList();
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = pageRows.getLast();
+            List<Object> values = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                values.add(last.get(i));
+            }
+            nextCursor = encodeCursor(values);
+        }
+        // Counting is a full scan of the scope, so it is only done for the entry page of a feed
+        Long totalElements = after == null && page == 0 ? (hasNext ? total.getAsLong() : (long) ids.size()) : null;
+        return new IdPage(ids, nextCursor, totalElements);
+    }
+
+    /**
+     * Wraps a specification that may join to-many associations into an id subquery, so it matches each book once.
+     */
+    public static Specification<BookEntity> distinct(Specification<BookEntity> specification) {
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<BookEntity> subRoot = subquery.from(BookEntity.class);
+            subquery.select(subRoot.get("id")).where(specification.toPredicate(subRoot, query, cb));
+            return root.get("id").in(subquery);
+        };
+    }
+
+    private long count(Specification<BookEntity> scope) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<BookEntity> root = query.from(BookEntity.class);
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(notDeleted(root, cb));
+        if (scope != null) {
+            predicates.add(scope.toPredicate(root, query, cb));
+        }
+        query.select(cb.count(root)).where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate notDeleted(Root<BookEntity> root, CriteriaBuilder cb) {
+        return cb.or(cb.isNull(root.get("deleted")), cb.isFalse(root.get("deleted")));
+    }
+
+    /**
+     * Rows strictly after the cursor: for some key i, all earlier keys are equal and key i comes later, where null
+     * sorts before every value of a nullable key.
+     */
+    private Predicate after(CriteriaBuilder cb, List<SortKey> keys, List<Expression<?>> paths, List<Object> values) {
+        List<Predicate> branches = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            SortKey key = keys.get(i);
+            Expression<?> path = paths.get(i);
+            Object value = values.get(i);
+            Predicate later;
+            if (value != null) {
+                later = greater(cb, path, value, key.ascending());
+                if (key.nullable() && !key.ascending()) {
+                    later = cb.or(later, cb.isNull(path));
+                }
+            } else {
+                later = key.nullable() && key.ascending() ? cb.isNotNull(path) : null;
+            }
+            if (later != null) {
+                List<Predicate> branch = new ArrayList<>(equalSoFar);
+                branch.add(later);
+                branches.add(cb.and(branch.toArray(new Predicate[0])));
+            }
+            equalSoFar.add(value != null ? cb.equal(path, value) : cb.isNull(path));
+        }
+        return branches.isEmpty() ? cb.disjunction() : cb.or(branches.toArray(new Predicate[0]));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate greater(CriteriaBuilder cb, Expression<?> path, Object value, boolean ascending) {
+        Expression<Comparable> comparable = (Expression<Comparable>) path;
+        return ascending ? cb.greaterThan(comparable, (Comparable) value) : cb.lessThan(comparable, (Comparable) value);
+    }
+
+    static List<SortKey> sortKeys(OpdsSortOrder sortOrder) {
+        List<SortKey> keys = new ArrayList<>();
+        switch (sortOrder == null ? OpdsSortOrder.RECENT : sortOrder) {
+            case RECENT -> keys.add(new SortKey("addedOn", false, false, true, Instant.class));
+            case TITLE_ASC, TITLE_DESC ->
+                    keys.add(new SortKey("titleSort", true, sortOrder == OpdsSortOrder.TITLE_ASC, false, String.class));
+            case AUTHOR_ASC, AUTHOR_DESC ->
+                    keys.add(new SortKey("authorSort", true, sortOrder == OpdsSortOrder.AUTHOR_ASC, false, String.class));
+            case SERIES_ASC -> {
+                keys.add(new SortKey("seriesMissing", true, true, false, Integer.class));
+                keys.add(new SortKey("seriesSort", true, true, true, String.class));
+                keys.add(new SortKey("seriesNumberMissing", true, true, false, Integer.class));
+                keys.add(new SortKey("seriesNumber", true, true, true, Float.class));
+            }
+            case SERIES_DESC -> {
+                keys.add(new SortKey("seriesSort", true, false, true, String.class));
+                keys.add(new SortKey("seriesNumber", true, false, true, Float.class));
+            }
+            case RATING_ASC -> {
+                keys.add(new SortKey("ratingMissing", true, true, false, Integer.class));
+                keys.add(new SortKey("ratingSort", true, true, true, Double.class));
+            }
+            case RATING_DESC -> keys.add(new SortKey("ratingSort", true, false, true, Double.class));
+        }
+        // Same table and direction as the other keys, matching the (sort key, id) indexes
+        SortKey first = keys.getFirst();
+        keys.add(new SortKey(first.metadata() ? "bookId" : "id", first.metadata(), first.ascending(), false, Long.class));
+        return keys;
+    }
+
+    static String encodeCursor(List<Object> values) {
+        List<String> parts = new ArrayList<>(values.size());
+        for (Object value : values) {
+            parts.add(value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<Object> decodeCursor(String cursor, List<SortKey> keys) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != keys.size()) {
+                throw new IllegalArgumentException("Cursor does not match the sort order");
+            }
+            List<Object> values = new ArrayList<>(parts.length);
+            for (int i = 0; i < parts.length; i++) {
+                values.add(parseValue(parts[i], keys.get(i).type()));
+            }
+            return values;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw ApiError.INVALID_INPUT.createException("Invalid page cursor");
+        }
+    }
+
+    private static Object parseValue(String part, Class<?> type) {
+        if (NULL_VALUE.equals(part)) {
+            return null;
+        }
+        if (!part.startsWith(VALUE_PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor value");
+        }
+        String value = part.substring(VALUE_PREFIX.length());
+        if (type == Instant.class) return Instant.parse(value);
+        if (type == Long.class) return Long.parseLong(value);
+        if (type == Integer.class) return Integer.parseInt(value);
+        if (type == Double.class) return Double.parseDouble(value);
+        if (type == Float.class) return Float.parseFloat(value);
+        return value;
+    }
+
+    /**
+     * @param metadata whether the attribute lives on the book's metadata rather than the book itself
+     */
+    record SortKey(String attribute, boolean metadata, boolean ascending, boolean nullable, Class<?> type) {
+    }
+
+    /**
+     * @param nextCursor    cursor for the following page, or null on the last page
+     * @param totalElements size of the whole result, only known on the first page
+     */
+    public record IdPage(List<Long> ids, String nextCursor, Long totalElements) {
+    }
+}
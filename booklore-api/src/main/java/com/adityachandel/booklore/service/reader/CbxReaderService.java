@@ -2,13 +2,16 @@ package com.adityachandel.booklore.service.reader;
 
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
 import com.github.junrar.Archive;
 import com.github.junrar.exception.RarException;
 import com.github.junrar.rarfile.FileHeader;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
@@ -48,6 +51,7 @@ public class CbxReaderService {
     private final BookRepository bookRepository;
     private final AppSettingService appSettingService;
     private final FileService fileService;
+    private final BookloreMetrics bookloreMetrics;
 
     public List<Integer> getAvailablePages(Long bookId) {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
@@ -66,8 +70,11 @@ public class CbxReaderService {
             }
             enforceCacheLimit();
 
-            if (needsCacheRefresh(cbzPath, cacheInfoPath)) {
+            boolean refresh = needsCacheRefresh(cbzPath, cacheInfoPath);
+            bookloreMetrics.recordReaderCache(BookFileType.CBX, !refresh);
+            if (refresh) {
                 log.info("Invalidating cache for book {}", bookId);
+                Timer.Sample sample = bookloreMetrics.startTimer();
                 if (Files.exists(cacheDir)) FileUtils.deleteDirectoryRecursively(cacheDir);
                 Files.createDirectories(cacheDir);
                 extractCbxArchive(cbzPath, cacheDir);
@@ -78,6 +85,7 @@ public class CbxReaderService {
                     extractCbxArchive(cbzPath, cacheDir);
                     writeCacheInfo(cbzPath, cacheInfoPath);
                 }
+                bookloreMetrics.recordReaderExtraction(sample, BookFileType.CBX);
             }
         } catch (IOException e) {
             log.error("Failed to cache CBZ for book {}", bookId, e);
@@ -2,10 +2,13 @@ package com.adityachandel.booklore.service.reader;
 
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
@@ -36,6 +39,7 @@ public class PdfReaderService {
     private final BookRepository bookRepository;
     private final AppSettingService appSettingService;
     private final FileService fileService;
+    private final BookloreMetrics bookloreMetrics;
 
     public List<Integer> getAvailablePages(Long bookId) throws IOException {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
@@ -52,12 +56,16 @@ public class PdfReaderService {
         }
 
         try {
-            if (needsCacheRefresh(pdfPath, cacheInfoPath)) {
+            boolean refresh = needsCacheRefresh(pdfPath, cacheInfoPath);
+            bookloreMetrics.recordReaderCache(BookFileType.PDF, !refresh);
+            if (refresh) {
                 log.info("Invalidating cache for PDF book {}", bookId);
+                Timer.Sample sample = bookloreMetrics.startTimer();
                 if (Files.exists(cacheDir)) FileUtils.deleteDirectoryRecursively(cacheDir);
                 Files.createDirectories(cacheDir);
                 extractPdfPages(pdfPath, cacheDir);
                 writeCacheInfo(pdfPath, cacheInfoPath);
+                bookloreMetrics.recordReaderExtraction(sample, BookFileType.PDF);
             }
 
             try (Stream<Path> stream = Files.list(cacheDir)) {
@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -63,6 +64,15 @@ public class TaskHistoryService {
         });
     }
 
+    @Transactional
+    public void updateTaskTimings(String taskId, Duration queueWait, Duration runTime) {
+        taskHistoryRepository.findById(taskId).ifPresent(task -> {
+            task.setQueueWaitMs(queueWait.toMillis());
+            task.setRunTimeMs(runTime == null ? null : runTime.toMillis());
+            taskHistoryRepository.save(task);
+        });
+    }
+
     @Transactional(readOnly = true)
     public TasksHistoryResponse getLatestTasksForEachType() {
         List<TaskHistoryEntity> latestTasks;
@@ -115,6 +125,8 @@ public class TaskHistoryService {
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .completedAt(task.getCompletedAt())
+                .queueWaitMs(task.getQueueWaitMs())
+                .runTimeMs(task.getRunTimeMs())
                 .build();
     }
 
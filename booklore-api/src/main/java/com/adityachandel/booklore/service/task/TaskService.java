@@ -11,6 +11,8 @@ import com.adityachandel.booklore.model.entity.TaskCronConfigurationEntity;
 import com.adityachandel.booklore.model.enums.TaskType;
 import com.adityachandel.booklore.task.tasks.Task;
 import com.adityachandel.booklore.task.TaskCancellationManager;
+import com.adityachandel.booklore.task.TaskPriority;
+import com.adityachandel.booklore.task.TaskResourceScheduler;
 import com.adityachandel.booklore.task.TaskStatus;
 import com.adityachandel.booklore.util.SecurityContextVirtualThread;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,6 +26,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TaskService {
 
+    /**
+     * Sync tasks hold an HTTP request open, so they fail fast instead of queueing behind a long rescan.
+     */
+    private static final Duration SYNC_PERMIT_TIMEOUT = Duration.ofSeconds(30);
+
     private final AuthenticationService authenticationService;
     private final TaskHistoryService taskHistoryService;
     private final TaskCronService taskCronService;
@@ -48,6 +56,7 @@ public class TaskService {
     private final Executor taskExecutor;
     private final ObjectMapper objectMapper;
     private final TaskScheduler taskScheduler;
+    private final TaskResourceScheduler resourceScheduler;
     private final Map<TaskType, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
 
     public TaskService(
@@ -58,7 +67,8 @@ public class TaskService {
             TaskCancellationManager cancellationManager,
             Executor taskExecutor,
             ObjectMapper objectMapper,
-            TaskScheduler taskScheduler) {
+            TaskScheduler taskScheduler,
+            TaskResourceScheduler resourceScheduler) {
         this.authenticationService = authenticationService;
         this.taskHistoryService = taskHistoryService;
         this.taskCronService = taskCronService;
@@ -67,6 +77,7 @@ public class TaskService {
         this.taskExecutor = taskExecutor;
         this.objectMapper = objectMapper;
         this.taskScheduler = taskScheduler;
+        this.resourceScheduler = resourceScheduler;
     }
 
     public void initializeScheduledTasks() {
@@ -183,6 +194,8 @@ public class TaskService {
 
     private TaskCreateResponse runAsync(TaskCreateRequest request, BookLoreUser user, TaskType taskType) {
         String taskId = initializeTask(request, user, taskType);
+        TaskPriority priority = resolvePriority(request, taskType);
+        long queuedAt = System.nanoTime();
         TaskCreateResponse response = TaskCreateResponse.builder()
                 .taskId(taskId)
                 .taskType(taskType)
@@ -191,7 +204,7 @@ public class TaskService {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         taskExecutor.execute(() ->
                 SecurityContextVirtualThread.runWithSecurityContext(securityContext, () ->
-                        executeAsyncTask(taskId, request, taskType)
+                        executeAsyncTask(taskId, request, taskType, priority, queuedAt)
                 )
         );
         return response;
@@ -213,8 +226,53 @@ public class TaskService {
                 .build();
     }
 
-    private void executeAsyncTask(String taskId, TaskCreateRequest request, TaskType taskType) {
-        try {
+    public void pauseTask(String taskId) {
+        requireRunning(taskId);
+        cancellationManager.pauseTask(taskId);
+        taskHistoryService.updateTaskStatus(taskId, TaskStatus.IN_PROGRESS, "Task paused");
+        log.info("Task {} paused", taskId);
+    }
+
+    public void resumeTask(String taskId) {
+        requireRunning(taskId);
+        cancellationManager.resumeTask(taskId);
+        taskHistoryService.updateTaskStatus(taskId, TaskStatus.IN_PROGRESS, "Task resumed");
+        log.info("Task {} resumed", taskId);
+    }
+
+    public void throttleTask(String taskId, Duration delay) {
+        requireRunning(taskId);
+        cancellationManager.throttleTask(taskId, delay);
+        log.info("Task {} throttled to a {} ms delay per step", taskId, delay == null ? 0 : delay.toMillis());
+    }
+
+    private void requireRunning(String taskId) {
+        if (!runningTasks.containsValue(taskId)) {
+            throw new APIException("Task not found or not running: " + taskId, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Cron runs yield to anything a user started.
+     */
+    private TaskPriority resolvePriority(TaskCreateRequest request, TaskType taskType) {
+        return request.isTriggeredByCron() ? TaskPriority.BACKGROUND : taskType.getPriority();
+    }
+
+    private void recordTimings(String taskId, TaskType taskType, long queuedAt, long startedAt) {
+        long now = System.nanoTime();
+        Duration queueWait = Duration.ofNanos((startedAt == 0 ? now : startedAt) - queuedAt);
+        Duration runTime = startedAt == 0 ? null : Duration.ofNanos(now - startedAt);
+        log.info("{}: Task {} waited {} ms for {} and ran {} ms", taskType, taskId, queueWait.toMillis(),
+                taskType.getResourceClass(), runTime == null ? 0 : runTime.toMillis());
+        taskHistoryService.updateTaskTimings(taskId, queueWait, runTime);
+    }
+
+    private void executeAsyncTask(String taskId, TaskCreateRequest request, TaskType taskType, TaskPriority priority, long queuedAt) {
+        long startedAt = 0;
+        try (TaskResourceScheduler.Permit permit = resourceScheduler.acquire(taskType.getResourceClass(), priority, () -> cancellationManager.isTaskCancelled(taskId))) {
+            cancellationManager.registerPermit(taskId, permit);
+            startedAt = System.nanoTime();
             taskHistoryService.updateTaskStatus(taskId, TaskStatus.IN_PROGRESS, "Task execution started");
             request.setTaskId(taskId);
             if (cancellationManager.isTaskCancelled(taskId)) {
@@ -230,9 +288,13 @@ public class TaskService {
                 taskHistoryService.updateTaskStatus(taskId, TaskStatus.COMPLETED, "Task completed successfully");
             }
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Async task {} of type {} failed", taskId, taskType, e);
             taskHistoryService.updateTaskError(taskId, e.getMessage());
         } finally {
+            recordTimings(taskId, taskType, queuedAt, startedAt);
             if (!taskType.isParallel()) {
                 runningTasks.remove(taskType);
             }
@@ -242,7 +304,10 @@ public class TaskService {
 
     private TaskCreateResponse runSync(TaskCreateRequest request, BookLoreUser user, TaskType taskType) {
         String taskId = initializeTask(request, user, taskType);
-        try {
+        long queuedAt = System.nanoTime();
+        long startedAt = 0;
+        try (TaskResourceScheduler.Permit ignored = acquireSyncPermit(request, taskType)) {
+            startedAt = System.nanoTime();
             taskHistoryService.updateTaskStatus(taskId, TaskStatus.IN_PROGRESS, "Task execution started");
             request.setTaskId(taskId);
             TaskCreateResponse response = executeTask(request);
@@ -254,6 +319,7 @@ public class TaskService {
             taskHistoryService.updateTaskError(taskId, e.getMessage());
             throw e;
         } finally {
+            recordTimings(taskId, taskType, queuedAt, startedAt);
             if (!taskType.isParallel()) {
                 runningTasks.remove(taskType);
             }
@@ -277,6 +343,19 @@ public class TaskService {
         return taskId;
     }
 
+    private TaskResourceScheduler.Permit acquireSyncPermit(TaskCreateRequest request, TaskType taskType) {
+        try {
+            TaskResourceScheduler.Permit permit = resourceScheduler.acquire(taskType.getResourceClass(), resolvePriority(request, taskType), SYNC_PERMIT_TIMEOUT);
+            if (permit == null) {
+                throw new APIException("Too many " + taskType.getResourceClass() + " tasks are running, try " + taskType + " again later", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIException("Interrupted while waiting to run " + taskType, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private Map<String, Object> convertOptionsToMap(Object options) {
         if (options == null) {
@@ -9,6 +9,7 @@ import com.adityachandel.booklore.model.enums.PermissionType;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.util.FileUtils;
 import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
@@ -20,6 +21,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.adityachandel.booklore.model.enums.PermissionType.ADMIN;
 import static com.adityachandel.booklore.model.enums.PermissionType.MANAGE_LIBRARY;
@@ -33,6 +35,7 @@ public class BookFilePersistenceService {
     private final BookRepository bookRepository;
     private final NotificationService notificationService;
     private final BookMapper bookMapper;
+    private final BookChangeService bookChangeService;
 
     @Transactional
     public void updatePathIfChanged(BookEntity book, LibraryEntity libraryEntity, Path path, String currentHash) {
@@ -52,7 +55,8 @@ public class BookFilePersistenceService {
         } else {
             log.info("[FILE_CREATE] Book with hash '{}' already exists at same path. Skipping update.", currentHash);
         }
-        notificationService.sendMessageToPermissions(Topic.BOOK_ADD, bookMapper.toBookWithDescription(book, false), Set.of(ADMIN, MANAGE_LIBRARY));
+        notificationService.sendMessageToPermissions(Topic.BOOK_ADD, bookMapper.toBookWithDescription(book, false), Set.of(ADMIN, MANAGE_LIBRARY),
+                bookChangeService.recordChange(book.getId()));
     }
 
     String findMatchingLibraryPath(LibraryEntity libraryEntity, Path filePath) {
@@ -82,12 +86,19 @@ public class BookFilePersistenceService {
         String normalizedPrefix = relativeFolderPath.endsWith("/") ? relativeFolderPath : (relativeFolderPath + "/");
 
         List<BookEntity> books = bookRepository.findAllByLibraryPathIdAndFileSubPathStartingWith(libraryPathId, normalizedPrefix);
+        if (books.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
         books.forEach(book -> {
             book.setDeleted(true);
-            book.setDeletedAt(Instant.now());
+            book.setDeletedAt(now);
         });
 
         bookRepository.saveAll(books);
+        Set<Long> bookIds = books.stream().map(BookEntity::getId).collect(Collectors.toSet());
+        notificationService.sendMessageToPermissions(Topic.BOOKS_REMOVE, bookIds, Set.of(ADMIN, MANAGE_LIBRARY),
+                bookChangeService.recordChanges(bookIds));
         return books.size();
     }
 
@@ -9,6 +9,7 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.file.FileFingerprint;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.util.FileUtils;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -34,6 +35,7 @@ public class LibraryFileEventProcessor {
     private final BookFileTransactionalHandler bookFileTransactionalHandler;
     private final BookFilePersistenceService bookFilePersistenceService;
     private final NotificationService notificationService;
+    private final BookChangeService bookChangeService;
 
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
     private final ConcurrentMap<Path, ScheduledFuture<?>> pendingDeletes = new ConcurrentHashMap<>();
@@ -136,7 +138,7 @@ public class LibraryFileEventProcessor {
                         book.setDeleted(true);
                         bookFilePersistenceService.save(book);
                         notificationService.sendMessageToPermissions(Topic.BOOKS_REMOVE, Set.of(book.getId()),
-                                Set.of(PermissionType.ADMIN, PermissionType.MANAGE_LIBRARY));
+                                Set.of(PermissionType.ADMIN, PermissionType.MANAGE_LIBRARY), bookChangeService.recordChange(book.getId()));
                         log.info("[MARKED_DELETED] Book '{}' marked as deleted", fileName);
                     }, () -> log.warn("[NOT_FOUND] Book for deleted path '{}' not found", path));
 
@@ -2,13 +2,20 @@ package com.adityachandel.booklore.task;
 
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class TaskCancellationManager {
 
+    private static final long PAUSE_POLL_MS = 500;
+
     private final Set<String> cancelledTasks = ConcurrentHashMap.newKeySet();
+    private final Set<String> pausedTasks = ConcurrentHashMap.newKeySet();
+    private final Map<String, Duration> throttledTasks = new ConcurrentHashMap<>();
+    private final Map<String, TaskResourceScheduler.Permit> permits = new ConcurrentHashMap<>();
 
     public void cancelTask(String taskId) {
         cancelledTasks.add(taskId);
@@ -20,6 +27,71 @@ public class TaskCancellationManager {
 
     public void clearCancellation(String taskId) {
         cancelledTasks.remove(taskId);
+        pausedTasks.remove(taskId);
+        throttledTasks.remove(taskId);
+        permits.remove(taskId);
+    }
+
+    /**
+     * The permit the task runs under, handed back while the task is paused.
+     */
+    public void registerPermit(String taskId, TaskResourceScheduler.Permit permit) {
+        if (permit != null) {
+            permits.put(taskId, permit);
+        }
+    }
+
+    public void pauseTask(String taskId) {
+        pausedTasks.add(taskId);
+    }
+
+    public void resumeTask(String taskId) {
+        pausedTasks.remove(taskId);
+    }
+
+    public boolean isTaskPaused(String taskId) {
+        return pausedTasks.contains(taskId);
     }
-}
 
+    /**
+     * Makes the task wait this long at every checkpoint. A zero or null delay removes the throttle.
+     */
+    public void throttleTask(String taskId, Duration delay) {
+        if (delay == null || delay.isZero() || delay.isNegative()) {
+            throttledTasks.remove(taskId);
+        } else {
+            throttledTasks.put(taskId, delay);
+        }
+    }
+
+    /**
+     * Blocks while the task is paused, then applies its throttle delay. Long-running tasks call this wherever they
+     * check for cancellation. Returns early once the task is cancelled. A paused task releases its resource permit,
+     * so it does not hold up other tasks of its class, and queues for it again on resume.
+     */
+    public void checkpoint(String taskId) {
+        if (taskId == null) {
+            return;
+        }
+        try {
+            if (pausedTasks.contains(taskId) && !isTaskCancelled(taskId)) {
+                TaskResourceScheduler.Permit permit = permits.get(taskId);
+                if (permit != null) {
+                    permit.suspend();
+                }
+                while (pausedTasks.contains(taskId) && !isTaskCancelled(taskId)) {
+                    Thread.sleep(PAUSE_POLL_MS);
+                }
+                if (permit != null) {
+                    permit.resume(() -> isTaskCancelled(taskId));
+                }
+            }
+            Duration delay = throttledTasks.get(taskId);
+            if (delay != null && !isTaskCancelled(taskId)) {
+                Thread.sleep(delay.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.adityachandel.booklore.task;
+
+/**
+ * Order in which waiting tasks get a permit, highest first.
+ */
+public enum TaskPriority {
+    INTERACTIVE,
+    USER,
+    BACKGROUND
+}
@@ -0,0 +1,21 @@
+package com.adityachandel.booklore.task;
+
+import lombok.Getter;
+
+/**
+ * The resource a task mostly competes for. Each class has its own permits in {@link TaskResourceScheduler}.
+ */
+@Getter
+public enum TaskResourceClass {
+
+    DISK_IO(1),
+    CPU(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+    NETWORK(2),
+    DB(2);
+
+    private final int defaultPermits;
+
+    TaskResourceClass(int defaultPermits) {
+        this.defaultPermits = defaultPermits;
+    }
+}
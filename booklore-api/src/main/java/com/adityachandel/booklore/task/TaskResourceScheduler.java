@@ -0,0 +1,166 @@
+package com.adityachandel.booklore.task;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits how many tasks use each {@link TaskResourceClass} at once, so a rescan, a metadata refresh and a cache
+ * cleanup queue up behind each other instead of starving reader requests of disk and database connections.
+ * Waiters are served by {@link TaskPriority}, then in arrival order.
+ */
+@Component
+public class TaskResourceScheduler {
+
+    private static final long ABANDON_POLL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<TaskResourceClass, Pool> pools = new EnumMap<>(TaskResourceClass.class);
+
+    public TaskResourceScheduler() {
+        for (TaskResourceClass resourceClass : TaskResourceClass.values()) {
+            pools.put(resourceClass, new Pool(resourceClass.getDefaultPermits()));
+        }
+    }
+
+    /**
+     * Blocks until a permit is free and no waiter with a higher priority or an earlier arrival is ahead.
+     * Returns null if {@code abandoned} becomes true while waiting, e.g. because the task was cancelled.
+     */
+    public Permit acquire(TaskResourceClass resourceClass, TaskPriority priority, BooleanSupplier abandoned) throws InterruptedException {
+        Pool pool = pools.get(resourceClass);
+        Permit permit = new Permit(pool, priority);
+        return pool.take(permit, abandoned, Long.MAX_VALUE) ? permit : null;
+    }
+
+    /**
+     * Like {@link #acquire(TaskResourceClass, TaskPriority, BooleanSupplier)}, but returns null once {@code timeout}
+     * has passed without a permit, for callers that must not queue indefinitely.
+     */
+    public Permit acquire(TaskResourceClass resourceClass, TaskPriority priority, Duration timeout) throws InterruptedException {
+        Pool pool = pools.get(resourceClass);
+        Permit permit = new Permit(pool, priority);
+        return pool.take(permit, () -> false, System.nanoTime() + timeout.toNanos()) ? permit : null;
+    }
+
+    public int getWaiting(TaskResourceClass resourceClass) {
+        Pool pool = pools.get(resourceClass);
+        pool.lock.lock();
+        try {
+            return pool.waiters.size();
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    /**
+     * A held permit. A paused task hands it back with {@link #suspend()} so other tasks of its class can run, and
+     * queues for it again at its original priority with {@link #resume(BooleanSupplier)}.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Pool pool;
+        private final TaskPriority priority;
+        private boolean held;
+        private boolean closed;
+
+        private Permit(Pool pool, TaskPriority priority) {
+            this.pool = pool;
+            this.priority = priority;
+        }
+
+        public void suspend() {
+            pool.lock.lock();
+            try {
+                pool.release(this);
+            } finally {
+                pool.lock.unlock();
+            }
+        }
+
+        /**
+         * Returns false if {@code abandoned} becomes true before the permit is held again.
+         */
+        public boolean resume(BooleanSupplier abandoned) throws InterruptedException {
+            pool.lock.lock();
+            try {
+                return !closed && pool.take(this, abandoned, Long.MAX_VALUE);
+            } finally {
+                pool.lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            pool.lock.lock();
+            try {
+                closed = true;
+                pool.release(this);
+            } finally {
+                pool.lock.unlock();
+            }
+        }
+    }
+
+    private static final class Pool {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+                Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+        private int available;
+        private long sequence;
+
+        private Pool(int permits) {
+            this.available = permits;
+        }
+
+        /**
+         * Waits until {@code permit} is held, by this call or by another thread of the same task resuming it.
+         * {@code deadline} is a {@link System#nanoTime()} value, {@code Long.MAX_VALUE} waits without limit.
+         */
+        private boolean take(Permit permit, BooleanSupplier abandoned, long deadline) throws InterruptedException {
+            lock.lock();
+            try {
+                Waiter waiter = new Waiter(permit.priority, sequence++);
+                waiters.add(waiter);
+                try {
+                    while (!permit.held && (available == 0 || waiters.peek() != waiter)) {
+                        long remaining = deadline == Long.MAX_VALUE ? ABANDON_POLL_NANOS : deadline - System.nanoTime();
+                        if (abandoned.getAsBoolean() || remaining <= 0) {
+                            return false;
+                        }
+                        changed.awaitNanos(Math.min(remaining, ABANDON_POLL_NANOS));
+                    }
+                    if (!permit.held) {
+                        available--;
+                        permit.held = true;
+                    }
+                    return true;
+                } finally {
+                    waiters.remove(waiter);
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(Permit permit) {
+            if (permit.held) {
+                permit.held = false;
+                available++;
+                changed.signalAll();
+            }
+        }
+    }
+
+    private record Waiter(TaskPriority priority, long sequence) {
+    }
+}
@@ -3,7 +3,12 @@ package com.adityachandel.booklore.task.tasks;
 import com.adityachandel.booklore.model.dto.request.TaskCreateRequest;
 import com.adityachandel.booklore.model.dto.response.TaskCreateResponse;
 import com.adityachandel.booklore.model.enums.TaskType;
+import com.adityachandel.booklore.model.websocket.TaskProgressPayload;
+import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.library.BookDeletionService;
+import com.adityachandel.booklore.service.library.BookFileCleanupService;
 import com.adityachandel.booklore.task.TaskStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +16,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
@@ -18,27 +24,47 @@ import java.util.UUID;
 @Slf4j
 public class DeletedBooksCleanupTask implements Task {
 
+    private static final long MIN_NOTIFICATION_INTERVAL_MS = 250;
+
     private final BookRepository bookRepository;
+    private final BookDeletionService bookDeletionService;
+    private final BookFileCleanupService bookFileCleanupService;
+    private final NotificationService notificationService;
 
     @Override
     public TaskCreateResponse execute(TaskCreateRequest request) {
+        String taskId = request.getTaskId() != null ? request.getTaskId() : UUID.randomUUID().toString();
         TaskCreateResponse.TaskCreateResponseBuilder builder = TaskCreateResponse.builder()
-                .taskId(UUID.randomUUID().toString())
+                .taskId(taskId)
                 .taskType(getTaskType());
 
         long startTime = System.currentTimeMillis();
         log.info("{}: Task started", getTaskType());
 
         try {
-            int deletedCount;
-            if (request.isTriggeredByCron()) {
-                Instant cutoff = Instant.now().minus(7, ChronoUnit.DAYS);
-                deletedCount = bookRepository.deleteSoftDeletedBefore(cutoff);
+            long pending = Math.max(1, bookRepository.countAllSoftDeleted());
+            long[] lastNotificationTime = {sendTaskProgressNotification(taskId, 0, "Purging deleted books", TaskStatus.IN_PROGRESS, 0, true)};
+            Instant cutoff = request.isTriggeredByCron() ? Instant.now().minus(7, ChronoUnit.DAYS) : null;
+
+            int deletedCount = bookDeletionService.purgeSoftDeleted(cutoff, purged ->
+                    lastNotificationTime[0] = sendTaskProgressNotification(taskId, (int) Math.min(99, purged * 100L / pending),
+                            String.format("Purged %d deleted books", purged), TaskStatus.IN_PROGRESS, lastNotificationTime[0], false));
+            if (cutoff != null) {
                 log.info("{}: Removed {} deleted books older than {}", getTaskType(), deletedCount, cutoff);
             } else {
-                deletedCount = bookRepository.deleteAllSoftDeleted();
                 log.info("{}: Removed all {} deleted books (on-demand execution)", getTaskType(), deletedCount);
             }
+
+            Set<Long> orphans = bookFileCleanupService.findOrphans();
+            if (!orphans.isEmpty()) {
+                log.warn("{}: Found files of {} books that no longer exist, queued them for cleanup", getTaskType(), orphans.size());
+                bookFileCleanupService.enqueueBooks(orphans);
+            }
+
+            sendTaskProgressNotification(taskId, 100,
+                    String.format("Purged %d deleted books and found %d orphaned book folders, files are removed in the background",
+                            deletedCount, orphans.size()),
+                    TaskStatus.COMPLETED, lastNotificationTime[0], true);
             builder.status(TaskStatus.COMPLETED);
         } catch (Exception e) {
             log.error("{}: Error cleaning up deleted books", getTaskType(), e);
@@ -51,6 +77,25 @@ public class DeletedBooksCleanupTask implements Task {
         return builder.build();
     }
 
+    private long sendTaskProgressNotification(String taskId, int progress, String message, TaskStatus taskStatus, long lastNotificationTime, boolean force) {
+        long currentTime = System.currentTimeMillis();
+        if (force || (currentTime - lastNotificationTime) >= MIN_NOTIFICATION_INTERVAL_MS) {
+            try {
+                notificationService.sendMessage(Topic.TASK_PROGRESS, TaskProgressPayload.builder()
+                        .taskId(taskId)
+                        .taskType(getTaskType())
+                        .message(message)
+                        .progress(progress)
+                        .taskStatus(taskStatus)
+                        .build());
+                return currentTime;
+            } catch (Exception e) {
+                log.error("Failed to send task progress notification for taskId={}: {}", taskId, e.getMessage(), e);
+            }
+        }
+        return lastNotificationTime;
+    }
+
     @Override
     public TaskType getTaskType() {
         return TaskType.CLEANUP_DELETED_BOOKS;
@@ -59,6 +104,8 @@ public class DeletedBooksCleanupTask implements Task {
     @Override
     public String getMetadata() {
         long deleted = bookRepository.countAllSoftDeleted();
-        return "Book" + (deleted != 1 ? "s" : "") + " pending cleanup: " + deleted;
+        int removingFiles = bookFileCleanupService.progress().pending();
+        return "Book" + (deleted != 1 ? "s" : "") + " pending cleanup: " + deleted
+                + (removingFiles > 0 ? ", removing files of " + removingFiles : "");
     }
-}
\ No newline at end of file
+}
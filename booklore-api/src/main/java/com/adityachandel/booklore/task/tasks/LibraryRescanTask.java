@@ -37,6 +37,7 @@ public class LibraryRescanTask implements Task {
         List<Library> libraries = libraryService.getAllLibraries();
 
         for (Library library : libraries) {
+            cancellationManager.checkpoint(taskId);
             if (cancellationManager.isTaskCancelled(taskId)) {
                 log.info("{}: Task {} was cancelled, stopping execution", getTaskType(), taskId);
                 break;
@@ -4,6 +4,8 @@ import com.adityachandel.booklore.model.entity.AuthorEntity;
 import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import lombok.experimental.UtilityClass;
 
+import java.util.Comparator;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 @UtilityClass
@@ -13,6 +15,7 @@ public class BookUtils {
     private static final Pattern SPECIAL_CHARACTERS_PATTERN = Pattern.compile("[!@$%^&*_=|~`<>?/\"]");
     private static final Pattern DIACRITICAL_MARKS_PATTERN = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
     private static final Pattern PARENTHESIS_PATTERN = Pattern.compile("\\s?\\([^()]*\\)");
+    private static final int SORT_KEY_LENGTH = 255;
 
     public static String buildSearchText(BookMetadataEntity e) {
         if (e == null) return null;
@@ -37,6 +40,46 @@ public class BookUtils {
         return normalizeForSearch(sb.toString().trim());
     }
 
+    /**
+     * Normalised, length-capped key for the sort columns, so ordering in SQL ignores case and diacritics.
+     */
+    public static String buildSortKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = normalizeForSearch(value).trim();
+        return key.length() > SORT_KEY_LENGTH ? key.substring(0, SORT_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Sort key of the alphabetically first author, or an empty string for books without authors.
+     */
+    public static String buildAuthorSortKey(Set<AuthorEntity> authors) {
+        if (authors == null) {
+            return "";
+        }
+        return authors.stream()
+                .filter(author -> author != null && author.getName() != null)
+                .map(author -> buildSortKey(author.getName()))
+                .min(Comparator.naturalOrder())
+                .orElse("");
+    }
+
+    /**
+     * Average of the positive external ratings, or null when there are none.
+     */
+    public static Double averageRating(BookMetadataEntity e) {
+        double sum = 0;
+        int count = 0;
+        for (Double rating : new Double[]{e.getHardcoverRating(), e.getAmazonRating(), e.getGoodreadsRating()}) {
+            if (rating != null && rating > 0) {
+                sum += rating;
+                count++;
+            }
+        }
+        return count == 0 ? null : sum / count;
+    }
+
     public static String normalizeForSearch(String term) {
         if (term == null) {
             return null;
@@ -6,6 +6,8 @@ import com.adityachandel.booklore.model.dto.settings.CoverCroppingSettings;
 import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.metrics.BookloreMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
@@ -20,7 +22,6 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -43,6 +44,7 @@ public class FileService {
     private final RestTemplate restTemplate;
     private final AppSettingService appSettingService;
     private final BookMetadataRepository bookMetadataRepository;
+    private final BookloreMetrics bookloreMetrics;
 
     private static final double TARGET_COVER_ASPECT_RATIO = 1.5;
     private static final int SMART_CROP_COLOR_TOLERANCE = 30;
@@ -69,6 +71,10 @@ public class FileService {
     // PATH UTILITIES
     // ========================================
 
+    public String getImagesFolder() {
+        return Paths.get(appProperties.getPathConfig(), IMAGES_DIR).toString();
+    }
+
     public String getImagesFolder(long bookId) {
         return Paths.get(appProperties.getPathConfig(), IMAGES_DIR, String.valueOf(bookId)).toString();
     }
@@ -99,8 +105,12 @@ public class FileService {
         return Paths.get("/", BACKGROUNDS_DIR, filename).toString().replace("\\", "/");
     }
 
+    public String getBookMetadataBackupPath() {
+        return Paths.get(appProperties.getPathConfig(), "metadata_backup").toString();
+    }
+
     public String getBookMetadataBackupPath(long bookId) {
-        return Paths.get(appProperties.getPathConfig(), "metadata_backup", String.valueOf(bookId)).toString();
+        return Paths.get(getBookMetadataBackupPath(), String.valueOf(bookId)).toString();
     }
 
     public String getCbxCachePath() {
@@ -145,12 +155,7 @@ public class FileService {
     // ========================================
 
     public static BufferedImage resizeImage(BufferedImage originalImage, int width, int height) {
-        Image tmp = originalImage.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        BufferedImage resizedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = resizedImage.createGraphics();
-        g2d.drawImage(tmp, 0, 0, null);
-        g2d.dispose();
-        return resizedImage;
+        return ImageScaler.scale(originalImage, width, height);
     }
 
     public static void saveImage(byte[] imageData, String filePath) throws IOException {
@@ -175,6 +180,10 @@ public class FileService {
     }
 
     public BufferedImage downloadImageFromUrl(String imageUrl) throws IOException {
+        return downloadImageFromUrl(imageUrl, 0, 0);
+    }
+
+    private BufferedImage downloadImageFromUrl(String imageUrl, int minWidth, int minHeight) throws IOException {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.set(HttpHeaders.USER_AGENT, "BookLore/1.0 (Book and Comic Metadata Fetcher; +https://github.com/booklore-app/booklore)");
@@ -192,7 +201,7 @@ public class FileService {
             // Validate and convert
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 try (ByteArrayInputStream inputStream = new ByteArrayInputStream(response.getBody())) {
-                    BufferedImage image = ImageIO.read(inputStream);
+                    BufferedImage image = minWidth > 0 ? ImageScaler.read(inputStream, minWidth, minHeight) : ImageIO.read(inputStream);
                     if (image == null) {
                         throw new IOException("Downloaded content is not a supported image format.");
                     }
@@ -216,7 +225,7 @@ public class FileService {
             validateCoverFile(file);
             BufferedImage originalImage;
             try (InputStream inputStream = file.getInputStream()) {
-                originalImage = ImageIO.read(inputStream);
+                originalImage = ImageScaler.read(inputStream, MAX_ORIGINAL_WIDTH, MAX_ORIGINAL_HEIGHT);
             }
             if (originalImage == null) {
                 throw ApiError.IMAGE_NOT_FOUND.createException();
@@ -237,7 +246,7 @@ public class FileService {
         try {
             BufferedImage originalImage;
             try (InputStream inputStream = new java.io.ByteArrayInputStream(imageBytes)) {
-                originalImage = ImageIO.read(inputStream);
+                originalImage = ImageScaler.read(inputStream, MAX_ORIGINAL_WIDTH, MAX_ORIGINAL_HEIGHT);
             }
             if (originalImage == null) {
                 throw ApiError.IMAGE_NOT_FOUND.createException();
@@ -256,7 +265,7 @@ public class FileService {
 
     public void createThumbnailFromUrl(long bookId, String imageUrl) {
         try {
-            BufferedImage originalImage = downloadImageFromUrl(imageUrl);
+            BufferedImage originalImage = downloadImageFromUrl(imageUrl, MAX_ORIGINAL_WIDTH, MAX_ORIGINAL_HEIGHT);
             boolean success = saveCoverImages(originalImage, bookId);
             if (!success) {
                 throw ApiError.FILE_READ_ERROR.createException("Failed to save cover images");
@@ -270,71 +279,51 @@ public class FileService {
     }
 
     public boolean saveCoverImages(BufferedImage coverImage, long bookId) throws IOException {
-        BufferedImage rgbImage = null;
-        BufferedImage cropped = null;
-        BufferedImage resized = null;
-        BufferedImage thumb = null;
+        Timer.Sample sample = bookloreMetrics.startTimer();
+        boolean saved = false;
         try {
-            String folderPath = getImagesFolder(bookId);
-            File folder = new File(folderPath);
-            if (!folder.exists() && !folder.mkdirs()) {
-                throw new IOException("Failed to create directory: " + folder.getAbsolutePath());
-            }
+            saved = writeCoverImages(coverImage, bookId);
+            return saved;
+        } finally {
+            bookloreMetrics.recordCoverSaved(sample, saved);
+        }
+    }
 
-            rgbImage = new BufferedImage(
-                    coverImage.getWidth(),
-                    coverImage.getHeight(),
-                    BufferedImage.TYPE_INT_RGB
-            );
-            Graphics2D g = rgbImage.createGraphics();
-            g.drawImage(coverImage, 0, 0, Color.WHITE, null);
-            g.dispose();
-            // Note: coverImage is not flushed here - caller is responsible for its lifecycle
-
-            cropped = applyCoverCropping(rgbImage);
-            if (cropped != rgbImage) {
-                rgbImage.flush();
-                rgbImage = cropped;
-            }
+    private boolean writeCoverImages(BufferedImage coverImage, long bookId) throws IOException {
+        String folderPath = getImagesFolder(bookId);
+        File folder = new File(folderPath);
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Failed to create directory: " + folder.getAbsolutePath());
+        }
 
-            // Resize original image if too large to prevent OOM
-            double scale = Math.min(
-                    (double) MAX_ORIGINAL_WIDTH / rgbImage.getWidth(),
-                    (double) MAX_ORIGINAL_HEIGHT / rgbImage.getHeight()
-            );
-            if (scale < 1.0) {
-                resized = resizeImage(rgbImage, (int) (rgbImage.getWidth() * scale), (int) (rgbImage.getHeight() * scale));
-                rgbImage.flush(); // Release resources of the original large image
-                rgbImage = resized;
-            }
+        // Note: coverImage is not flushed here - caller is responsible for its lifecycle
+        ImageScaler.Pixels pixels = ImageScaler.Pixels.of(coverImage);
+        BufferedImage rgbImage = ImageScaler.toImage(pixels);
+        BufferedImage cropped = applyCoverCropping(rgbImage);
+        if (cropped != rgbImage) {
+            pixels = ImageScaler.Pixels.of(cropped);
+        }
 
-            File originalFile = new File(folder, COVER_FILENAME);
-            boolean originalSaved = ImageIO.write(rgbImage, IMAGE_FORMAT, originalFile);
+        // Resize original image if too large to prevent OOM; the thumbnail is derived from the scaled cover
+        double scale = Math.min(
+                (double) MAX_ORIGINAL_WIDTH / pixels.width(),
+                (double) MAX_ORIGINAL_HEIGHT / pixels.height()
+        );
+        ImageScaler.Pixels cover = scale < 1.0
+                ? ImageScaler.scale(pixels, (int) (pixels.width() * scale), (int) (pixels.height() * scale))
+                : pixels;
+        ImageScaler.Pixels thumb = ImageScaler.scale(cover, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
 
-            thumb = resizeImage(rgbImage, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
-            File thumbnailFile = new File(folder, THUMBNAIL_FILENAME);
-            boolean thumbnailSaved = ImageIO.write(thumb, IMAGE_FORMAT, thumbnailFile);
+        File originalFile = new File(folder, COVER_FILENAME);
+        boolean originalSaved = ImageIO.write(ImageScaler.toImage(cover), IMAGE_FORMAT, originalFile);
 
-            if (originalSaved && thumbnailSaved) {
-                bookMetadataRepository.updateCoverTimestamp(bookId, Instant.now());
-            }
-            return originalSaved && thumbnailSaved;
-        } finally {
-            // Cleanup resources created within this method
-            // Note: cropped/resized may equal rgbImage after reassignment, avoid double-flush
-            if (rgbImage != null) {
-                rgbImage.flush();
-            }
-            if (cropped != null && cropped != rgbImage) {
-                cropped.flush();
-            }
-            if (resized != null && resized != rgbImage) {
-                resized.flush();
-            }
-            if (thumb != null) {
-                thumb.flush();
-            }
+        File thumbnailFile = new File(folder, THUMBNAIL_FILENAME);
+        boolean thumbnailSaved = ImageIO.write(ImageScaler.toImage(thumb), IMAGE_FORMAT, thumbnailFile);
+
+        if (originalSaved && thumbnailSaved) {
+            bookMetadataRepository.updateCoverTimestamp(bookId, Instant.now());
         }
+        return originalSaved && thumbnailSaved;
     }
 
     private BufferedImage applyCoverCropping(BufferedImage image) {
@@ -0,0 +1,181 @@
+package com.adityachandel.booklore.util;
+
+import lombok.experimental.UtilityClass;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Downscales by repeatedly halving with a 2x2 box filter until within 2x of the target, then finishes with a
+ * separable bilinear pass. All work happens on packed RGB int arrays, so no intermediate AWT images are created.
+ */
+@UtilityClass
+public class ImageScaler {
+
+    public BufferedImage scale(BufferedImage source, int width, int height) {
+        return toImage(scale(Pixels.of(source), width, height));
+    }
+
+    /**
+     * Decodes an image, letting the reader skip rows and columns while the result stays at least twice
+     * {@code minWidth} x {@code minHeight}. Returns null when no reader understands the data, like {@link ImageIO#read}.
+     */
+    public BufferedImage read(InputStream input, int minWidth, int minHeight) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            if (stream == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int factor = subsamplingFactor(reader.getWidth(0), reader.getHeight(0), minWidth, minHeight);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (factor > 1) {
+                    param.setSourceSubsampling(factor, factor, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    int subsamplingFactor(int sourceWidth, int sourceHeight, int minWidth, int minHeight) {
+        return Math.max(1, Math.min(sourceWidth / (2 * minWidth), sourceHeight / (2 * minHeight)));
+    }
+
+    Pixels scale(Pixels source, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Target size must be positive: " + width + "x" + height);
+        }
+        Pixels current = source;
+        while (current.width / 2 >= width && current.height / 2 >= height) {
+            current = halve(current);
+        }
+        return resample(current, width, height);
+    }
+
+    BufferedImage toImage(Pixels pixels) {
+        BufferedImage image = new BufferedImage(pixels.width, pixels.height, BufferedImage.TYPE_INT_RGB);
+        int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        System.arraycopy(pixels.data, 0, target, 0, target.length);
+        return image;
+    }
+
+    private Pixels halve(Pixels source) {
+        int width = source.width / 2;
+        int height = source.height / 2;
+        int[] src = source.data;
+        int[] dst = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int row0 = (2 * y) * source.width;
+            int row1 = row0 + source.width;
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                int a = src[row0 + 2 * x];
+                int b = src[row0 + 2 * x + 1];
+                int c = src[row1 + 2 * x];
+                int d = src[row1 + 2 * x + 1];
+                int r = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF) + ((d >> 16) & 0xFF) + 2) >> 2;
+                int g = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF) + ((d >> 8) & 0xFF) + 2) >> 2;
+                int bl = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF) + 2) >> 2;
+                dst[out + x] = (r << 16) | (g << 8) | bl;
+            }
+        }
+        return new Pixels(dst, width, height);
+    }
+
+    private Pixels resample(Pixels source, int width, int height) {
+        if (source.width == width && source.height == height) {
+            return new Pixels(source.data.clone(), width, height);
+        }
+        int[] x0 = new int[width];
+        int[] x1 = new int[width];
+        int[] wx = new int[width];
+        taps(source.width, width, x0, x1, wx);
+        int[] y0 = new int[height];
+        int[] y1 = new int[height];
+        int[] wy = new int[height];
+        taps(source.height, height, y0, y1, wy);
+
+        // Horizontal pass into 8.8 fixed point per channel, then vertical pass with rounding
+        int[] src = source.data;
+        int[] rows = new int[source.height * width * 3];
+        for (int y = 0; y < source.height; y++) {
+            int in = y * source.width;
+            int out = y * width * 3;
+            for (int x = 0; x < width; x++) {
+                int p = src[in + x0[x]];
+                int q = src[in + x1[x]];
+                int w1 = wx[x];
+                int w0 = 256 - w1;
+                rows[out++] = ((p >> 16) & 0xFF) * w0 + ((q >> 16) & 0xFF) * w1;
+                rows[out++] = ((p >> 8) & 0xFF) * w0 + ((q >> 8) & 0xFF) * w1;
+                rows[out++] = (p & 0xFF) * w0 + (q & 0xFF) * w1;
+            }
+        }
+        int[] dst = new int[width * height];
+        int stride = width * 3;
+        for (int y = 0; y < height; y++) {
+            int top = y0[y] * stride;
+            int bottom = y1[y] * stride;
+            int w1 = wy[y];
+            int w0 = 256 - w1;
+            int out = y * width;
+            for (int x = 0, i = 0; x < width; x++, i += 3) {
+                int r = (rows[top + i] * w0 + rows[bottom + i] * w1 + 32768) >> 16;
+                int g = (rows[top + i + 1] * w0 + rows[bottom + i + 1] * w1 + 32768) >> 16;
+                int b = (rows[top + i + 2] * w0 + rows[bottom + i + 2] * w1 + 32768) >> 16;
+                dst[out + x] = (r << 16) | (g << 8) | b;
+            }
+        }
+        return new Pixels(dst, width, height);
+    }
+
+    // Pixel-center aligned sample positions with an 8-bit weight for the second tap
+    private void taps(int sourceSize, int targetSize, int[] first, int[] second, int[] weight) {
+        double ratio = (double) sourceSize / targetSize;
+        for (int i = 0; i < targetSize; i++) {
+            double position = Math.max(0, (i + 0.5) * ratio - 0.5);
+            int base = Math.min((int) position, sourceSize - 1);
+            first[i] = base;
+            second[i] = Math.min(base + 1, sourceSize - 1);
+            weight[i] = (int) Math.round((position - base) * 256);
+        }
+    }
+
+    /**
+     * Packed RGB pixels, row-major without padding.
+     */
+    record Pixels(int[] data, int width, int height) {
+
+        /**
+         * Copies the image into packed RGB, flattening any transparency onto white.
+         */
+        static Pixels of(BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+                int[] data = (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
+                return new Pixels(data, width, height);
+            }
+            BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, Color.WHITE, null);
+            g.dispose();
+            return new Pixels(((DataBufferInt) rgb.getRaster().getDataBuffer()).getData(), width, height);
+        }
+    }
+}
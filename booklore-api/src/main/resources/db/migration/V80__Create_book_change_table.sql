@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS book_change
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'Change version, increases monotonically',
+    book_id    BIGINT   NOT NULL,
+    user_id    BIGINT   NULL COMMENT 'Set for per-user changes such as progress and shelves',
+    changed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) COMMENT = 'Append-only feed of book changes used for delta sync';
+
+CREATE INDEX IF NOT EXISTS idx_book_change_user ON book_change (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_book_change_changed_at ON book_change (changed_at);
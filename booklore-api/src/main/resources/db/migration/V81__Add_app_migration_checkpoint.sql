@@ -0,0 +1,4 @@
+-- Resumable book migrations store the last processed book id until they complete
+ALTER TABLE app_migration
+    ADD COLUMN last_processed_id BIGINT  DEFAULT NULL,
+    ADD COLUMN completed         BOOLEAN NOT NULL DEFAULT TRUE;
@@ -0,0 +1,3 @@
+ALTER TABLE tasks
+    ADD COLUMN queue_wait_ms BIGINT DEFAULT NULL,
+    ADD COLUMN run_time_ms   BIGINT DEFAULT NULL;
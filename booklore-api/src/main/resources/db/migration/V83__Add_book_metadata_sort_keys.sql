@@ -0,0 +1,11 @@
+ALTER TABLE book_metadata
+    ADD COLUMN title_sort  VARCHAR(255) NOT NULL DEFAULT '',
+    ADD COLUMN author_sort VARCHAR(255) NOT NULL DEFAULT '',
+    ADD COLUMN series_sort VARCHAR(255) DEFAULT NULL,
+    ADD COLUMN rating_sort DOUBLE       DEFAULT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_book_metadata_title_sort ON book_metadata (title_sort, book_id);
+CREATE INDEX IF NOT EXISTS idx_book_metadata_author_sort ON book_metadata (author_sort, book_id);
+CREATE INDEX IF NOT EXISTS idx_book_metadata_series_sort ON book_metadata (series_sort, series_number, book_id);
+CREATE INDEX IF NOT EXISTS idx_book_metadata_rating_sort ON book_metadata (rating_sort, book_id);
+CREATE INDEX IF NOT EXISTS idx_book_added_on ON book (added_on, id);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS metadata_write_back
+(
+    book_id     BIGINT        NOT NULL PRIMARY KEY,
+    move_file   BOOLEAN       NOT NULL DEFAULT FALSE,
+    revision    BIGINT        NOT NULL DEFAULT 1 COMMENT 'Bumped whenever the book is queued again, a worker only removes the revision it wrote',
+    attempts    INT           NOT NULL DEFAULT 0,
+    last_error  VARCHAR(1000) NULL,
+    enqueued_at DATETIME      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_metadata_write_back_book FOREIGN KEY (book_id) REFERENCES book (id) ON DELETE CASCADE
+) COMMENT = 'Books whose file still has to be rewritten with their stored metadata';
+
+CREATE INDEX IF NOT EXISTS idx_metadata_write_back_pending ON metadata_write_back (attempts, enqueued_at);
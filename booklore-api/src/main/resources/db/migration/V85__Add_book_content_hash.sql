@@ -0,0 +1,6 @@
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS content_hash        VARCHAR(64)  NULL COMMENT 'SHA-256 of the whole file',
+    ADD COLUMN IF NOT EXISTS content_hash_source VARCHAR(128) NULL COMMENT 'current_hash the content hash was computed for, the content hash is stale when they differ';
+
+CREATE INDEX IF NOT EXISTS idx_book_content_hash ON book (content_hash);
+CREATE INDEX IF NOT EXISTS idx_book_metadata_isbn_13 ON book_metadata (isbn_13);
@@ -0,0 +1,10 @@
+-- NULLs sort first in MariaDB. Ascending feeds lead with these flags so books without a series or rating still come
+-- last, while every ORDER BY term keeps one direction and can be read from an index.
+ALTER TABLE book_metadata
+    ADD COLUMN series_missing        TINYINT AS (IF(series_sort IS NULL, 1, 0)) PERSISTENT,
+    ADD COLUMN series_number_missing TINYINT AS (IF(series_number IS NULL, 1, 0)) PERSISTENT,
+    ADD COLUMN rating_missing        TINYINT AS (IF(rating_sort IS NULL, 1, 0)) PERSISTENT;
+
+CREATE INDEX IF NOT EXISTS idx_book_metadata_series_missing
+    ON book_metadata (series_missing, series_sort, series_number_missing, series_number, book_id);
+CREATE INDEX IF NOT EXISTS idx_book_metadata_rating_missing ON book_metadata (rating_missing, rating_sort, book_id);
@@ -0,0 +1,3 @@
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS content_hash_file_size     BIGINT NULL COMMENT 'File size in bytes when the content hash was computed',
+    ADD COLUMN IF NOT EXISTS content_hash_file_modified BIGINT NULL COMMENT 'File mtime in epoch millis when the content hash was computed, the content hash is stale when size or mtime differ';
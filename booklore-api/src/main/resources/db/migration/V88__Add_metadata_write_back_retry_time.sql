@@ -0,0 +1,2 @@
+ALTER TABLE metadata_write_back
+    ADD COLUMN IF NOT EXISTS next_attempt_at DATETIME NULL COMMENT 'A failed write is retried no earlier than this, with a delay that doubles per attempt';
@@ -3,13 +3,16 @@ package com.adityachandel.booklore;
 import com.adityachandel.booklore.config.security.service.AuthenticationService;
 import com.adityachandel.booklore.mapper.BookMapper;
 import com.adityachandel.booklore.repository.*;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.book.BookDownloadService;
 import com.adityachandel.booklore.service.book.BookQueryService;
 import com.adityachandel.booklore.service.book.BookService;
+import com.adityachandel.booklore.service.library.BookDeletionService;
 import com.adityachandel.booklore.service.user.UserProgressService;
 import com.adityachandel.booklore.service.monitoring.MonitoringRegistrationService;
 import com.adityachandel.booklore.service.kobo.KoboReadingStateService;
 import com.adityachandel.booklore.util.FileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,6 +55,7 @@ class BookServiceDeleteTests {
         BookDownloadService bookDownloadService = Mockito.mock(BookDownloadService.class);
         MonitoringRegistrationService monitoringRegistrationService = Mockito.mock(MonitoringRegistrationService.class);
         KoboReadingStateService koboReadingStateService = Mockito.mock(KoboReadingStateService.class);
+        BookChangeService bookChangeService = Mockito.mock(BookChangeService.class);
 
         bookService = new BookService(
                 bookRepository,
@@ -69,7 +73,10 @@ class BookServiceDeleteTests {
                 userProgressService,
                 bookDownloadService,
                 monitoringRegistrationService,
-                koboReadingStateService
+                koboReadingStateService,
+                new ObjectMapper(),
+                bookChangeService,
+                Mockito.mock(BookDeletionService.class)
         );
     }
 
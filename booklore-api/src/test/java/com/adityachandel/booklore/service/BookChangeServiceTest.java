@@ -0,0 +1,124 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.model.entity.BookChangeEntity;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookChangeServiceTest {
+
+    @Mock
+    private BookChangeRepository bookChangeRepository;
+
+    @InjectMocks
+    private BookChangeService bookChangeService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordUserChanges_shouldStoreOneRowPerBookAndReturnHighestVersion() {
+        AtomicLong ids = new AtomicLong(40);
+        when(bookChangeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<BookChangeEntity> changes = invocation.getArgument(0);
+            changes.forEach(change -> change.setId(ids.incrementAndGet()));
+            return changes;
+        });
+
+        Long version = bookChangeService.recordUserChanges(7L, List.of(1L, 2L, 2L));
+
+        assertEquals(42L, version);
+        ArgumentCaptor<List<BookChangeEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookChangeRepository).saveAll(captor.capture());
+        assertEquals(List.of(1L, 2L), captor.getValue().stream().map(BookChangeEntity::getBookId).toList());
+        assertTrue(captor.getValue().stream().allMatch(change -> change.getUserId() == 7L && change.getChangedAt() != null));
+    }
+
+    @Test
+    void recordChanges_shouldSkipEmptyInput() {
+        assertNull(bookChangeService.recordChanges(List.of()));
+        verifyNoInteractions(bookChangeRepository);
+    }
+
+    @Test
+    void getChangesSince_shouldReturnChangedBookIds() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(120L);
+        when(bookChangeRepository.findMinId()).thenReturn(50L);
+        when(bookChangeRepository.findChangedBookIdsSince(eq(100L), eq(7L), any(Pageable.class))).thenReturn(List.of(3L, 9L));
+
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(100L, 7L);
+
+        assertFalse(changes.fullSyncRequired());
+        assertEquals(120L, changes.version());
+        assertEquals(List.of(3L, 9L), changes.bookIds());
+    }
+
+    @Test
+    void getChangesSince_shouldRequireFullSyncWithoutVersion() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(120L);
+
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(0L, 7L);
+
+        assertTrue(changes.fullSyncRequired());
+        assertEquals(120L, changes.version());
+        verify(bookChangeRepository, never()).findChangedBookIdsSince(anyLong(), any(), any());
+    }
+
+    @Test
+    void getChangesSince_shouldRequireFullSyncWhenVersionWasPruned() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(120L);
+        when(bookChangeRepository.findMinId()).thenReturn(80L);
+
+        assertTrue(bookChangeService.getChangesSince(10L, 7L).fullSyncRequired());
+        verify(bookChangeRepository, never()).findChangedBookIdsSince(anyLong(), any(), any());
+    }
+
+    @Test
+    void getChangesSince_shouldReturnEmptyDeltaWhenNothingCommittedIsNewer() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(120L);
+
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(130L, 7L);
+
+        assertFalse(changes.fullSyncRequired());
+        assertEquals(120L, changes.version());
+        assertEquals(List.of(), changes.bookIds());
+        verify(bookChangeRepository, never()).findMinId();
+    }
+
+    @Test
+    void getChangesSince_shouldReturnEmptyDeltaWhenLogIsEmpty() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(null);
+
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(42L, 7L);
+
+        assertFalse(changes.fullSyncRequired());
+        assertEquals(42L, changes.version());
+        verify(bookChangeRepository, never()).findChangedBookIdsSince(anyLong(), any(), any());
+    }
+
+    @Test
+    void getChangesSince_shouldRequireFullSyncWhenTooManyBooksChanged() {
+        when(bookChangeRepository.findMaxIdChangedBefore(any())).thenReturn(99_999L);
+        when(bookChangeRepository.findMinId()).thenReturn(1L);
+        when(bookChangeRepository.findChangedBookIdsSince(eq(1L), eq(7L), any(Pageable.class)))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, ((Pageable) invocation.getArgument(2)).getPageSize()).boxed().toList());
+
+        BookChangeService.ChangeSet changes = bookChangeService.getChangesSince(1L, 7L);
+
+        assertTrue(changes.fullSyncRequired());
+        assertEquals(99_999L, changes.version());
+    }
+}
@@ -0,0 +1,127 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.mapper.ShelfMapper;
+import com.adityachandel.booklore.mapper.v2.BookMapperV2;
+import com.adityachandel.booklore.model.dto.*;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.model.entity.ShelfEntity;
+import com.adityachandel.booklore.repository.BookMetadataRepository;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.ShelfRepository;
+import com.adityachandel.booklore.service.book.BookQueryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookQueryServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookMapperV2 bookMapperV2;
+
+    @Mock
+    private BookMetadataRepository bookMetadataRepository;
+
+    @Mock
+    private ShelfRepository shelfRepository;
+
+    @Mock
+    private ShelfMapper shelfMapper;
+
+    @InjectMocks
+    private BookQueryService bookQueryService;
+
+    @Test
+    void forEachBookChunk_shouldAssembleBooksFromProjections() {
+        ShelfEntity shelfEntity = new ShelfEntity();
+        when(shelfRepository.findByUserId(7L)).thenReturn(List.of(shelfEntity));
+        when(shelfMapper.toShelf(shelfEntity)).thenReturn(Shelf.builder().id(5L).name("Favorites").build());
+
+        BookRowDto row = row(1L);
+        when(bookRepository.findBookRowsAfter(eq(0L), any())).thenReturn(List.of(row));
+
+        BookMetadataEntity metadataEntity = new BookMetadataEntity();
+        metadataEntity.setBookId(1L);
+        when(bookMetadataRepository.getMetadataForBookIds(List.of(1L))).thenReturn(List.of(metadataEntity));
+        when(bookMapperV2.mapMetadataWithoutCollections(metadataEntity))
+                .thenReturn(BookMetadata.builder().bookId(1L).title("Dune").description("Spice").build());
+        when(bookMetadataRepository.findAuthorNamesByBookIds(List.of(1L)))
+                .thenReturn(List.of(nameValue(1L, "Frank Herbert")));
+        when(bookMetadataRepository.findCategoryNamesByBookIds(List.of(1L))).thenReturn(List.of());
+        when(bookMetadataRepository.findMoodNamesByBookIds(List.of(1L))).thenReturn(List.of());
+        when(bookMetadataRepository.findTagNamesByBookIds(List.of(1L))).thenReturn(List.of());
+        when(bookRepository.findShelfLinks(List.of(1L), Set.of(5L))).thenReturn(List.of(shelfLink(1L, 5L)));
+
+        List<List<Book>> chunks = new ArrayList<>();
+        bookQueryService.forEachBookChunk(null, false, 7L, chunks::add);
+
+        assertEquals(1, chunks.size());
+        Book book = chunks.getFirst().getFirst();
+        assertEquals(1L, book.getId());
+        assertEquals(3L, book.getLibraryId());
+        assertEquals("Dune", book.getMetadata().getTitle());
+        assertNull(book.getMetadata().getDescription());
+        assertEquals(Set.of("Frank Herbert"), book.getMetadata().getAuthors());
+        assertTrue(book.getMetadata().getTags().isEmpty());
+        assertEquals(Set.of(5L), book.getShelves().stream().map(Shelf::getId).collect(Collectors.toSet()));
+        verify(bookRepository, never()).findBookRowsAfterInLibraries(anyLong(), any(), any());
+    }
+
+    @Test
+    void forEachBookChunk_shouldSkipQueriesWhenUserHasNoLibraries() {
+        List<List<Book>> chunks = new ArrayList<>();
+        bookQueryService.forEachBookChunk(Set.of(), true, 7L, chunks::add);
+
+        assertTrue(chunks.isEmpty());
+        verifyNoInteractions(bookRepository, bookMetadataRepository, shelfRepository);
+    }
+
+    private BookRowDto row(long id) {
+        BookRowDto row = mock(BookRowDto.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getLibraryId()).thenReturn(3L);
+        return row;
+    }
+
+    private BookNameValueDto nameValue(long bookId, String name) {
+        return new BookNameValueDto() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private BookShelfLinkDto shelfLink(long bookId, long shelfId) {
+        return new BookShelfLinkDto() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getShelfId() {
+                return shelfId;
+            }
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.security.service.AuthenticationService;
+import com.adityachandel.booklore.exception.APIException;
+import com.adityachandel.booklore.model.dto.BookAuthorRow;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
+import com.adityachandel.booklore.model.dto.CatalogAuthor;
+import com.adityachandel.booklore.model.dto.CatalogBookRow;
+import com.adityachandel.booklore.model.dto.CatalogPage;
+import com.adityachandel.booklore.model.dto.CatalogSeries;
+import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import com.adityachandel.booklore.service.book.CatalogService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogServiceTest {
+
+    private static final Instant FIRST = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant LAST = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private BookChangeService bookChangeService;
+    @Mock
+    private BookChangeRepository bookChangeRepository;
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @InjectMocks
+    private CatalogService service;
+
+    @Test
+    void getSeries_shouldAggregateBooksAcrossLibraries() {
+        loginAsAdmin();
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+        when(bookChangeService.currentVersion()).thenReturn(10L);
+        when(bookRepository.findCatalogRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                row(1L, 1L, FIRST, "Dune", 1f, 6),
+                row(2L, 1L, LAST, "Dune", 2f, null),
+                row(3L, 2L, FIRST, "dune", 4f, null),
+                row(4L, 1L, FIRST, "Dune", 2.5f, null),
+                row(5L, 1L, FIRST, null, null, null)));
+        when(bookRepository.findCatalogRowsAfter(eq(5L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findAuthorRowsByBookIds(any())).thenReturn(List.of(
+                author(1L, "Frank Herbert"), author(3L, "Brian Herbert"), author(5L, "Frank Herbert")));
+
+        CatalogPage<CatalogSeries> page = service.getSeries(null, null, null, 50);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextAfter()).isNull();
+        CatalogSeries dune = page.getItems().getFirst();
+        assertThat(dune.getName()).isEqualTo("Dune");
+        assertThat(dune.getBookCount()).isEqualTo(4);
+        assertThat(dune.getSeriesLength()).isEqualTo(6);
+        assertThat(dune.getMissingNumbers()).containsExactly(3, 5, 6);
+        assertThat(dune.getAuthors()).containsExactly("Brian Herbert", "Frank Herbert");
+        assertThat(dune.getFirstAddedOn()).isEqualTo(FIRST);
+        assertThat(dune.getLastAddedOn()).isEqualTo(LAST);
+
+        CatalogAuthor frank = service.getAuthors(null, "frank", null, 50).getItems().getFirst();
+        assertThat(frank.getBookCount()).isEqualTo(2);
+        assertThat(frank.getSeriesCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAuthors_shouldPageByPrefixWithinAccessibleLibraries() {
+        loginAsUser(1L);
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+        when(bookChangeService.currentVersion()).thenReturn(10L);
+        when(bookRepository.findCatalogRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                row(1L, 1L, FIRST, null, null, null),
+                row(2L, 1L, FIRST, null, null, null),
+                row(3L, 1L, FIRST, null, null, null),
+                row(4L, 2L, FIRST, null, null, null)));
+        when(bookRepository.findCatalogRowsAfter(eq(4L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findAuthorRowsByBookIds(any())).thenReturn(List.of(
+                author(1L, "Abbott"), author(2L, "Banks"), author(3L, "brown"), author(4L, "Baxter")));
+
+        CatalogPage<CatalogAuthor> first = service.getAuthors(null, "b", null, 1);
+        assertThat(first.getItems()).extracting(CatalogAuthor::getName).containsExactly("Banks");
+        assertThat(first.getNextAfter()).isEqualTo("Banks");
+
+        CatalogPage<CatalogAuthor> second = service.getAuthors(null, "b", first.getNextAfter(), 1);
+        assertThat(second.getItems()).extracting(CatalogAuthor::getName).containsExactly("brown");
+        assertThat(second.getNextAfter()).isNull();
+
+        assertThatThrownBy(() -> service.getAuthors(2L, null, null, 10)).isInstanceOf(APIException.class);
+        verify(bookRepository, times(1)).findCatalogRowsAfter(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void getSeries_shouldApplyChangedBooksWithoutRebuilding() {
+        loginAsAdmin();
+        when(bookChangeService.latestVersion()).thenReturn(10L, 10L, 12L);
+        when(bookChangeService.currentVersion()).thenReturn(10L, 12L);
+        when(bookRepository.findCatalogRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                row(1L, 1L, FIRST, "Dune", 1f, null),
+                row(2L, 1L, FIRST, "Dune", 2f, null),
+                row(3L, 1L, FIRST, "Dune", 3f, null)));
+        when(bookRepository.findCatalogRowsAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findAuthorRowsByBookIds(any())).thenReturn(List.of());
+        assertThat(service.getSeries(null, null, null, 50).getItems().getFirst().getBookCount()).isEqualTo(3);
+
+        when(bookChangeRepository.findMinId()).thenReturn(1L);
+        when(bookChangeRepository.findChangedBookIdsSince(eq(10L), isNull(), any(Pageable.class))).thenReturn(List.of(2L, 3L));
+        when(bookRepository.findCatalogRowsByIds(List.of(2L, 3L))).thenReturn(List.of(row(2L, 1L, FIRST, "Foundation", 1f, null)));
+
+        CatalogPage<CatalogSeries> page = service.getSeries(null, null, null, 50);
+
+        assertThat(page.getItems()).extracting(CatalogSeries::getName).containsExactly("Dune", "Foundation");
+        assertThat(page.getItems()).extracting(CatalogSeries::getBookCount).containsExactly(1, 1);
+        assertThat(page.getItems().getFirst().getMissingNumbers()).isEmpty();
+        verify(bookRepository, times(1)).findCatalogRowsAfter(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void getAuthorNames_shouldPageNamesOfTheGivenLibrariesWithoutAuthentication() {
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+        when(bookChangeService.currentVersion()).thenReturn(10L);
+        when(bookRepository.findCatalogRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                row(1L, 1L, FIRST, null, null, null),
+                row(2L, 1L, FIRST, null, null, null),
+                row(3L, 2L, FIRST, null, null, null)));
+        when(bookRepository.findCatalogRowsAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findAuthorRowsByBookIds(any())).thenReturn(List.of(
+                author(1L, "Abbott"), author(2L, "banks"), author(3L, "Baxter")));
+
+        CatalogPage<String> first = service.getAuthorNames(Set.of(1L), null, 1);
+        CatalogPage<String> second = service.getAuthorNames(Set.of(1L), first.getNextAfter(), 1);
+
+        assertThat(first.getItems()).containsExactly("Abbott");
+        assertThat(second.getItems()).containsExactly("banks");
+        assertThat(second.getNextAfter()).isNull();
+        assertThat(service.getAuthorNames(null, "Abbott", 10).getItems()).containsExactly("banks", "Baxter");
+        verifyNoInteractions(authenticationService);
+    }
+
+    private void loginAsAdmin() {
+        BookLoreUser.UserPermissions permissions = new BookLoreUser.UserPermissions();
+        permissions.setAdmin(true);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(BookLoreUser.builder().id(1L).permissions(permissions).build());
+    }
+
+    private void loginAsUser(long libraryId) {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(BookLoreUser.builder()
+                .id(2L)
+                .permissions(new BookLoreUser.UserPermissions())
+                .assignedLibraries(List.of(Library.builder().id(libraryId).build()))
+                .build());
+    }
+
+    private static CatalogBookRow row(Long id, Long libraryId, Instant addedOn, String seriesName, Float seriesNumber, Integer seriesTotal) {
+        return new CatalogBookRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getLibraryId() {
+                return libraryId;
+            }
+
+            @Override
+            public Instant getAddedOn() {
+                return addedOn;
+            }
+
+            @Override
+            public String getSeriesName() {
+                return seriesName;
+            }
+
+            @Override
+            public Float getSeriesNumber() {
+                return seriesNumber;
+            }
+
+            @Override
+            public Integer getSeriesTotal() {
+                return seriesTotal;
+            }
+        };
+    }
+
+    private static BookAuthorRow author(Long bookId, String name) {
+        return new BookAuthorRow() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
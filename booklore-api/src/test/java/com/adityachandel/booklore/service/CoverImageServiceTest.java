@@ -0,0 +1,127 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.repository.BookMetadataRepository;
+import com.adityachandel.booklore.service.book.CoverImageService;
+import com.adityachandel.booklore.util.FileService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoverImageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookMetadataRepository bookMetadataRepository;
+    private CoverImageService coverImageService;
+    private Path thumbnail;
+
+    @BeforeEach
+    void setUp() {
+        FileService fileService = mock(FileService.class);
+        thumbnail = tempDir.resolve("thumbnail.jpg");
+        when(fileService.getThumbnailFile(1L)).thenReturn(thumbnail.toString());
+        when(fileService.getThumbnailFile(2L)).thenReturn(tempDir.resolve("missing.jpg").toString());
+        bookMetadataRepository = mock(BookMetadataRepository.class);
+        coverImageService = new CoverImageService(fileService, bookMetadataRepository, meterRegistry);
+    }
+
+    @Test
+    void getThumbnail_shouldServeRepeatedRequestsFromMemory() throws IOException {
+        Files.write(thumbnail, new byte[]{1, 2, 3});
+
+        CoverImageService.CoverImage first = coverImageService.getThumbnail(1L);
+        CoverImageService.CoverImage second = coverImageService.getThumbnail(1L);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, second.resource().getContentAsByteArray());
+        assertEquals(first.etag(), second.etag());
+        assertFalse(second.placeholder());
+        assertEquals(1.0, counter("hit"));
+        assertEquals(1.0, counter("miss"));
+        assertEquals(3, coverImageService.getCachedBytes());
+    }
+
+    @Test
+    void cacheControl_shouldOnlyBeImmutableForTheCurrentCoverVersion() throws IOException {
+        Files.write(thumbnail, new byte[]{1, 2, 3});
+        Instant coverUpdatedOn = Instant.parse("2025-01-01T00:00:00Z");
+        when(bookMetadataRepository.findCoverUpdatedOnByBookId(1L)).thenReturn(coverUpdatedOn);
+        CoverImageService.CoverImage image = coverImageService.getThumbnail(1L);
+
+        String current = coverImageService.cacheControl(1L, image, coverUpdatedOn.toEpochMilli()).getHeaderValue();
+        String stale = coverImageService.cacheControl(1L, image, coverUpdatedOn.toEpochMilli() - 1).getHeaderValue();
+        String unversioned = coverImageService.cacheControl(1L, image, null).getHeaderValue();
+
+        assertTrue(current.contains("immutable"));
+        assertFalse(stale.contains("immutable"));
+        assertEquals(unversioned, stale);
+        assertEquals(CacheControl.maxAge(Duration.ofHours(1)).cachePublic().getHeaderValue(), unversioned);
+    }
+
+    @Test
+    void cacheControl_shouldOnlyQueryTheVersionAgainWhenTheFileChanges() throws IOException {
+        Files.write(thumbnail, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(thumbnail, FileTime.from(Instant.parse("2025-01-01T00:00:00Z")));
+        Instant coverUpdatedOn = Instant.parse("2025-01-01T00:00:00Z");
+        when(bookMetadataRepository.findCoverUpdatedOnByBookId(1L)).thenReturn(coverUpdatedOn);
+
+        coverImageService.cacheControl(1L, coverImageService.getThumbnail(1L), coverUpdatedOn.toEpochMilli());
+        String cached = coverImageService.cacheControl(1L, coverImageService.getThumbnail(1L), coverUpdatedOn.toEpochMilli()).getHeaderValue();
+        verify(bookMetadataRepository, times(1)).findCoverUpdatedOnByBookId(1L);
+
+        Files.write(thumbnail, new byte[]{4, 5, 6, 7});
+        Files.setLastModifiedTime(thumbnail, FileTime.from(Instant.parse("2025-02-01T00:00:00Z")));
+        String rewritten = coverImageService.cacheControl(1L, coverImageService.getThumbnail(1L), coverUpdatedOn.toEpochMilli()).getHeaderValue();
+
+        assertTrue(cached.contains("immutable"));
+        assertTrue(rewritten.contains("immutable"));
+        verify(bookMetadataRepository, times(2)).findCoverUpdatedOnByBookId(1L);
+    }
+
+    @Test
+    void getThumbnail_shouldReloadRewrittenFile() throws IOException {
+        Files.write(thumbnail, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(thumbnail, FileTime.from(Instant.parse("2025-01-01T00:00:00Z")));
+        String before = coverImageService.getThumbnail(1L).etag();
+
+        Files.write(thumbnail, new byte[]{4, 5, 6, 7});
+        Files.setLastModifiedTime(thumbnail, FileTime.from(Instant.parse("2025-01-02T00:00:00Z")));
+        CoverImageService.CoverImage after = coverImageService.getThumbnail(1L);
+
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, after.resource().getContentAsByteArray());
+        assertNotEquals(before, after.etag());
+        assertEquals(2.0, counter("miss"));
+        assertEquals(4, coverImageService.getCachedBytes());
+    }
+
+    @Test
+    void getThumbnail_shouldFallBackToPlaceholder() {
+        CoverImageService.CoverImage image = coverImageService.getThumbnail(2L);
+
+        assertTrue(image.placeholder());
+        assertTrue(image.resource().exists());
+    }
+
+    @Test
+    void coverVersion_shouldUseEpochMillis() {
+        assertEquals(1735689600000L, CoverImageService.coverVersion(Instant.parse("2025-01-01T00:00:00Z")));
+        assertNull(CoverImageService.coverVersion(null));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("booklore.cover.thumbnail.cache").tag("result", result).counter().count();
+    }
+}
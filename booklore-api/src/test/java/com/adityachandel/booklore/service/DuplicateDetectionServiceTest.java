@@ -0,0 +1,211 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.config.security.service.AuthenticationService;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
+import com.adityachandel.booklore.model.dto.DuplicateBook;
+import com.adityachandel.booklore.model.dto.DuplicateBookRow;
+import com.adityachandel.booklore.model.dto.DuplicateGroup;
+import com.adityachandel.booklore.model.dto.Library;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.DuplicateType;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.book.DuplicateDetectionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateDetectionServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private LibraryRepository libraryRepository;
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @InjectMocks
+    private DuplicateDetectionService service;
+
+    @Test
+    void findDuplicates_shouldGroupIdenticalFilesAcrossLibraries() {
+        loginAsAdmin();
+        when(bookRepository.findDuplicateContentHashes(anyCollection(), any(Pageable.class))).thenReturn(List.of("abc"));
+        when(bookRepository.findDuplicateRowsByContentHash(List.of("abc"), List.of(10L, 20L))).thenReturn(List.of(
+                row(1L, 10L, BookFileType.EPUB, "abc", null, "dune", "herbert"),
+                row(2L, 20L, BookFileType.EPUB, "abc", null, "dune", "herbert")));
+
+        List<DuplicateGroup> groups = service.findDuplicates(Set.of(DuplicateType.CONTENT), 100);
+
+        assertThat(groups).hasSize(1);
+        assertThat(groups.getFirst().getType()).isEqualTo(DuplicateType.CONTENT);
+        assertThat(groups.getFirst().getKey()).isEqualTo("abc");
+        assertThat(groups.getFirst().getBooks()).extracting(DuplicateBook::getLibraryId).containsExactly(10L, 20L);
+        verify(bookRepository, never()).findDuplicateIsbn13s(any(), any());
+    }
+
+    @Test
+    void findDuplicates_shouldListSameIsbnInDifferentFormatsAsNearDuplicate() {
+        loginAsAdmin();
+        when(bookRepository.findDuplicateIsbn13s(anyCollection(), any(Pageable.class))).thenReturn(List.of("9780441013593", "9780000000000"));
+        when(bookRepository.findDuplicateRowsByIsbn13(anyCollection(), anyCollection())).thenReturn(List.of(
+                row(1L, 10L, BookFileType.EPUB, "abc", "9780441013593", "dune", "herbert"),
+                row(2L, 10L, BookFileType.PDF, "def", "9780441013593", "dune", "herbert"),
+                // Same file twice, already an exact duplicate
+                row(3L, 10L, BookFileType.EPUB, "ghi", "9780000000000", "emma", "austen"),
+                row(4L, 20L, BookFileType.EPUB, "ghi", "9780000000000", "emma", "austen")));
+
+        List<DuplicateGroup> groups = service.findDuplicates(Set.of(DuplicateType.ISBN), 100);
+
+        assertThat(groups).hasSize(1);
+        assertThat(groups.getFirst().getKey()).isEqualTo("9780441013593");
+        assertThat(groups.getFirst().getBooks()).extracting(DuplicateBook::getBookType).containsExactly(BookFileType.EPUB, BookFileType.PDF);
+    }
+
+    @Test
+    void findDuplicates_shouldMatchTitleTogetherWithAuthor() {
+        loginAsAdmin();
+        when(bookRepository.findDuplicateTitleSorts(anyCollection(), any(Pageable.class))).thenReturn(List.of("collected poems"));
+        when(bookRepository.findDuplicateRowsByTitleSort(eq(List.of("collected poems")), anyCollection())).thenReturn(List.of(
+                row(1L, 10L, BookFileType.EPUB, null, null, "collected poems", "plath"),
+                row(2L, 10L, BookFileType.PDF, null, null, "collected poems", "plath"),
+                row(3L, 10L, BookFileType.EPUB, null, null, "collected poems", "larkin")));
+
+        List<DuplicateGroup> groups = service.findDuplicates(Set.of(DuplicateType.TITLE_AUTHOR), 100);
+
+        assertThat(groups).hasSize(1);
+        assertThat(groups.getFirst().getKey()).isEqualTo("collected poems / plath");
+        assertThat(groups.getFirst().getBooks()).extracting(DuplicateBook::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void findDuplicates_shouldQueryEveryKindWhenNoneRequestedAndCapTheLimit() {
+        loginAsAdmin();
+        when(bookRepository.findDuplicateContentHashes(anyCollection(), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findDuplicateIsbn13s(anyCollection(), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.findDuplicateTitleSorts(anyCollection(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(service.findDuplicates(null, 10_000)).isEmpty();
+
+        verify(bookRepository).findDuplicateContentHashes(anyCollection(), argThat(page -> page.getPageSize() == 500));
+        verify(bookRepository, never()).findDuplicateRowsByContentHash(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void findDuplicates_shouldOnlySearchTheUsersLibraries() {
+        loginAsUser(10L);
+        when(bookRepository.findDuplicateContentHashes(eq(Set.of(10L)), any(Pageable.class))).thenReturn(List.of("abc"));
+        when(bookRepository.findDuplicateRowsByContentHash(List.of("abc"), Set.of(10L))).thenReturn(List.of(
+                row(1L, 10L, BookFileType.EPUB, "abc", null, "dune", "herbert"),
+                row(2L, 10L, BookFileType.PDF, "abc", null, "dune", "herbert")));
+
+        List<DuplicateGroup> groups = service.findDuplicates(Set.of(DuplicateType.CONTENT), 100);
+
+        assertThat(groups.getFirst().getBooks()).extracting(DuplicateBook::getLibraryId).containsExactly(10L, 10L);
+        verifyNoInteractions(libraryRepository);
+    }
+
+    @Test
+    void findDuplicates_shouldReturnNothingForUsersWithoutLibraries() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(BookLoreUser.builder()
+                .id(2L)
+                .permissions(new BookLoreUser.UserPermissions())
+                .assignedLibraries(List.of())
+                .build());
+
+        assertThat(service.findDuplicates(null, 100)).isEmpty();
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    private void loginAsAdmin() {
+        BookLoreUser.UserPermissions permissions = new BookLoreUser.UserPermissions();
+        permissions.setAdmin(true);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(BookLoreUser.builder().id(1L).permissions(permissions).build());
+        when(libraryRepository.findAllIds()).thenReturn(List.of(10L, 20L));
+    }
+
+    private void loginAsUser(long libraryId) {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(BookLoreUser.builder()
+                .id(2L)
+                .permissions(new BookLoreUser.UserPermissions())
+                .assignedLibraries(List.of(Library.builder().id(libraryId).build()))
+                .build());
+    }
+
+    private static DuplicateBookRow row(long id, long libraryId, BookFileType type, String contentHash, String isbn13,
+                                        String titleSort, String authorSort) {
+        return new DuplicateBookRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BookFileType getBookType() {
+                return type;
+            }
+
+            @Override
+            public Long getLibraryId() {
+                return libraryId;
+            }
+
+            @Override
+            public String getLibraryName() {
+                return "Library " + libraryId;
+            }
+
+            @Override
+            public String getFileName() {
+                return "book-" + id;
+            }
+
+            @Override
+            public String getFileSubPath() {
+                return "";
+            }
+
+            @Override
+            public Long getFileSizeKb() {
+                return 100L;
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public String getTitle() {
+                return titleSort;
+            }
+
+            @Override
+            public String getIsbn13() {
+                return isbn13;
+            }
+
+            @Override
+            public String getTitleSort() {
+                return titleSort;
+            }
+
+            @Override
+            public String getAuthorSort() {
+                return authorSort;
+            }
+        };
+    }
+}
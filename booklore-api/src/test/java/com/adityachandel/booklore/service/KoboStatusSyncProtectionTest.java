@@ -14,6 +14,7 @@ import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.KoboReadingStateRepository;
 import com.adityachandel.booklore.repository.UserBookProgressRepository;
 import com.adityachandel.booklore.repository.UserRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.hardcover.HardcoverSyncService;
 import com.adityachandel.booklore.service.kobo.KoboReadingStateBuilder;
 import com.adityachandel.booklore.service.kobo.KoboReadingStateService;
@@ -62,6 +63,9 @@ class KoboStatusSyncProtectionTest {
     @Mock
     private HardcoverSyncService hardcoverSyncService;
 
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private KoboReadingStateService service;
 
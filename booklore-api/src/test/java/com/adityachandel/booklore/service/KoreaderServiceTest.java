@@ -14,6 +14,7 @@ import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.UserBookProgressRepository;
 import com.adityachandel.booklore.repository.UserRepository;
 import com.adityachandel.booklore.repository.KoreaderUserRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.koreader.KoreaderService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +43,9 @@ class KoreaderServiceTest {
     @Mock
     KoreaderUserRepository koreaderUserRepo;
 
+    @Mock
+    BookChangeService bookChangeService;
+
     @InjectMocks
     KoreaderService service;
 
@@ -0,0 +1,197 @@
+package com.adityachandel.booklore.service;
+
+import com.adityachandel.booklore.model.dto.RuleField;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.MagicShelfEntity;
+import com.adityachandel.booklore.repository.BookChangeRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MagicShelfMembershipServiceTest {
+
+    private static final String TITLE_RULE = """
+            {"name":"Dune","type":"group","join":"and","rules":[
+              {"type":"rule","field":"title","operator":"contains","value":"Dune"},
+              {"type":"group","join":"or","rules":[{"type":"rule","field":"readStatus","operator":"equals","value":"READ"}]}
+            ]}""";
+
+    private BookRuleEvaluatorService ruleEvaluatorService;
+    private BookChangeService bookChangeService;
+    private BookChangeRepository bookChangeRepository;
+    private Path<Object> path;
+    private TypedQuery<Long> typedQuery;
+    private MagicShelfMembershipService membershipService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ruleEvaluatorService = spy(new BookRuleEvaluatorService(new ObjectMapper()));
+        bookChangeService = mock(BookChangeService.class);
+        bookChangeRepository = mock(BookChangeRepository.class);
+
+        EntityManager entityManager = mock(EntityManager.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery<Long> query = mock(CriteriaQuery.class, RETURNS_SELF);
+        Root<BookEntity> root = mock(Root.class);
+        path = mock(Path.class);
+        typedQuery = mock(TypedQuery.class);
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(Long.class)).thenReturn(query);
+        when(query.from(BookEntity.class)).thenReturn(root);
+        doReturn(path).when(root).get(anyString());
+        doReturn(path).when(path).get(anyString());
+        Join<Object, Object> progressJoin = mock(Join.class);
+        doReturn(progressJoin).when(root).join(anyString(), any(JoinType.class));
+        doReturn(path).when(progressJoin).get(anyString());
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of(1L, 5L, 9L));
+
+        membershipService = new MagicShelfMembershipService(ruleEvaluatorService, bookChangeService, bookChangeRepository, entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void getPlan_shouldCompileOncePerFilterVersion() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+
+        MagicShelfRulePlan plan = membershipService.getPlan(shelf);
+        assertSame(plan, membershipService.getPlan(shelf));
+        verify(ruleEvaluatorService, times(1)).compile(any());
+
+        shelf.setFilterJson("{\"type\":\"group\",\"join\":\"and\",\"rules\":[]}");
+        assertNotSame(plan, membershipService.getPlan(shelf));
+        verify(ruleEvaluatorService, times(2)).compile(any());
+    }
+
+    @Test
+    void getPlan_shouldNormalizeRulesAndDetectProgressFields() throws Exception {
+        MagicShelfRulePlan plan = membershipService.getPlan(shelf(TITLE_RULE));
+
+        assertTrue(plan.readsProgress());
+        assertEquals(2, plan.root().children().size());
+        MagicShelfRulePlan.Condition title = (MagicShelfRulePlan.Condition) plan.root().children().getFirst();
+        assertEquals(RuleField.TITLE, title.field());
+        assertEquals("dune", title.text());
+        assertInstanceOf(MagicShelfRulePlan.Group.class, plan.root().children().get(1));
+    }
+
+    @Test
+    void getBookIds_shouldReuseMembershipUntilBooksChange() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L, 10L, 11L);
+        when(bookChangeService.currentVersion()).thenReturn(10L);
+        when(bookChangeRepository.findChangedBookIdsSince(eq(10L), eq(3L), any(Pageable.class))).thenReturn(List.of(9L));
+
+        assertEquals(List.of(1L, 5L, 9L), membershipService.getBookIds(shelf, 3L, Set.of(1L)));
+        assertEquals(List.of(1L, 5L, 9L), membershipService.getBookIds(shelf, 3L, Set.of(1L)));
+        verify(typedQuery, times(1)).getResultList();
+
+        membershipService.getBookIds(shelf, 3L, Set.of(1L));
+        verify(typedQuery, times(2)).getResultList();
+    }
+
+    @Test
+    void getBookIds_shouldOnlyEvaluateChangedBooksAgain() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L, 12L);
+        when(bookChangeService.currentVersion()).thenReturn(10L, 12L);
+        when(bookChangeRepository.findMinId()).thenReturn(1L);
+        when(bookChangeRepository.findChangedBookIdsSince(eq(10L), eq(3L), any(Pageable.class))).thenReturn(List.of(5L, 12L));
+        when(typedQuery.getResultList()).thenReturn(List.of(1L, 5L, 9L), List.of(12L));
+        membershipService.getBookIds(shelf, 3L, Set.of(1L));
+
+        assertEquals(List.of(1L, 9L, 12L), membershipService.getBookIds(shelf, 3L, Set.of(1L)));
+        verify(path).in(List.of(5L, 12L));
+        verify(typedQuery, times(2)).getResultList();
+    }
+
+    @Test
+    void getBookIds_shouldRunTheFullQueryWhenTheChangeLogWasPruned() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L, 50L);
+        when(bookChangeService.currentVersion()).thenReturn(10L, 50L);
+        when(bookChangeRepository.findMinId()).thenReturn(40L);
+        membershipService.getBookIds(shelf, 3L, null);
+
+        membershipService.getBookIds(shelf, 3L, null);
+
+        verify(bookChangeRepository, never()).findChangedBookIdsSince(anyLong(), any(), any(Pageable.class));
+        verify(path, never()).in(anyCollection());
+        verify(typedQuery, times(2)).getResultList();
+    }
+
+    @Test
+    void getBookIds_shouldEvictTheLeastRecentlyUsedMembership() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+        when(bookChangeService.currentVersion()).thenReturn(10L);
+
+        for (long userId = 0; userId <= MagicShelfMembershipService.MAX_CACHED_MEMBERSHIPS; userId++) {
+            membershipService.getBookIds(shelf, userId, null);
+            membershipService.getBookIds(shelf, 0L, null);
+        }
+        int queries = MagicShelfMembershipService.MAX_CACHED_MEMBERSHIPS + 1;
+        verify(typedQuery, times(queries)).getResultList();
+
+        membershipService.getBookIds(shelf, 0L, null);
+        verify(typedQuery, times(queries)).getResultList();
+        membershipService.getBookIds(shelf, 1L, null);
+        verify(typedQuery, times(queries + 1)).getResultList();
+    }
+
+    @Test
+    void getBookIds_shouldKeepMembershipsPerViewer() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+
+        membershipService.getBookIds(shelf, 3L, Set.of(1L));
+        membershipService.getBookIds(shelf, 4L, null);
+        membershipService.getBookIds(shelf, 3L, Set.of(1L));
+
+        verify(typedQuery, times(2)).getResultList();
+    }
+
+    @Test
+    void getBookIds_shouldSkipQueryWithoutAccessibleLibraries() throws Exception {
+        assertEquals(List.of(), membershipService.getBookIds(shelf(TITLE_RULE), 3L, Set.of()));
+        verify(typedQuery, never()).getResultList();
+    }
+
+    @Test
+    void evict_shouldDropPlanAndMemberships() throws Exception {
+        MagicShelfEntity shelf = shelf(TITLE_RULE);
+        when(bookChangeService.latestVersion()).thenReturn(10L);
+        membershipService.getBookIds(shelf, 3L, null);
+
+        membershipService.evict(shelf.getId());
+        membershipService.getBookIds(shelf, 3L, null);
+
+        verify(typedQuery, times(2)).getResultList();
+        verify(ruleEvaluatorService, times(2)).compile(any());
+    }
+
+    private MagicShelfEntity shelf(String filterJson) {
+        return MagicShelfEntity.builder().id(7L).userId(3L).name("Dune").icon("pi-book").filterJson(filterJson).build();
+    }
+}
@@ -7,11 +7,15 @@ import com.adityachandel.booklore.model.dto.*;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.BookLoreUserEntity;
 import com.adityachandel.booklore.model.entity.ShelfEntity;
+import com.adityachandel.booklore.model.enums.OpdsSortOrder;
 import com.adityachandel.booklore.repository.BookOpdsRepository;
 import com.adityachandel.booklore.repository.ShelfRepository;
 import com.adityachandel.booklore.repository.UserRepository;
+import com.adityachandel.booklore.service.book.CatalogService;
 import com.adityachandel.booklore.service.library.LibraryService;
+import com.adityachandel.booklore.service.opds.OpdsBookPage;
 import com.adityachandel.booklore.service.opds.OpdsBookService;
+import com.adityachandel.booklore.service.opds.OpdsKeysetQuery;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,8 +23,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +41,8 @@ class OpdsBookServiceTest {
     @Mock private BookLoreUserTransformer bookLoreUserTransformer;
     @Mock private ShelfRepository shelfRepository;
     @Mock private LibraryService libraryService;
+    @Mock private OpdsKeysetQuery opdsKeysetQuery;
+    @Mock private CatalogService catalogService;
 
     @InjectMocks private OpdsBookService opdsBookService;
 
@@ -143,34 +147,19 @@ class OpdsBookServiceTest {
         when(shelf.getUser()).thenReturn(shelfUser);
         when(shelfRepository.findById(2L)).thenReturn(Optional.of(shelf));
 
-        when(bookOpdsRepository.findBookIds(any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findRecentBookIds(any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByLibraryIds(anySet(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByShelfId(anyLong(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByMetadataSearch(anyString(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByMetadataSearchAndLibraryIds(anyString(), anySet(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findAllWithMetadataByIds(anyList())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithMetadataByIdsAndLibraryIds(anyList(), anySet())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithMetadataByIdsAndShelfId(anyList(), anyLong())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithFullMetadataByIds(anyList())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithFullMetadataByIdsAndLibraryIds(anyList(), anySet())).thenReturn(List.of());
-
-        opdsBookService.getBooksPage(details.getOpdsUserV2().getUserId(), "q", 1L, 2L, 0, 10);
+        when(opdsKeysetQuery.findIds(any(), any(), any(), anyInt(), anyInt())).thenReturn(new OpdsKeysetQuery.IdPage(List.of(), null, 0L));
+
+        OpdsBookPage result = opdsBookService.getBooksPage(details.getOpdsUserV2().getUserId(), "q", 1L, 2L, OpdsSortOrder.RECENT, null, 0, 10);
+
+        assertThat(result.content()).isEmpty();
+        verify(opdsKeysetQuery).findIds(any(), eq(OpdsSortOrder.RECENT), isNull(), eq(0), eq(10));
+        verifyNoInteractions(bookOpdsRepository);
     }
 
     @Test
     void getBooksPage_v2User_delegatesToV2Method() {
         OpdsUserDetails details = v2UserDetails(1L, true, Set.of(1L));
-        when(bookOpdsRepository.findBookIds(any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findRecentBookIds(any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByLibraryIds(anySet(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByShelfId(anyLong(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findBookIdsByMetadataSearch(anyString(), any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findAllWithMetadataByIds(anyList())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithMetadataByIdsAndLibraryIds(anyList(), anySet())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithMetadataByIdsAndShelfId(anyList(), anyLong())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithFullMetadataByIds(anyList())).thenReturn(List.of());
-        when(bookOpdsRepository.findAllWithFullMetadataByIdsAndLibraryIds(anyList(), anySet())).thenReturn(List.of());
+        when(opdsKeysetQuery.findIds(any(), any(), any(), anyInt(), anyInt())).thenReturn(new OpdsKeysetQuery.IdPage(List.of(), null, 0L));
 
         BookLoreUserEntity entity = mock(BookLoreUserEntity.class);
         var permissionsEntity = mock(com.adityachandel.booklore.model.entity.UserPermissionsEntity.class);
@@ -191,7 +180,9 @@ class OpdsBookServiceTest {
         when(shelf.getUser()).thenReturn(shelfUser);
         when(shelfRepository.findById(anyLong())).thenReturn(Optional.of(shelf));
 
-        opdsBookService.getBooksPage(details.getOpdsUserV2().getUserId(), "q", 1L, 2L, 0, 10);
+        opdsBookService.getBooksPage(details.getOpdsUserV2().getUserId(), "q", 1L, 2L, OpdsSortOrder.TITLE_ASC, "cursor", 0, 10);
+
+        verify(opdsKeysetQuery).findIds(any(), eq(OpdsSortOrder.TITLE_ASC), eq("cursor"), eq(0), eq(10));
     }
 
     @Test
@@ -205,10 +196,11 @@ class OpdsBookServiceTest {
         when(user.getPermissions()).thenReturn(perms);
         when(perms.isAdmin()).thenReturn(true);
 
-        when(bookOpdsRepository.findRecentBookIds(any())).thenReturn(Page.empty());
-        when(bookOpdsRepository.findAllWithMetadataByIds(anyList())).thenReturn(List.of());
+        when(opdsKeysetQuery.findIds(any(), any(), any(), anyInt(), anyInt())).thenReturn(new OpdsKeysetQuery.IdPage(List.of(), null, 0L));
 
-        opdsBookService.getRecentBooksPage(details.getOpdsUserV2().getUserId(), 0, 10);
+        opdsBookService.getRecentBooksPage(details.getOpdsUserV2().getUserId(), null, 0, 10);
+
+        verify(opdsKeysetQuery).findIds(isNull(), eq(OpdsSortOrder.RECENT), isNull(), eq(0), eq(10));
     }
 
     @Test
@@ -224,18 +216,61 @@ class OpdsBookServiceTest {
         List<Library> libs = List.of(Library.builder().id(1L).watch(false).build());
         when(user.getAssignedLibraries()).thenReturn(libs);
 
-        Book book = Book.builder().id(1L).shelves(Set.of(Shelf.builder().userId(2L).build())).build();
+        Book book = Book.builder().id(1L).shelves(Set.of(Shelf.builder().userId(2L).build(), Shelf.builder().userId(3L).build())).build();
         BookEntity bookEntity = mock(BookEntity.class);
         when(bookEntity.getId()).thenReturn(1L);
 
-        when(bookOpdsRepository.findRecentBookIdsByLibraryIds(anySet(), any())).thenReturn(new PageImpl<>(List.of(1L)));
-        when(bookOpdsRepository.findAllWithMetadataByIdsAndLibraryIds(anyList(), anySet())).thenReturn(List.of(bookEntity));
+        when(opdsKeysetQuery.findIds(notNull(), eq(OpdsSortOrder.RECENT), isNull(), eq(0), eq(10)))
+                .thenReturn(new OpdsKeysetQuery.IdPage(List.of(1L), "next", 2L));
+        when(bookOpdsRepository.findAllWithMetadataByIds(List.of(1L))).thenReturn(List.of(bookEntity));
         when(bookMapper.toBook(bookEntity)).thenReturn(book);
 
-        Page<Book> result = opdsBookService.getRecentBooksPage(details.getOpdsUserV2().getUserId(), 0, 10);
+        OpdsBookPage result = opdsBookService.getRecentBooksPage(details.getOpdsUserV2().getUserId(), null, 0, 10);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.content().getFirst().getShelves()).allMatch(shelf -> shelf.getUserId().equals(2L));
+        assertThat(result.nextCursor()).isEqualTo("next");
+        assertThat(result.totalElements()).isEqualTo(2L);
+    }
+
+    @Test
+    void getBooksBySeriesName_defaultsToSeriesOrder() {
+        v2UserDetails(1L, true, Set.of());
+        when(opdsKeysetQuery.findIds(any(), any(), any(), anyInt(), anyInt())).thenReturn(new OpdsKeysetQuery.IdPage(List.of(), null, 0L));
+
+        opdsBookService.getBooksBySeriesName(1L, "Dune", OpdsSortOrder.RECENT, null, 0, 10);
+
+        verify(opdsKeysetQuery).findIds(notNull(), eq(OpdsSortOrder.SERIES_ASC), isNull(), eq(0), eq(10));
+    }
+
+    @Test
+    void getDistinctAuthors_pagesAllLibrariesForAdmins() {
+        v2UserDetails(1L, true, Set.of());
+        when(catalogService.getAuthorNames(null, "Alice", 2)).thenReturn(new CatalogPage<>(List.of("bob", "carol"), "carol"));
+
+        OpdsBookService.NamePage page = opdsBookService.getDistinctAuthors(1L, "Alice", 2);
+
+        assertThat(page.names()).containsExactly("bob", "carol");
+        assertThat(page.nextAfter()).isEqualTo("carol");
+    }
+
+    @Test
+    void getDistinctSeries_pagesTheUsersLibraries() {
+        v2UserDetails(1L, false, Set.of(3L));
+        when(catalogService.getSeriesNames(Set.of(3L), "Empire", 10)).thenReturn(new CatalogPage<>(List.of("Expanse", "Foundation"), null));
+
+        OpdsBookService.NamePage page = opdsBookService.getDistinctSeries(1L, "Empire", 10);
+
+        assertThat(page.names()).containsExactly("Expanse", "Foundation");
+        assertThat(page.nextAfter()).isNull();
+    }
+
+    @Test
+    void getDistinctSeries_isEmptyWithoutLibraries() {
+        v2UserDetails(1L, false, Set.of());
 
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().getFirst().getShelves()).allMatch(shelf -> shelf.getUserId().equals(2L));
+        assertThat(opdsBookService.getDistinctSeries(1L, null, 10).names()).isEmpty();
+        verifyNoInteractions(catalogService);
     }
 
     @Test
@@ -327,7 +362,7 @@ class OpdsBookServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(entity));
 
         assertThatThrownBy(() ->
-                opdsBookService.getBooksPage(1L, null, null, null, 0, 10)
+                opdsBookService.getBooksPage(1L, null, null, null, OpdsSortOrder.RECENT, null, 0, 10)
         ).hasMessageContaining("You are not allowed to access this resource");
     }
 
@@ -6,6 +6,7 @@ import com.adityachandel.booklore.model.dto.response.BookdropFinalizeResult;
 import com.adityachandel.booklore.repository.BookdropFileRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMovingHelper;
 import com.adityachandel.booklore.service.monitoring.MonitoringRegistrationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -42,6 +43,9 @@ class BookDropServiceFinalizeTest {
     @Mock
     private BookdropNotificationService bookdropNotificationService;
 
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private BookDropService bookDropService;
 
@@ -18,6 +18,7 @@ import com.adityachandel.booklore.repository.BookdropFileRepository;
 import com.adityachandel.booklore.repository.LibraryPathRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMovingHelper;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessor;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessorRegistry;
@@ -86,6 +87,9 @@ class BookDropServiceTest {
     @Mock
     private FileMovingHelper fileMovingHelper;
 
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private BookDropService bookDropService;
 
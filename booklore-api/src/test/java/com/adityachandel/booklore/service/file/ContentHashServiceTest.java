@@ -0,0 +1,178 @@
+package com.adityachandel.booklore.service.file;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.ContentHashCandidate;
+import com.adityachandel.booklore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContentHashServiceTest {
+
+    @TempDir
+    Path libraryRoot;
+
+    private BookRepository bookRepository;
+    private AppProperties appProperties;
+    private ContentHashService service;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        appProperties = new AppProperties();
+        appProperties.setContentHashEnabled(true);
+        appProperties.setContentHashWorkers(2);
+        service = new ContentHashService(bookRepository, appProperties, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void contentHash_shouldTellApartFilesThatShareThePartialHash() throws Exception {
+        byte[] content = new byte[8192];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path original = Files.write(libraryRoot.resolve("original.epub"), content);
+        // Offset 3000 lies between the sampled blocks
+        content[3000] ^= 1;
+        Path edited = Files.write(libraryRoot.resolve("edited.epub"), content);
+
+        assertThat(FileFingerprint.generateHash(edited)).isEqualTo(FileFingerprint.generateHash(original));
+        assertThat(FileFingerprint.generateContentHash(edited)).isNotEqualTo(FileFingerprint.generateContentHash(original));
+        assertThat(FileFingerprint.generateContentHash(edited))
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+    }
+
+    @Test
+    void contentHash_shouldHashEmptyFiles() throws Exception {
+        Path empty = Files.createFile(libraryRoot.resolve("empty.pdf"));
+
+        assertThat(FileFingerprint.generateContentHash(empty))
+                .isEqualTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+    }
+
+    @Test
+    void hashAll_shouldStoreHashesAgainstThePartialHashThatWasRead() throws Exception {
+        Files.createDirectories(libraryRoot.resolve("sub"));
+        Files.writeString(libraryRoot.resolve("sub/a.epub"), "first book");
+        Files.writeString(libraryRoot.resolve("sub/b.epub"), "second book");
+        when(bookRepository.findContentHashCandidatesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(candidate(1L, "partial-a", "a.epub"), candidate(2L, "partial-b", "b.epub")));
+        when(bookRepository.findContentHashCandidatesAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        int hashed = service.hashAll();
+
+        assertThat(hashed).isEqualTo(2);
+        verify(bookRepository).updateContentHash(1L, "partial-a", FileFingerprint.generateContentHash(libraryRoot.resolve("sub/a.epub")),
+                Files.size(libraryRoot.resolve("sub/a.epub")), Files.getLastModifiedTime(libraryRoot.resolve("sub/a.epub")).toMillis());
+        verify(bookRepository).updateContentHash(2L, "partial-b", FileFingerprint.generateContentHash(libraryRoot.resolve("sub/b.epub")),
+                Files.size(libraryRoot.resolve("sub/b.epub")), Files.getLastModifiedTime(libraryRoot.resolve("sub/b.epub")).toMillis());
+    }
+
+    @Test
+    void hashAll_shouldSkipUnreadableFilesAndContinue() throws Exception {
+        Files.createDirectories(libraryRoot.resolve("sub"));
+        Files.writeString(libraryRoot.resolve("sub/b.epub"), "second book");
+        when(bookRepository.findContentHashCandidatesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(candidate(1L, "partial-a", "missing.epub"), candidate(2L, "partial-b", "b.epub")));
+        when(bookRepository.findContentHashCandidatesAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        int hashed = service.hashAll();
+
+        assertThat(hashed).isEqualTo(1);
+        verify(bookRepository, never()).updateContentHash(eq(1L), anyString(), anyString(), anyLong(), anyLong());
+        verify(bookRepository).updateContentHash(eq(2L), eq("partial-b"), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void hashAll_shouldRehashWhenSizeOrMtimeChangedButThePartialHashDidNot() throws Exception {
+        Files.createDirectories(libraryRoot.resolve("sub"));
+        Path unchanged = Files.writeString(libraryRoot.resolve("sub/a.epub"), "first book");
+        Path edited = Files.writeString(libraryRoot.resolve("sub/b.epub"), "second book, edited between the sampled blocks");
+        long unchangedModified = Files.getLastModifiedTime(unchanged).toMillis();
+        when(bookRepository.findContentHashCandidatesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                candidate(1L, "partial-a", "a.epub", "stored-a", Files.size(unchanged), unchangedModified),
+                candidate(2L, "partial-b", "b.epub", "stored-b", 11L, Files.getLastModifiedTime(edited).toMillis() - 60_000)));
+        when(bookRepository.findContentHashCandidatesAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        int hashed = service.hashAll();
+
+        assertThat(hashed).isEqualTo(1);
+        verify(bookRepository, never()).updateContentHash(eq(1L), anyString(), anyString(), anyLong(), anyLong());
+        verify(bookRepository).updateContentHash(2L, "partial-b", FileFingerprint.generateContentHash(edited),
+                Files.size(edited), Files.getLastModifiedTime(edited).toMillis());
+    }
+
+    @Test
+    void hashPendingBooks_shouldDoNothingWhenDisabled() {
+        appProperties.setContentHashEnabled(false);
+
+        service.hashPendingBooks();
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    private ContentHashCandidate candidate(long id, String currentHash, String fileName) {
+        return candidate(id, currentHash, fileName, null, null, null);
+    }
+
+    private ContentHashCandidate candidate(long id, String currentHash, String fileName, String contentHash, Long fileSize, Long fileModified) {
+        return new ContentHashCandidate() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCurrentHash() {
+                return currentHash;
+            }
+
+            @Override
+            public String getLibraryPath() {
+                return libraryRoot.toString();
+            }
+
+            @Override
+            public String getFileSubPath() {
+                return "sub";
+            }
+
+            @Override
+            public String getFileName() {
+                return fileName;
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public String getContentHashSource() {
+                return contentHash == null ? null : currentHash;
+            }
+
+            @Override
+            public Long getContentHashFileSize() {
+                return fileSize;
+            }
+
+            @Override
+            public Long getContentHashFileModified() {
+                return fileModified;
+            }
+        };
+    }
+}
@@ -9,6 +9,7 @@ import com.adityachandel.booklore.model.entity.LibraryPathEntity;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.monitoring.MonitoringRegistrationService;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,6 +51,9 @@ class FileMoveServiceTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private FileMoveService fileMoveService;
 
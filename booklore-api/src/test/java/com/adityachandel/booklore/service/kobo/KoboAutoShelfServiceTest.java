@@ -6,8 +6,10 @@ import com.adityachandel.booklore.model.entity.KoboUserSettingsEntity;
 import com.adityachandel.booklore.model.entity.ShelfEntity;
 import com.adityachandel.booklore.model.enums.ShelfType;
 import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.BookShelfMappingRepository;
 import com.adityachandel.booklore.repository.KoboUserSettingsRepository;
 import com.adityachandel.booklore.repository.ShelfRepository;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +37,12 @@ class KoboAutoShelfServiceTest {
     @Mock
     private KoboCompatibilityService koboCompatibilityService;
 
+    @Mock
+    private BookShelfMappingRepository bookShelfMappingRepository;
+
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private KoboAutoShelfService koboAutoShelfService;
 
@@ -87,182 +95,59 @@ class KoboAutoShelfServiceTest {
     }
 
     @Test
-    void autoAddBookToKoboShelves_withNullBookId_shouldReturnEarly() {
-        koboAutoShelfService.autoAddBookToKoboShelves(null);
-
-        verify(bookRepository, never()).findById(anyLong());
-        verify(koboUserSettingsRepository, never()).findByAutoAddToShelfTrueAndSyncEnabledTrue();
-        verify(shelfRepository, never()).findByUserIdInAndName(anyList(), anyString());
-        verify(bookRepository, never()).save(any());
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withNonExistentBook_shouldReturnEarly() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).findById(1L);
-        verify(koboUserSettingsRepository, never()).findByAutoAddToShelfTrueAndSyncEnabledTrue();
-        verify(shelfRepository, never()).findByUserIdInAndName(anyList(), anyString());
-        verify(bookRepository, never()).save(any());
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withIncompatibleBook_shouldReturnEarly() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(false);
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).findById(1L);
-        verify(koboCompatibilityService).isBookSupportedForKobo(testBook);
-        verify(koboUserSettingsRepository, never()).findByAutoAddToShelfTrueAndSyncEnabledTrue();
-        verify(shelfRepository, never()).findByUserIdInAndName(anyList(), anyString());
-        verify(bookRepository, never()).save(any());
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withNoEligibleUsers_shouldReturnEarly() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(Collections.emptyList());
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).findById(1L);
-        verify(koboCompatibilityService).isBookSupportedForKobo(testBook);
-        verify(koboUserSettingsRepository).findByAutoAddToShelfTrueAndSyncEnabledTrue();
-        verify(shelfRepository, never()).findByUserIdInAndName(anyList(), anyString());
-        verify(bookRepository, never()).save(any());
-    }
+    void autoAddBooksToKoboShelves_shouldInsertAllMappingsAtOnce() {
+        BookEntity secondBook = BookEntity.builder().id(2L).build();
+        BookEntity incompatibleBook = BookEntity.builder().id(3L).build();
 
-    @Test
-    void autoAddBookToKoboShelves_successfully_shouldAddBookToShelves() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(testBook, secondBook, incompatibleBook));
         when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
+        when(koboCompatibilityService.isBookSupportedForKobo(secondBook)).thenReturn(true);
+        when(koboCompatibilityService.isBookSupportedForKobo(incompatibleBook)).thenReturn(false);
         when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
                 .thenReturn(List.of(settings1, settings2));
         when(shelfRepository.findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName()))
                 .thenReturn(List.of(koboShelf1, koboShelf2));
+        when(bookShelfMappingRepository.addBooksToShelves(List.of(1L, 2L), List.of(10L, 20L))).thenReturn(4);
 
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).findById(1L);
-        verify(koboCompatibilityService).isBookSupportedForKobo(testBook);
-        verify(koboUserSettingsRepository).findByAutoAddToShelfTrueAndSyncEnabledTrue();
-        verify(shelfRepository).findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName());
-        verify(bookRepository).save(testBook);
-
-        assert testBook.getShelves().contains(koboShelf1);
-        assert testBook.getShelves().contains(koboShelf2);
-        assert testBook.getShelves().size() == 2;
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withOneUserMissingShelf_shouldAddOnlyToExistingShelves() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(List.of(settings1, settings2));
-        when(shelfRepository.findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName()))
-                .thenReturn(List.of(koboShelf1));
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).save(testBook);
-        assert testBook.getShelves().contains(koboShelf1);
-        assert !testBook.getShelves().contains(koboShelf2);
-        assert testBook.getShelves().size() == 1;
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withBookAlreadyOnShelf_shouldNotDuplicate() {
-        testBook.getShelves().add(koboShelf1);
-
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(List.of(settings1, settings2));
-        when(shelfRepository.findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName()))
-                .thenReturn(List.of(koboShelf1, koboShelf2));
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
-
-        verify(bookRepository).save(testBook);
-        assert testBook.getShelves().contains(koboShelf1);
-        assert testBook.getShelves().contains(koboShelf2);
-        assert testBook.getShelves().size() == 2;
-    }
-
-    @Test
-    void autoAddBookToKoboShelves_withBookOnAllShelves_shouldNotSave() {
-        testBook.getShelves().add(koboShelf1);
-        testBook.getShelves().add(koboShelf2);
-
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(List.of(settings1, settings2));
-        when(shelfRepository.findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName()))
-                .thenReturn(List.of(koboShelf1, koboShelf2));
-
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
+        koboAutoShelfService.autoAddBooksToKoboShelves(List.of(1L, 2L, 3L));
 
+        verify(bookShelfMappingRepository).addBooksToShelves(List.of(1L, 2L), List.of(10L, 20L));
+        verify(koboUserSettingsRepository, times(1)).findByAutoAddToShelfTrueAndSyncEnabledTrue();
         verify(bookRepository, never()).save(any());
-        assert testBook.getShelves().size() == 2;
+        verify(bookChangeService).recordUserChanges(100L, List.of(1L, 2L));
+        verify(bookChangeService).recordUserChanges(200L, List.of(1L, 2L));
     }
 
     @Test
-    void autoAddBookToKoboShelves_withNoKoboShelvesFound_shouldNotSave() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(List.of(settings1, settings2));
-        when(shelfRepository.findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName()))
-                .thenReturn(Collections.emptyList());
+    void autoAddBooksToKoboShelves_withNoCompatibleBooks_shouldNotQueryUsers() {
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(false);
 
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
+        koboAutoShelfService.autoAddBooksToKoboShelves(List.of(1L));
 
-        verify(shelfRepository).findByUserIdInAndName(List.of(100L, 200L), ShelfType.KOBO.getName());
-        verify(bookRepository, never()).save(any());
-        assert testBook.getShelves().isEmpty();
+        verify(koboUserSettingsRepository, never()).findByAutoAddToShelfTrueAndSyncEnabledTrue();
+        verify(bookShelfMappingRepository, never()).addBooksToShelves(any(), any());
     }
 
     @Test
-    void autoAddBookToKoboShelves_withSingleUser_shouldAddToSingleShelf() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+    void autoAddBooksToKoboShelves_withNoKoboShelves_shouldNotInsert() {
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
         when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
         when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
                 .thenReturn(List.of(settings1));
         when(shelfRepository.findByUserIdInAndName(List.of(100L), ShelfType.KOBO.getName()))
-                .thenReturn(List.of(koboShelf1));
+                .thenReturn(List.of());
 
-        koboAutoShelfService.autoAddBookToKoboShelves(1L);
+        koboAutoShelfService.autoAddBooksToKoboShelves(List.of(1L));
 
-        verify(bookRepository).save(testBook);
-        assert testBook.getShelves().contains(koboShelf1);
-        assert testBook.getShelves().size() == 1;
+        verify(bookShelfMappingRepository, never()).addBooksToShelves(any(), any());
+        verifyNoInteractions(bookChangeService);
     }
 
     @Test
-    void autoAddBookToKoboShelves_withNullShelves_shouldInitializeAndAdd() {
-        testBook = BookEntity.builder()
-                .id(1L)
-                .shelves(null)
-                .build();
-
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(koboCompatibilityService.isBookSupportedForKobo(testBook)).thenReturn(true);
-        when(koboUserSettingsRepository.findByAutoAddToShelfTrueAndSyncEnabledTrue())
-                .thenReturn(List.of(settings1));
-        when(shelfRepository.findByUserIdInAndName(List.of(100L), ShelfType.KOBO.getName()))
-                .thenReturn(List.of(koboShelf1));
+    void autoAddBooksToKoboShelves_withEmptyBatch_shouldDoNothing() {
+        koboAutoShelfService.autoAddBooksToKoboShelves(List.of());
 
-        try {
-            koboAutoShelfService.autoAddBookToKoboShelves(1L);
-        } catch (NullPointerException e) {
-        }
+        verifyNoInteractions(bookRepository, koboUserSettingsRepository, shelfRepository, bookShelfMappingRepository, bookChangeService);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.adityachandel.booklore.service.library;
+
+import com.adityachandel.booklore.repository.BookAdditionalFileRepository;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookDeletionServiceTest {
+
+    private BookRepository bookRepository;
+    private BookFileCleanupService bookFileCleanupService;
+    private BookDeletionService service;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookFileCleanupService = mock(BookFileCleanupService.class);
+        service = new BookDeletionService(bookRepository, mock(BookAdditionalFileRepository.class), mock(NotificationService.class),
+                mock(BookChangeService.class), bookFileCleanupService, mock(PlatformTransactionManager.class), mock(EntityManager.class));
+    }
+
+    @Test
+    void purgeSoftDeleted_shouldDeleteInKeysetBatchesAndQueueFileCleanup() {
+        List<Long> first = LongStream.rangeClosed(1, BookDeletionService.BATCH_SIZE).boxed().toList();
+        List<Long> second = List.of(900L, 901L);
+        when(bookRepository.findSoftDeletedIdsAfter(eq(0L), any(Pageable.class))).thenReturn(first);
+        when(bookRepository.findSoftDeletedIdsAfter(eq((long) BookDeletionService.BATCH_SIZE), any(Pageable.class))).thenReturn(second);
+        when(bookRepository.findSoftDeletedIdsAfter(eq(901L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.deleteSoftDeletedByIdIn(anyCollection())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+        List<Integer> progress = new ArrayList<>();
+
+        int purged = service.purgeSoftDeleted(null, progress::add);
+
+        assertThat(purged).isEqualTo(BookDeletionService.BATCH_SIZE + 2);
+        assertThat(progress).containsExactly(BookDeletionService.BATCH_SIZE, BookDeletionService.BATCH_SIZE + 2);
+        verify(bookFileCleanupService).enqueueBooks(first);
+        verify(bookFileCleanupService).enqueueBooks(second);
+        verify(bookRepository, never()).findSoftDeletedIdsBefore(any(), anyLong(), any());
+    }
+
+    @Test
+    void purgeSoftDeleted_shouldOnlyPurgeBooksDeletedBeforeTheCutoff() {
+        Instant cutoff = Instant.parse("2025-01-01T00:00:00Z");
+        when(bookRepository.findSoftDeletedIdsBefore(eq(cutoff), eq(0L), any(Pageable.class))).thenReturn(List.of(5L));
+        when(bookRepository.findSoftDeletedIdsBefore(eq(cutoff), eq(5L), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.deleteSoftDeletedByIdIn(List.of(5L))).thenReturn(1);
+
+        assertThat(service.purgeSoftDeleted(cutoff, purged -> {})).isEqualTo(1);
+        verify(bookRepository, never()).findSoftDeletedIdsAfter(anyLong(), any());
+    }
+
+    @Test
+    void deleteBooks_shouldDeleteRowsInIdOrderAndQueueTheirCleanup() {
+        List<BookFileCleanupService.Cleanup> cleanups = List.of(
+                BookFileCleanupService.Cleanup.of(3L),
+                BookFileCleanupService.Cleanup.of(1L),
+                BookFileCleanupService.Cleanup.of(2L));
+
+        service.deleteBooks(cleanups);
+
+        verify(bookRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(bookFileCleanupService).enqueue(List.of(
+                BookFileCleanupService.Cleanup.of(1L),
+                BookFileCleanupService.Cleanup.of(2L),
+                BookFileCleanupService.Cleanup.of(3L)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.adityachandel.booklore.service.library;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.file.FileMoveHelper;
+import com.adityachandel.booklore.util.FileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookFileCleanupServiceTest {
+
+    @TempDir
+    Path config;
+
+    private BookRepository bookRepository;
+    private FileMoveHelper fileMoveHelper;
+    private BookFileCleanupService service;
+
+    @BeforeEach
+    void setUp() {
+        FileService fileService = mock(FileService.class);
+        when(fileService.getImagesFolder()).thenReturn(config.resolve("images").toString());
+        when(fileService.getImagesFolder(anyLong())).thenAnswer(inv -> config.resolve("images").resolve(String.valueOf((long) inv.getArgument(0))).toString());
+        when(fileService.getBookMetadataBackupPath()).thenReturn(config.resolve("metadata_backup").toString());
+        when(fileService.getBookMetadataBackupPath(anyLong())).thenAnswer(inv -> config.resolve("metadata_backup").resolve(String.valueOf((long) inv.getArgument(0))).toString());
+        when(fileService.getCbxCachePath()).thenReturn(config.resolve("cbx_cache").toString());
+        when(fileService.getPdfCachePath()).thenReturn(config.resolve("pdf_cache").toString());
+        bookRepository = mock(BookRepository.class);
+        fileMoveHelper = mock(FileMoveHelper.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.setBookCleanupWorkers(2);
+        service = new BookFileCleanupService(fileService, fileMoveHelper, bookRepository, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void clean_shouldRemoveCoversBackupsAndReaderCaches() throws Exception {
+        createBookFolders(7L);
+        createBookFolders(8L);
+
+        boolean cleaned = service.clean(BookFileCleanupService.Cleanup.of(7L));
+
+        assertThat(cleaned).isTrue();
+        for (String root : List.of("images", "metadata_backup", "cbx_cache", "pdf_cache")) {
+            assertThat(config.resolve(root).resolve("7")).doesNotExist();
+            assertThat(config.resolve(root).resolve("8")).exists();
+        }
+        verifyNoInteractions(fileMoveHelper);
+    }
+
+    @Test
+    void clean_shouldPruneTheFolderTheBookFileWasDeletedFrom() throws Exception {
+        Path libraryRoot = Files.createDirectories(config.resolve("library"));
+        Path bookFolder = Files.createDirectories(libraryRoot.resolve("Author/Title"));
+
+        service.clean(new BookFileCleanupService.Cleanup(7L, bookFolder, libraryRoot));
+
+        verify(fileMoveHelper).deleteEmptyParentDirsUpToLibraryFolders(bookFolder, Set.of(libraryRoot));
+    }
+
+    @Test
+    void enqueue_shouldCleanUpInTheBackground() throws Exception {
+        for (long id = 1; id <= 450; id++) {
+            createBookFolders(id);
+        }
+
+        service.enqueueBooks(LongStream.rangeClosed(1, 450).boxed().toList());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.progress().cleaned() < 450 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(service.progress()).isEqualTo(new BookFileCleanupService.Progress(0, 450, 0));
+        try (var images = Files.list(config.resolve("images"))) {
+            assertThat(images).isEmpty();
+        }
+    }
+
+    @Test
+    void findOrphans_shouldReportFoldersOfBooksThatNoLongerExist() throws Exception {
+        createBookFolders(1L);
+        createBookFolders(2L);
+        age(Files.createDirectories(config.resolve("pdf_cache").resolve("3")));
+        Files.createDirectories(config.resolve("images").resolve("not-a-book"));
+        when(bookRepository.findExistingIds(anyList())).thenReturn(Set.of(2L));
+
+        Set<Long> orphans = service.findOrphans();
+
+        assertThat(orphans).containsExactlyInAnyOrder(1L, 3L);
+        verify(bookRepository).findExistingIds(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void findOrphans_shouldSkipBooksWithRecentlyModifiedFolders() throws Exception {
+        createBookFolders(1L);
+        Files.createDirectories(config.resolve("images").resolve("4"));
+        createBookFolders(5L);
+        Files.setLastModifiedTime(config.resolve("cbx_cache").resolve("5"), FileTime.from(Instant.now()));
+        when(bookRepository.findExistingIds(anyList())).thenReturn(Set.of());
+
+        Set<Long> orphans = service.findOrphans();
+
+        assertThat(orphans).containsExactly(1L);
+        verify(bookRepository).findExistingIds(List.of(1L));
+    }
+
+    private void age(Path folder) throws Exception {
+        Files.setLastModifiedTime(folder, FileTime.from(Instant.now().minus(BookFileCleanupService.ORPHAN_GRACE).minusSeconds(60)));
+    }
+
+    private void createBookFolders(long bookId) throws Exception {
+        for (String root : List.of("images", "metadata_backup", "cbx_cache", "pdf_cache")) {
+            Path folder = Files.createDirectories(config.resolve(root).resolve(String.valueOf(bookId)));
+            Files.writeString(folder.resolve("file.jpg"), "data");
+            age(folder);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.adityachandel.booklore.service.library;
+
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookPathRow;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.book.BookChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookRestorationServiceTest {
+
+    @Mock private BookRepository bookRepository;
+    @Mock private BookMapper bookMapper;
+    @Mock private NotificationService notificationService;
+    @Mock private BookChangeService bookChangeService;
+    @InjectMocks private BookRestorationService bookRestorationService;
+
+    private LibraryEntity library;
+    private LibraryPathEntity libraryPath;
+
+    @BeforeEach
+    void setUp() {
+        library = LibraryEntity.builder().id(1L).name("Library").build();
+        libraryPath = LibraryPathEntity.builder().id(10L).path("/books").build();
+    }
+
+    @Test
+    void restoreDeletedBooks_shouldRestoreMatchingBooksWithOneBulkUpdate() {
+        when(bookRepository.findDeletedPathRowsByLibraryId(1L)).thenReturn(List.of(
+                row(1L, 10L, "Author", "back.epub", true),
+                row(2L, 10L, "Author", "still-gone.epub", true),
+                row(3L, 11L, "Author", "other-path.epub", true)));
+        BookEntity restoredEntity = BookEntity.builder().id(1L).build();
+        Book restoredBook = Book.builder().id(1L).build();
+        when(bookRepository.findAllWithMetadataByIds(Set.of(1L))).thenReturn(List.of(restoredEntity));
+        when(bookMapper.toBookWithDescription(restoredEntity, false)).thenReturn(restoredBook);
+        when(bookChangeService.recordChanges(List.of(1L))).thenReturn(7L);
+
+        bookRestorationService.restoreDeletedBooks(List.of(file("Author", "back.epub"), file("", "other-path.epub")));
+
+        verify(bookRepository).restoreDeleted(eq(List.of(1L)), any());
+        verify(notificationService).sendMessage(Topic.BOOK_ADD, restoredBook, 7L);
+        verifyNoMoreInteractions(notificationService);
+    }
+
+    @Test
+    void restoreDeletedBooks_shouldDoNothingWhenNoDeletedBookIsBack() {
+        when(bookRepository.findDeletedPathRowsByLibraryId(1L)).thenReturn(List.of(row(1L, 10L, "Author", "gone.epub", true)));
+
+        bookRestorationService.restoreDeletedBooks(List.of(file("Author", "present.epub")));
+
+        verify(bookRepository, never()).restoreDeleted(anyCollection(), any());
+        verifyNoInteractions(notificationService, bookChangeService);
+    }
+
+    @Test
+    void detectDeletedBookIds_shouldSkipSoftDeletedBooksAndMatchOnRelativePath() {
+        List<BookPathRow> rows = List.of(
+                row(1L, 10L, "Author", "present.epub", false),
+                row(2L, 10L, "Author/", "present-trailing-slash.epub", false),
+                row(3L, 10L, "Author", "missing.epub", false),
+                row(4L, 10L, "Author", "missing-and-deleted.epub", true),
+                row(5L, 10L, "", "root.pdf", null));
+
+        List<Long> deleted = LibraryProcessingService.detectDeletedBookIds(List.of(
+                file("Author", "present.epub"),
+                file("Author", "present-trailing-slash.epub"),
+                file("", "root.pdf")), rows);
+
+        assertThat(deleted).containsExactly(3L);
+    }
+
+    private LibraryFile file(String fileSubPath, String fileName) {
+        return LibraryFile.builder()
+                .libraryEntity(library)
+                .libraryPathEntity(libraryPath)
+                .fileSubPath(fileSubPath)
+                .fileName(fileName)
+                .build();
+    }
+
+    private static BookPathRow row(Long id, Long libraryPathId, String fileSubPath, String fileName, Boolean deleted) {
+        return new BookPathRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getLibraryPathId() {
+                return libraryPathId;
+            }
+
+            @Override
+            public String getFileSubPath() {
+                return fileSubPath;
+            }
+
+            @Override
+            public String getFileName() {
+                return fileName;
+            }
+
+            @Override
+            public Boolean getDeleted() {
+                return deleted;
+            }
+        };
+    }
+}
@@ -10,6 +10,7 @@ import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.service.event.BookEventBroadcaster;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessor;
 import com.adityachandel.booklore.service.fileprocessor.BookFileProcessorRegistry;
+import com.adityachandel.booklore.service.kobo.KoboAutoShelfService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,9 @@ class FileAsBookProcessorTest {
     @Mock
     private BookFileProcessor bookFileProcessor;
 
+    @Mock
+    private KoboAutoShelfService koboAutoShelfService;
+
     @InjectMocks
     private FileAsBookProcessor fileAsBookProcessor;
 
@@ -365,4 +369,36 @@ class FileAsBookProcessorTest {
         // Then
         verify(bookEventBroadcaster, times(4)).broadcastBookAddEvent(any(Book.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void processLibraryFiles_shouldAutoShelveAddedBooksInOneBatch() {
+        LibraryEntity libraryEntity = new LibraryEntity();
+        LibraryPathEntity libraryPathEntity = new LibraryPathEntity();
+        libraryPathEntity.setPath("/library/path");
+        List<LibraryFile> libraryFiles = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            LibraryFile file = LibraryFile.builder()
+                    .libraryEntity(libraryEntity)
+                    .libraryPathEntity(libraryPathEntity)
+                    .fileName("book" + i + ".epub")
+                    .fileSubPath("books")
+                    .bookFileType(BookFileType.EPUB)
+                    .build();
+            libraryFiles.add(file);
+            when(bookFileProcessor.processFile(file))
+                    .thenReturn(new FileProcessResult(Book.builder().id(i).bookType(BookFileType.EPUB).build(), FileProcessStatus.NEW));
+        }
+        when(processorRegistry.getProcessorOrThrow(BookFileType.EPUB)).thenReturn(bookFileProcessor);
+
+        fileAsBookProcessor.processLibraryFiles(libraryFiles, libraryEntity);
+
+        verify(koboAutoShelfService, times(1)).autoAddBooksToKoboShelves(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void processLibraryFiles_shouldNotAutoShelveWhenNothingWasAdded() {
+        fileAsBookProcessor.processLibraryFiles(new ArrayList<>(), new LibraryEntity());
+
+        verifyNoInteractions(koboAutoShelfService);
+    }
+}
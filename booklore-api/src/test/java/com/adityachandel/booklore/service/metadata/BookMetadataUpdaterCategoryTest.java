@@ -12,6 +12,7 @@ import com.adityachandel.booklore.model.entity.CategoryEntity;
 import com.adityachandel.booklore.model.enums.MetadataReplaceMode;
 import com.adityachandel.booklore.repository.*;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMoveService;
 import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
 import com.adityachandel.booklore.util.FileService;
@@ -22,13 +23,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Collection;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
@@ -40,6 +40,7 @@ class BookMetadataUpdaterCategoryTest {
     @Mock private CategoryRepository categoryRepository;
     @Mock private MoodRepository moodRepository;
     @Mock private TagRepository tagRepository;
+    @Mock private MetadataNameCache metadataNameCache;
     @Mock private BookRepository bookRepository;
     @Mock private FileService fileService;
     @Mock private MetadataMatchService metadataMatchService;
@@ -47,6 +48,7 @@ class BookMetadataUpdaterCategoryTest {
     @Mock private MetadataWriterFactory metadataWriterFactory;
     @Mock private BookReviewUpdateService bookReviewUpdateService;
     @Mock private FileMoveService fileMoveService;
+    @Mock private BookChangeService bookChangeService;
 
     @InjectMocks
     private BookMetadataUpdater bookMetadataUpdater;
@@ -57,13 +59,13 @@ class BookMetadataUpdaterCategoryTest {
         appSettings.setMetadataPersistenceSettings(new MetadataPersistenceSettings());
         lenient().when(appSettingService.getAppSettings()).thenReturn(appSettings);
 
-        lenient().when(categoryRepository.findByName(anyString())).thenAnswer(invocation -> {
-            String name = invocation.getArgument(0);
-            return Optional.of(CategoryEntity.builder().name(name).build());
+        lenient().when(metadataNameCache.categories(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream()
+                    .filter(name -> name != null && !name.isBlank())
+                    .map(name -> CategoryEntity.builder().name(name).build())
+                    .collect(Collectors.toSet());
         });
-
-        lenient().when(categoryRepository.save(any(CategoryEntity.class))).thenAnswer(invocation ->
-            invocation.getArgument(0));
     }
     @Test
     void replaceAll_withMergeFalse_shouldClearAndAddNew() {
@@ -259,18 +261,13 @@ class BookMetadataUpdaterCategoryTest {
         BookMetadata newMetadata = new BookMetadata();
         newMetadata.setCategories(Set.of("BrandNew"));
 
-        when(categoryRepository.findByName("BrandNew")).thenReturn(Optional.empty());
-        when(categoryRepository.save(any(CategoryEntity.class))).thenAnswer(invocation -> {
-            CategoryEntity saved = invocation.getArgument(0);
-            saved.setId(999L);
-            return saved;
-        });
+        when(metadataNameCache.categories(Set.of("BrandNew"))).thenReturn(new HashSet<>(Set.of(CategoryEntity.builder().id(999L).name("BrandNew").build())));
 
         MetadataUpdateContext context = createContext(bookEntity, newMetadata, false, MetadataReplaceMode.REPLACE_ALL);
 
         bookMetadataUpdater.setBookMetadata(context);
 
-        verify(categoryRepository).save(any(CategoryEntity.class));
+        verify(metadataNameCache).categories(Set.of("BrandNew"));
         Set<CategoryEntity> categories = bookEntity.getMetadata().getCategories();
         assertEquals(1, categories.size());
         assertTrue(containsCategory(categories, "BrandNew"));
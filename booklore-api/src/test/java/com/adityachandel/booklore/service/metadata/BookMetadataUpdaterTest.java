@@ -12,6 +12,7 @@ import com.adityachandel.booklore.model.entity.TagEntity;
 import com.adityachandel.booklore.model.enums.MetadataReplaceMode;
 import com.adityachandel.booklore.repository.*;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.file.FileMoveService;
 import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
 import com.adityachandel.booklore.util.FileService;
@@ -24,7 +25,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +37,7 @@ class BookMetadataUpdaterTest {
     @Mock private CategoryRepository categoryRepository;
     @Mock private MoodRepository moodRepository;
     @Mock private TagRepository tagRepository;
+    @Mock private MetadataNameCache metadataNameCache;
     @Mock private BookRepository bookRepository;
     @Mock private FileService fileService;
     @Mock private MetadataMatchService metadataMatchService;
@@ -44,6 +45,7 @@ class BookMetadataUpdaterTest {
     @Mock private MetadataWriterFactory metadataWriterFactory;
     @Mock private BookReviewUpdateService bookReviewUpdateService;
     @Mock private FileMoveService fileMoveService;
+    @Mock private BookChangeService bookChangeService;
 
     @InjectMocks
     private BookMetadataUpdater bookMetadataUpdater;
@@ -81,7 +83,7 @@ class BookMetadataUpdaterTest {
                 .replaceMode(MetadataReplaceMode.REPLACE_ALL)
                 .build();
 
-        when(tagRepository.findByName("Tag1")).thenReturn(Optional.of(TagEntity.builder().name("Tag1").build()));
+        when(metadataNameCache.tags(Set.of("Tag1"))).thenReturn(new HashSet<>(Set.of(TagEntity.builder().name("Tag1").build())));
 
         bookMetadataUpdater.setBookMetadata(context);
 
@@ -146,7 +148,7 @@ class BookMetadataUpdaterTest {
                 .replaceMode(MetadataReplaceMode.REPLACE_ALL)
                 .build();
 
-        when(tagRepository.findByName("Tag3")).thenReturn(Optional.of(TagEntity.builder().name("Tag3").build()));
+        when(metadataNameCache.tags(Set.of("Tag3"))).thenReturn(new HashSet<>(Set.of(TagEntity.builder().name("Tag3").build())));
 
         // Act
         bookMetadataUpdater.setBookMetadata(context);
@@ -183,7 +185,7 @@ class BookMetadataUpdaterTest {
                 .replaceMode(MetadataReplaceMode.REPLACE_ALL)
                 .build();
 
-        when(moodRepository.findByName("Mood1")).thenReturn(Optional.of(MoodEntity.builder().name("Mood1").build()));
+        when(metadataNameCache.moods(Set.of("Mood1"))).thenReturn(new HashSet<>(Set.of(MoodEntity.builder().name("Mood1").build())));
 
         bookMetadataUpdater.setBookMetadata(context);
 
@@ -250,7 +252,7 @@ class BookMetadataUpdaterTest {
                 .replaceMode(MetadataReplaceMode.REPLACE_ALL)
                 .build();
 
-        when(moodRepository.findByName("Mood3")).thenReturn(Optional.of(MoodEntity.builder().name("Mood3").build()));
+        when(metadataNameCache.moods(Set.of("Mood3"))).thenReturn(new HashSet<>(Set.of(MoodEntity.builder().name("Mood3").build())));
 
         bookMetadataUpdater.setBookMetadata(context);
 
@@ -4,6 +4,7 @@ import com.adityachandel.booklore.model.entity.*;
 import com.adityachandel.booklore.model.enums.MergeMetadataType;
 import com.adityachandel.booklore.repository.*;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.book.BookChangeService;
 import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
 import com.adityachandel.booklore.model.dto.settings.AppSettings;
 import com.adityachandel.booklore.model.dto.settings.MetadataPersistenceSettings;
@@ -43,6 +44,12 @@ class MetadataManagementServiceTest {
     AppSettingService appSettingService;
     @Mock
     MetadataWriterFactory metadataWriterFactory;
+    @Mock
+    MetadataWriteBackService metadataWriteBackService;
+    @Mock
+    BookChangeService bookChangeService;
+    @Mock
+    MetadataNameCache metadataNameCache;
 
     @InjectMocks
     MetadataManagementService service;
@@ -80,6 +87,7 @@ class MetadataManagementServiceTest {
         Set<AuthorEntity> authorsSet = new HashSet<>();
         authorsSet.add(oldAuthor);
         when(metadata.getAuthors()).thenReturn(authorsSet);
+        when(metadata.getBookId()).thenReturn(7L);
 
         when(bookMetadataRepository.findAllByAuthorsContaining(oldAuthor)).thenReturn(List.of(metadata));
 
@@ -91,6 +99,7 @@ class MetadataManagementServiceTest {
         verify(bookMetadataRepository).saveAll(bookListCaptor.capture());
         List<BookMetadataEntity> saved = bookListCaptor.getValue();
         assertThat(saved).containsExactly(metadata);
+        verify(bookChangeService).recordChanges(List.of(7L));
 
         verify(authorRepository).delete(oldAuthor);
     }
@@ -202,6 +211,7 @@ class MetadataManagementServiceTest {
         assertThat(tags).doesNotContain(tag);
         verify(tagRepository).delete(tag);
         verify(bookMetadataRepository).saveAll(bookListCaptor.capture());
+        verify(metadataNameCache).clear();
     }
 
     @Test
@@ -271,6 +281,7 @@ class MetadataManagementServiceTest {
         verify(metadata).setSeriesNumber(null);
         verify(metadata).setSeriesTotal(null);
         verify(bookMetadataRepository).saveAll(anyList());
+        verifyNoInteractions(metadataNameCache);
     }
 
     @Test
@@ -427,4 +438,36 @@ class MetadataManagementServiceTest {
         verify(tagRepository, never()).delete(argThat(t -> missing.equals(t.getName())));
         verify(bookMetadataRepository).saveAll(anyList());
     }
+
+    @Test
+    void mergeSeries_withSaveToFile_queuesWriteBackInsteadOfWritingInline() {
+        MetadataPersistenceSettings settings = new MetadataPersistenceSettings();
+        settings.setSaveToOriginalFile(true);
+        settings.setMoveFilesToLibraryPattern(true);
+        appSettingService.getAppSettings().setMetadataPersistenceSettings(settings);
+
+        BookEntity book = new BookEntity();
+        book.setId(11L);
+        BookMetadataEntity metadata = new BookMetadataEntity();
+        metadata.setBook(book);
+        when(bookMetadataRepository.findAllBySeriesNameIgnoreCase("Old Series")).thenReturn(List.of(metadata));
+
+        service.consolidateMetadata(MergeMetadataType.series, List.of("New Series"), List.of("Old Series"));
+
+        assertThat(metadata.getSeriesName()).isEqualTo("New Series");
+        verify(metadataWriteBackService).enqueue(List.of(11L), true);
+        verifyNoInteractions(metadataWriterFactory);
+    }
+
+    @Test
+    void deleteTags_withoutSaveToFile_doesNotQueueWriteBack() {
+        TagEntity tag = new TagEntity();
+        tag.setName("Tag");
+        when(tagRepository.findByNameIgnoreCase("Tag")).thenReturn(Optional.of(tag));
+        when(bookMetadataRepository.findAllByTagsContaining(tag)).thenReturn(List.of());
+
+        service.deleteMetadata(MergeMetadataType.tags, List.of("Tag"));
+
+        verifyNoInteractions(metadataWriteBackService);
+    }
 }
@@ -0,0 +1,161 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.model.entity.AuthorEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MetadataNameCacheTest {
+
+    private EntityManager entityManager;
+    private TypedQuery<Object[]> nameQuery;
+    private TypedQuery<AuthorEntity> loadQuery;
+    private SimpleMeterRegistry meterRegistry;
+    private MetadataNameCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        nameQuery = mock(TypedQuery.class);
+        loadQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(startsWith("SELECT e.id, e.name FROM AuthorEntity e WHERE e.name IN"), eq(Object[].class))).thenReturn(nameQuery);
+        when(entityManager.createQuery(startsWith("SELECT e FROM AuthorEntity e WHERE e.id IN"), eq(AuthorEntity.class))).thenReturn(loadQuery);
+        when(nameQuery.setParameter(anyString(), any())).thenReturn(nameQuery);
+        when(loadQuery.setParameter(anyString(), any())).thenReturn(loadQuery);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MetadataNameCache(entityManager, mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    private static AuthorEntity author(long id, String name) {
+        return AuthorEntity.builder().id(id).name(name).build();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("booklore.metadata.names.cache").tag("dimension", "authors").tag("result", result).counter().count();
+    }
+
+    @Test
+    void authors_shouldLookUpNamesOnceAndServeRepeatsFromCache() {
+        when(nameQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[]{1L, "Ursula K. Le Guin"}, new Object[]{2L, "Frank Herbert"}));
+        when(loadQuery.getResultList()).thenReturn(List.of(author(1L, "Ursula K. Le Guin"), author(2L, "Frank Herbert")));
+
+        Set<AuthorEntity> first = cache.authors(Set.of("Ursula K. Le Guin", "Frank Herbert"));
+        Set<AuthorEntity> second = cache.authors(Set.of("Frank Herbert", "Ursula K. Le Guin"));
+
+        assertThat(first).extracting(AuthorEntity::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(second).extracting(AuthorEntity::getId).containsExactlyInAnyOrder(1L, 2L);
+        verify(entityManager, times(1)).createQuery(startsWith("SELECT e.id, e.name"), eq(Object[].class));
+        verify(entityManager, never()).createNativeQuery(anyString());
+        assertThat(cacheCount("miss")).isEqualTo(2);
+        assertThat(cacheCount("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void clear_shouldForgetNamesOnceTheTransactionCommits() {
+        when(nameQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[]{1L, "Ursula K. Le Guin"}));
+        when(loadQuery.getResultList()).thenReturn(List.of(author(1L, "Ursula K. Le Guin")));
+        cache.authors(Set.of("Ursula K. Le Guin"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.clear();
+            assertThat(cache.cachedNames()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(cache.cachedNames()).isZero();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void authors_shouldCreateMissingNamesWithOneInsertIgnore() {
+        Query insert = mock(Query.class);
+        when(entityManager.createNativeQuery("INSERT IGNORE INTO author (name) VALUES (?1), (?2)")).thenReturn(insert);
+        when(insert.executeUpdate()).thenReturn(2);
+        when(nameQuery.getResultList())
+                .thenReturn(List.of())
+                .thenReturn(List.<Object[]>of(new Object[]{7L, "New One"}, new Object[]{8L, "New Two"}));
+        when(loadQuery.getResultList()).thenReturn(List.of(author(7L, "New One"), author(8L, "New Two")));
+
+        Set<AuthorEntity> authors = cache.authors(List.of("New One", "New Two", " ", "New One"));
+
+        assertThat(authors).extracting(AuthorEntity::getName).containsExactlyInAnyOrder("New One", "New Two");
+        verify(insert).setParameter(1, "New One");
+        verify(insert).setParameter(2, "New Two");
+        verify(nameQuery).setLockMode(LockModeType.PESSIMISTIC_READ);
+        assertThat(meterRegistry.get("booklore.metadata.names.created").tag("dimension", "authors").counter().count()).isEqualTo(2);
+        assertThat(cache.cachedNames()).isEqualTo(2);
+    }
+
+    @Test
+    void authors_shouldMatchStoredNameRegardlessOfCase() {
+        when(nameQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[]{3L, "J.R.R. Tolkien"}));
+        when(loadQuery.getResultList()).thenReturn(List.of(author(3L, "J.R.R. Tolkien")));
+
+        Set<AuthorEntity> authors = cache.authors(Set.of("j.r.r. tolkien"));
+
+        assertThat(authors).extracting(AuthorEntity::getId).containsExactly(3L);
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void authors_shouldKeepNamesTheCollationFoldsOntoAnExistingRow() {
+        Query insert = mock(Query.class);
+        when(entityManager.createNativeQuery("INSERT IGNORE INTO author (name) VALUES (?1)")).thenReturn(insert);
+        when(insert.executeUpdate()).thenReturn(0);
+        when(nameQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[]{5L, "José Saramago"}));
+        TypedQuery<Long> idQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(startsWith("SELECT e.id FROM AuthorEntity e WHERE e.name = :name"), eq(Long.class))).thenReturn(idQuery);
+        when(idQuery.setParameter(anyString(), any())).thenReturn(idQuery);
+        when(idQuery.setLockMode(any())).thenReturn(idQuery);
+        when(idQuery.setMaxResults(anyInt())).thenReturn(idQuery);
+        when(idQuery.getResultList()).thenReturn(List.of(5L));
+        when(loadQuery.getResultList()).thenReturn(List.of(author(5L, "José Saramago")));
+
+        Set<AuthorEntity> authors = cache.authors(List.of(" Jose Saramago  "));
+
+        assertThat(authors).extracting(AuthorEntity::getId).containsExactly(5L);
+        verify(insert).setParameter(1, "Jose Saramago");
+        verify(idQuery).setParameter("name", "Jose Saramago");
+    }
+
+    @Test
+    void authors_shouldResolveAgainWhenCachedIdWasDeleted() {
+        when(nameQuery.getResultList())
+                .thenReturn(List.<Object[]>of(new Object[]{4L, "Merged Away"}))
+                .thenReturn(List.<Object[]>of(new Object[]{9L, "Merged Away"}));
+        when(loadQuery.getResultList())
+                .thenReturn(List.of(author(4L, "Merged Away")))
+                .thenReturn(List.of())
+                .thenReturn(List.of(author(9L, "Merged Away")));
+
+        cache.authors(Set.of("Merged Away"));
+        Set<AuthorEntity> again = cache.authors(Set.of("Merged Away"));
+
+        assertThat(again).extracting(AuthorEntity::getId).containsExactly(9L);
+    }
+
+    @Test
+    void authors_shouldSkipQueriesForEmptyInput() {
+        assertThat(cache.authors(Set.of())).isEmpty();
+        assertThat(cache.authors(null)).isEmpty();
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,189 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.FileMoveResult;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.entity.MetadataWriteBackEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.MetadataWriteBackRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.file.FileMoveService;
+import com.adityachandel.booklore.service.metadata.writer.MetadataWriter;
+import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MetadataWriteBackServiceTest {
+
+    @TempDir
+    Path libraryRoot;
+
+    private MetadataWriteBackRepository writeBackRepository;
+    private BookRepository bookRepository;
+    private MetadataWriterFactory metadataWriterFactory;
+    private MetadataWriter writer;
+    private FileMoveService fileMoveService;
+    private MetadataWriteBackService service;
+
+    @BeforeEach
+    void setUp() {
+        writeBackRepository = mock(MetadataWriteBackRepository.class);
+        bookRepository = mock(BookRepository.class);
+        metadataWriterFactory = mock(MetadataWriterFactory.class);
+        writer = mock(MetadataWriter.class);
+        fileMoveService = mock(FileMoveService.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.setMetadataWriteBackWorkers(2);
+        service = new MetadataWriteBackService(writeBackRepository, bookRepository, metadataWriterFactory, fileMoveService,
+                mock(NotificationService.class), mock(PlatformTransactionManager.class), appProperties);
+        when(metadataWriterFactory.getWriter(BookFileType.EPUB)).thenReturn(Optional.of(writer));
+    }
+
+    private BookEntity book(long id) throws Exception {
+        Files.writeString(libraryRoot.resolve("book-" + id + ".epub"), "content " + id);
+        BookEntity book = new BookEntity();
+        book.setId(id);
+        book.setBookType(BookFileType.EPUB);
+        book.setLibraryPath(LibraryPathEntity.builder().path(libraryRoot.toString()).build());
+        book.setFileSubPath("");
+        book.setFileName("book-" + id + ".epub");
+        book.setMetadata(new BookMetadataEntity());
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+        return book;
+    }
+
+    private MetadataWriteBackEntity entry(long bookId, long revision, boolean moveFile) {
+        return MetadataWriteBackEntity.builder()
+                .bookId(bookId)
+                .revision(revision)
+                .moveFile(moveFile)
+                .enqueuedAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void drain_shouldWriteRehashAndDequeueEveryPendingBook() throws Exception {
+        BookEntity first = book(1L);
+        BookEntity second = book(2L);
+        when(writeBackRepository.findPending(eq(MetadataWriteBackService.MAX_ATTEMPTS), any(Instant.class), any()))
+                .thenReturn(List.of(entry(1L, 1, false), entry(2L, 4, false)))
+                .thenReturn(List.of());
+
+        service.drain();
+
+        verify(writer).writeMetadataToFile(any(File.class), same(first.getMetadata()), isNull(), isNull());
+        verify(writer).writeMetadataToFile(any(File.class), same(second.getMetadata()), isNull(), isNull());
+        assertThat(first.getCurrentHash()).isNotBlank();
+        assertThat(second.getCurrentHash()).isNotBlank();
+        verify(writeBackRepository).deleteProcessed(1L, 1);
+        verify(writeBackRepository).deleteProcessed(2L, 4);
+        verifyNoInteractions(fileMoveService);
+    }
+
+    @Test
+    void process_shouldCountTheSizeOfTheRewrittenFile() throws Exception {
+        book(6L);
+        LongAdder bytesWritten = new LongAdder();
+
+        boolean written = service.process(entry(6L, 1, false), new TransactionTemplate(mock(PlatformTransactionManager.class)), bytesWritten);
+
+        assertThat(written).isTrue();
+        assertThat(bytesWritten.sum()).isEqualTo(Files.size(libraryRoot.resolve("book-6.epub")));
+    }
+
+    @Test
+    void process_shouldMoveFileWhenRequested() throws Exception {
+        BookEntity book = book(3L);
+        when(fileMoveService.moveSingleFile(book)).thenReturn(FileMoveResult.builder()
+                .moved(true)
+                .newFileName("renamed.epub")
+                .newFileSubPath("Author")
+                .build());
+
+        boolean written = service.process(entry(3L, 2, true), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        assertThat(written).isTrue();
+        assertThat(book.getFileName()).isEqualTo("renamed.epub");
+        assertThat(book.getFileSubPath()).isEqualTo("Author");
+        verify(bookRepository).save(book);
+        verify(writeBackRepository).deleteProcessed(3L, 2);
+    }
+
+    @Test
+    void process_shouldKeepEntryAndRecordErrorWhenWriteFails() throws Exception {
+        book(4L);
+        doThrow(new IllegalStateException("disk full")).when(writer).writeMetadataToFile(any(), any(), any(), any());
+
+        boolean written = service.process(entry(4L, 5, false), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        assertThat(written).isFalse();
+        verify(writeBackRepository, never()).deleteProcessed(anyLong(), anyLong());
+        verify(writeBackRepository).markFailed(eq(4L), eq(5L), eq("disk full"), any(Instant.class));
+    }
+
+    @Test
+    void process_shouldDelayTheRetryLongerWithEveryFailedAttempt() throws Exception {
+        book(7L);
+        doThrow(new IllegalStateException("locked")).when(writer).writeMetadataToFile(any(), any(), any(), any());
+        MetadataWriteBackEntity entry = entry(7L, 1, false);
+        entry.setAttempts(1);
+        Instant before = Instant.now();
+
+        service.process(entry, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+        verify(writeBackRepository).markFailed(eq(7L), eq(1L), eq("locked"), retryAt.capture());
+        assertThat(retryAt.getValue()).isAfterOrEqualTo(before.plus(MetadataWriteBackService.RETRY_DELAY.multipliedBy(2)));
+        assertThat(MetadataWriteBackService.retryDelay(0)).isEqualTo(MetadataWriteBackService.RETRY_DELAY);
+    }
+
+    @Test
+    void retryDue_shouldDrainOnlyWhenAnEntryIsDue() {
+        when(writeBackRepository.findPending(eq(MetadataWriteBackService.MAX_ATTEMPTS), any(Instant.class), any())).thenReturn(List.of());
+
+        service.retryDue();
+
+        verify(writeBackRepository, times(1)).findPending(eq(MetadataWriteBackService.MAX_ATTEMPTS), any(Instant.class), any());
+    }
+
+    @Test
+    void pruneExhausted_shouldDeleteEntriesOutOfAttemptsAfterTheRetention() {
+        Instant before = Instant.now().minus(MetadataWriteBackService.EXHAUSTED_RETENTION);
+
+        service.pruneExhausted();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(writeBackRepository).deleteExhaustedBefore(eq(MetadataWriteBackService.MAX_ATTEMPTS), cutoff.capture());
+        assertThat(cutoff.getValue()).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void process_shouldDropEntryOfDeletedBook() {
+        when(bookRepository.findById(5L)).thenReturn(Optional.empty());
+
+        boolean written = service.process(entry(5L, 1, false), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        assertThat(written).isTrue();
+        verifyNoInteractions(writer);
+        verify(writeBackRepository).deleteProcessed(5L, 1);
+    }
+}
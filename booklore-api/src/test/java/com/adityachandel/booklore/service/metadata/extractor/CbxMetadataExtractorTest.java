@@ -126,6 +126,37 @@ class CbxMetadataExtractorTest {
         assertArrayEquals(aPng, cover);
     }
 
+    @Test
+    void extractCover_fromCbz_skipsCandidatesWithUnreadableHeader() throws Exception {
+        byte[] page = createTestImage(Color.ORANGE);
+
+        File cbz = createCbz("broken_cover.cbz", new LinkedHashMap<>() {{
+            put("cover.jpg", "not an image".getBytes(StandardCharsets.UTF_8));
+            put("001.jpg", page);
+        }});
+
+        byte[] cover = extractor.extractCover(cbz);
+        assertArrayEquals(page, cover);
+    }
+
+    @Test
+    void extractCover_fromCbz_subsamplesOversizedScan() throws Exception {
+        BufferedImage scan = new BufferedImage(3200, 100, BufferedImage.TYPE_INT_RGB);
+        byte[] scanBytes;
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            ImageIO.write(scan, "png", baos);
+            scanBytes = baos.toByteArray();
+        }
+
+        File cbz = createCbz("oversized.cbz", Map.of("001.png", scanBytes));
+
+        byte[] cover = extractor.extractCover(cbz);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(cover));
+        assertNotNull(decoded);
+        assertEquals(1600, decoded.getWidth());
+        assertEquals(50, decoded.getHeight());
+    }
+
     @Test
     void extractMetadata_nonArchive_fallbackTitle() throws Exception {
         Path txt = tempDir.resolve("Some Book Title.txt");
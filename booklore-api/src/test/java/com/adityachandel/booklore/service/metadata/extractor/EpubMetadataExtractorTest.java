@@ -441,6 +441,37 @@ class EpubMetadataExtractorTest {
             assertTrue(cover.length > 0);
             assertEquals(pngImage.length, cover.length);
         }
+
+        @Test
+        @DisplayName("Should fall back to the cover page referenced from the OPF guide")
+        void extractCover_guideCoverPage_returnsImageShownOnPage() throws Exception {
+            byte[] pngImage = createMinimalPngImage();
+            File epubFile = createEpubWithGuideCover(pngImage);
+
+            try (EpubArchive archive = EpubArchive.open(epubFile)) {
+                assertNotNull(archive);
+                assertEquals("OEBPS/images/front.png", archive.findCoverImagePath());
+                assertArrayEquals(pngImage, extractor.extractCover(archive));
+            }
+        }
+
+        @Test
+        @DisplayName("Should read metadata and cover from a single opened archive")
+        void extractFromSharedArchive_returnsMetadataAndCover() throws Exception {
+            byte[] pngImage = createMinimalPngImage();
+            File epubFile = createEpubWithCover(pngImage);
+
+            try (EpubArchive archive = EpubArchive.open(epubFile)) {
+                assertNotNull(archive);
+                assertEquals("OEBPS/cover.png", archive.findCoverImagePath());
+
+                BookMetadata metadata = extractor.extractMetadata(archive, epubFile.getName());
+                byte[] cover = extractor.extractCover(archive);
+
+                assertEquals("Book with Cover", metadata.getTitle());
+                assertArrayEquals(pngImage, cover);
+            }
+        }
     }
 
     @Nested
@@ -709,6 +740,57 @@ class EpubMetadataExtractorTest {
         return epubFile;
     }
 
+    private File createEpubWithGuideCover(byte[] coverImageData) throws IOException {
+        String opfContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <package xmlns="http://www.idpf.org/2007/opf" version="2.0">
+                <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                    <dc:title>Book with Guide Cover</dc:title>
+                </metadata>
+                <manifest>
+                    <item id="titlepage" href="text/titlepage.xhtml" media-type="application/xhtml+xml"/>
+                    <item id="img1" href="images/front.png" media-type="image/png"/>
+                </manifest>
+                <guide>
+                    <reference type="cover" title="Cover" href="text/titlepage.xhtml#start"/>
+                </guide>
+            </package>
+            """;
+        String coverPage = """
+            <html xmlns="http://www.w3.org/1999/xhtml"><body>
+                <div><img alt="" src="../images/front.png"/></div>
+            </body></html>
+            """;
+        String containerXml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+                <rootfiles>
+                    <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+                </rootfiles>
+            </container>
+            """;
+
+        File epubFile = tempDir.resolve("test-guide-cover-" + System.nanoTime() + ".epub").toFile();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(epubFile))) {
+            zos.putNextEntry(new ZipEntry("META-INF/container.xml"));
+            zos.write(containerXml.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("OEBPS/content.opf"));
+            zos.write(opfContent.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("OEBPS/text/titlepage.xhtml"));
+            zos.write(coverPage.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("OEBPS/images/front.png"));
+            zos.write(coverImageData);
+            zos.closeEntry();
+        }
+        return epubFile;
+    }
+
     private File createEpubWithPropertiesCover(byte[] coverImageData, String id, String href) throws IOException {
         String opfContent = String.format("""
             <?xml version="1.0" encoding="UTF-8"?>
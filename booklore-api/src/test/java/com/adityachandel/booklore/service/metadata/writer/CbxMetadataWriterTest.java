@@ -173,6 +173,54 @@ class CbxMetadataWriterTest {
         }
     }
 
+    @Test
+    void writeMetadataToFile_cbz_copiesPagesWithoutRecompressing() throws Exception {
+        Path out = tempDir.resolve("raw_copy.cbz");
+        byte[] page = "page-data ".repeat(5000).getBytes(StandardCharsets.UTF_8);
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(out.toFile()))) {
+            put(zos, "001.jpg", page);
+            put(zos, "002.jpg", page);
+        }
+        ZipEntry before;
+        try (ZipFile zip = new ZipFile(out.toFile())) {
+            before = zip.getEntry("001.jpg");
+        }
+
+        BookMetadataEntity meta = new BookMetadataEntity();
+        meta.setTitle("Raw Copy");
+        writer.writeMetadataToFile(out.toFile(), meta, null, new MetadataClearFlags());
+
+        try (ZipFile zip = new ZipFile(out.toFile())) {
+            ZipEntry after = zip.getEntry("001.jpg");
+            assertEquals(before.getCrc(), after.getCrc());
+            assertEquals(before.getCompressedSize(), after.getCompressedSize());
+            assertEquals("Raw Copy", text(parseXml(zip.getInputStream(zip.getEntry("ComicInfo.xml"))), "Title"));
+        }
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void writeMetadataToFile_cbz_dropsTraversingAndAbsoluteEntries() throws Exception {
+        Path out = tempDir.resolve("unsafe.cbz");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(out.toFile()))) {
+            put(zos, "001.jpg", new byte[]{1, 2, 3});
+            put(zos, "../escape.jpg", new byte[]{4});
+            put(zos, "/absolute.jpg", new byte[]{5});
+        }
+
+        BookMetadataEntity meta = new BookMetadataEntity();
+        meta.setTitle("Unsafe");
+        writer.writeMetadataToFile(out.toFile(), meta, null, new MetadataClearFlags());
+
+        try (ZipFile zip = new ZipFile(out.toFile())) {
+            Set<String> names = new HashSet<>();
+            zip.stream().forEach(entry -> names.add(entry.getName()));
+            assertEquals(Set.of("001.jpg", "ComicInfo.xml"), names);
+        }
+    }
+
     // ------------- helpers -------------
 
     private static File createCbz(Path path, String[] imageNames) throws Exception {
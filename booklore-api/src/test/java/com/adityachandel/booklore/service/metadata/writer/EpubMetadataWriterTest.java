@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.zip.CRC32;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -88,6 +89,40 @@ class EpubMetadataWriterTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming rewrite Tests")
+    class StreamingRewriteTests {
+
+        @Test
+        @DisplayName("Should copy untouched entries without recompressing and keep mimetype first")
+        void writeMetadata_copiesUntouchedEntriesRaw() throws IOException {
+            File epubFile = createEpubWithChapter("raw-copy.epub");
+            ZipEntry chapterBefore;
+            try (ZipFile zf = new ZipFile(epubFile)) {
+                chapterBefore = zf.getEntry("OEBPS/chapter.html");
+            }
+
+            writer.writeMetadataToFile(epubFile, metadata, null, new MetadataClearFlags());
+
+            try (ZipFile zf = new ZipFile(epubFile)) {
+                ZipEntry first = zf.entries().nextElement();
+                assertEquals("mimetype", first.getName());
+                assertEquals(ZipEntry.STORED, first.getMethod());
+
+                ZipEntry chapterAfter = zf.getEntry("OEBPS/chapter.html");
+                assertEquals(chapterBefore.getCrc(), chapterAfter.getCrc());
+                assertEquals(chapterBefore.getCompressedSize(), chapterAfter.getCompressedSize());
+
+                try (InputStream is = zf.getInputStream(zf.getEntry("OEBPS/content.opf"))) {
+                    assertTrue(new String(is.readAllBytes(), StandardCharsets.UTF_8).contains("Test Book"));
+                }
+            }
+            try (var files = Files.list(tempDir)) {
+                assertEquals(1, files.count(), "No temp files should be left next to the EPUB");
+            }
+        }
+    }
+
     @Nested
     @DisplayName("URL Decoding Tests")
     class UrlDecodingTests {
@@ -126,6 +161,56 @@ class EpubMetadataWriterTest {
         }
     }
 
+    private File createEpubWithChapter(String filename) throws IOException {
+        File epubFile = tempDir.resolve(filename).toFile();
+        String containerXml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+                <rootfiles>
+                    <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+                </rootfiles>
+            </container>
+            """;
+        String opfContent = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <package xmlns="http://www.idpf.org/2007/opf" version="3.0">
+                <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                    <dc:title>Old Title</dc:title>
+                </metadata>
+                <manifest>
+                    <item id="chapter" href="chapter.html" media-type="application/xhtml+xml"/>
+                </manifest>
+            </package>
+            """;
+        byte[] mimetype = "application/epub+zip".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(mimetype);
+
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(epubFile))) {
+            ZipEntry mimetypeEntry = new ZipEntry("mimetype");
+            mimetypeEntry.setMethod(ZipEntry.STORED);
+            mimetypeEntry.setSize(mimetype.length);
+            mimetypeEntry.setCompressedSize(mimetype.length);
+            mimetypeEntry.setCrc(crc.getValue());
+            zos.putNextEntry(mimetypeEntry);
+            zos.write(mimetype);
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("META-INF/container.xml"));
+            zos.write(containerXml.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("OEBPS/content.opf"));
+            zos.write(opfContent.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("OEBPS/chapter.html"));
+            zos.write("<p>Lorem ipsum dolor sit amet.</p>\n".repeat(2000).getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        return epubFile;
+    }
+
     private File createEpubWithOpf(String opfContent, String filename) throws IOException {
         File epubFile = tempDir.resolve(filename).toFile();
 
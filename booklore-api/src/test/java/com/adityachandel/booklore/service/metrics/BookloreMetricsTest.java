@@ -0,0 +1,94 @@
+package com.adityachandel.booklore.service.metrics;
+
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.model.websocket.Topic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookloreMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private BookloreMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new BookloreMetrics(registry);
+    }
+
+    @Test
+    void recordFileProcessed_tagsFormatAndOutcome() {
+        metrics.recordFileProcessed(metrics.startTimer(), BookFileType.EPUB, true);
+        metrics.recordFileProcessed(metrics.startTimer(), BookFileType.EPUB, true);
+        metrics.recordFileProcessed(metrics.startTimer(), BookFileType.PDF, false);
+
+        assertThat(registry.get("booklore.ingest.file").tags("format", "epub", "outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(registry.get("booklore.ingest.file").tags("format", "pdf", "outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFileProcessed_withoutFormat_usesUnknownTag() {
+        metrics.recordFileProcessed(metrics.startTimer(), null, true);
+
+        assertThat(registry.get("booklore.ingest.file").tag("format", "unknown").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordReaderCache_countsHitsAndMisses() {
+        metrics.recordReaderCache(BookFileType.CBX, true);
+        metrics.recordReaderCache(BookFileType.CBX, false);
+        metrics.recordReaderCache(BookFileType.CBX, true);
+
+        assertThat(registry.get("booklore.reader.cache").tags("format", "cbx", "result", "hit").counter().count()).isEqualTo(2);
+        assertThat(registry.get("booklore.reader.cache").tags("format", "cbx", "result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordMetadataFetch_distinguishesFoundEmptyAndError() {
+        metrics.recordMetadataFetch(metrics.startTimer(), MetadataProvider.Google, "search", true);
+        metrics.recordMetadataFetch(metrics.startTimer(), MetadataProvider.Google, "search", false);
+        metrics.recordMetadataFetch(metrics.startTimer(), MetadataProvider.Google, "top", null);
+
+        assertThat(registry.get("booklore.metadata.provider.fetch").tags("provider", "google", "outcome", "found").timer().count()).isEqualTo(1);
+        assertThat(registry.get("booklore.metadata.provider.fetch").tags("provider", "google", "outcome", "empty").timer().count()).isEqualTo(1);
+        assertThat(registry.get("booklore.metadata.provider.fetch").tags("operation", "top", "outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordKoboProxy_groupsStatusCodesByClass() {
+        metrics.recordKoboProxy(metrics.startTimer(), 200);
+        metrics.recordKoboProxy(metrics.startTimer(), 204);
+        metrics.recordKoboProxy(metrics.startTimer(), 503);
+        metrics.recordKoboProxy(metrics.startTimer(), 0);
+
+        assertThat(registry.get("booklore.kobo.proxy").tag("status", "2xx").timer().count()).isEqualTo(2);
+        assertThat(registry.get("booklore.kobo.proxy").tag("status", "5xx").timer().count()).isEqualTo(1);
+        assertThat(registry.get("booklore.kobo.proxy").tag("status", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.find("booklore.kobo.proxy").timers()).hasSize(3);
+    }
+
+    @Test
+    void recordKoboSync_tagsOutcome() {
+        metrics.recordKoboSync(metrics.startTimer(), true);
+        metrics.recordKoboSync(metrics.startTimer(), false);
+        metrics.recordKoboSyncFailure(metrics.startTimer());
+
+        assertThat(registry.get("booklore.kobo.sync").tag("outcome", "continue").timer().count()).isEqualTo(1);
+        assertThat(registry.get("booklore.kobo.sync").tag("outcome", "complete").timer().count()).isEqualTo(1);
+        assertThat(registry.get("booklore.kobo.sync").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordWebSocketFanOut_sumsRecipientsPerTopic() {
+        metrics.recordWebSocketFanOut(Topic.BOOK_ADD, 3);
+        metrics.recordWebSocketFanOut(Topic.BOOK_ADD, 2);
+
+        var summary = registry.get("booklore.websocket.fanout").tag("topic", "book_add").summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(5);
+    }
+}
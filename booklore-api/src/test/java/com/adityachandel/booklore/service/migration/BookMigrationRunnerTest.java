@@ -0,0 +1,153 @@
+package com.adityachandel.booklore.service.migration;
+
+import com.adityachandel.booklore.model.entity.AppMigrationEntity;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.repository.AppMigrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookMigrationRunnerTest {
+
+    @Mock
+    private AppMigrationRepository migrationRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookMigrationRunner runner;
+
+    private final List<AppMigrationEntity> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(migrationRepository.save(any(AppMigrationEntity.class))).thenAnswer(invocation -> {
+            AppMigrationEntity entity = invocation.getArgument(0);
+            saved.add(new AppMigrationEntity(entity.getKey(), entity.getExecutedAt(), entity.getDescription(), entity.getLastProcessedId(), entity.isCompleted()));
+            return entity;
+        });
+    }
+
+    @Test
+    void run_shouldSkipCompletedMigration() {
+        when(migrationRepository.findById("test")).thenReturn(Optional.of(new AppMigrationEntity("test", LocalDateTime.now(), "done")));
+        RecordingMigration migration = new RecordingMigration(10);
+
+        runner.run(migration);
+
+        assertTrue(migration.requestedAfterIds.isEmpty());
+        verify(migrationRepository, never()).save(any());
+    }
+
+    @Test
+    void run_shouldCheckpointEveryBatchAndMarkCompleted() {
+        when(migrationRepository.findById("test")).thenReturn(Optional.empty());
+        int total = BookMigrationRunner.BATCH_SIZE + 10;
+        RecordingMigration migration = new RecordingMigration(total);
+
+        runner.run(migration);
+
+        assertEquals(total, migration.applied.size());
+        assertEquals(List.of(0L, (long) BookMigrationRunner.BATCH_SIZE), migration.requestedAfterIds);
+        assertEquals(3, saved.size());
+        assertEquals(BookMigrationRunner.BATCH_SIZE, saved.get(0).getLastProcessedId());
+        assertFalse(saved.get(0).isCompleted());
+        assertEquals(total, saved.get(1).getLastProcessedId());
+        assertTrue(saved.get(2).isCompleted());
+    }
+
+    @Test
+    void run_shouldResumeAfterCheckpoint() {
+        when(migrationRepository.findById("test")).thenReturn(Optional.of(new AppMigrationEntity("test", LocalDateTime.now(), "partial", 7L, false)));
+        RecordingMigration migration = new RecordingMigration(12);
+
+        runner.run(migration);
+
+        assertEquals(List.of(7L), migration.requestedAfterIds);
+        assertEquals(5, migration.applied.size());
+        assertFalse(migration.applied.containsKey(7L));
+    }
+
+    @Test
+    void run_shouldSkipBooksThatFailOrReturnNull() {
+        when(migrationRepository.findById("test")).thenReturn(Optional.empty());
+        RecordingMigration migration = new RecordingMigration(6);
+        migration.failingId = 2L;
+        migration.unchangedId = 4L;
+
+        runner.run(migration);
+
+        assertEquals(List.of(1L, 3L, 5L, 6L), migration.applied.keySet().stream().sorted().toList());
+        assertTrue(saved.getLast().isCompleted());
+    }
+
+    private static class RecordingMigration implements BookMigration<String> {
+        private final long total;
+        private final List<Long> requestedAfterIds = new ArrayList<>();
+        private final Map<Long, String> applied = new ConcurrentHashMap<>();
+        private Long failingId;
+        private Long unchangedId;
+
+        RecordingMigration(long total) {
+            this.total = total;
+        }
+
+        @Override
+        public String key() {
+            return "test";
+        }
+
+        @Override
+        public String description() {
+            return "Test migration";
+        }
+
+        @Override
+        public List<Long> nextBookIds(long afterId, Pageable pageable) {
+            requestedAfterIds.add(afterId);
+            return LongStream.rangeClosed(afterId + 1, Math.min(total, afterId + pageable.getPageSize())).boxed().toList();
+        }
+
+        @Override
+        public List<BookEntity> loadBooks(List<Long> bookIds) {
+            return bookIds.stream().map(id -> BookEntity.builder().id(id).build()).toList();
+        }
+
+        @Override
+        public String compute(BookEntity book) {
+            if (book.getId().equals(failingId)) {
+                throw new IllegalStateException("unreadable");
+            }
+            return book.getId().equals(unchangedId) ? null : "hash-" + book.getId();
+        }
+
+        @Override
+        public void apply(Long bookId, String result) {
+            applied.put(bookId, result);
+        }
+    }
+}
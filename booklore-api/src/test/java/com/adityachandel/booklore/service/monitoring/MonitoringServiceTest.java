@@ -285,4 +285,71 @@ class MonitoringServiceTest {
         Map<Path, WatchKey> keys = (Map<Path, WatchKey>) keysField.get(service);
         assertTrue(keys.containsKey(dir));
     }
+
+    @Test
+    void handleFileChangeEvent_suppressedPath_isNotQueuedUntilReleaseGraceExpires() throws Exception {
+        Path watched = tmp.resolve("watched-suppressed");
+        Files.createDirectories(watched);
+        Path file = watched.resolve("imported.epub");
+        Files.writeString(file, "content");
+
+        Field pathToLibraryField = MonitoringService.class.getDeclaredField("pathToLibraryIdMap");
+        pathToLibraryField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        Map<Path,Long> map = (Map<Path,Long>) pathToLibraryField.get(service);
+        map.put(watched, 12L);
+
+        java.lang.reflect.Method startMethod = MonitoringService.class.getDeclaredMethod("startProcessingThread");
+        startMethod.setAccessible(true);
+        startMethod.invoke(service);
+
+        FileChangeEvent ev = mock(FileChangeEvent.class);
+        when(ev.getFilePath()).thenReturn(file);
+        doReturn(StandardWatchEventKinds.ENTRY_CREATE).when(ev).getEventKind();
+        when(ev.getWatchedFolder()).thenReturn(watched);
+
+        service.suppressPaths(List.of(file));
+        service.handleFileChangeEvent(ev);
+        verify(processor, timeout(500).times(0)).processFile(any(), anyLong(), anyString(), anyString());
+
+        service.releaseSuppressedPaths(List.of(file), 0);
+        TimeUnit.MILLISECONDS.sleep(5);
+        service.handleFileChangeEvent(ev);
+        verify(processor, timeout(2000)).processFile(eq(StandardWatchEventKinds.ENTRY_CREATE), eq(12L), eq(watched.toString()), eq(file.toString()));
+    }
+
+    @Test
+    void handleFileChangeEvent_pathSuppressedTwice_staysSuppressedUntilBothRelease() throws Exception {
+        Path watched = tmp.resolve("watched-shared");
+        Files.createDirectories(watched);
+        Path file = watched.resolve("shared.epub");
+        Files.writeString(file, "content");
+
+        Field pathToLibraryField = MonitoringService.class.getDeclaredField("pathToLibraryIdMap");
+        pathToLibraryField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        Map<Path,Long> map = (Map<Path,Long>) pathToLibraryField.get(service);
+        map.put(watched, 13L);
+
+        java.lang.reflect.Method startMethod = MonitoringService.class.getDeclaredMethod("startProcessingThread");
+        startMethod.setAccessible(true);
+        startMethod.invoke(service);
+
+        FileChangeEvent ev = mock(FileChangeEvent.class);
+        when(ev.getFilePath()).thenReturn(file);
+        doReturn(StandardWatchEventKinds.ENTRY_CREATE).when(ev).getEventKind();
+        when(ev.getWatchedFolder()).thenReturn(watched);
+
+        service.suppressPaths(List.of(file));
+        service.suppressPaths(List.of(file));
+        service.releaseSuppressedPaths(List.of(file), 0);
+        TimeUnit.MILLISECONDS.sleep(5);
+        service.handleFileChangeEvent(ev);
+        verify(processor, timeout(500).times(0)).processFile(any(), anyLong(), anyString(), anyString());
+
+        service.releaseSuppressedPaths(List.of(file), 0);
+        TimeUnit.MILLISECONDS.sleep(5);
+        service.handleFileChangeEvent(ev);
+        verify(processor, timeout(2000)).processFile(eq(StandardWatchEventKinds.ENTRY_CREATE), eq(13L), eq(watched.toString()), eq(file.toString()));
+    }
 }
@@ -0,0 +1,63 @@
+package com.adityachandel.booklore.service.opds;
+
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpdsEntryCacheTest {
+
+    private static final Instant ADDED_ON = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final OpdsEntryCache cache = new OpdsEntryCache();
+
+    private Book book(String title) {
+        return Book.builder()
+                .id(7L)
+                .bookType(BookFileType.PDF)
+                .addedOn(ADDED_ON)
+                .metadata(BookMetadata.builder()
+                        .title(title)
+                        .authors(Set.of("Ann & Bob"))
+                        .coverUpdatedOn(ADDED_ON)
+                        .build())
+                .build();
+    }
+
+    @Test
+    void get_shouldRenderEscapedEntry() {
+        String xml = cache.get(book("<Dune>")).xml();
+
+        assertThat(xml).startsWith("  <entry>\n");
+        assertThat(xml).contains("<title>&lt;Dune&gt;</title>");
+        assertThat(xml).contains("<author><name>Ann &amp; Bob</name></author>");
+        assertThat(xml).contains("<updated>2025-01-01T12:00:00Z</updated>");
+        assertThat(xml).contains("type=\"application/pdf\"");
+        assertThat(xml).contains("/api/v1/opds/7/cover?v=");
+        assertThat(xml).endsWith("  </entry>\n");
+    }
+
+    @Test
+    void get_shouldReuseFragmentWhileMetadataIsUnchanged() {
+        OpdsEntryCache.Entry first = cache.get(book("Dune"));
+        OpdsEntryCache.Entry second = cache.get(book("Dune"));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void get_shouldRerenderWhenMetadataChanges() {
+        OpdsEntryCache.Entry first = cache.get(book("Dune"));
+        OpdsEntryCache.Entry renamed = cache.get(book("Dune Messiah"));
+
+        assertThat(renamed).isNotSameAs(first);
+        assertThat(renamed.xml()).contains("Dune Messiah");
+        assertThat(renamed.fingerprint()).isNotEqualTo(first.fingerprint());
+        assertThat(cache.getCachedChars()).isEqualTo(renamed.xml().length());
+    }
+}
@@ -13,9 +13,6 @@ import com.adityachandel.booklore.service.MagicShelfService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 
 import java.time.Instant;
 import java.util.Collections;
@@ -43,7 +40,7 @@ class OpdsFeedServiceTest {
         opdsBookService = mock(OpdsBookService.class);
         magicShelfService = mock(MagicShelfService.class);
         magicShelfBookService = mock(MagicShelfBookService.class);
-        opdsFeedService = new OpdsFeedService(authenticationService, opdsBookService, magicShelfService, magicShelfBookService);
+        opdsFeedService = new OpdsFeedService(authenticationService, opdsBookService, magicShelfService, magicShelfBookService, new OpdsEntryCache());
         request = mock(HttpServletRequest.class);
     }
 
@@ -59,7 +56,7 @@ class OpdsFeedServiceTest {
 
     @Test
     void generateRootNavigation_shouldContainAllSections() {
-        String xml = opdsFeedService.generateRootNavigation(request);
+        String xml = opdsFeedService.generateRootNavigation(request).toXml();
         assertThat(xml).contains("All Books");
         assertThat(xml).contains("Recently Added");
         assertThat(xml).contains("Libraries");
@@ -77,7 +74,7 @@ class OpdsFeedServiceTest {
         Library lib = Library.builder().id(1L).name("Test Library").watch(false).build();
         when(opdsBookService.getAccessibleLibraries(TEST_USER_ID)).thenReturn(List.of(lib));
 
-        String xml = opdsFeedService.generateLibrariesNavigation(request);
+        String xml = opdsFeedService.generateLibrariesNavigation(request).toXml();
         assertThat(xml).contains("Test Library");
         assertThat(xml).contains("urn:booklore:library:1");
         assertThat(xml).contains("</feed>");
@@ -89,7 +86,7 @@ class OpdsFeedServiceTest {
         mockAuthenticatedUser();
         when(opdsBookService.getAccessibleLibraries(TEST_USER_ID)).thenReturn(Collections.emptyList());
 
-        String xml = opdsFeedService.generateLibrariesNavigation(request);
+        String xml = opdsFeedService.generateLibrariesNavigation(request).toXml();
         assertThat(xml).contains("</feed>");
     }
 
@@ -100,7 +97,7 @@ class OpdsFeedServiceTest {
         ShelfEntity shelfEntity = ShelfEntity.builder().id(5L).name("Favorites").build();
         when(opdsBookService.getUserShelves(TEST_USER_ID)).thenReturn(Collections.singletonList(shelfEntity));
 
-        String xml = opdsFeedService.generateShelvesNavigation(request);
+        String xml = opdsFeedService.generateShelvesNavigation(request).toXml();
         assertThat(xml).contains("Favorites");
         assertThat(xml).contains("urn:booklore:shelf:5");
         assertThat(xml).contains("</feed>");
@@ -112,14 +109,14 @@ class OpdsFeedServiceTest {
         mockAuthenticatedUser();
         when(opdsBookService.getUserShelves(TEST_USER_ID)).thenReturn(Collections.emptyList());
 
-        String xml = opdsFeedService.generateShelvesNavigation(request);
+        String xml = opdsFeedService.generateShelvesNavigation(request).toXml();
         assertThat(xml).contains("</feed>");
     }
 
     @Test
     void generateShelvesNavigation_shouldHandleNullUserDetails() {
         when(authenticationService.getOpdsUser()).thenReturn(null);
-        String xml = opdsFeedService.generateShelvesNavigation(request);
+        String xml = opdsFeedService.generateShelvesNavigation(request).toXml();
         assertThat(xml).contains("</feed>");
         verify(opdsBookService, never()).getUserShelves(any());
     }
@@ -152,18 +149,17 @@ class OpdsFeedServiceTest {
                         .build())
                 .build();
 
-        Page<Book> page = new PageImpl<>(List.of(book), PageRequest.of(0, 50), 1);
-        when(opdsBookService.getBooksPage(eq(TEST_USER_ID), any(), any(), any(), eq(0), eq(50))).thenReturn(page);
-        when(opdsBookService.applySortOrder(any(), any())).thenReturn(page);
+        OpdsBookPage page = new OpdsBookPage(List.of(book), null, 1L);
+        when(opdsBookService.getBooksPage(eq(TEST_USER_ID), any(), any(), any(), any(), any(), eq(0), eq(50))).thenReturn(page);
 
-        String xml = opdsFeedService.generateCatalogFeed(request);
+        String xml = opdsFeedService.generateCatalogFeed(request).toXml();
         assertThat(xml).contains("Book Title");
         assertThat(xml).contains("Author A");
         assertThat(xml).contains("Publisher X");
         assertThat(xml).contains("urn:booklore:book:10");
         assertThat(xml).contains("application/epub+zip");
         assertThat(xml).contains("</feed>");
-        verify(opdsBookService).getBooksPage(TEST_USER_ID, null, null, null, 0, 50);
+        verify(opdsBookService).getBooksPage(TEST_USER_ID, null, null, null, OpdsSortOrder.RECENT, null, 0, 50);
     }
 
     @Test
@@ -174,14 +170,73 @@ class OpdsFeedServiceTest {
         when(request.getRequestURI()).thenReturn("/api/v1/opds/catalog");
         when(request.getQueryString()).thenReturn(null);
 
-        Page<Book> page = new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 50), 0);
-        when(opdsBookService.getBooksPage(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(page);
-        when(opdsBookService.applySortOrder(any(), any())).thenReturn(page);
+        when(opdsBookService.getBooksPage(any(), any(), any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(OpdsBookPage.empty());
 
-        String xml = opdsFeedService.generateCatalogFeed(request);
+        String xml = opdsFeedService.generateCatalogFeed(request).toXml();
         assertThat(xml).contains("</feed>");
     }
 
+    @Test
+    void generateCatalogFeed_shouldLinkNextPageByCursor() {
+        mockAuthenticatedUser();
+
+        when(request.getParameter(anyString())).thenReturn(null);
+        when(request.getParameter("libraryId")).thenReturn("3");
+        when(request.getRequestURI()).thenReturn("/api/v1/opds/catalog");
+        when(request.getQueryString()).thenReturn("libraryId=3&page=1&size=50");
+
+        Book book = Book.builder()
+                .id(10L)
+                .bookType(BookFileType.EPUB)
+                .metadata(BookMetadata.builder().title("Book Title").build())
+                .build();
+        when(opdsBookService.getBooksPage(eq(TEST_USER_ID), any(), eq(3L), any(), any(), any(), eq(0), eq(50)))
+                .thenReturn(new OpdsBookPage(List.of(book), "abc", 120L));
+
+        String xml = opdsFeedService.generateCatalogFeed(request).toXml();
+
+        assertThat(xml).contains("<opensearch:totalResults>120</opensearch:totalResults>");
+        assertThat(xml).contains("<link rel=\"next\" href=\"/api/v1/opds/catalog?libraryId=3&amp;size=50&amp;after=abc\"");
+        assertThat(xml).contains("<link rel=\"first\" href=\"/api/v1/opds/catalog?libraryId=3&amp;size=50\"");
+        assertThat(xml).doesNotContain("rel=\"last\"");
+    }
+
+    @Test
+    void generateCatalogFeed_shouldPassCursorAndOmitUnknownTotal() {
+        mockAuthenticatedUser();
+
+        when(request.getParameter(anyString())).thenReturn(null);
+        when(request.getParameter("after")).thenReturn("abc");
+        when(request.getRequestURI()).thenReturn("/api/v1/opds/catalog");
+        when(request.getQueryString()).thenReturn("size=50&after=abc");
+        when(opdsBookService.getBooksPage(any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new OpdsBookPage(List.of(), null, null));
+
+        String xml = opdsFeedService.generateCatalogFeed(request).toXml();
+
+        verify(opdsBookService).getBooksPage(TEST_USER_ID, null, null, null, OpdsSortOrder.RECENT, "abc", 0, 50);
+        assertThat(xml).doesNotContain("totalResults");
+        assertThat(xml).doesNotContain("startIndex");
+        assertThat(xml).doesNotContain("rel=\"next\"");
+    }
+
+    @Test
+    void generateAuthorsNavigation_shouldPageNames() {
+        mockAuthenticatedUser();
+
+        when(request.getParameter(anyString())).thenReturn(null);
+        when(request.getRequestURI()).thenReturn("/api/v1/opds/authors");
+        when(request.getQueryString()).thenReturn(null);
+        when(opdsBookService.getDistinctAuthors(TEST_USER_ID, null, 100))
+                .thenReturn(new OpdsBookService.NamePage(List.of("Frank Herbert"), "Frank Herbert"));
+
+        String xml = opdsFeedService.generateAuthorsNavigation(request).toXml();
+
+        assertThat(xml).contains("Frank Herbert");
+        assertThat(xml).contains("/api/v1/opds/catalog?author=Frank+Herbert");
+        assertThat(xml).contains("<link rel=\"next\" href=\"/api/v1/opds/authors?size=100&amp;after=Frank+Herbert\"");
+    }
+
     @Test
     void generateRecentFeed_shouldReturnFeedWithBooks() {
         mockAuthenticatedUser();
@@ -198,15 +253,14 @@ class OpdsFeedServiceTest {
                 .metadata(BookMetadata.builder().title("Recent Book").build())
                 .build();
 
-        Page<Book> page = new PageImpl<>(List.of(book), PageRequest.of(0, 50), 1);
-        when(opdsBookService.getRecentBooksPage(eq(TEST_USER_ID), eq(0), eq(50))).thenReturn(page);
-        when(opdsBookService.applySortOrder(any(), any())).thenReturn(page);
+        OpdsBookPage page = new OpdsBookPage(List.of(book), null, 1L);
+        when(opdsBookService.getRecentBooksPage(eq(TEST_USER_ID), any(), eq(0), eq(50))).thenReturn(page);
 
-        String xml = opdsFeedService.generateRecentFeed(request);
+        String xml = opdsFeedService.generateRecentFeed(request).toXml();
         assertThat(xml).contains("Recent Book");
         assertThat(xml).contains("application/pdf");
         assertThat(xml).contains("</feed>");
-        verify(opdsBookService).getRecentBooksPage(TEST_USER_ID, 0, 50);
+        verify(opdsBookService).getRecentBooksPage(TEST_USER_ID, null, 0, 50);
     }
 
     @Test
@@ -217,11 +271,9 @@ class OpdsFeedServiceTest {
         when(request.getRequestURI()).thenReturn("/api/v1/opds/recent");
         when(request.getQueryString()).thenReturn(null);
 
-        Page<Book> page = new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 50), 0);
-        when(opdsBookService.getRecentBooksPage(any(), anyInt(), anyInt())).thenReturn(page);
-        when(opdsBookService.applySortOrder(any(), any())).thenReturn(page);
+        when(opdsBookService.getRecentBooksPage(any(), any(), anyInt(), anyInt())).thenReturn(OpdsBookPage.empty());
 
-        String xml = opdsFeedService.generateRecentFeed(request);
+        String xml = opdsFeedService.generateRecentFeed(request).toXml();
         assertThat(xml).contains("</feed>");
     }
 
@@ -238,7 +290,7 @@ class OpdsFeedServiceTest {
 
         when(opdsBookService.getRandomBooks(TEST_USER_ID, 25)).thenReturn(List.of(book));
 
-        String xml = opdsFeedService.generateSurpriseFeed(request);
+        String xml = opdsFeedService.generateSurpriseFeed(request).toXml();
         assertThat(xml).contains("Surprise Book");
         assertThat(xml).contains("urn:booklore:book:12");
         assertThat(xml).contains("</feed>");
@@ -250,10 +302,46 @@ class OpdsFeedServiceTest {
         mockAuthenticatedUser();
         when(opdsBookService.getRandomBooks(TEST_USER_ID, 25)).thenReturn(Collections.emptyList());
 
-        String xml = opdsFeedService.generateSurpriseFeed(request);
+        String xml = opdsFeedService.generateSurpriseFeed(request).toXml();
         assertThat(xml).contains("</feed>");
     }
 
+    @Test
+    void generateCatalogFeed_shouldKeepEtagAndBodyStableUntilABookChanges() {
+        mockAuthenticatedUser();
+
+        when(request.getParameter(anyString())).thenReturn(null);
+        when(request.getRequestURI()).thenReturn("/api/v1/opds/catalog");
+        when(request.getQueryString()).thenReturn(null);
+
+        Book book = Book.builder()
+                .id(10L)
+                .bookType(BookFileType.EPUB)
+                .addedOn(FIXED_INSTANT)
+                .metadata(BookMetadata.builder().title("Book Title").build())
+                .build();
+        Book renamed = Book.builder()
+                .id(10L)
+                .bookType(BookFileType.EPUB)
+                .addedOn(FIXED_INSTANT)
+                .metadata(BookMetadata.builder().title("Other Title").build())
+                .build();
+        when(opdsBookService.getBooksPage(any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new OpdsBookPage(List.of(book), null, 1L))
+                .thenReturn(new OpdsBookPage(List.of(book), null, 1L))
+                .thenReturn(new OpdsBookPage(List.of(renamed), null, 1L));
+
+        OpdsFeed first = opdsFeedService.generateCatalogFeed(request);
+        OpdsFeed second = opdsFeedService.generateCatalogFeed(request);
+        OpdsFeed changed = opdsFeedService.generateCatalogFeed(request);
+
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(second.updated()).isEqualTo(first.updated());
+        assertThat(second.toXml()).isEqualTo(first.toXml());
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+        assertThat(changed.toXml()).contains("Other Title");
+    }
+
     @Test
     void getOpenSearchDescription_shouldReturnValidXml() {
         String xml = opdsFeedService.getOpenSearchDescription();
@@ -263,13 +351,10 @@ class OpdsFeedServiceTest {
     }
 
     @Test
-    void escapeXml_shouldEscapeSpecialCharacters() throws Exception {
-        var method = OpdsFeedService.class.getDeclaredMethod("escapeXml", String.class);
-        method.setAccessible(true);
+    void escapeXml_shouldEscapeSpecialCharacters() {
         String input = "a&b<c>d\"e'f";
         String expected = "a&amp;b&lt;c&gt;d&quot;e&apos;f";
-        String result = (String) method.invoke(opdsFeedService, input);
-        assertThat(result).isEqualTo(expected);
+        assertThat(OpdsFeedWriter.escape(input)).isEqualTo(expected);
     }
 
     @Test
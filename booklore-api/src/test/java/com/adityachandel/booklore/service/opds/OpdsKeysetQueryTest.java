@@ -0,0 +1,90 @@
+package com.adityachandel.booklore.service.opds;
+
+import com.adityachandel.booklore.exception.APIException;
+import com.adityachandel.booklore.model.enums.OpdsSortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpdsKeysetQueryTest {
+
+    @Test
+    void cursor_shouldRoundTripSeriesKeysWithNulls() {
+        List<OpdsKeysetQuery.SortKey> keys = OpdsKeysetQuery.sortKeys(OpdsSortOrder.SERIES_ASC);
+        List<Object> values = Arrays.asList(0, "the expanse", 1, null, 42L);
+
+        String cursor = OpdsKeysetQuery.encodeCursor(values);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(OpdsKeysetQuery.decodeCursor(cursor, keys)).containsExactly(0, "the expanse", 1, null, 42L);
+    }
+
+    @Test
+    void cursor_shouldRoundTripRecentKeys() {
+        List<OpdsKeysetQuery.SortKey> keys = OpdsKeysetQuery.sortKeys(OpdsSortOrder.RECENT);
+        Instant addedOn = Instant.parse("2025-01-01T12:00:00.123Z");
+
+        String cursor = OpdsKeysetQuery.encodeCursor(List.of(addedOn, 7L));
+
+        assertThat(OpdsKeysetQuery.decodeCursor(cursor, keys)).containsExactly(addedOn, 7L);
+    }
+
+    @Test
+    void cursor_shouldKeepEmptyStringApartFromNull() {
+        List<OpdsKeysetQuery.SortKey> keys = OpdsKeysetQuery.sortKeys(OpdsSortOrder.AUTHOR_DESC);
+
+        String cursor = OpdsKeysetQuery.encodeCursor(List.of("", 3L));
+
+        assertThat(OpdsKeysetQuery.decodeCursor(cursor, keys)).containsExactly("", 3L);
+    }
+
+    @Test
+    void decodeCursor_shouldRejectCursorOfOtherSortOrder() {
+        String cursor = OpdsKeysetQuery.encodeCursor(List.of("dune", 3L));
+
+        assertThatThrownBy(() -> OpdsKeysetQuery.decodeCursor(cursor, OpdsKeysetQuery.sortKeys(OpdsSortOrder.SERIES_ASC)))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> OpdsKeysetQuery.decodeCursor(cursor, OpdsKeysetQuery.sortKeys(OpdsSortOrder.RATING_DESC)))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void decodeCursor_shouldRejectGarbage() {
+        assertThatThrownBy(() -> OpdsKeysetQuery.decodeCursor("!!!", OpdsKeysetQuery.sortKeys(OpdsSortOrder.RECENT)))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void sortKeys_shouldEndWithIdTieBreaker() {
+        for (OpdsSortOrder order : OpdsSortOrder.values()) {
+            OpdsKeysetQuery.SortKey last = OpdsKeysetQuery.sortKeys(order).getLast();
+            assertThat(last.attribute()).isIn("id", "bookId");
+            assertThat(last.nullable()).isFalse();
+        }
+    }
+
+    @Test
+    void sortKeys_shouldOrderEveryKeyInOneDirectionOnOneTable() {
+        for (OpdsSortOrder order : OpdsSortOrder.values()) {
+            List<OpdsKeysetQuery.SortKey> keys = OpdsKeysetQuery.sortKeys(order);
+            OpdsKeysetQuery.SortKey first = keys.getFirst();
+            assertThat(keys).allSatisfy(key -> {
+                assertThat(key.ascending()).as("%s %s", order, key.attribute()).isEqualTo(first.ascending());
+                assertThat(key.metadata()).as("%s %s", order, key.attribute()).isEqualTo(first.metadata());
+            });
+        }
+    }
+
+    @Test
+    void sortKeys_shouldLeadAscendingNullableKeysWithMissingFlag() {
+        assertThat(OpdsKeysetQuery.sortKeys(OpdsSortOrder.SERIES_ASC)).extracting(OpdsKeysetQuery.SortKey::attribute)
+                .containsExactly("seriesMissing", "seriesSort", "seriesNumberMissing", "seriesNumber", "bookId");
+        assertThat(OpdsKeysetQuery.sortKeys(OpdsSortOrder.RATING_DESC)).extracting(OpdsKeysetQuery.SortKey::attribute)
+                .containsExactly("ratingSort", "bookId");
+    }
+}
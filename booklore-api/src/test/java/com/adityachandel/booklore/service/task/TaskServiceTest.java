@@ -10,6 +10,7 @@ import com.adityachandel.booklore.model.dto.response.TaskCreateResponse;
 import com.adityachandel.booklore.model.enums.TaskType;
 import com.adityachandel.booklore.task.tasks.Task;
 import com.adityachandel.booklore.task.TaskCancellationManager;
+import com.adityachandel.booklore.task.TaskResourceScheduler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -57,7 +58,8 @@ class TaskServiceTest {
                 cancellationManager,
                 taskExecutor,
                 objectMapper,
-                taskScheduler
+                taskScheduler,
+                new TaskResourceScheduler()
         );
     }
 
@@ -144,7 +146,8 @@ class TaskServiceTest {
                 cancellationManager,
                 taskExecutor,
                 objectMapper,
-                taskScheduler
+                taskScheduler,
+                new TaskResourceScheduler()
         );
 
         BookLoreUser user = new BookLoreUser();
@@ -185,7 +188,8 @@ class TaskServiceTest {
                 cancellationManager,
                 taskExecutor,
                 objectMapper,
-                taskScheduler
+                taskScheduler,
+                new TaskResourceScheduler()
         );
 
         BookLoreUser user = new BookLoreUser();
@@ -0,0 +1,169 @@
+package com.adityachandel.booklore.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskResourceSchedulerTest {
+
+    private final TaskResourceScheduler scheduler = new TaskResourceScheduler();
+
+    @Test
+    void acquire_shouldLimitConcurrencyPerResourceClass() throws Exception {
+        int permits = TaskResourceClass.NETWORK.getDefaultPermits();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            Thread.ofVirtual().start(() -> {
+                try (TaskResourceScheduler.Permit ignored = scheduler.acquire(TaskResourceClass.NETWORK, TaskPriority.USER, () -> false)) {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(permits, maxRunning.get());
+    }
+
+    @Test
+    void acquire_shouldServeHigherPriorityWaitersFirst() throws Exception {
+        TaskResourceScheduler.Permit held = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+        List<TaskPriority> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        List<TaskPriority> arrivals = List.of(TaskPriority.BACKGROUND, TaskPriority.USER, TaskPriority.INTERACTIVE);
+        for (int i = 0; i < arrivals.size(); i++) {
+            TaskPriority priority = arrivals.get(i);
+            Thread.ofVirtual().start(() -> {
+                try (TaskResourceScheduler.Permit ignored = scheduler.acquire(TaskResourceClass.DISK_IO, priority, () -> false)) {
+                    order.add(priority);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            awaitWaiting(TaskResourceClass.DISK_IO, i + 1);
+        }
+
+        held.close();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(TaskPriority.INTERACTIVE, TaskPriority.USER, TaskPriority.BACKGROUND), order);
+    }
+
+    @Test
+    void acquire_shouldGiveUpWhenAbandoned() throws Exception {
+        TaskResourceScheduler.Permit held = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean gotPermit = new AtomicBoolean(true);
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                gotPermit.set(scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, cancelled::get) != null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+        awaitWaiting(TaskResourceClass.DISK_IO, 1);
+        cancelled.set(true);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(gotPermit.get());
+        assertEquals(0, scheduler.getWaiting(TaskResourceClass.DISK_IO));
+        held.close();
+    }
+
+    @Test
+    void close_shouldReleaseOnlyOnce() throws Exception {
+        TaskResourceScheduler.Permit permit = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+        permit.close();
+        permit.close();
+
+        TaskResourceScheduler.Permit first = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+        AtomicBoolean secondAcquired = new AtomicBoolean();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (TaskResourceScheduler.Permit ignored = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false)) {
+                secondAcquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitWaiting(TaskResourceClass.DISK_IO, 1);
+        assertFalse(secondAcquired.get());
+
+        first.close();
+        waiter.join(5000);
+        assertTrue(secondAcquired.get());
+    }
+
+    @Test
+    void acquire_shouldReturnNullOnceTheTimeoutPasses() throws Exception {
+        TaskResourceScheduler.Permit held = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+
+        assertNull(scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, Duration.ofMillis(50)));
+        assertEquals(0, scheduler.getWaiting(TaskResourceClass.DISK_IO));
+
+        held.close();
+        try (TaskResourceScheduler.Permit permit = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, Duration.ofMillis(50))) {
+            assertNotNull(permit);
+        }
+    }
+
+    @Test
+    void suspend_shouldLetOtherTasksRunUntilResumed() throws Exception {
+        TaskResourceScheduler.Permit paused = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, () -> false);
+        paused.suspend();
+
+        TaskResourceScheduler.Permit other = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, Duration.ofMillis(50));
+        assertNotNull(other);
+
+        AtomicBoolean resumed = new AtomicBoolean();
+        Thread resumer = Thread.ofVirtual().start(() -> {
+            try {
+                resumed.set(paused.resume(() -> false));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitWaiting(TaskResourceClass.DISK_IO, 1);
+        assertFalse(resumed.get());
+
+        other.close();
+        resumer.join(5000);
+        assertTrue(resumed.get());
+        assertNull(scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, Duration.ofMillis(50)));
+
+        paused.close();
+        paused.close();
+        try (TaskResourceScheduler.Permit permit = scheduler.acquire(TaskResourceClass.DISK_IO, TaskPriority.USER, Duration.ofMillis(50))) {
+            assertNotNull(permit);
+        }
+    }
+
+    private void awaitWaiting(TaskResourceClass resourceClass, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getWaiting(resourceClass) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.adityachandel.booklore.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageScalerTest {
+
+    @Test
+    void scale_matchesAreaAveragingReferenceOnSmoothImage() {
+        BufferedImage source = gradient(1600, 2400);
+
+        BufferedImage scaled = ImageScaler.scale(source, 250, 350);
+        BufferedImage reference = areaAveraged(source, 250, 350);
+
+        assertTrue(meanAbsoluteError(scaled, reference) < 3.0,
+                "Scaled image should stay close to the area-averaged reference");
+    }
+
+    @Test
+    void scale_doesNotAliasFineDetail() {
+        BufferedImage source = checkerboard(1000, 1500);
+
+        BufferedImage scaled = ImageScaler.scale(source, 250, 350);
+        BufferedImage nearest = nearestNeighbour(source, 250, 350);
+        BufferedImage reference = areaAveraged(source, 250, 350);
+
+        double scaledError = meanAbsoluteError(scaled, reference);
+        assertTrue(scaledError < 5.0, "One pixel checkerboard should average to grey, error was " + scaledError);
+        assertTrue(scaledError < meanAbsoluteError(nearest, reference) / 10);
+    }
+
+    @Test
+    void scale_flattensTransparencyOntoWhite() {
+        BufferedImage source = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage scaled = ImageScaler.scale(source, 10, 10);
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, scaled.getType());
+        assertEquals(0xFFFFFF, scaled.getRGB(5, 5) & 0xFFFFFF);
+    }
+
+    @Test
+    void scale_handlesCroppedSubimage() {
+        BufferedImage source = gradient(400, 600);
+        BufferedImage cropped = source.getSubimage(100, 200, 200, 300);
+
+        BufferedImage scaled = ImageScaler.scale(cropped, 100, 150);
+
+        assertTrue(meanAbsoluteError(scaled, areaAveraged(cropped, 100, 150)) < 3.0);
+    }
+
+    @Test
+    void read_subsamplesLargeSourcesButKeepsHeadroom() throws IOException {
+        byte[] png = encode(gradient(4000, 6000));
+
+        BufferedImage decoded = ImageScaler.read(new ByteArrayInputStream(png), 1000, 1500);
+
+        assertNotNull(decoded);
+        assertEquals(2000, decoded.getWidth());
+        assertEquals(3000, decoded.getHeight());
+    }
+
+    @Test
+    void read_returnsNullForUnknownData() throws IOException {
+        assertNull(ImageScaler.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), 100, 100));
+    }
+
+    @Test
+    void subsamplingFactor_neverDropsBelowTwiceTheTarget() {
+        assertEquals(1, ImageScaler.subsamplingFactor(1999, 5000, 1000, 1500));
+        assertEquals(2, ImageScaler.subsamplingFactor(4000, 6000, 1000, 1500));
+        assertEquals(3, ImageScaler.subsamplingFactor(6500, 9100, 1000, 1500));
+    }
+
+    private static BufferedImage gradient(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = x * 255 / (width - 1);
+                int g = y * 255 / (height - 1);
+                int b = (x + y) * 255 / (width + height - 2);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage checkerboard(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, ((x + y) & 1) == 0 ? 0xFFFFFF : 0x000000);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage areaAveraged(BufferedImage source, int width, int height) {
+        Image scaled = source.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING);
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        return result;
+    }
+
+    private static BufferedImage nearestNeighbour(BufferedImage source, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return result;
+    }
+
+    private static double meanAbsoluteError(BufferedImage a, BufferedImage b) {
+        long total = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                total += Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF))
+                        + Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF))
+                        + Math.abs((p & 0xFF) - (q & 0xFF));
+            }
+        }
+        return (double) total / (a.getWidth() * a.getHeight() * 3);
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}